@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.cityquiz
+
+import kotlin.math.abs
+import kotlin.math.ceil
+import kotlin.math.cos
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sin
+import kotlin.math.sqrt
+
+/**
+ * Finds the nearest neighbours of a set of locations without sorting all of them.
+ *
+ * Each location is stored as a point on the unit sphere, bucketed into a uniform grid over the cube
+ * around the sphere. The straight-line distance between two such points grows with the great-circle
+ * distance between the locations, so neighbours can be found by searching the grid outwards from a
+ * location's cell, one shell of cells at a time, and compared with a dot product instead of trig.
+ */
+internal class CityIndex(latitudes: DoubleArray, longitudes: DoubleArray) {
+
+    val size = latitudes.size
+
+    private val xs = DoubleArray(size)
+    private val ys = DoubleArray(size)
+    private val zs = DoubleArray(size)
+
+    /** Cells per axis, chosen so that a cell holds about one location. */
+    private val resolution = max(1, min(MAX_RESOLUTION, ceil(sqrt(size / 4.0)).toInt()))
+    private val cellSize = 2.0 / resolution
+
+    /** Sorted keys of the non-empty cells. */
+    private val cellKeys: IntArray
+    /** Locations of cell i are cellItems[cellStarts[i] until cellStarts[i + 1]]. */
+    private val cellStarts: IntArray
+    private val cellItems = IntArray(size)
+
+    init {
+        require(longitudes.size == size) { "Got ${longitudes.size} longitudes for $size latitudes" }
+        val sorted = LongArray(size)
+        for (i in 0 until size) {
+            val lat = Math.toRadians(latitudes[i])
+            val lng = Math.toRadians(longitudes[i])
+            xs[i] = cos(lat) * cos(lng)
+            ys[i] = cos(lat) * sin(lng)
+            zs[i] = sin(lat)
+            sorted[i] = (key(cell(xs[i]), cell(ys[i]), cell(zs[i])).toLong() shl 32) or i.toLong()
+        }
+        sorted.sort()
+
+        val keys = IntArray(size)
+        val starts = IntArray(size + 1)
+        var cells = 0
+        for (j in 0 until size) {
+            val key = (sorted[j] ushr 32).toInt()
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key
+                starts[cells] = j
+                cells++
+            }
+            cellItems[j] = sorted[j].toInt()
+        }
+        starts[cells] = size
+        cellKeys = keys.copyOf(cells)
+        cellStarts = starts.copyOf(cells + 1)
+    }
+
+    /**
+     * Returns the indices of the (up to) count locations nearest to the location at index, nearest
+     * first. The location itself is never included, but other locations at the same place are.
+     */
+    fun nearest(index: Int, count: Int): IntArray {
+        val x = xs[index]
+        val y = ys[index]
+        val z = zs[index]
+        val cx = cell(x)
+        val cy = cell(y)
+        val cz = cell(z)
+
+        val best = IntArray(count)
+        // Squared straight-line distances of best.
+        val bestDistances = DoubleArray(count)
+        var found = 0
+        var shell = 0
+        while (shell < resolution) {
+            for (i in max(0, cx - shell)..min(resolution - 1, cx + shell)) {
+                for (j in max(0, cy - shell)..min(resolution - 1, cy + shell)) {
+                    val onFace = abs(i - cx) == shell || abs(j - cy) == shell
+                    // Only visit the cells on the surface of this shell; the inside is done.
+                    val step = if (onFace) 1 else 2 * shell
+                    var k = cz - shell
+                    while (k <= cz + shell) {
+                        val c = if (k in 0 until resolution) {
+                            cellKeys.binarySearch(key(i, j, k))
+                        } else {
+                            -1
+                        }
+                        val end = if (c < 0) 0 else cellStarts[c + 1]
+                        for (p in (if (c < 0) 0 else cellStarts[c]) until end) {
+                            val item = cellItems[p]
+                            if (item == index) {
+                                continue
+                            }
+                            // |a - b|² = 2 - 2 a·b for unit vectors.
+                            val d = 2 - 2 * (x * xs[item] + y * ys[item] + z * zs[item])
+                            if (found < count) {
+                                found++
+                            } else if (d >= bestDistances[count - 1]) {
+                                continue
+                            }
+                            var slot = found - 1
+                            while (slot > 0 && bestDistances[slot - 1] > d) {
+                                best[slot] = best[slot - 1]
+                                bestDistances[slot] = bestDistances[slot - 1]
+                                slot--
+                            }
+                            best[slot] = item
+                            bestDistances[slot] = d
+                        }
+                        k += step
+                    }
+                }
+            }
+            // Anything outside the shells searched so far is at least this far away.
+            val reach = shell * cellSize
+            if (found == count && bestDistances[count - 1] <= reach * reach) {
+                break
+            }
+            shell++
+        }
+        return if (found == count) best else best.copyOf(found)
+    }
+
+    private fun cell(coordinate: Double) =
+            min(resolution - 1, ((coordinate + 1) / cellSize).toInt())
+
+    private fun key(i: Int, j: Int, k: Int) = (i * resolution + j) * resolution + k
+
+    companion object {
+        /** Keeps cell keys within an int, and is far more cells than there will ever be cities. */
+        private const val MAX_RESOLUTION = 256
+    }
+}
@@ -1,31 +0,0 @@
-/*
- * Copyright 2019. Google LLC
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     https://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.google.android.apps.santatracker.cityquiz
-
-import com.google.maps.android.SphericalUtil
-import java.util.Comparator
-
-/** Compare the distance between two Cities and the City of this comparator.  */
-class CityLocationComparator(private val city: City) : Comparator<City> {
-    override fun compare(c1: City, c2: City): Int {
-        val dist1 = SphericalUtil.computeDistanceBetween(
-                city.correctLocation, c1.correctLocation)
-        val dist2 = SphericalUtil.computeDistanceBetween(
-                city.correctLocation, c2.correctLocation)
-        return dist1.compareTo(dist2)
-    }
-}
@@ -18,79 +18,105 @@ package com.google.android.apps.santatracker.cityquiz
 
 import android.content.Context
 import com.google.android.apps.santatracker.util.SantaLog
+import com.google.android.gms.maps.model.LatLng
 import org.json.JSONArray
 import org.json.JSONException
 import java.util.ArrayList
+import java.util.HashSet
+import java.util.Random
 
 /** Utility class to assist with loading city data into City Quiz Games.  */
 object CityQuizUtil {
     private const val TAG = "CityQuizUtil"
 
+    private val random = Random()
+
+    /** Cities from the json file, parsed once and kept for later games. Guarded by this. */
+    private var cityTable: CityTable? = null
+
     /**
      * Retrieve a random list of cities.
      *
+     * Only the returned cities have their names resolved and their fake locations picked, so this
+     * doesn't get slower with the number of cities once they have been loaded.
+     *
      * @param amountOfCities Max number of cities to retrieve.
      * @return Random list of cities. If amountOfCities is more than the amount of cities available, all cities
      * are returned.
      */
     fun getCities(context: Context, amountOfCities: Int): List<City> {
-        val allCities = getCities(context)
-        allCities.shuffle()
-        // Only return the cities that will be used in the game.
-        return allCities.subList(0, amountOfCities.coerceAtMost(allCities.size))
+        val table = getCityTable(context)
+        return pickRandom(table.size, amountOfCities).map { i -> createCity(context, table, i) }
     }
 
-    private fun getCities(context: Context): MutableList<City> {
-        val cities = ArrayList<City>()
-        val jCities = getCitiesFromFile(context)
+    private fun createCity(context: Context, table: CityTable, index: Int): City {
+        val entry = table.entries[index]
+        val cityNameResourceId = context.resources
+                .getIdentifier(entry.name, "string", context.packageName)
 
-        for (i in 0 until jCities.length()) {
-            try {
-                val jCity = jCities.getJSONObject(i)
-                val lat = jCity.getDouble("lat")
-                val lng = jCity.getDouble("lng")
-                val cityResourceName = jCity.getString("name")
-                val cityNameResourceId = context.resources
-                        .getIdentifier(cityResourceName, "string", context.packageName)
-
-                // Check if city name string resource is found.
-                val cityName = if (cityNameResourceId != 0) {
-                    // Use string resource for city name.
-                    context.resources.getString(cityNameResourceId)
-                } else {
-                    // Use default English city name.
-                    jCity.getString("default_name")
-                }
-
-                val imageUrl = jCity.getString("image_name")
-                val imageAuthor = jCity.getString("image_author")
-                val city = City(lat, lng, imageUrl, imageAuthor, cityName)
-                cities.add(city)
-            } catch (e: JSONException) {
-                SantaLog.e(TAG, "Unable to get city from json, $e")
-            }
+        // Check if city name string resource is found.
+        val cityName = if (cityNameResourceId != 0) {
+            // Use string resource for city name.
+            context.resources.getString(cityNameResourceId)
+        } else {
+            // Use default English city name.
+            entry.defaultName
         }
+        val city = City(entry.lat, entry.lng, entry.imageName, entry.imageAuthor, cityName)
 
         // Check if there are enough cities to set fake ones.
-        if (cities.size > 3) {
-            // Set fake locations for each city.
-            val tempCities = ArrayList(cities)
+        if (table.size > 3) {
+            // Get the closest three cities, excluding the current city.
+            val closestCities = table.index.nearest(index, 3).toMutableList()
+            closestCities.shuffle()
 
-            for (city in cities) {
-                // Sort tempCities in order of closest to the current city.
-                tempCities.sortWith(CityLocationComparator(city))
+            // Choose the first two of the three cities from the closestCities list.
+            city.incorrectLocationOne = table.entries[closestCities[0]].location
+            city.incorrectLocationTwo = table.entries[closestCities[1]].location
+        }
+        return city
+    }
 
-                // Get the closest three cities, excluding the current city.
-                val closestCities = tempCities.subList(1, 4)
-                closestCities.shuffle()
+    /** Returns count distinct random indices below size, in random order, or all of them. */
+    private fun pickRandom(size: Int, count: Int): List<Int> {
+        if (count >= size) {
+            return (0 until size).shuffled(random)
+        }
+        // Floyd's algorithm, so that only count indices are ever drawn.
+        val picked = HashSet<Int>(count * 2)
+        for (j in size - count until size) {
+            val i = random.nextInt(j + 1)
+            picked.add(if (picked.contains(i)) j else i)
+        }
+        return picked.shuffled(random)
+    }
+
+    @Synchronized
+    private fun getCityTable(context: Context): CityTable {
+        cityTable?.let { return it }
+
+        val entries = ArrayList<CityEntry>()
+        val jCities = getCitiesFromFile(context)
 
-                // Choose the first two of the three cities from the closestCities list.
-                city.incorrectLocationOne = closestCities[0].correctLocation
-                city.incorrectLocationTwo = closestCities[1].correctLocation
+        for (i in 0 until jCities.length()) {
+            try {
+                val jCity = jCities.getJSONObject(i)
+                entries.add(CityEntry(
+                        jCity.getDouble("lat"),
+                        jCity.getDouble("lng"),
+                        jCity.getString("name"),
+                        jCity.getString("default_name"),
+                        jCity.getString("image_name"),
+                        jCity.getString("image_author")))
+            } catch (e: JSONException) {
+                SantaLog.e(TAG, "Unable to get city from json, $e")
             }
         }
 
-        return cities
+        val index = CityIndex(
+                DoubleArray(entries.size) { entries[it].lat },
+                DoubleArray(entries.size) { entries[it].lng })
+        return CityTable(entries, index).also { cityTable = it }
     }
 
     private fun getCitiesFromFile(context: Context) = try {
@@ -102,4 +128,19 @@ object CityQuizUtil {
         SantaLog.e(TAG, "Unable to parse city quiz json, $e")
         JSONArray()
     }
+
+    private class CityEntry(
+        val lat: Double,
+        val lng: Double,
+        val name: String,
+        val defaultName: String,
+        val imageName: String,
+        val imageAuthor: String
+    ) {
+        val location = LatLng(lat, lng)
+    }
+
+    private class CityTable(val entries: List<CityEntry>, val index: CityIndex) {
+        val size get() = entries.size
+    }
 }
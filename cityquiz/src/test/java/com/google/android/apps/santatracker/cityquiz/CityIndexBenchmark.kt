@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.cityquiz
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Test
+import java.util.Random
+
+/**
+ * Measures picking the decoys of a game's round cities from 50k cities: building [CityIndex] once,
+ * then looking up the round cities in it, against sorting every city by distance from each round
+ * city, as getCities used to. Uniformly spread and clustered cities are both measured, as real
+ * cities are far from uniform.
+ */
+class CityIndexBenchmark {
+
+    private companion object {
+        const val CITIES = 50000
+        const val ROUND_CITIES = 5
+        const val GAMES = 200
+        const val SORTED_GAMES = 1
+        const val WARMUP_ROUNDS = 2
+        const val ROUNDS = 5
+    }
+
+    private var sink = 0
+
+    @Test
+    fun benchmarkUniform() {
+        val random = Random(42)
+        run("uniform",
+                DoubleArray(CITIES) { Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)) },
+                DoubleArray(CITIES) { random.nextDouble() * 360 - 180 })
+    }
+
+    @Test
+    fun benchmarkClustered() {
+        // A few hundred metropolitan areas, each a couple of degrees across.
+        val random = Random(43)
+        val centers = Array(300) {
+            doubleArrayOf(random.nextDouble() * 120 - 55, random.nextDouble() * 360 - 180)
+        }
+        val latitudes = DoubleArray(CITIES)
+        val longitudes = DoubleArray(CITIES)
+        for (i in 0 until CITIES) {
+            val center = centers[random.nextInt(centers.size)]
+            latitudes[i] = center[0] + random.nextGaussian()
+            longitudes[i] = center[1] + random.nextGaussian()
+        }
+        run("clustered", latitudes, longitudes)
+    }
+
+    private fun run(name: String, latitudes: DoubleArray, longitudes: DoubleArray) {
+        val random = Random(1)
+        var buildNanos = Long.MAX_VALUE
+        var lookupNanos = Long.MAX_VALUE
+        var sortNanos = Long.MAX_VALUE
+        lateinit var index: CityIndex
+        for (round in 0 until WARMUP_ROUNDS + ROUNDS) {
+            var start = System.nanoTime()
+            index = CityIndex(latitudes, longitudes)
+            val build = System.nanoTime() - start
+
+            start = System.nanoTime()
+            for (game in 0 until GAMES) {
+                for (city in 0 until ROUND_CITIES) {
+                    sink += index.nearest(random.nextInt(CITIES), 3)[0]
+                }
+            }
+            val lookup = System.nanoTime() - start
+
+            start = System.nanoTime()
+            for (game in 0 until SORTED_GAMES) {
+                for (city in 0 until ROUND_CITIES) {
+                    sink += CityIndexTest.bruteForce(
+                            latitudes, longitudes, random.nextInt(CITIES), 3)[0]
+                }
+            }
+            val sort = System.nanoTime() - start
+
+            if (round >= WARMUP_ROUNDS) {
+                buildNanos = Math.min(buildNanos, build)
+                lookupNanos = Math.min(lookupNanos, lookup)
+                sortNanos = Math.min(sortNanos, sort)
+            }
+        }
+
+        // The index finds the same decoys as the sort.
+        for (q in 0 until 20) {
+            val i = random.nextInt(CITIES)
+            assertArrayEquals(
+                    CityIndexTest.bruteForce(latitudes, longitudes, i, 3), index.nearest(i, 3))
+        }
+
+        System.out.println(String.format(
+                "CityIndexBenchmark %-9s %d cities: build %8.2f ms once, " +
+                        "index %8.2f us/game, sort %10.2f ms/game",
+                name,
+                CITIES,
+                buildNanos / 1e6,
+                lookupNanos / 1e3 / GAMES,
+                sortNanos / 1e6 / SORTED_GAMES))
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.cityquiz
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Random
+
+/** Test for the nearest neighbour search of [CityIndex]. */
+class CityIndexTest {
+
+    @Test
+    fun testEmptyIndex() {
+        val index = CityIndex(DoubleArray(0), DoubleArray(0))
+
+        assertEquals(0, index.size)
+    }
+
+    @Test
+    fun testSingleCityHasNoNeighbours() {
+        val index = CityIndex(doubleArrayOf(51.5), doubleArrayOf(-0.1))
+
+        assertEquals(0, index.nearest(0, 3).size)
+    }
+
+    @Test
+    fun testFewerCitiesThanCount() {
+        val index = CityIndex(doubleArrayOf(0.0, 1.0, 2.0), doubleArrayOf(0.0, 0.0, 0.0))
+
+        assertArrayEquals(intArrayOf(1, 2), index.nearest(0, 3))
+    }
+
+    @Test
+    fun testNearestFirst() {
+        val index = CityIndex(
+                doubleArrayOf(0.0, 10.0, 1.0, 5.0, -20.0),
+                doubleArrayOf(0.0, 0.0, 0.0, 0.0, 0.0))
+
+        assertArrayEquals(intArrayOf(2, 3, 1), index.nearest(0, 3))
+    }
+
+    @Test
+    fun testRingsWithoutCandidatesAreSearchedPast() {
+        // A crowded cluster keeps the grid fine, and the neighbours of the lone city are many
+        // empty shells of cells away from it.
+        val random = Random(7)
+        val count = 2000
+        val latitudes = DoubleArray(count) { 40 + random.nextDouble() }
+        val longitudes = DoubleArray(count) { -75 + random.nextDouble() }
+        latitudes[0] = -45.0
+        longitudes[0] = 170.0
+
+        val index = CityIndex(latitudes, longitudes)
+
+        assertArrayEquals(bruteForce(latitudes, longitudes, 0, 3), index.nearest(0, 3))
+    }
+
+    @Test
+    fun testRoundCityIsExcluded() {
+        // Other cities at the same place may be decoys, but never the round's city itself.
+        val latitudes = doubleArrayOf(48.85, 48.85, 48.85, 52.52, 41.9)
+        val longitudes = doubleArrayOf(2.35, 2.35, 2.35, 13.4, 12.5)
+        val index = CityIndex(latitudes, longitudes)
+
+        for (i in 0 until index.size) {
+            val nearest = index.nearest(i, 3)
+            assertEquals(3, nearest.size)
+            assertFalse(nearest.contains(i))
+            assertEquals(3, nearest.distinct().size)
+        }
+        assertTrue(index.nearest(0, 2).all { it == 1 || it == 2 })
+    }
+
+    @Test
+    fun testAcrossAntimeridianAndPole() {
+        val index = CityIndex(
+                doubleArrayOf(0.0, 0.0, 0.0, 89.9, 89.9),
+                doubleArrayOf(179.9, -179.9, 90.0, 0.0, 180.0))
+
+        assertArrayEquals(intArrayOf(1), index.nearest(0, 1))
+        assertArrayEquals(intArrayOf(4), index.nearest(3, 1))
+    }
+
+    @Test
+    fun testMatchesBruteForce() {
+        val random = Random(42)
+        for (count in intArrayOf(4, 50, 1000, 5000)) {
+            // Uniform over the sphere.
+            val latitudes =
+                    DoubleArray(count) { Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)) }
+            val longitudes = DoubleArray(count) { random.nextDouble() * 360 - 180 }
+            val index = CityIndex(latitudes, longitudes)
+            for (q in 0 until 20) {
+                val i = random.nextInt(count)
+                assertArrayEquals(bruteForce(latitudes, longitudes, i, 3), index.nearest(i, 3))
+            }
+        }
+    }
+
+    companion object {
+        /** The count nearest cities to index by great-circle distance, nearest first. */
+        fun bruteForce(
+            latitudes: DoubleArray,
+            longitudes: DoubleArray,
+            index: Int,
+            count: Int
+        ): IntArray = latitudes.indices
+                .filter { it != index }
+                .sortedBy {
+                    haversine(latitudes[index], longitudes[index], latitudes[it], longitudes[it])
+                }
+                .take(count)
+                .toIntArray()
+
+        fun haversine(lat1: Double, lng1: Double, lat2: Double, lng2: Double): Double {
+            val dLat = Math.toRadians(lat2 - lat1)
+            val dLng = Math.toRadians(lng2 - lng1)
+            val a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                    Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                    Math.sin(dLng / 2) * Math.sin(dLng / 2)
+            return 2 * Math.asin(Math.min(1.0, Math.sqrt(a)))
+        }
+    }
+}
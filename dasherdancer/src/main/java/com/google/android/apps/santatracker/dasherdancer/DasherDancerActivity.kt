@@ -25,7 +25,6 @@ import android.content.Context
 import android.content.Intent
 import android.graphics.Bitmap
 import android.graphics.BitmapFactory
-import android.graphics.drawable.BitmapDrawable
 import android.graphics.drawable.Drawable
 import android.hardware.Sensor
 import android.hardware.SensorEvent
@@ -33,17 +32,16 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.media.AudioManager
 import android.media.SoundPool
+import android.os.AsyncTask
 import android.os.Bundle
 import android.os.Handler
 import android.os.Message
-import android.util.LruCache
 import android.view.GestureDetector.OnGestureListener
 import android.view.MotionEvent
 import android.view.ScaleGestureDetector
 import android.view.ScaleGestureDetector.OnScaleGestureListener
 import android.view.View
 import android.widget.ImageView
-import androidx.annotation.DrawableRes
 import androidx.core.view.postDelayed
 import androidx.viewpager.widget.ViewPager.OnPageChangeListener
 import com.google.android.apps.santatracker.common.CheckableImageButton
@@ -77,11 +75,9 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
     private lateinit var firebaseAnalytics: FirebaseAnalytics
     private lateinit var detector: ShakeDetector
     private lateinit var soundPool: SoundPool
-    private lateinit var memoryCache: LruCache<Int, Drawable?>
+    private lateinit var frameSequencer: FrameSequencer
     private lateinit var pager: NoSwipeViewPager
     private lateinit var handler: Handler
-    private var loadBitmapsTask: LoadBitmapsTask? = null
-    private var loadCharacterTask: LoadCharacterResourcesTask? = null
     private var animator: ObjectAnimator? = null
     private var playingRest = false
     private var animCanceled = false
@@ -94,10 +90,6 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
     private lateinit var muteButton: CheckableImageButton
     private lateinit var santaPreferences: SantaPreferences
 
-    // Bitmap downsampling options
-    private lateinit var options: BitmapFactory.Options
-    private var downSamplingAttempts: Int = 0
-
     private var gamesFragment: PlayGamesFragment? = null
 
     // For achievements
@@ -126,26 +118,8 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
 
         activityManager = getSystemService(Context.ACTIVITY_SERVICE) as ActivityManager
 
-        memoryCache = object : LruCache<Int, Drawable?>(240) {
-            override fun entryRemoved(
-                evicted: Boolean,
-                key: Int?,
-                oldValue: Drawable?,
-                newValue: Drawable?
-            ) {
-                if (oldValue != null && oldValue !== newValue) {
-                    if (oldValue is InsetDrawableCompat) {
-                        val drawable = oldValue.drawable
-                        if (drawable is BitmapDrawable) {
-                            drawable.bitmap.recycle()
-                        }
-                    }
-                }
-            }
-        }
-
         // Initialize default Bitmap options
-        options = BitmapFactory.Options().apply {
+        val options = BitmapFactory.Options().apply {
             inPreferredConfig = Bitmap.Config.RGB_565
             inSampleSize = resources.getInteger(R.integer.res)
             if (activityManager.isLowRamDevice) {
@@ -153,6 +127,8 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
                 inSampleSize *= 2
             }
         }
+        frameSequencer = FrameSequencer(resources, options,
+                (Runtime.getRuntime().maxMemory() / 1024 / CACHE_MEMORY_FRACTION).toInt())
 
         val adapter = CharacterAdapter(characters)
         pager = findViewById<View>(R.id.character_pager) as NoSwipeViewPager
@@ -192,9 +168,7 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
                         characters[pager.currentItem].getFrames(Character.ANIM_IDLE))
             }
         } else {
-            loadCharacterTask?.cancel(true)
-            loadCharacterTask = LoadCharacterResourcesTask(pager.currentItem)
-            loadCharacterTask?.execute()
+            loadCharacter(pager.currentItem)
         }
     }
 
@@ -206,6 +180,7 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
         val manager = getSystemService(Context.SENSOR_SERVICE) as SensorManager
         manager.unregisterListener(this)
 
+        frameSequencer.cancel()
         animator?.cancel()
         val character = pager.findViewWithTag<FrameAnimationView>(pager.currentItem)
         character?.setImageDrawable(null)
@@ -217,7 +192,7 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
      * @param view
      */
     fun onNavClick(view: View) {
-        loadBitmapsTask?.cancel(true)
+        frameSequencer.cancel()
         animator?.cancel()
         finish()
     }
@@ -229,8 +204,7 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
      * @param view
      */
     fun onChangeClick(view: View) {
-        loadBitmapsTask?.cancel(true)
-        loadCharacterTask?.cancel(true)
+        frameSequencer.cancel()
         animator?.cancel()
         val character = pager.findViewWithTag<FrameAnimationView>(pager.currentItem)
         character.setImageDrawable(null)
@@ -493,236 +467,81 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
         }
         animPlaying = !playingRest
         this.playingRest = playingRest
-        if (loadBitmapsTask != null) {
-            loadBitmapsTask?.cancel(true)
-            animator?.cancel()
-        }
-
-        loadBitmapsTask = LoadBitmapsTask(animationTime, frameIndices, frameResourceIds)
-        loadBitmapsTask?.execute()
-    }
-
-    /**
-     * Load and cache all sounds for a given character.
-     *
-     * @param characterIndex index of the character in the array, like [.CHARACTER_ID_SANTA].
-     */
-    private fun loadSoundsForCharacter(characterIndex: Int) {
-        for (animationId in Character.ALL_ANIMS) {
-            // No need to load sounds twice
-            if (soundIds[characterIndex][animationId] != -1) {
-                continue
-            }
-
-            val soundResource = characters[characterIndex].getSoundResource(animationId)
-            if (soundResource != -1) {
-                soundIds[characterIndex][animationId] = soundPool.load(this, soundResource, 1)
-            }
-        }
-    }
-
-    override fun onSignInFailed() {}
-
-    override fun onSignInSucceeded() {}
+        animator?.cancel()
 
-    @Throws(DasherDancerActivity.BitmapLoadException::class)
-    private fun tryLoadBitmap(@DrawableRes resourceId: Int): Drawable {
-        try {
-            BitmapFactory.decodeResource(resources, resourceId, options)?.let { bmp ->
-                val bitmapDrawable = BitmapDrawable(resources, bmp)
-                val p = ResourceOffsets.getOffsets(resourceId)
-                val x = Math.round(p.x / options.inSampleSize.toFloat())
-                val y = Math.round(p.y / options.inSampleSize.toFloat())
-                val w = Math.round(ResourceOffsets.ORIG_SIZE.x / options.inSampleSize.toFloat())
-                val h = Math.round(ResourceOffsets.ORIG_SIZE.y / options.inSampleSize.toFloat())
-                return InsetDrawableCompat(
-                        bitmapDrawable, x, y, w - bmp.width - x, h - bmp.height - y)
-            }
-        } catch (oom: OutOfMemoryError) {
-            SantaLog.w(TAG, "Out of memory error, inSampleSize=" + options.inSampleSize)
-            if (downSamplingAttempts < MAX_DOWNSAMPLING_ATTEMPTS) {
-                options.inSampleSize *= 2
-                downSamplingAttempts++
-            }
+        frameSequencer.play(frameResourceIds, frameIndices) { frames ->
+            startAnimation(animationTime, frameIndices, frames)
         }
-
-        throw BitmapLoadException("Failed to load resource ID: $resourceId")
     }
 
     /**
-     * Load all of the resources for a given Character, then begin playing the "IDLE" animation. for
-     * that character.
+     * Loads the sounds for a given Character, and begins playing its "IDLE" animation as soon as
+     * its first frames are decoded.
      */
-    private inner class LoadCharacterResourcesTask internal constructor(
-        private val characterIndex: Int
-    ) : RetryableAsyncTask<Void?, Void?, Void?>() {
-
-        private val character: Character = characters[characterIndex]
-
-        override fun doInBackground(vararg params: Void?): Void? {
-            canTouch = false
-            // See if we can free up any memory before we allocate some ourselves.
-            // Request garbage collection.
-            System.gc()
-
-            // Load all sounds for this character
-            loadSoundsForCharacter(characterIndex)
-
-            // Load all animations types for this character
-            for (animation in Character.ALL_ANIMS) {
-                for (resourceId in character.getFrames(animation)) {
-                    if (isCancelled) {
-                        break
-                    }
-
-                    if (memoryCache.get(resourceId) == null) {
-                        try {
-                            val bitmap = tryLoadBitmap(resourceId)
-                            memoryCache.put(resourceId, bitmap)
-                        } catch (e: BitmapLoadException) {
-                            SantaLog.e(TAG, "LoadCharacterResourcesTask: failed", e)
-
-                            // Retry the task
-                            return retrySelf(params as Array<Void?>)
-                        }
-
-                        if (isCancelled) {
-                            // Remove the BMP we just added
-                            // The check and remove should be atomic so we synchronize
-                            // (There could be an evict going on so make sure it's still there...
-                            synchronized(memoryCache) {
-                                if (memoryCache.get(resourceId) != null) {
-                                    memoryCache.remove(resourceId)
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            return null
-        }
-
-        override fun onPostExecute(result: Void?) {
-            if (isCancelled) {
-                return
-            }
+    private fun loadCharacter(characterIndex: Int) {
+        canTouch = false
+        AsyncTask.execute { loadSoundsForCharacter(characterIndex) }
 
+        val character = characters[characterIndex]
+        val frameIndices = character.getFrameIndices(Character.ANIM_IDLE)
+        frameSequencer.play(character.getFrames(Character.ANIM_IDLE), frameIndices) { frames ->
             findViewById<View>(R.id.progress).visibility = View.GONE
-
-            val currentCharacter = characters[pager.currentItem]
-            val frames =
-                    arrayOfNulls<Drawable>(currentCharacter.getFrames(Character.ANIM_IDLE).size)
-            for (i in frames.indices) {
-                frames[i] = memoryCache.get(currentCharacter.getFrames(Character.ANIM_IDLE)[i])
-            }
-
-            val characterView = pager.findViewWithTag<FrameAnimationView>(pager.currentItem)
-            characterView.setFrames(frames, currentCharacter.getFrameIndices(Character.ANIM_IDLE))
-
             playingRest = true
-            animator = ObjectAnimator.ofInt(
-                    characterView,
-                    "frameIndex",
-                    0,
-                    currentCharacter.getFrameIndices(Character.ANIM_IDLE).size - 1)
-            animator?.let {
-                it.duration = currentCharacter.getDuration(Character.ANIM_IDLE)
-                it.addListener(this@DasherDancerActivity)
-                it.start()
-            }
+            startAnimation(character.getDuration(Character.ANIM_IDLE), frameIndices, frames)
             initialized = true
             canTouch = true
         }
+    }
 
-        public override fun shouldRetry(): Boolean {
-            return downSamplingAttempts < MAX_DOWNSAMPLING_ATTEMPTS
+    /** Starts animating the current character, once the first of the given frames are loaded. */
+    private fun startAnimation(duration: Long, frameIndices: IntArray, frames: Array<Drawable?>) {
+        val character = pager.findViewWithTag<FrameAnimationView>(pager.currentItem)
+        character.setFrames(frames, frameIndices)
+        animator?.cancel()
+        animator = ObjectAnimator.ofInt(character, "frameIndex", 0, frameIndices.size - 1)
+        animator?.let {
+            it.duration = duration
+            it.addListener(this@DasherDancerActivity)
+            it.start()
         }
-
-        public override fun onPrepareForRetry() {
-            // Clear all frames for this character
+        if (soundId != -1 && !santaPreferences.isMuted) {
+            soundPool.play(soundId)
+            soundId = -1
+        }
+        if (playingRest) {
+            // Get the gestures of this character ready to play while it is idle.
+            val current = characters[pager.currentItem]
             for (animation in Character.ALL_ANIMS) {
-                for (resourceId in character.getFrames(animation)) {
-                    memoryCache.remove(resourceId)
+                if (animation != Character.ANIM_IDLE) {
+                    frameSequencer.prefetch(
+                            current.getFrames(animation), current.getFrameIndices(animation))
                 }
             }
-
-            // Try to retry
-            System.gc()
         }
     }
 
-    /** AsyncTask that loads bitmaps for animation and starts the animation upon completion.  */
-    private inner class LoadBitmapsTask(
-        private val mDuration: Long,
-        private val mFrameIndices: IntArray,
-        private val mFrames: IntArray
-    ) : RetryableAsyncTask<Void?, Void?, Array<Drawable?>>() {
-
-        override fun doInBackground(vararg params: Void?): Array<Drawable?>? {
-            val bitmaps = arrayOfNulls<Drawable>(mFrames.size)
-            for (i in mFrames.indices) {
-                if (isCancelled) {
-                    break
-                }
-
-                val id = mFrames[i]
-                if (memoryCache.get(id) == null) {
-                    try {
-                        bitmaps[i] = tryLoadBitmap(id)
-                    } catch (e: BitmapLoadException) {
-                        SantaLog.e(TAG, "LoadBitmapsTask: failed", e)
-                        return retrySelf(params as Array<Void?>)
-                    }
-
-                    memoryCache.put(id, bitmaps[i])
-                    if (isCancelled) {
-                        synchronized(memoryCache) {
-                            if (memoryCache.get(id) != null) {
-                                memoryCache.remove(id)
-                            }
-                        }
-                    }
-                } else {
-                    bitmaps[i] = memoryCache.get(mFrames[i])
-                }
-            }
-            return bitmaps
-        }
-
-        override fun onPostExecute(result: Array<Drawable?>?) {
-            if (result == null || isCancelled) {
-                return
+    /**
+     * Load and cache all sounds for a given character.
+     *
+     * @param characterIndex index of the character in the array, like [.CHARACTER_ID_SANTA].
+     */
+    private fun loadSoundsForCharacter(characterIndex: Int) {
+        for (animationId in Character.ALL_ANIMS) {
+            // No need to load sounds twice
+            if (soundIds[characterIndex][animationId] != -1) {
+                continue
             }
 
-            val character = pager.findViewWithTag<FrameAnimationView>(pager.currentItem)
-            character.setFrames(result, mFrameIndices)
-            animator?.cancel()
-            animator = ObjectAnimator.ofInt(character, "frameIndex", 0, mFrameIndices.size - 1)
-            animator?.let {
-                it.duration = mDuration
-                it.addListener(this@DasherDancerActivity)
-                it.start()
-            }
-            if (soundId != -1 && !santaPreferences.isMuted) {
-                soundPool.play(soundId)
-                soundId = -1
+            val soundResource = characters[characterIndex].getSoundResource(animationId)
+            if (soundResource != -1) {
+                soundIds[characterIndex][animationId] = soundPool.load(this, soundResource, 1)
             }
         }
+    }
 
-        public override fun shouldRetry(): Boolean {
-            return downSamplingAttempts < MAX_DOWNSAMPLING_ATTEMPTS
-        }
-
-        public override fun onPrepareForRetry() {
-            // Remove all frames this task should load
-            for (id in mFrames) {
-                memoryCache.remove(id)
-            }
+    override fun onSignInFailed() {}
 
-            // See if we can now GC
-            System.gc()
-        }
-    }
+    override fun onSignInSucceeded() {}
 
     override fun onAnimationStart(animation: Animator) {
         animCanceled = false
@@ -791,7 +610,7 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
     override fun onBackPressed() {
         // If we are backing out of the game, clear the cache to free memory.
         soundPool.release()
-        memoryCache.evictAll()
+        frameSequencer.evictAll()
         // Request garbage collection.
         System.gc()
         super.onBackPressed()
@@ -799,15 +618,14 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
 
     public override fun onDestroy() {
         soundPool.release()
-        memoryCache.evictAll()
+        frameSequencer.release()
         // Request garbage collection.
         System.gc()
         super.onDestroy()
     }
 
     private fun characterSelectedHelper(position: Int, smoothScroll: Boolean) {
-        loadBitmapsTask?.cancel(true)
-        loadCharacterTask?.cancel(true)
+        frameSequencer.cancel()
         animator?.cancel()
 
         when {
@@ -838,13 +656,11 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
             progressAnimator.start()
             (pager.findViewWithTag<View>(pager.currentItem) as ImageView)
                     .setImageDrawable(null)
-            memoryCache.evictAll()
+            frameSequencer.evictAll()
             // Request garbage collection.
             System.gc()
-            loadCharacterTask?.cancel(true)
 
-            loadCharacterTask = LoadCharacterResourcesTask(position)
-            loadCharacterTask?.execute()
+            loadCharacter(position)
         }
     }
 
@@ -895,9 +711,6 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
         }
     }
 
-    /** Convenience class for exception when loading Bitmaps.  */
-    private class BitmapLoadException(msg: String) : Exception(msg)
-
     companion object {
 
         private const val TAG = "DasherDancer"
@@ -914,8 +727,8 @@ class DasherDancerActivity : OnDemandActivity(), OnGestureListener, OnScaleGestu
         const val CHARACTER_ID_REINDEER = 2
         const val CHARACTER_ID_SNOWMAN = 3
 
-        /** Number of times to try downsampling before giving up  */
-        const val MAX_DOWNSAMPLING_ATTEMPTS = 3
+        /** Fraction of the heap which decoded animation frames may take up. */
+        private const val CACHE_MEMORY_FRACTION = 4
 
         /** Request code for calling CharacterActivity for result.  */
         private const val sCharacterRequestCode = 1
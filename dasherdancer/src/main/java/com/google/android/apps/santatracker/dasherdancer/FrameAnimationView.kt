@@ -101,7 +101,8 @@ class FrameAnimationView : AppCompatImageView {
         val frames = frames ?: return
         val frameIndices = frameIndices ?: return
         if (frameIndex >= 0 && frameIndex < frameIndices.size) {
-            val insetDrawableCompat = frames[frameIndices[frameIndex]] as InsetDrawableCompat
+            val insetDrawableCompat =
+                    frames[frameIndices[frameIndex]] as? InsetDrawableCompat ?: return
 
             if (isBitmapRecycled(insetDrawableCompat)) {
                 return
@@ -146,16 +147,19 @@ class FrameAnimationView : AppCompatImageView {
             // instead of setting the InsetDrawable on FrameAnimationView,
             // we set the Bitmap directly and use the insets to calculate the correct matrix
 
-            val insetDrawableCompat = frames[frameIndices[frameIndex]] as InsetDrawableCompat
-            if (isBitmapRecycled(insetDrawableCompat)) {
-                return
-            }
-            val newBitmap = (insetDrawableCompat.drawable as BitmapDrawable).bitmap
-
-            val current = drawable
-            if (current == null || current is BitmapDrawable && newBitmap != current.bitmap) {
-                setImageBitmap(newBitmap)
-                recalculateMatrix(width, height)
+            // Frames which are still being decoded are null; keep showing the previous one.
+            val insetDrawableCompat = frames[frameIndices[frameIndex]] as? InsetDrawableCompat
+            if (insetDrawableCompat != null) {
+                if (isBitmapRecycled(insetDrawableCompat)) {
+                    return
+                }
+                val newBitmap = (insetDrawableCompat.drawable as BitmapDrawable).bitmap
+
+                val current = drawable
+                if (current == null || current is BitmapDrawable && newBitmap != current.bitmap) {
+                    setImageBitmap(newBitmap)
+                    recalculateMatrix(width, height)
+                }
             }
         }
 
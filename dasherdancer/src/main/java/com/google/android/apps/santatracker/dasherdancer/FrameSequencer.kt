@@ -0,0 +1,298 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.dasherdancer
+
+import android.content.res.Resources
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.graphics.Point
+import android.graphics.drawable.BitmapDrawable
+import android.graphics.drawable.Drawable
+import android.os.Handler
+import android.os.Looper
+import android.util.LruCache
+import androidx.annotation.DrawableRes
+import androidx.annotation.MainThread
+import androidx.annotation.WorkerThread
+import com.google.android.apps.santatracker.util.SantaLog
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * Decodes the frames of the character animations on a background thread, in the order they are
+ * played, so that an animation can start as soon as its first few frames are ready.
+ *
+ * Decoded frames are cached up to a size in bytes. Frames which fall out of the cache are decoded
+ * into again with [BitmapFactory.Options.inBitmap], unless they belong to the animation being
+ * loaded or to one of the last two animations handed out, any of which may still be on screen.
+ *
+ * Only one animation is loaded at a time: [play] and [cancel] abandon whatever was still being
+ * decoded for the previous one.
+ */
+internal class FrameSequencer(
+    private val resources: Resources,
+    /** Only read and changed on the background thread once passed in. */
+    private val options: BitmapFactory.Options,
+    maxKilobytes: Int,
+    /** Runs the decoding, one task at a time. */
+    private val executor: ExecutorService = Executors.newSingleThreadExecutor()
+) {
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    private val cache = object : LruCache<Int, InsetDrawableCompat>(maxKilobytes) {
+        override fun sizeOf(key: Int, value: InsetDrawableCompat): Int {
+            return bitmapOf(value).allocationByteCount / 1024
+        }
+
+        override fun entryRemoved(
+            evicted: Boolean,
+            key: Int,
+            oldValue: InsetDrawableCompat,
+            newValue: InsetDrawableCompat?
+        ) {
+            synchronized(pool) {
+                if (oldValue !== newValue && !isPinned(key)) {
+                    pool(bitmapOf(oldValue))
+                }
+            }
+        }
+    }
+
+    // Guarded by itself. Also orders pinning frames against evicting them.
+    private val pool = ArrayList<Bitmap>()
+
+    // Frames which must not be decoded into. All guarded by pool.
+    private var loading = IntArray(0)
+    private var shown = IntArray(0)
+    private var previouslyShown = IntArray(0)
+
+    /** Incremented whenever the current animation changes, so stale decoding stops. */
+    @Volatile private var generation = 0
+    private var downSamplingAttempts = 0
+    // Only used on the background thread.
+    private val offsets = Point()
+
+    /**
+     * Starts loading an animation. onReady is called on the main thread as soon as its first
+     * [READY_FRAMES] frames are decoded, which is straight away if they are cached. The rest of
+     * the frames are filled into the array passed to it as they are decoded; until then they are
+     * null.
+     *
+     * @param frames the frame drawables of the animation.
+     * @param frameIndices indices into frames, in the order they are played.
+     */
+    @MainThread
+    fun play(frames: IntArray, frameIndices: IntArray, onReady: (Array<Drawable?>) -> Unit) {
+        val gen = ++generation
+        val drawables = arrayOfNulls<Drawable>(frames.size)
+        val ready = minOf(READY_FRAMES, frameIndices.size)
+        var missing = false
+        var readyMissing = false
+        synchronized(pool) {
+            // Pin the frames before looking them up, so that none of them are decoded into once
+            // they are handed out.
+            loading = frames
+            for (step in frameIndices.indices) {
+                val index = frameIndices[step]
+                drawables[index] = cache.get(frames[index])
+                if (drawables[index] == null) {
+                    missing = true
+                    readyMissing = readyMissing || step < ready
+                }
+            }
+        }
+        if (!readyMissing) {
+            show(frames, drawables, onReady)
+        }
+        if (!missing) {
+            return
+        }
+
+        val loaded = BooleanArray(frames.size) { drawables[it] != null }
+        executor.execute {
+            for (step in frameIndices.indices) {
+                if (gen != generation) {
+                    return@execute
+                }
+                val index = frameIndices[step]
+                val id = frames[index]
+                if (!loaded[index]) {
+                    loaded[index] = true
+                    val drawable = cache.get(id) ?: decode(id)?.also { cache.put(id, it) }
+                    mainHandler.post {
+                        if (gen == generation) {
+                            drawables[index] = drawable
+                        }
+                    }
+                }
+                if (readyMissing && step == ready - 1) {
+                    mainHandler.post {
+                        if (gen == generation) {
+                            show(frames, drawables, onReady)
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes the first [READY_FRAMES] frames of an animation into the cache, so that it can be
+     * played straight away later. This is abandoned by the next call to [play] or [cancel].
+     */
+    @MainThread
+    fun prefetch(frames: IntArray, frameIndices: IntArray) {
+        val gen = generation
+        executor.execute {
+            for (step in 0 until minOf(READY_FRAMES, frameIndices.size)) {
+                if (gen != generation) {
+                    return@execute
+                }
+                val id = frames[frameIndices[step]]
+                if (cache.get(id) == null) {
+                    decode(id)?.let { cache.put(id, it) }
+                }
+            }
+        }
+    }
+
+    /** Stops loading the current animation and any prefetched ones. */
+    @MainThread
+    fun cancel() {
+        generation++
+    }
+
+    /**
+     * Cancels loading, and recycles all frames. Only call this once no frames are shown anymore.
+     */
+    @MainThread
+    fun evictAll() {
+        cancel()
+        synchronized(pool) {
+            loading = IntArray(0)
+            shown = IntArray(0)
+            previouslyShown = IntArray(0)
+        }
+        cache.evictAll()
+        synchronized(pool) {
+            pool.forEach { it.recycle() }
+            pool.clear()
+        }
+    }
+
+    /** Evicts all frames and stops the background thread. */
+    @MainThread
+    fun release() {
+        evictAll()
+        executor.shutdown()
+    }
+
+    @MainThread
+    private fun show(
+        frames: IntArray,
+        drawables: Array<Drawable?>,
+        onReady: (Array<Drawable?>) -> Unit
+    ) {
+        synchronized(pool) {
+            previouslyShown = shown
+            shown = frames
+        }
+        onReady(drawables)
+    }
+
+    @WorkerThread
+    private fun decode(@DrawableRes id: Int): InsetDrawableCompat? {
+        while (true) {
+            val sampleSize = options.inSampleSize
+            val reusable = synchronized(pool) {
+                if (pool.isEmpty()) null else pool.removeAt(pool.size - 1)
+            }
+            val decodeOptions = BitmapFactory.Options().apply {
+                inPreferredConfig = options.inPreferredConfig
+                inSampleSize = sampleSize
+                inMutable = true
+                inBitmap = reusable
+            }
+            try {
+                val bmp = try {
+                    BitmapFactory.decodeResource(resources, id, decodeOptions)
+                } catch (e: IllegalArgumentException) {
+                    // The pooled bitmap was too small to decode into.
+                    decodeOptions.inBitmap = null
+                    BitmapFactory.decodeResource(resources, id, decodeOptions)
+                }
+                if (reusable != null && bmp !== reusable) {
+                    pool(reusable)
+                }
+                return bmp?.let { inset(id, it, sampleSize) }
+            } catch (oom: OutOfMemoryError) {
+                SantaLog.w(TAG, "Out of memory error, inSampleSize=$sampleSize")
+                reusable?.recycle()
+                cache.trimToSize(cache.size() / 2)
+                if (downSamplingAttempts >= MAX_DOWNSAMPLING_ATTEMPTS) {
+                    SantaLog.e(TAG, "Failed to load resource ID: $id")
+                    return null
+                }
+                options.inSampleSize *= 2
+                downSamplingAttempts++
+            }
+        }
+    }
+
+    @WorkerThread
+    private fun inset(@DrawableRes id: Int, bmp: Bitmap, sampleSize: Int): InsetDrawableCompat {
+        val p = ResourceOffsets.getOffsets(id, offsets)
+        val x = Math.round(p.x / sampleSize.toFloat())
+        val y = Math.round(p.y / sampleSize.toFloat())
+        val w = Math.round(ResourceOffsets.ORIG_SIZE.x / sampleSize.toFloat())
+        val h = Math.round(ResourceOffsets.ORIG_SIZE.y / sampleSize.toFloat())
+        return InsetDrawableCompat(
+                BitmapDrawable(resources, bmp), x, y, w - bmp.width - x, h - bmp.height - y)
+    }
+
+    /** Must hold pool. */
+    private fun isPinned(@DrawableRes id: Int): Boolean {
+        return loading.contains(id) || shown.contains(id) || previouslyShown.contains(id)
+    }
+
+    private fun pool(bitmap: Bitmap) {
+        synchronized(pool) {
+            if (bitmap.isMutable && !bitmap.isRecycled && pool.size < MAX_POOLED_BITMAPS) {
+                pool.add(bitmap)
+            } else {
+                bitmap.recycle()
+            }
+        }
+    }
+
+    private fun bitmapOf(drawable: InsetDrawableCompat): Bitmap {
+        return (drawable.drawable as BitmapDrawable).bitmap
+    }
+
+    companion object {
+        private const val TAG = "FrameSequencer"
+
+        /** Number of frames which have to be decoded before an animation is started. */
+        const val READY_FRAMES = 4
+
+        /** Number of times to try downsampling before giving up  */
+        private const val MAX_DOWNSAMPLING_ATTEMPTS = 3
+
+        private const val MAX_POOLED_BITMAPS = 4
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.dasherdancer
+
+import androidx.annotation.DrawableRes
+
+/**
+ * Offsets of frames, looked up by drawable id with a binary search over a sorted array.
+ *
+ * Ids are compared as signed ints: the ids of a dynamic feature module have a package id of 0x80
+ * or above, so they are negative and sort before those of the base module.
+ */
+internal class OffsetTable private constructor(
+    private val ids: IntArray,
+    /** Each offset packed as (x shl 16) or y. */
+    private val offsets: IntArray
+) {
+
+    val size: Int
+        get() = ids.size
+
+    /** @return the index of the frame's offsets, or a negative number if it has none. */
+    fun indexOf(@DrawableRes drawableId: Int): Int = ids.binarySearch(drawableId)
+
+    fun x(index: Int): Int = offsets[index] ushr 16
+
+    fun y(index: Int): Int = offsets[index] and 0xffff
+
+    class Builder(capacity: Int = 16) {
+
+        // Entries packed as (id shl 32) or (x shl 16) or y, so that sorting them sorts by id.
+        private var entries = LongArray(maxOf(capacity, 1))
+        private var count = 0
+
+        /** Adds the offsets of a frame, which must fit in 16 bits each. */
+        fun put(@DrawableRes drawableId: Int, x: Int, y: Int): Builder {
+            require(x in 0..MAX_OFFSET && y in 0..MAX_OFFSET) { "Offset out of range: $x, $y" }
+            if (count == entries.size) {
+                entries = entries.copyOf(count * 2)
+            }
+            entries[count++] = (drawableId.toLong() shl 32) or (x.toLong() shl 16) or y.toLong()
+            return this
+        }
+
+        fun build(): OffsetTable {
+            val sorted = entries.copyOf(count)
+            sorted.sort()
+            return OffsetTable(
+                    IntArray(count) { (sorted[it] shr 32).toInt() },
+                    IntArray(count) { sorted[it].toInt() })
+        }
+    }
+
+    companion object {
+        private const val MAX_OFFSET = 0xffff
+    }
+}
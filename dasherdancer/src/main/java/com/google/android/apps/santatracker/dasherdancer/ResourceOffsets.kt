@@ -16,795 +16,812 @@
 
 package com.google.android.apps.santatracker.dasherdancer
 
-import android.annotation.SuppressLint
 import android.graphics.Point
 import androidx.annotation.DrawableRes
-import java.util.HashMap
 
 class ResourceOffsets {
 
     companion object {
 
-        @SuppressLint("UseSparseArrays")
-        private val offsets = HashMap<Int, Point>()
+        /** Offsets of every frame which has any. */
+        private val table: OffsetTable
+
+        // Only used while the table is being built.
+        private var builder: OffsetTable.Builder? = OffsetTable.Builder(1024)
 
         init {
-            offsets[R.drawable.elf_pinchout_0006] = Point(0, 0)
-            offsets[R.drawable.snowman_swiperight0015] = Point(429, 221)
-            offsets[R.drawable.reindeer_swipedown0018] = Point(365, 709)
-            offsets[R.drawable.elf_shake_0006] = Point(318, 230)
-            offsets[R.drawable.reindeer_swipeleft0002] = Point(341, 331)
-            offsets[R.drawable.reindeer_pinchout0024] = Point(342, 337)
-            offsets[R.drawable.snowman_swipeup0023] = Point(429, 220)
-            offsets[R.drawable.snowman_pinchout0001] = Point(429, 221)
-            offsets[R.drawable.snowman_pinchout0022] = Point(334, 310)
-            offsets[R.drawable.reindeer_swipedown0008] = Point(365, 705)
-            offsets[R.drawable.santa_pinchin0007] = Point(136, 218)
-            offsets[R.drawable.snowman_swipedown0021] = Point(429, 250)
-            offsets[R.drawable.santa_idle0021] = Point(415, 434)
-            offsets[R.drawable.santa_pinchout20001] = Point(0, 0)
-            offsets[R.drawable.reindeer_swipedown0009] = Point(376, 709)
-            offsets[R.drawable.snowman_pinchin0001] = Point(429, 221)
-            offsets[R.drawable.snowman_pinchout0005] = Point(360, 434)
-            offsets[R.drawable.santa_swipeleft0017] = Point(147, 628)
-            offsets[R.drawable.reindeer_swipeup0013] = Point(210, 37)
-            offsets[R.drawable.snowman_pinchin0012] = Point(90, 806)
-            offsets[R.drawable.santa_swipeleft0009] = Point(94, 606)
-            offsets[R.drawable.snowman_swipeleft0007] = Point(429, 221)
-            offsets[R.drawable.santa_idle0027] = Point(415, 432)
-            offsets[R.drawable.snowman_tap0017] = Point(94, 221)
-            offsets[R.drawable.santa_temp_tap01] = Point(415, 435)
-            offsets[R.drawable.elf_swipeleft_0023] = Point(435, 358)
-            offsets[R.drawable.reindeer_swipeleft0019] = Point(384, 347)
-            offsets[R.drawable.snowman_pinchin0009] = Point(90, 422)
-            offsets[R.drawable.elf_idle_0007] = Point(435, 437)
-            offsets[R.drawable.snowman_idle0002] = Point(429, 220)
-            offsets[R.drawable.reindeer_tap0008] = Point(342, 337)
-            offsets[R.drawable.santa_swipe_right20005] = Point(350, 423)
-            offsets[R.drawable.snowman_pinchout0003] = Point(395, 339)
-            offsets[R.drawable.reindeer_pinchout0018] = Point(98, 37)
-            offsets[R.drawable.snowman_swipeleft0004] = Point(429, 221)
-            offsets[R.drawable.santa_idle0007] = Point(416, 430)
-            offsets[R.drawable.snowman_swipeup0022] = Point(429, 219)
-            offsets[R.drawable.santa_shake0005] = Point(229, 475)
-            offsets[R.drawable.santa_swipeup0016] = Point(253, 221)
-            offsets[R.drawable.snowman_tap0019] = Point(102, 221)
-            offsets[R.drawable.santa_swipeup0023] = Point(427, 427)
-            offsets[R.drawable.reindeer_pinchin0023] = Point(0, 0)
-            offsets[R.drawable.snowman_swiperight0005] = Point(314, 221)
-            offsets[R.drawable.elf_shake_0016] = Point(285, 309)
-            offsets[R.drawable.reindeer_swipeup0016] = Point(240, 73)
-            offsets[R.drawable.reindeer_swipedown0023] = Point(344, 351)
-            offsets[R.drawable.reindeer_swipeup0010] = Point(210, 34)
-            offsets[R.drawable.reindeer_swipedown0007] = Point(375, 595)
-            offsets[R.drawable.reindeer_pinchin0003] = Point(0, 0)
-            offsets[R.drawable.santa_shake0010] = Point(241, 468)
-            offsets[R.drawable.snowman_swipeleft0011] = Point(429, 221)
-            offsets[R.drawable.elf_tap_0018] = Point(435, 440)
-            offsets[R.drawable.santa_swipeup0001] = Point(415, 435)
-            offsets[R.drawable.elf_idle_0012] = Point(435, 436)
-            offsets[R.drawable.snowman_swiperight0008] = Point(271, 221)
-            offsets[R.drawable.elf_idle_0002] = Point(435, 440)
-            offsets[R.drawable.snowman_pinchin0010] = Point(90, 513)
-            offsets[R.drawable.elf_swiperight_0011] = Point(1073, 707)
-            offsets[R.drawable.santa_shake0003] = Point(279, 476)
-            offsets[R.drawable.elf_swipeleft_0012] = Point(294, 460)
-            offsets[R.drawable.elf_tap_0017] = Point(429, 436)
-            offsets[R.drawable.elf_pinchin_0008] = Point(520, 914)
-            offsets[R.drawable.snowman_swipeup0003] = Point(429, 182)
-            offsets[R.drawable.santa_swipeleft0013] = Point(429, 608)
-            offsets[R.drawable.snowman_pinchout0020] = Point(237, 580)
-            offsets[R.drawable.reindeer_shake0018] = Point(384, 13)
-            offsets[R.drawable.snowman_swipeleft0001] = Point(429, 221)
-            offsets[R.drawable.reindeer_swipedown0005] = Point(381, 451)
-            offsets[R.drawable.reindeer_shake0021] = Point(384, 206)
-            offsets[R.drawable.snowman_idle0020] = Point(429, 218)
-            offsets[R.drawable.reindeer_tap0022] = Point(342, 337)
-            offsets[R.drawable.snowman_swipedown0020] = Point(429, 279)
-            offsets[R.drawable.snowman_shake0005] = Point(115, 0)
-            offsets[R.drawable.snowman_swipeup0012] = Point(429, 21)
-            offsets[R.drawable.santa_shake0013] = Point(363, 426)
-            offsets[R.drawable.elf_pinchin_0001] = Point(435, 440)
-            offsets[R.drawable.snowman_idle0022] = Point(429, 219)
-            offsets[R.drawable.reindeer_swipeleft0021] = Point(370, 339)
-            offsets[R.drawable.santa_pinchin0017] = Point(270, 435)
-            offsets[R.drawable.elf_swiperight_0020] = Point(252, 504)
-            offsets[R.drawable.elf_tap_0005] = Point(347, 380)
-            offsets[R.drawable.snowman_pinchin0008] = Point(90, 367)
-            offsets[R.drawable.snowman_idle0011] = Point(429, 217)
-            offsets[R.drawable.reindeer_pinchin0018] = Point(0, 0)
-            offsets[R.drawable.reindeer_swipeup0015] = Point(218, 46)
-            offsets[R.drawable.santa_idle0032] = Point(416, 429)
-            offsets[R.drawable.elf_pinchout_0020] = Point(106, 0)
-            offsets[R.drawable.snowman_swipeup0007] = Point(427, 21)
-            offsets[R.drawable.snowman_swipedown0013] = Point(429, 442)
-            offsets[R.drawable.snowman_swipedown0018] = Point(429, 212)
-            offsets[R.drawable.santa_pinchin0009] = Point(96, 154)
-            offsets[R.drawable.snowman_pinchin0005] = Point(55, 0)
-            offsets[R.drawable.santa_idle0017] = Point(415, 432)
-            offsets[R.drawable.santa_swipeleft0007] = Point(165, 589)
-            offsets[R.drawable.santa_idle0011] = Point(416, 429)
-            offsets[R.drawable.reindeer_swipeleft0010] = Point(282, 280)
-            offsets[R.drawable.reindeer_shake0013] = Point(383, 20)
-            offsets[R.drawable.elf_shake_0023] = Point(435, 471)
-            offsets[R.drawable.snowman_swipeup0008] = Point(429, 21)
-            offsets[R.drawable.santa_swipedown0007] = Point(429, 635)
-            offsets[R.drawable.reindeer_swipeleft0003] = Point(338, 311)
-            offsets[R.drawable.santa_pinchout20004] = Point(0, 0)
-            offsets[R.drawable.elf_swipeup_0011] = Point(378, 6)
-            offsets[R.drawable.reindeer_tap0003] = Point(350, 341)
-            offsets[R.drawable.santa_swipeleft0004] = Point(314, 530)
-            offsets[R.drawable.elf_idle_0001] = Point(435, 440)
-            offsets[R.drawable.elf_idle_0006] = Point(435, 437)
-            offsets[R.drawable.elf_shake_0002] = Point(319, 369)
-            offsets[R.drawable.elf_tap_0010] = Point(100, 262)
-            offsets[R.drawable.reindeer_tap0020] = Point(342, 337)
-            offsets[R.drawable.santa_tap0008] = Point(270, 596)
-            offsets[R.drawable.reindeer_swipedown0013] = Point(360, 709)
-            offsets[R.drawable.reindeer_swipeup0020] = Point(334, 368)
-            offsets[R.drawable.snowman_swiperight0009] = Point(139, 221)
-            offsets[R.drawable.elf_pinchin_0016] = Point(515, 127)
-            offsets[R.drawable.reindeer_swiperight0012] = Point(0, 1069)
-            offsets[R.drawable.reindeer_swipedown0017] = Point(363, 709)
-            offsets[R.drawable.reindeer_swipeup0007] = Point(327, 105)
-            offsets[R.drawable.elf_swipedown_0005] = Point(435, 454)
-            offsets[R.drawable.reindeer_swiperight0008] = Point(205, 660)
-            offsets[R.drawable.reindeer_shake0016] = Point(383, 17)
-            offsets[R.drawable.reindeer_shake0008] = Point(384, 23)
-            offsets[R.drawable.elf_swipeleft_0024] = Point(435, 363)
-            offsets[R.drawable.santa_shake0015] = Point(332, 421)
-            offsets[R.drawable.reindeer_swiperight0016] = Point(211, 335)
-            offsets[R.drawable.santa_shake0014] = Point(367, 422)
-            offsets[R.drawable.elf_swipeup_0003] = Point(386, 360)
-            offsets[R.drawable.elf_tap_0011] = Point(81, 270)
-            offsets[R.drawable.santa_temp_left01] = Point(415, 435)
-            offsets[R.drawable.elf_swipedown_0018] = Point(435, 469)
-            offsets[R.drawable.santa_idle0031] = Point(416, 430)
-            offsets[R.drawable.elf_swipeup_0006] = Point(476, 165)
-            offsets[R.drawable.elf_swiperight_0022] = Point(435, 459)
-            offsets[R.drawable.snowman_swipeleft0003] = Point(429, 221)
-            offsets[R.drawable.elf_swipeup_0005] = Point(475, 262)
-            offsets[R.drawable.snowman_pinchout0006] = Point(342, 473)
-            offsets[R.drawable.elf_swipeleft_0022] = Point(435, 352)
-            offsets[R.drawable.elf_idle_0021] = Point(435, 438)
-            offsets[R.drawable.santa_swipeup0003] = Point(423, 402)
-            offsets[R.drawable.snowman_shake0001] = Point(393, 221)
-            offsets[R.drawable.reindeer_swipeleft0007] = Point(301, 225)
-            offsets[R.drawable.snowman_swipeleft0024] = Point(429, 221)
-            offsets[R.drawable.snowman_tap0013] = Point(79, 221)
-            offsets[R.drawable.santa_idle0029] = Point(415, 431)
-            offsets[R.drawable.santa_idle0041] = Point(415, 433)
-            offsets[R.drawable.snowman_swiperight0006] = Point(139, 221)
-            offsets[R.drawable.reindeer_swipedown0010] = Point(383, 709)
-            offsets[R.drawable.santa_shake0023] = Point(351, 426)
-            offsets[R.drawable.santa_swipedown0021] = Point(0, 159)
-            offsets[R.drawable.snowman_idle0018] = Point(429, 218)
-            offsets[R.drawable.reindeer_swipeleft0013] = Point(301, 324)
-            offsets[R.drawable.reindeer_pinchout0004] = Point(331, 324)
-            offsets[R.drawable.elf_pinchin_0014] = Point(520, 134)
-            offsets[R.drawable.snowman_pinchin0006] = Point(35, 64)
-            offsets[R.drawable.santa_swipedown0023] = Point(0, 435)
-            offsets[R.drawable.santa_shake0021] = Point(344, 421)
-            offsets[R.drawable.santa_swipe_right20020] = Point(401, 435)
-            offsets[R.drawable.snowman_shake0010] = Point(100, 0)
-            offsets[R.drawable.elf_swipedown_0012] = Point(396, 611)
-            offsets[R.drawable.elf_swipedown_0009] = Point(400, 535)
-            offsets[R.drawable.reindeer_pinchout0015] = Point(84, 20)
-            offsets[R.drawable.reindeer_shake0014] = Point(384, 30)
-            offsets[R.drawable.elf_swipeleft_0013] = Point(269, 460)
-            offsets[R.drawable.reindeer_shake0002] = Point(357, 301)
-            offsets[R.drawable.snowman_swipeup0013] = Point(415, 21)
-            offsets[R.drawable.santa_shake0022] = Point(279, 422)
-            offsets[R.drawable.santa_shake0017] = Point(377, 420)
-            offsets[R.drawable.santa_pinchin0005] = Point(215, 347)
-            offsets[R.drawable.snowman_swipeleft0005] = Point(429, 221)
-            offsets[R.drawable.elf_swipeup_0012] = Point(378, 119)
-            offsets[R.drawable.santa_tap0011] = Point(270, 443)
-            offsets[R.drawable.snowman_idle0009] = Point(429, 217)
-            offsets[R.drawable.santa_tap0012] = Point(269, 443)
-            offsets[R.drawable.snowman_swipeleft0006] = Point(429, 221)
-            offsets[R.drawable.snowman_shake0002] = Point(130, 0)
-            offsets[R.drawable.reindeer_swiperight0018] = Point(363, 338)
-            offsets[R.drawable.santa_shake0019] = Point(341, 420)
-            offsets[R.drawable.elf_shake_0021] = Point(228, 236)
-            offsets[R.drawable.snowman_idle0017] = Point(429, 217)
-            offsets[R.drawable.snowman_swiperight0007] = Point(191, 221)
-            offsets[R.drawable.santa_swipedown0018] = Point(0, 0)
-            offsets[R.drawable.snowman_tap0022] = Point(118, 221)
-            offsets[R.drawable.snowman_swiperight0003] = Point(224, 221)
-            offsets[R.drawable.elf_swipedown_0003] = Point(435, 414)
-            offsets[R.drawable.snowman_swipeup0005] = Point(429, 70)
-            offsets[R.drawable.snowman_swipedown0006] = Point(253, 447)
-            offsets[R.drawable.snowman_pinchin0004] = Point(22, 0)
-            offsets[R.drawable.snowman_swiperight0001] = Point(429, 221)
-            offsets[R.drawable.santa_swipedown0010] = Point(429, 635)
-            offsets[R.drawable.reindeer_swiperight0003] = Point(344, 337)
-            offsets[R.drawable.elf_tap_0008] = Point(175, 254)
-            offsets[R.drawable.snowman_swipeup0011] = Point(429, 21)
-            offsets[R.drawable.santa_swipedown0006] = Point(429, 635)
-            offsets[R.drawable.santa_idle0036] = Point(416, 429)
-            offsets[R.drawable.snowman_swiperight0017] = Point(429, 221)
-            offsets[R.drawable.snowman_swipedown0012] = Point(425, 350)
-            offsets[R.drawable.santa_swipedown0005] = Point(429, 610)
-            offsets[R.drawable.santa_idle0016] = Point(415, 432)
-            offsets[R.drawable.snowman_shake0017] = Point(72, 0)
-            offsets[R.drawable.elf_pinchin_0024] = Point(520, 518)
-            offsets[R.drawable.snowman_swipedown0007] = Point(226, 419)
-            offsets[R.drawable.reindeer_pinchout0021] = Point(183, 142)
-            offsets[R.drawable.reindeer_pinchin0022] = Point(0, 0)
-            offsets[R.drawable.santa_swipedown0008] = Point(429, 635)
-            offsets[R.drawable.elf_tap_0015] = Point(382, 398)
-            offsets[R.drawable.reindeer_pinchout0003] = Point(339, 334)
-            offsets[R.drawable.reindeer_swipeleft0022] = Point(353, 338)
-            offsets[R.drawable.elf_shake_0011] = Point(343, 183)
-            offsets[R.drawable.elf_swiperight_0002] = Point(423, 441)
-            offsets[R.drawable.reindeer_swipeup0006] = Point(353, 154)
-            offsets[R.drawable.elf_tap_0016] = Point(412, 422)
-            offsets[R.drawable.santa_temp_shake01] = Point(415, 435)
-            offsets[R.drawable.elf_swipeup_0021] = Point(435, 480)
-            offsets[R.drawable.elf_idle_0009] = Point(435, 437)
-            offsets[R.drawable.elf_swipedown_0016] = Point(433, 561)
-            offsets[R.drawable.santa_pinchout20006] = Point(0, 0)
-            offsets[R.drawable.santa_pinchout20020] = Point(0, 0)
-            offsets[R.drawable.reindeer_pinchout0007] = Point(276, 255)
-            offsets[R.drawable.snowman_idle0003] = Point(429, 219)
-            offsets[R.drawable.elf_swipeleft_0019] = Point(432, 393)
-            offsets[R.drawable.reindeer_pinchout0016] = Point(82, 17)
-            offsets[R.drawable.santa_idle0040] = Point(415, 432)
-            offsets[R.drawable.elf_swiperight_0017] = Point(0, 606)
-            offsets[R.drawable.snowman_swiperight0011] = Point(330, 221)
-            offsets[R.drawable.santa_idle0001] = Point(415, 435)
-            offsets[R.drawable.snowman_tap0004] = Point(245, 227)
-            offsets[R.drawable.elf_tap_0013] = Point(286, 324)
-            offsets[R.drawable.elf_shake_0012] = Point(318, 233)
-            offsets[R.drawable.snowman_swipedown0016] = Point(422, 13)
-            offsets[R.drawable.reindeer_pinchin0004] = Point(0, 0)
-            offsets[R.drawable.santa_swipeup0005] = Point(429, 375)
-            offsets[R.drawable.snowman_shake0003] = Point(126, 21)
-            offsets[R.drawable.elf_pinchout_0004] = Point(0, 0)
-            offsets[R.drawable.reindeer_swipedown0004] = Point(364, 401)
-            offsets[R.drawable.reindeer_pinchout0023] = Point(281, 262)
-            offsets[R.drawable.santa_swipeleft0018] = Point(216, 579)
-            offsets[R.drawable.reindeer_shake0004] = Point(383, 13)
-            offsets[R.drawable.santa_swipe_right20001] = Point(415, 435)
-            offsets[R.drawable.santa_swipe_right20021] = Point(389, 435)
-            offsets[R.drawable.santa_swipeleft0014] = Point(429, 508)
-            offsets[R.drawable.elf_shake_0018] = Point(279, 233)
-            offsets[R.drawable.santa_idle0003] = Point(415, 433)
-            offsets[R.drawable.santa_swipeup0018] = Point(317, 317)
-            offsets[R.drawable.elf_idle_0010] = Point(435, 436)
-            offsets[R.drawable.snowman_pinchin0024] = Point(401, 220)
-            offsets[R.drawable.snowman_swiperight0016] = Point(429, 221)
-            offsets[R.drawable.snowman_pinchin0007] = Point(35, 64)
-            offsets[R.drawable.reindeer_pinchin0020] = Point(0, 0)
-            offsets[R.drawable.elf_swipedown_0015] = Point(400, 605)
-            offsets[R.drawable.elf_tap_0014] = Point(337, 366)
-            offsets[R.drawable.elf_tap_0006] = Point(290, 333)
-            offsets[R.drawable.elf_swiperight_0023] = Point(423, 440)
-            offsets[R.drawable.santa_swipe_right20023] = Point(415, 435)
-            offsets[R.drawable.snowman_tap0002] = Point(381, 227)
-            offsets[R.drawable.santa_swipedown0022] = Point(0, 414)
-            offsets[R.drawable.santa_swipe_right20017] = Point(415, 385)
-            offsets[R.drawable.elf_pinchin_0012] = Point(519, 270)
-            offsets[R.drawable.santa_idle0008] = Point(416, 430)
-            offsets[R.drawable.snowman_idle0001] = Point(429, 221)
-            offsets[R.drawable.reindeer_pinchout0010] = Point(177, 135)
-            offsets[R.drawable.reindeer_swipeup0019] = Point(349, 266)
-            offsets[R.drawable.santa_tap0022] = Point(358, 435)
-            offsets[R.drawable.santa_swipeup0012] = Point(417, 213)
-            offsets[R.drawable.snowman_idle0019] = Point(429, 218)
-            offsets[R.drawable.elf_swipedown_0023] = Point(435, 460)
-            offsets[R.drawable.elf_pinchin_0025] = Point(476, 280)
-            offsets[R.drawable.santa_swipe_right20009] = Point(332, 416)
-            offsets[R.drawable.santa_idle0038] = Point(415, 431)
-            offsets[R.drawable.snowman_pinchout0021] = Point(285, 423)
-            offsets[R.drawable.santa_swipeup0022] = Point(420, 438)
-            offsets[R.drawable.elf_pinchin_0007] = Point(497, 828)
-            offsets[R.drawable.reindeer_shake0023] = Point(342, 346)
-            offsets[R.drawable.snowman_idle0023] = Point(429, 220)
-            offsets[R.drawable.snowman_swiperight0012] = Point(399, 221)
-            offsets[R.drawable.reindeer_pinchout0017] = Point(86, 22)
-            offsets[R.drawable.reindeer_swipedown0001] = Point(342, 337)
-            offsets[R.drawable.snowman_pinchin0021] = Point(182, 191)
-            offsets[R.drawable.snowman_swipeup0020] = Point(429, 221)
-            offsets[R.drawable.reindeer_shake0019] = Point(384, 34)
-            offsets[R.drawable.elf_swipeleft_0009] = Point(391, 460)
-            offsets[R.drawable.snowman_tap0016] = Point(90, 221)
-            offsets[R.drawable.elf_shake_0004] = Point(228, 236)
-            offsets[R.drawable.snowman_tap0020] = Point(105, 221)
-            offsets[R.drawable.elf_pinchout_0022] = Point(464, 489)
-            offsets[R.drawable.santa_swipedown0011] = Point(345, 613)
-            offsets[R.drawable.elf_pinchin_0029] = Point(404, 450)
-            offsets[R.drawable.elf_shake_0013] = Point(201, 285)
-            offsets[R.drawable.santa_swipeup0007] = Point(429, 304)
-            offsets[R.drawable.snowman_idle0016] = Point(429, 217)
-            offsets[R.drawable.santa_swipe_right20010] = Point(312, 437)
-            offsets[R.drawable.reindeer_swipeup0018] = Point(329, 183)
-            offsets[R.drawable.reindeer_tap0010] = Point(342, 337)
-            offsets[R.drawable.elf_swipedown_0001] = Point(435, 440)
-            offsets[R.drawable.elf_swipeup_0020] = Point(404, 450)
-            offsets[R.drawable.elf_pinchout_0023] = Point(459, 480)
-            offsets[R.drawable.santa_pinchin0018] = Point(235, 505)
-            offsets[R.drawable.reindeer_pinchin0019] = Point(0, 0)
-            offsets[R.drawable.santa_shake0006] = Point(245, 474)
-            offsets[R.drawable.snowman_shake0019] = Point(74, 0)
-            offsets[R.drawable.santa_idle0019] = Point(415, 434)
-            offsets[R.drawable.snowman_swipedown0011] = Point(394, 381)
-            offsets[R.drawable.snowman_pinchin0020] = Point(167, 189)
-            offsets[R.drawable.santa_idle0043] = Point(415, 434)
-            offsets[R.drawable.snowman_swipeleft0013] = Point(415, 221)
-            offsets[R.drawable.reindeer_swipeup0023] = Point(193, 338)
-            offsets[R.drawable.elf_swiperight_0003] = Point(435, 425)
-            offsets[R.drawable.reindeer_swipedown0014] = Point(343, 709)
-            offsets[R.drawable.santa_swipeleft0020] = Point(351, 467)
-            offsets[R.drawable.snowman_swipeleft0023] = Point(429, 221)
-            offsets[R.drawable.reindeer_swipeup0021] = Point(268, 354)
-            offsets[R.drawable.snowman_tap0009] = Point(79, 221)
-            offsets[R.drawable.elf_shake_0009] = Point(201, 285)
-            offsets[R.drawable.santa_swipeleft0003] = Point(374, 516)
-            offsets[R.drawable.snowman_swipeleft0022] = Point(429, 221)
-            offsets[R.drawable.santa_tap0015] = Point(270, 412)
-            offsets[R.drawable.snowman_pinchout0002] = Point(412, 283)
-            offsets[R.drawable.elf_swipedown_0010] = Point(397, 556)
-            offsets[R.drawable.elf_pinchin_0011] = Point(521, 426)
-            offsets[R.drawable.reindeer_swipedown0012] = Point(378, 709)
-            offsets[R.drawable.santa_pinchin0002] = Point(358, 435)
-            offsets[R.drawable.reindeer_tap0004] = Point(346, 339)
-            offsets[R.drawable.snowman_shake0015] = Point(83, 0)
-            offsets[R.drawable.santa_shake0016] = Point(322, 420)
-            offsets[R.drawable.snowman_pinchin0014] = Point(90, 1245)
-            offsets[R.drawable.reindeer_swiperight0023] = Point(330, 341)
-            offsets[R.drawable.santa_pinchin0019] = Point(224, 529)
-            offsets[R.drawable.reindeer_swipeleft0018] = Point(384, 355)
-            offsets[R.drawable.reindeer_shake0015] = Point(384, 23)
-            offsets[R.drawable.snowman_pinchin0011] = Point(90, 641)
-            offsets[R.drawable.santa_swipe_right20011] = Point(412, 394)
-            offsets[R.drawable.santa_pinchin0004] = Point(270, 435)
-            offsets[R.drawable.snowman_shake0021] = Point(68, 11)
-            offsets[R.drawable.reindeer_swipeleft0012] = Point(291, 300)
-            offsets[R.drawable.santa_swipeup0006] = Point(429, 334)
-            offsets[R.drawable.reindeer_pinchout0006] = Point(299, 285)
-            offsets[R.drawable.santa_pinchin0001] = Point(415, 435)
-            offsets[R.drawable.santa_swipeup0020] = Point(425, 462)
-            offsets[R.drawable.elf_swipeleft_0007] = Point(362, 460)
-            offsets[R.drawable.snowman_tap0015] = Point(87, 221)
-            offsets[R.drawable.elf_swiperight_0007] = Point(506, 517)
-            offsets[R.drawable.elf_swipeup_0016] = Point(476, 200)
-            offsets[R.drawable.elf_swipeleft_0020] = Point(435, 389)
-            offsets[R.drawable.santa_swipedown0009] = Point(429, 635)
-            offsets[R.drawable.santa_swipe_right20002] = Point(420, 435)
-            offsets[R.drawable.elf_swipeleft_0015] = Point(369, 460)
-            offsets[R.drawable.elf_swipeleft_0002] = Point(414, 441)
-            offsets[R.drawable.elf_swipeleft_0008] = Point(393, 460)
-            offsets[R.drawable.santa_tap0019] = Point(270, 423)
-            offsets[R.drawable.elf_pinchout_0007] = Point(0, 0)
-            offsets[R.drawable.snowman_swiperight0018] = Point(429, 221)
-            offsets[R.drawable.elf_pinchin_0006] = Point(487, 762)
-            offsets[R.drawable.snowman_pinchout0011] = Point(255, 577)
-            offsets[R.drawable.snowman_swiperight0022] = Point(417, 221)
-            offsets[R.drawable.reindeer_swiperight0021] = Point(325, 361)
-            offsets[R.drawable.snowman_idle0007] = Point(429, 217)
-            offsets[R.drawable.santa_swipedown0013] = Point(266, 0)
-            offsets[R.drawable.santa_pinchout20002] = Point(0, 0)
-            offsets[R.drawable.santa_swipeup0019] = Point(422, 428)
-            offsets[R.drawable.snowman_swipeleft0016] = Point(429, 221)
-            offsets[R.drawable.elf_swipeup_0004] = Point(435, 200)
-            offsets[R.drawable.santa_swipeleft0006] = Point(209, 565)
-            offsets[R.drawable.santa_idle0005] = Point(415, 431)
-            offsets[R.drawable.reindeer_swipeup0014] = Point(210, 37)
-            offsets[R.drawable.elf_shake_0010] = Point(285, 309)
-            offsets[R.drawable.reindeer_swipeleft0008] = Point(290, 260)
-            offsets[R.drawable.snowman_swipeup0016] = Point(219, 21)
-            offsets[R.drawable.reindeer_swipeup0003] = Point(342, 275)
-            offsets[R.drawable.reindeer_swiperight0009] = Point(121, 685)
-            offsets[R.drawable.reindeer_swiperight0017] = Point(249, 332)
-            offsets[R.drawable.elf_swipeup_0015] = Point(476, 311)
-            offsets[R.drawable.elf_swipeup_0013] = Point(397, 259)
-            offsets[R.drawable.santa_shake0024] = Point(355, 435)
-            offsets[R.drawable.santa_shake0002] = Point(328, 456)
-            offsets[R.drawable.reindeer_swipeleft0004] = Point(333, 279)
-            offsets[R.drawable.snowman_shake0016] = Point(76, 0)
-            offsets[R.drawable.santa_swipedown0014] = Point(262, 0)
-            offsets[R.drawable.reindeer_swipedown0019] = Point(384, 601)
-            offsets[R.drawable.elf_pinchin_0031] = Point(435, 458)
-            offsets[R.drawable.santa_idle0046] = Point(415, 435)
-            offsets[R.drawable.elf_pinchin_0020] = Point(520, 898)
-            offsets[R.drawable.santa_tap0005] = Point(270, 509)
-            offsets[R.drawable.santa_idle0009] = Point(416, 429)
-            offsets[R.drawable.santa_temp_down01] = Point(415, 435)
-            offsets[R.drawable.elf_pinchout_0019] = Point(50, 0)
-            offsets[R.drawable.snowman_tap0006] = Point(146, 221)
-            offsets[R.drawable.elf_swiperight_0021] = Point(427, 451)
-            offsets[R.drawable.santa_swipeup0021] = Point(399, 471)
-            offsets[R.drawable.elf_idle_0019] = Point(435, 438)
-            offsets[R.drawable.elf_swiperight_0010] = Point(888, 568)
-            offsets[R.drawable.reindeer_swipedown0021] = Point(371, 437)
-            offsets[R.drawable.snowman_swipeleft0019] = Point(429, 221)
-            offsets[R.drawable.reindeer_shake0020] = Point(384, 99)
-            offsets[R.drawable.snowman_tap0008] = Point(79, 221)
-            offsets[R.drawable.santa_idle0020] = Point(415, 434)
-            offsets[R.drawable.snowman_tap0024] = Point(429, 221)
-            offsets[R.drawable.snowman_swipeup0004] = Point(429, 133)
-            offsets[R.drawable.reindeer_swipeleft0001] = Point(342, 337)
-            offsets[R.drawable.snowman_shake0007] = Point(108, 0)
-            offsets[R.drawable.santa_swipeleft0015] = Point(415, 416)
-            offsets[R.drawable.elf_tap_0012] = Point(221, 272)
-            offsets[R.drawable.elf_pinchout_0003] = Point(250, 0)
-            offsets[R.drawable.reindeer_shake0022] = Point(342, 357)
-            offsets[R.drawable.reindeer_shake0005] = Point(384, 13)
-            offsets[R.drawable.snowman_swipeleft0021] = Point(429, 221)
-            offsets[R.drawable.reindeer_swipedown0006] = Point(384, 516)
-            offsets[R.drawable.elf_swiperight_0018] = Point(0, 538)
-            offsets[R.drawable.elf_idle_0008] = Point(435, 437)
-            offsets[R.drawable.reindeer_swipeup0017] = Point(277, 119)
-            offsets[R.drawable.elf_pinchin_0022] = Point(513, 738)
-            offsets[R.drawable.elf_swipeup_0018] = Point(454, 400)
-            offsets[R.drawable.santa_swipeup0010] = Point(429, 266)
-            offsets[R.drawable.snowman_pinchout0009] = Point(290, 553)
-            offsets[R.drawable.elf_pinchin_0010] = Point(521, 653)
-            offsets[R.drawable.snowman_tap0011] = Point(79, 221)
-            offsets[R.drawable.elf_swipeleft_0006] = Point(330, 460)
-            offsets[R.drawable.elf_swipeleft_0004] = Point(372, 441)
-            offsets[R.drawable.snowman_swiperight0020] = Point(429, 221)
-            offsets[R.drawable.reindeer_swiperight0015] = Point(0, 335)
-            offsets[R.drawable.snowman_shake0008] = Point(110, 0)
-            offsets[R.drawable.elf_swipeup_0009] = Point(357, 152)
-            offsets[R.drawable.elf_swipeup_0002] = Point(386, 400)
-            offsets[R.drawable.snowman_swipedown0010] = Point(335, 435)
-            offsets[R.drawable.santa_swipe_right20015] = Point(415, 353)
-            offsets[R.drawable.reindeer_swipeleft0023] = Point(344, 337)
-            offsets[R.drawable.santa_pinchout20003] = Point(0, 0)
-            offsets[R.drawable.snowman_swiperight0013] = Point(429, 221)
-            offsets[R.drawable.snowman_swipedown0015] = Point(429, 261)
-            offsets[R.drawable.snowman_swipeup0014] = Point(346, 21)
-            offsets[R.drawable.snowman_swipedown0008] = Point(207, 344)
-            offsets[R.drawable.reindeer_pinchout0012] = Point(124, 69)
-            offsets[R.drawable.santa_temp_zoom_in01] = Point(415, 435)
-            offsets[R.drawable.reindeer_pinchin0021] = Point(0, 0)
-            offsets[R.drawable.santa_tap0017] = Point(270, 423)
-            offsets[R.drawable.snowman_shake0006] = Point(110, 0)
-            offsets[R.drawable.reindeer_tap0006] = Point(342, 337)
-            offsets[R.drawable.elf_idle_0024] = Point(435, 440)
-            offsets[R.drawable.santa_swipeleft0005] = Point(258, 546)
-            offsets[R.drawable.elf_pinchin_0027] = Point(459, 400)
-            offsets[R.drawable.reindeer_tap0005] = Point(342, 337)
-            offsets[R.drawable.elf_swipedown_0020] = Point(435, 470)
-            offsets[R.drawable.elf_idle_0011] = Point(435, 436)
-            offsets[R.drawable.santa_swipedown0001] = Point(415, 435)
-            offsets[R.drawable.elf_shake_0008] = Point(318, 362)
-            offsets[R.drawable.reindeer_pinchout0022] = Point(228, 197)
-            offsets[R.drawable.reindeer_pinchout0014] = Point(92, 30)
-            offsets[R.drawable.snowman_swipedown0002] = Point(400, 266)
-            offsets[R.drawable.reindeer_swiperight0001] = Point(342, 337)
-            offsets[R.drawable.santa_swipedown0019] = Point(0, 0)
-            offsets[R.drawable.santa_swipeleft0024] = Point(429, 424)
-            offsets[R.drawable.reindeer_swiperight0005] = Point(354, 337)
-            offsets[R.drawable.santa_pinchout20023] = Point(0, 0)
-            offsets[R.drawable.snowman_swipeup0002] = Point(429, 211)
-            offsets[R.drawable.santa_idle0022] = Point(415, 435)
-            offsets[R.drawable.elf_swipeleft_0010] = Point(317, 460)
-            offsets[R.drawable.snowman_tap0007] = Point(95, 221)
-            offsets[R.drawable.santa_swipedown0002] = Point(358, 435)
-            offsets[R.drawable.santa_idle0018] = Point(415, 433)
-            offsets[R.drawable.reindeer_shake0010] = Point(383, 13)
-            offsets[R.drawable.santa_tap0014] = Point(270, 320)
-            offsets[R.drawable.santa_shake0020] = Point(386, 420)
-            offsets[R.drawable.snowman_swipeup0017] = Point(231, 33)
-            offsets[R.drawable.elf_swipeup_0023] = Point(435, 445)
-            offsets[R.drawable.elf_tap_0007] = Point(221, 272)
-            offsets[R.drawable.snowman_idle0021] = Point(429, 219)
-            offsets[R.drawable.elf_pinchin_0013] = Point(519, 169)
-            offsets[R.drawable.elf_pinchin_0018] = Point(506, 385)
-            offsets[R.drawable.santa_pinchin0006] = Point(171, 275)
-            offsets[R.drawable.reindeer_swipedown0015] = Point(349, 709)
-            offsets[R.drawable.santa_swipe_right20007] = Point(341, 418)
-            offsets[R.drawable.reindeer_swiperight0022] = Point(304, 370)
-            offsets[R.drawable.santa_swipeleft0002] = Point(398, 476)
-            offsets[R.drawable.santa_swipedown0004] = Point(340, 535)
-            offsets[R.drawable.reindeer_swipedown0016] = Point(357, 709)
-            offsets[R.drawable.snowman_swipedown0005] = Point(285, 401)
-            offsets[R.drawable.reindeer_tap0009] = Point(342, 337)
-            offsets[R.drawable.snowman_swipeup0021] = Point(429, 220)
-            offsets[R.drawable.elf_swipedown_0006] = Point(435, 475)
-            offsets[R.drawable.reindeer_swipeleft0011] = Point(284, 285)
-            offsets[R.drawable.snowman_shake0014] = Point(87, 3)
-            offsets[R.drawable.snowman_idle0006] = Point(429, 218)
-            offsets[R.drawable.santa_swipe_right20004] = Point(350, 428)
-            offsets[R.drawable.reindeer_swipeleft0005] = Point(326, 235)
-            offsets[R.drawable.snowman_idle0004] = Point(429, 219)
-            offsets[R.drawable.elf_shake_0001] = Point(435, 440)
-            offsets[R.drawable.elf_swipedown_0022] = Point(435, 463)
-            offsets[R.drawable.elf_swipeup_0017] = Point(456, 380)
-            offsets[R.drawable.snowman_pinchout0013] = Point(237, 580)
-            offsets[R.drawable.santa_swipeleft0016] = Point(299, 540)
-            offsets[R.drawable.snowman_pinchout0010] = Point(272, 568)
-            offsets[R.drawable.snowman_tap0003] = Point(277, 248)
-            offsets[R.drawable.santa_shake0001] = Point(355, 435)
-            offsets[R.drawable.elf_swiperight_0009] = Point(769, 641)
-            offsets[R.drawable.santa_swipe_right20016] = Point(415, 370)
-            offsets[R.drawable.santa_idle0010] = Point(416, 429)
-            offsets[R.drawable.elf_swiperight_0006] = Point(441, 476)
-            offsets[R.drawable.elf_swipeup_0007] = Point(492, 165)
-            offsets[R.drawable.elf_idle_0017] = Point(435, 437)
-            offsets[R.drawable.santa_swipeleft0008] = Point(127, 618)
-            offsets[R.drawable.santa_pinchout20021] = Point(0, 0)
-            offsets[R.drawable.santa_idle0013] = Point(416, 429)
-            offsets[R.drawable.snowman_swipedown0009] = Point(266, 281)
-            offsets[R.drawable.snowman_swipedown0014] = Point(429, 411)
-            offsets[R.drawable.elf_tap_0003] = Point(427, 434)
-            offsets[R.drawable.snowman_pinchin0003] = Point(193, 109)
-            offsets[R.drawable.santa_swipeleft0012] = Point(429, 558)
-            offsets[R.drawable.snowman_idle0005] = Point(429, 218)
-            offsets[R.drawable.snowman_idle0010] = Point(429, 217)
-            offsets[R.drawable.santa_swipedown0016] = Point(429, 402)
-            offsets[R.drawable.reindeer_swiperight0010] = Point(61, 1026)
-            offsets[R.drawable.snowman_pinchout0012] = Point(237, 580)
-            offsets[R.drawable.elf_idle_0005] = Point(435, 438)
-            offsets[R.drawable.reindeer_tap0002] = Point(346, 339)
-            offsets[R.drawable.elf_tap_0004] = Point(401, 413)
-            offsets[R.drawable.santa_idle0030] = Point(416, 430)
-            offsets[R.drawable.elf_pinchin_0023] = Point(521, 583)
-            offsets[R.drawable.reindeer_pinchin0001] = Point(0, 0)
-            offsets[R.drawable.reindeer_pinchout0009] = Point(212, 177)
-            offsets[R.drawable.reindeer_pinchout0001] = Point(342, 337)
-            offsets[R.drawable.santa_swipeleft0022] = Point(398, 448)
-            offsets[R.drawable.reindeer_swiperight0006] = Point(363, 644)
-            offsets[R.drawable.snowman_tap0010] = Point(79, 221)
-            offsets[R.drawable.elf_pinchout_0024] = Point(444, 455)
-            offsets[R.drawable.elf_pinchout_0001] = Point(435, 440)
-            offsets[R.drawable.santa_swipe_right20003] = Point(347, 435)
-            offsets[R.drawable.snowman_swipeleft0020] = Point(429, 221)
-            offsets[R.drawable.reindeer_shake0024] = Point(342, 339)
-            offsets[R.drawable.snowman_pinchin0022] = Point(226, 197)
-            offsets[R.drawable.snowman_shake0020] = Point(73, 5)
-            offsets[R.drawable.santa_tap0013] = Point(270, 412)
-            offsets[R.drawable.elf_swipeleft_0003] = Point(393, 440)
-            offsets[R.drawable.snowman_shake0024] = Point(382, 216)
-            offsets[R.drawable.santa_tap0007] = Point(270, 586)
-            offsets[R.drawable.snowman_shake0013] = Point(88, 0)
-            offsets[R.drawable.snowman_tap0021] = Point(118, 221)
-            offsets[R.drawable.elf_swipeup_0010] = Point(378, 84)
-            offsets[R.drawable.elf_swipedown_0011] = Point(397, 560)
-            offsets[R.drawable.snowman_pinchin0023] = Point(299, 207)
-            offsets[R.drawable.elf_swiperight_0019] = Point(83, 515)
-            offsets[R.drawable.reindeer_swipeup0008] = Point(210, 47)
-            offsets[R.drawable.snowman_tap0012] = Point(79, 221)
-            offsets[R.drawable.reindeer_swipeleft0015] = Point(338, 400)
-            offsets[R.drawable.elf_swiperight_0013] = Point(0, 730)
-            offsets[R.drawable.santa_idle0028] = Point(415, 431)
-            offsets[R.drawable.santa_pinchin0010] = Point(91, 146)
-            offsets[R.drawable.snowman_pinchin0002] = Point(374, 193)
-            offsets[R.drawable.elf_swipeup_0014] = Point(468, 315)
-            offsets[R.drawable.reindeer_swipeleft0020] = Point(384, 342)
-            offsets[R.drawable.elf_pinchin_0003] = Point(460, 584)
-            offsets[R.drawable.elf_pinchin_0021] = Point(500, 990)
-            offsets[R.drawable.reindeer_swipeleft0014] = Point(317, 357)
-            offsets[R.drawable.reindeer_tap0019] = Point(342, 337)
-            offsets[R.drawable.reindeer_swipeleft0017] = Point(376, 371)
-            offsets[R.drawable.santa_tap0010] = Point(270, 536)
-            offsets[R.drawable.reindeer_swiperight0019] = Point(384, 389)
-            offsets[R.drawable.elf_shake_0019] = Point(231, 285)
-            offsets[R.drawable.snowman_pinchin0016] = Point(167, 913)
-            offsets[R.drawable.elf_swipeleft_0001] = Point(435, 440)
-            offsets[R.drawable.snowman_shake0022] = Point(64, 16)
-            offsets[R.drawable.santa_shake0012] = Point(355, 435)
-            offsets[R.drawable.santa_pinchin0013] = Point(136, 219)
-            offsets[R.drawable.elf_swipeleft_0014] = Point(395, 460)
-            offsets[R.drawable.santa_swipeup0002] = Point(418, 418)
-            offsets[R.drawable.elf_swipedown_0008] = Point(434, 515)
-            offsets[R.drawable.elf_swipedown_0007] = Point(435, 495)
-            offsets[R.drawable.snowman_tap0001] = Point(429, 221)
-            offsets[R.drawable.snowman_pinchout0007] = Point(325, 506)
-            offsets[R.drawable.santa_idle0037] = Point(416, 430)
-            offsets[R.drawable.santa_swipedown0012] = Point(265, 264)
-            offsets[R.drawable.santa_idle0015] = Point(415, 431)
-            offsets[R.drawable.santa_pinchout20019] = Point(0, 0)
-            offsets[R.drawable.reindeer_swiperight0014] = Point(0, 335)
-            offsets[R.drawable.reindeer_swipeleft0006] = Point(318, 177)
-            offsets[R.drawable.santa_swipe_right20022] = Point(415, 435)
-            offsets[R.drawable.santa_swipedown0020] = Point(0, 0)
-            offsets[R.drawable.reindeer_tap0001] = Point(342, 337)
-            offsets[R.drawable.santa_swipeup0013] = Point(312, 193)
-            offsets[R.drawable.reindeer_pinchout0005] = Point(318, 308)
-            offsets[R.drawable.santa_shake0008] = Point(255, 477)
-            offsets[R.drawable.reindeer_swipeleft0016] = Point(353, 389)
-            offsets[R.drawable.snowman_swipeup0006] = Point(429, 33)
-            offsets[R.drawable.snowman_shake0012] = Point(91, 0)
-            offsets[R.drawable.elf_shake_0017] = Point(201, 183)
-            offsets[R.drawable.reindeer_swipedown0020] = Point(384, 510)
-            offsets[R.drawable.santa_idle0042] = Point(415, 433)
-            offsets[R.drawable.reindeer_pinchout0002] = Point(342, 337)
-            offsets[R.drawable.santa_idle0044] = Point(415, 434)
-            offsets[R.drawable.santa_idle0006] = Point(415, 431)
-            offsets[R.drawable.santa_swipeleft0019] = Point(429, 428)
-            offsets[R.drawable.reindeer_swipedown0011] = Point(384, 709)
-            offsets[R.drawable.elf_shake_0005] = Point(201, 183)
-            offsets[R.drawable.snowman_swipeleft0010] = Point(429, 221)
-            offsets[R.drawable.reindeer_shake0006] = Point(384, 14)
-            offsets[R.drawable.santa_tap0006] = Point(270, 557)
-            offsets[R.drawable.elf_pinchin_0002] = Point(447, 512)
-            offsets[R.drawable.elf_swiperight_0005] = Point(407, 458)
-            offsets[R.drawable.santa_idle0039] = Point(415, 431)
-            offsets[R.drawable.elf_swipeup_0019] = Point(434, 440)
-            offsets[R.drawable.elf_swipeleft_0011] = Point(295, 460)
-            offsets[R.drawable.reindeer_pinchout0008] = Point(246, 219)
-            offsets[R.drawable.snowman_shake0023] = Point(382, 216)
-            offsets[R.drawable.snowman_swiperight0021] = Point(429, 221)
-            offsets[R.drawable.elf_pinchin_0019] = Point(520, 618)
-            offsets[R.drawable.snowman_shake0004] = Point(122, 0)
-            offsets[R.drawable.reindeer_pinchout0011] = Point(148, 99)
-            offsets[R.drawable.santa_swipe_right20014] = Point(416, 340)
-            offsets[R.drawable.elf_pinchin_0015] = Point(515, 95)
-            offsets[R.drawable.santa_idle0002] = Point(415, 434)
-            offsets[R.drawable.santa_pinchout20007] = Point(0, 0)
-            offsets[R.drawable.santa_pinchin0014] = Point(170, 275)
-            offsets[R.drawable.santa_swipedown0003] = Point(340, 460)
-            offsets[R.drawable.snowman_pinchout0024] = Point(429, 221)
-            offsets[R.drawable.santa_shake0009] = Point(243, 477)
-            offsets[R.drawable.elf_tap_0002] = Point(435, 440)
-            offsets[R.drawable.santa_swipeleft0023] = Point(429, 429)
-            offsets[R.drawable.elf_shake_0015] = Point(263, 285)
-            offsets[R.drawable.santa_swipe_right20008] = Point(336, 417)
-            offsets[R.drawable.elf_shake_0020] = Point(324, 362)
-            offsets[R.drawable.elf_shake_0003] = Point(176, 324)
-            offsets[R.drawable.reindeer_swipeup0011] = Point(210, 34)
-            offsets[R.drawable.santa_tap0016] = Point(270, 443)
-            offsets[R.drawable.elf_swipeleft_0005] = Point(351, 460)
-            offsets[R.drawable.elf_swipeup_0022] = Point(435, 458)
-            offsets[R.drawable.snowman_swipeleft0009] = Point(429, 221)
-            offsets[R.drawable.santa_swipeup0014] = Point(311, 178)
-            offsets[R.drawable.elf_pinchin_0026] = Point(467, 340)
-            offsets[R.drawable.elf_swipedown_0017] = Point(435, 470)
-            offsets[R.drawable.santa_idle0012] = Point(416, 429)
-            offsets[R.drawable.reindeer_swipedown0003] = Point(352, 366)
-            offsets[R.drawable.santa_swipeleft0021] = Point(270, 462)
-            offsets[R.drawable.santa_pinchout20018] = Point(0, 0)
-            offsets[R.drawable.reindeer_swipeup0022] = Point(221, 344)
-            offsets[R.drawable.snowman_swiperight0019] = Point(429, 221)
-            offsets[R.drawable.reindeer_pinchout0013] = Point(106, 46)
-            offsets[R.drawable.snowman_swipedown0003] = Point(359, 311)
-            offsets[R.drawable.elf_swiperight_0014] = Point(0, 768)
-            offsets[R.drawable.snowman_tap0005] = Point(213, 221)
-            offsets[R.drawable.snowman_swiperight0023] = Point(429, 221)
-            offsets[R.drawable.reindeer_shake0007] = Point(383, 15)
-            offsets[R.drawable.elf_swiperight_0012] = Point(1280 / 2, 1280 / 2)
-            offsets[R.drawable.snowman_pinchin0018] = Point(167, 370)
-            offsets[R.drawable.santa_idle0045] = Point(415, 434)
-            offsets[R.drawable.santa_swipeup0004] = Point(426, 385)
-            offsets[R.drawable.elf_swipeleft_0021] = Point(435, 375)
-            offsets[R.drawable.reindeer_swiperight0013] = Point(0, 569)
-            offsets[R.drawable.reindeer_swiperight0024] = Point(342, 337)
-            offsets[R.drawable.reindeer_swipeleft0024] = Point(342, 337)
-            offsets[R.drawable.elf_idle_0004] = Point(435, 438)
-            offsets[R.drawable.snowman_tap0014] = Point(83, 221)
-            offsets[R.drawable.reindeer_pinchin0005] = Point(0, 0)
-            offsets[R.drawable.santa_shake0011] = Point(326, 453)
-            offsets[R.drawable.santa_swipedown0015] = Point(257, 0)
-            offsets[R.drawable.reindeer_swipeup0012] = Point(210, 35)
-            offsets[R.drawable.snowman_swipedown0004] = Point(320, 356)
-            offsets[R.drawable.reindeer_pinchin0002] = Point(0, 0)
-            offsets[R.drawable.santa_idle0033] = Point(416, 429)
-            offsets[R.drawable.elf_pinchout_0002] = Point(376, 324)
-            offsets[R.drawable.reindeer_pinchin0006] = Point(0, 0)
-            offsets[R.drawable.elf_pinchin_0009] = Point(500, 990)
-            offsets[R.drawable.santa_swipeup0015] = Point(267, 203)
-            offsets[R.drawable.snowman_swipeleft0018] = Point(429, 221)
-            offsets[R.drawable.reindeer_swipeup0005] = Point(344, 186)
-            offsets[R.drawable.reindeer_swipeup0001] = Point(342, 337)
-            offsets[R.drawable.santa_tap0003] = Point(270, 435)
-            offsets[R.drawable.elf_idle_0020] = Point(435, 438)
-            offsets[R.drawable.elf_swipeleft_0018] = Point(435, 441)
-            offsets[R.drawable.santa_swipedown0024] = Point(0, 435)
-            offsets[R.drawable.snowman_shake0009] = Point(107, 0)
-            offsets[R.drawable.santa_pinchout20017] = Point(0, 0)
-            offsets[R.drawable.elf_idle_0003] = Point(435, 439)
-            offsets[R.drawable.snowman_shake0018] = Point(72, 0)
-            offsets[R.drawable.elf_swipeup_0008] = Point(378, 188)
-            offsets[R.drawable.reindeer_pinchout0019] = Point(118, 62)
-            offsets[R.drawable.snowman_swipeup0019] = Point(376, 133)
-            offsets[R.drawable.elf_swiperight_0004] = Point(395, 453)
-            offsets[R.drawable.elf_shake_0014] = Point(318, 362)
-            offsets[R.drawable.elf_swiperight_0015] = Point(0, 572)
-            offsets[R.drawable.snowman_pinchout0008] = Point(307, 532)
-            offsets[R.drawable.elf_swiperight_0016] = Point(0, 623)
-            offsets[R.drawable.reindeer_swiperight0002] = Point(342, 337)
-            offsets[R.drawable.elf_pinchin_0004] = Point(472, 655)
-            offsets[R.drawable.elf_swipeleft_0016] = Point(444, 441)
-            offsets[R.drawable.snowman_swiperight0002] = Point(139, 221)
-            offsets[R.drawable.snowman_swiperight0004] = Point(224, 221)
-            offsets[R.drawable.santa_swipe_right20024] = Point(415, 435)
-            offsets[R.drawable.reindeer_pinchout0020] = Point(147, 97)
-            offsets[R.drawable.santa_swipeup0008] = Point(429, 283)
-            offsets[R.drawable.elf_pinchin_0030] = Point(435, 480)
-            offsets[R.drawable.snowman_swipeup0015] = Point(253, 21)
-            offsets[R.drawable.santa_swipedown0017] = Point(0, 0)
-            offsets[R.drawable.elf_pinchin_0032] = Point(435, 445)
-            offsets[R.drawable.snowman_swipedown0017] = Point(429, 129)
-            offsets[R.drawable.santa_pinchout20005] = Point(0, 0)
-            offsets[R.drawable.snowman_swipeleft0014] = Point(429, 221)
-            offsets[R.drawable.reindeer_swiperight0011] = Point(26, 1021)
-            offsets[R.drawable.reindeer_shake0009] = Point(384, 15)
-            offsets[R.drawable.reindeer_swiperight0007] = Point(313, 629)
-            offsets[R.drawable.santa_tap0004] = Point(270, 443)
-            offsets[R.drawable.reindeer_pinchin0007] = Point(0, 0)
-            offsets[R.drawable.santa_swipe_right20012] = Point(426, 350)
-            offsets[R.drawable.snowman_pinchin0019] = Point(167, 234)
-            offsets[R.drawable.reindeer_shake0017] = Point(384, 14)
-            offsets[R.drawable.santa_swipe_right20006] = Point(346, 420)
-            offsets[R.drawable.snowman_pinchout0023] = Point(382, 243)
-            offsets[R.drawable.elf_shake_0022] = Point(336, 324)
-            offsets[R.drawable.santa_swipe_right20018] = Point(415, 389)
-            offsets[R.drawable.snowman_swiperight0010] = Point(235, 221)
-            offsets[R.drawable.santa_swipe_right20013] = Point(420, 336)
-            offsets[R.drawable.snowman_swipeleft0015] = Point(429, 221)
-            offsets[R.drawable.elf_idle_0022] = Point(435, 439)
-            offsets[R.drawable.santa_shake0007] = Point(257, 475)
-            offsets[R.drawable.elf_swiperight_0008] = Point(611, 565)
-            offsets[R.drawable.santa_pinchin0020] = Point(235, 505)
-            offsets[R.drawable.snowman_swipeleft0017] = Point(429, 221)
-            offsets[R.drawable.elf_swipeleft_0017] = Point(422, 440)
-            offsets[R.drawable.santa_pinchin0003] = Point(268, 435)
-            offsets[R.drawable.snowman_pinchout0004] = Point(377, 390)
-            offsets[R.drawable.santa_tap0018] = Point(270, 404)
-            offsets[R.drawable.snowman_swipedown0019] = Point(429, 262)
-            offsets[R.drawable.santa_idle0004] = Point(415, 432)
-            offsets[R.drawable.reindeer_swipeup0004] = Point(342, 197)
-            offsets[R.drawable.reindeer_swiperight0020] = Point(383, 352)
-            offsets[R.drawable.santa_pinchin0022] = Point(270, 435)
-            offsets[R.drawable.snowman_swipeup0018] = Point(214, 71)
-            offsets[R.drawable.reindeer_swipeup0002] = Point(342, 321)
-            offsets[R.drawable.reindeer_swipeleft0009] = Point(284, 276)
-            offsets[R.drawable.santa_idle0047] = Point(415, 435)
-            offsets[R.drawable.snowman_swiperight0014] = Point(428, 221)
-            offsets[R.drawable.reindeer_shake0012] = Point(384, 14)
-            offsets[R.drawable.elf_pinchout_0021] = Point(184, 0)
-            offsets[R.drawable.snowman_pinchin0017] = Point(167, 596)
-            offsets[R.drawable.santa_swipe_right20019] = Point(415, 435)
-            offsets[R.drawable.reindeer_shake0011] = Point(383, 13)
-            offsets[R.drawable.santa_tap0009] = Point(269, 567)
-            offsets[R.drawable.elf_pinchin_0005] = Point(462, 727)
-            offsets[R.drawable.snowman_pinchin0013] = Point(90, 1008)
-            offsets[R.drawable.santa_swipeup0011] = Point(429, 221)
-            offsets[R.drawable.elf_swipedown_0019] = Point(435, 474)
-            offsets[R.drawable.snowman_tap0018] = Point(98, 221)
-            offsets[R.drawable.elf_shake_0007] = Point(244, 285)
-            offsets[R.drawable.elf_idle_0015] = Point(435, 436)
-            offsets[R.drawable.santa_pinchin0008] = Point(111, 178)
-            offsets[R.drawable.snowman_idle0008] = Point(429, 217)
-            offsets[R.drawable.reindeer_swipedown0022] = Point(354, 384)
-            offsets[R.drawable.reindeer_tap0007] = Point(342, 337)
-            offsets[R.drawable.elf_swipedown_0013] = Point(397, 628)
-            offsets[R.drawable.elf_pinchin_0028] = Point(434, 440)
-            offsets[R.drawable.snowman_swipeleft0008] = Point(429, 221)
-            offsets[R.drawable.snowman_tap0023] = Point(169, 221)
-            offsets[R.drawable.elf_tap_0009] = Point(132, 248)
-            offsets[R.drawable.elf_swipedown_0004] = Point(435, 434)
-            offsets[R.drawable.santa_shake0004] = Point(204, 478)
-            offsets[R.drawable.reindeer_swipedown0002] = Point(344, 344)
-            offsets[R.drawable.elf_pinchout_0005] = Point(0, 0)
-            offsets[R.drawable.snowman_swipeleft0002] = Point(429, 221)
-            offsets[R.drawable.elf_swipedown_0021] = Point(435, 467)
-            offsets[R.drawable.reindeer_tap0021] = Point(342, 337)
-            offsets[R.drawable.snowman_shake0011] = Point(95, 0)
-            offsets[R.drawable.elf_pinchin_0017] = Point(520, 222)
-            offsets[R.drawable.santa_shake0018] = Point(393, 420)
-            offsets[R.drawable.reindeer_swiperight0004] = Point(348, 337)
-            offsets[R.drawable.snowman_swipeleft0012] = Point(429, 221)
-            offsets[R.drawable.reindeer_swipeup0009] = Point(210, 38)
-            offsets[R.drawable.reindeer_shake0003] = Point(384, 193)
-            offsets[R.drawable.santa_swipeup0017] = Point(274, 245)
-            offsets[R.drawable.santa_swipeup0009] = Point(429, 271)
+            put(R.drawable.elf_pinchout_0006, 0, 0)
+            put(R.drawable.snowman_swiperight0015, 429, 221)
+            put(R.drawable.reindeer_swipedown0018, 365, 709)
+            put(R.drawable.elf_shake_0006, 318, 230)
+            put(R.drawable.reindeer_swipeleft0002, 341, 331)
+            put(R.drawable.reindeer_pinchout0024, 342, 337)
+            put(R.drawable.snowman_swipeup0023, 429, 220)
+            put(R.drawable.snowman_pinchout0001, 429, 221)
+            put(R.drawable.snowman_pinchout0022, 334, 310)
+            put(R.drawable.reindeer_swipedown0008, 365, 705)
+            put(R.drawable.santa_pinchin0007, 136, 218)
+            put(R.drawable.snowman_swipedown0021, 429, 250)
+            put(R.drawable.santa_idle0021, 415, 434)
+            put(R.drawable.santa_pinchout20001, 0, 0)
+            put(R.drawable.reindeer_swipedown0009, 376, 709)
+            put(R.drawable.snowman_pinchin0001, 429, 221)
+            put(R.drawable.snowman_pinchout0005, 360, 434)
+            put(R.drawable.santa_swipeleft0017, 147, 628)
+            put(R.drawable.reindeer_swipeup0013, 210, 37)
+            put(R.drawable.snowman_pinchin0012, 90, 806)
+            put(R.drawable.santa_swipeleft0009, 94, 606)
+            put(R.drawable.snowman_swipeleft0007, 429, 221)
+            put(R.drawable.santa_idle0027, 415, 432)
+            put(R.drawable.snowman_tap0017, 94, 221)
+            put(R.drawable.santa_temp_tap01, 415, 435)
+            put(R.drawable.elf_swipeleft_0023, 435, 358)
+            put(R.drawable.reindeer_swipeleft0019, 384, 347)
+            put(R.drawable.snowman_pinchin0009, 90, 422)
+            put(R.drawable.elf_idle_0007, 435, 437)
+            put(R.drawable.snowman_idle0002, 429, 220)
+            put(R.drawable.reindeer_tap0008, 342, 337)
+            put(R.drawable.santa_swipe_right20005, 350, 423)
+            put(R.drawable.snowman_pinchout0003, 395, 339)
+            put(R.drawable.reindeer_pinchout0018, 98, 37)
+            put(R.drawable.snowman_swipeleft0004, 429, 221)
+            put(R.drawable.santa_idle0007, 416, 430)
+            put(R.drawable.snowman_swipeup0022, 429, 219)
+            put(R.drawable.santa_shake0005, 229, 475)
+            put(R.drawable.santa_swipeup0016, 253, 221)
+            put(R.drawable.snowman_tap0019, 102, 221)
+            put(R.drawable.santa_swipeup0023, 427, 427)
+            put(R.drawable.reindeer_pinchin0023, 0, 0)
+            put(R.drawable.snowman_swiperight0005, 314, 221)
+            put(R.drawable.elf_shake_0016, 285, 309)
+            put(R.drawable.reindeer_swipeup0016, 240, 73)
+            put(R.drawable.reindeer_swipedown0023, 344, 351)
+            put(R.drawable.reindeer_swipeup0010, 210, 34)
+            put(R.drawable.reindeer_swipedown0007, 375, 595)
+            put(R.drawable.reindeer_pinchin0003, 0, 0)
+            put(R.drawable.santa_shake0010, 241, 468)
+            put(R.drawable.snowman_swipeleft0011, 429, 221)
+            put(R.drawable.elf_tap_0018, 435, 440)
+            put(R.drawable.santa_swipeup0001, 415, 435)
+            put(R.drawable.elf_idle_0012, 435, 436)
+            put(R.drawable.snowman_swiperight0008, 271, 221)
+            put(R.drawable.elf_idle_0002, 435, 440)
+            put(R.drawable.snowman_pinchin0010, 90, 513)
+            put(R.drawable.elf_swiperight_0011, 1073, 707)
+            put(R.drawable.santa_shake0003, 279, 476)
+            put(R.drawable.elf_swipeleft_0012, 294, 460)
+            put(R.drawable.elf_tap_0017, 429, 436)
+            put(R.drawable.elf_pinchin_0008, 520, 914)
+            put(R.drawable.snowman_swipeup0003, 429, 182)
+            put(R.drawable.santa_swipeleft0013, 429, 608)
+            put(R.drawable.snowman_pinchout0020, 237, 580)
+            put(R.drawable.reindeer_shake0018, 384, 13)
+            put(R.drawable.snowman_swipeleft0001, 429, 221)
+            put(R.drawable.reindeer_swipedown0005, 381, 451)
+            put(R.drawable.reindeer_shake0021, 384, 206)
+            put(R.drawable.snowman_idle0020, 429, 218)
+            put(R.drawable.reindeer_tap0022, 342, 337)
+            put(R.drawable.snowman_swipedown0020, 429, 279)
+            put(R.drawable.snowman_shake0005, 115, 0)
+            put(R.drawable.snowman_swipeup0012, 429, 21)
+            put(R.drawable.santa_shake0013, 363, 426)
+            put(R.drawable.elf_pinchin_0001, 435, 440)
+            put(R.drawable.snowman_idle0022, 429, 219)
+            put(R.drawable.reindeer_swipeleft0021, 370, 339)
+            put(R.drawable.santa_pinchin0017, 270, 435)
+            put(R.drawable.elf_swiperight_0020, 252, 504)
+            put(R.drawable.elf_tap_0005, 347, 380)
+            put(R.drawable.snowman_pinchin0008, 90, 367)
+            put(R.drawable.snowman_idle0011, 429, 217)
+            put(R.drawable.reindeer_pinchin0018, 0, 0)
+            put(R.drawable.reindeer_swipeup0015, 218, 46)
+            put(R.drawable.santa_idle0032, 416, 429)
+            put(R.drawable.elf_pinchout_0020, 106, 0)
+            put(R.drawable.snowman_swipeup0007, 427, 21)
+            put(R.drawable.snowman_swipedown0013, 429, 442)
+            put(R.drawable.snowman_swipedown0018, 429, 212)
+            put(R.drawable.santa_pinchin0009, 96, 154)
+            put(R.drawable.snowman_pinchin0005, 55, 0)
+            put(R.drawable.santa_idle0017, 415, 432)
+            put(R.drawable.santa_swipeleft0007, 165, 589)
+            put(R.drawable.santa_idle0011, 416, 429)
+            put(R.drawable.reindeer_swipeleft0010, 282, 280)
+            put(R.drawable.reindeer_shake0013, 383, 20)
+            put(R.drawable.elf_shake_0023, 435, 471)
+            put(R.drawable.snowman_swipeup0008, 429, 21)
+            put(R.drawable.santa_swipedown0007, 429, 635)
+            put(R.drawable.reindeer_swipeleft0003, 338, 311)
+            put(R.drawable.santa_pinchout20004, 0, 0)
+            put(R.drawable.elf_swipeup_0011, 378, 6)
+            put(R.drawable.reindeer_tap0003, 350, 341)
+            put(R.drawable.santa_swipeleft0004, 314, 530)
+            put(R.drawable.elf_idle_0001, 435, 440)
+            put(R.drawable.elf_idle_0006, 435, 437)
+            put(R.drawable.elf_shake_0002, 319, 369)
+            put(R.drawable.elf_tap_0010, 100, 262)
+            put(R.drawable.reindeer_tap0020, 342, 337)
+            put(R.drawable.santa_tap0008, 270, 596)
+            put(R.drawable.reindeer_swipedown0013, 360, 709)
+            put(R.drawable.reindeer_swipeup0020, 334, 368)
+            put(R.drawable.snowman_swiperight0009, 139, 221)
+            put(R.drawable.elf_pinchin_0016, 515, 127)
+            put(R.drawable.reindeer_swiperight0012, 0, 1069)
+            put(R.drawable.reindeer_swipedown0017, 363, 709)
+            put(R.drawable.reindeer_swipeup0007, 327, 105)
+            put(R.drawable.elf_swipedown_0005, 435, 454)
+            put(R.drawable.reindeer_swiperight0008, 205, 660)
+            put(R.drawable.reindeer_shake0016, 383, 17)
+            put(R.drawable.reindeer_shake0008, 384, 23)
+            put(R.drawable.elf_swipeleft_0024, 435, 363)
+            put(R.drawable.santa_shake0015, 332, 421)
+            put(R.drawable.reindeer_swiperight0016, 211, 335)
+            put(R.drawable.santa_shake0014, 367, 422)
+            put(R.drawable.elf_swipeup_0003, 386, 360)
+            put(R.drawable.elf_tap_0011, 81, 270)
+            put(R.drawable.santa_temp_left01, 415, 435)
+            put(R.drawable.elf_swipedown_0018, 435, 469)
+            put(R.drawable.santa_idle0031, 416, 430)
+            put(R.drawable.elf_swipeup_0006, 476, 165)
+            put(R.drawable.elf_swiperight_0022, 435, 459)
+            put(R.drawable.snowman_swipeleft0003, 429, 221)
+            put(R.drawable.elf_swipeup_0005, 475, 262)
+            put(R.drawable.snowman_pinchout0006, 342, 473)
+            put(R.drawable.elf_swipeleft_0022, 435, 352)
+            put(R.drawable.elf_idle_0021, 435, 438)
+            put(R.drawable.santa_swipeup0003, 423, 402)
+            put(R.drawable.snowman_shake0001, 393, 221)
+            put(R.drawable.reindeer_swipeleft0007, 301, 225)
+            put(R.drawable.snowman_swipeleft0024, 429, 221)
+            put(R.drawable.snowman_tap0013, 79, 221)
+            put(R.drawable.santa_idle0029, 415, 431)
+            put(R.drawable.santa_idle0041, 415, 433)
+            put(R.drawable.snowman_swiperight0006, 139, 221)
+            put(R.drawable.reindeer_swipedown0010, 383, 709)
+            put(R.drawable.santa_shake0023, 351, 426)
+            put(R.drawable.santa_swipedown0021, 0, 159)
+            put(R.drawable.snowman_idle0018, 429, 218)
+            put(R.drawable.reindeer_swipeleft0013, 301, 324)
+            put(R.drawable.reindeer_pinchout0004, 331, 324)
+            put(R.drawable.elf_pinchin_0014, 520, 134)
+            put(R.drawable.snowman_pinchin0006, 35, 64)
+            put(R.drawable.santa_swipedown0023, 0, 435)
+            put(R.drawable.santa_shake0021, 344, 421)
+            put(R.drawable.santa_swipe_right20020, 401, 435)
+            put(R.drawable.snowman_shake0010, 100, 0)
+            put(R.drawable.elf_swipedown_0012, 396, 611)
+            put(R.drawable.elf_swipedown_0009, 400, 535)
+            put(R.drawable.reindeer_pinchout0015, 84, 20)
+            put(R.drawable.reindeer_shake0014, 384, 30)
+            put(R.drawable.elf_swipeleft_0013, 269, 460)
+            put(R.drawable.reindeer_shake0002, 357, 301)
+            put(R.drawable.snowman_swipeup0013, 415, 21)
+            put(R.drawable.santa_shake0022, 279, 422)
+            put(R.drawable.santa_shake0017, 377, 420)
+            put(R.drawable.santa_pinchin0005, 215, 347)
+            put(R.drawable.snowman_swipeleft0005, 429, 221)
+            put(R.drawable.elf_swipeup_0012, 378, 119)
+            put(R.drawable.santa_tap0011, 270, 443)
+            put(R.drawable.snowman_idle0009, 429, 217)
+            put(R.drawable.santa_tap0012, 269, 443)
+            put(R.drawable.snowman_swipeleft0006, 429, 221)
+            put(R.drawable.snowman_shake0002, 130, 0)
+            put(R.drawable.reindeer_swiperight0018, 363, 338)
+            put(R.drawable.santa_shake0019, 341, 420)
+            put(R.drawable.elf_shake_0021, 228, 236)
+            put(R.drawable.snowman_idle0017, 429, 217)
+            put(R.drawable.snowman_swiperight0007, 191, 221)
+            put(R.drawable.santa_swipedown0018, 0, 0)
+            put(R.drawable.snowman_tap0022, 118, 221)
+            put(R.drawable.snowman_swiperight0003, 224, 221)
+            put(R.drawable.elf_swipedown_0003, 435, 414)
+            put(R.drawable.snowman_swipeup0005, 429, 70)
+            put(R.drawable.snowman_swipedown0006, 253, 447)
+            put(R.drawable.snowman_pinchin0004, 22, 0)
+            put(R.drawable.snowman_swiperight0001, 429, 221)
+            put(R.drawable.santa_swipedown0010, 429, 635)
+            put(R.drawable.reindeer_swiperight0003, 344, 337)
+            put(R.drawable.elf_tap_0008, 175, 254)
+            put(R.drawable.snowman_swipeup0011, 429, 21)
+            put(R.drawable.santa_swipedown0006, 429, 635)
+            put(R.drawable.santa_idle0036, 416, 429)
+            put(R.drawable.snowman_swiperight0017, 429, 221)
+            put(R.drawable.snowman_swipedown0012, 425, 350)
+            put(R.drawable.santa_swipedown0005, 429, 610)
+            put(R.drawable.santa_idle0016, 415, 432)
+            put(R.drawable.snowman_shake0017, 72, 0)
+            put(R.drawable.elf_pinchin_0024, 520, 518)
+            put(R.drawable.snowman_swipedown0007, 226, 419)
+            put(R.drawable.reindeer_pinchout0021, 183, 142)
+            put(R.drawable.reindeer_pinchin0022, 0, 0)
+            put(R.drawable.santa_swipedown0008, 429, 635)
+            put(R.drawable.elf_tap_0015, 382, 398)
+            put(R.drawable.reindeer_pinchout0003, 339, 334)
+            put(R.drawable.reindeer_swipeleft0022, 353, 338)
+            put(R.drawable.elf_shake_0011, 343, 183)
+            put(R.drawable.elf_swiperight_0002, 423, 441)
+            put(R.drawable.reindeer_swipeup0006, 353, 154)
+            put(R.drawable.elf_tap_0016, 412, 422)
+            put(R.drawable.santa_temp_shake01, 415, 435)
+            put(R.drawable.elf_swipeup_0021, 435, 480)
+            put(R.drawable.elf_idle_0009, 435, 437)
+            put(R.drawable.elf_swipedown_0016, 433, 561)
+            put(R.drawable.santa_pinchout20006, 0, 0)
+            put(R.drawable.santa_pinchout20020, 0, 0)
+            put(R.drawable.reindeer_pinchout0007, 276, 255)
+            put(R.drawable.snowman_idle0003, 429, 219)
+            put(R.drawable.elf_swipeleft_0019, 432, 393)
+            put(R.drawable.reindeer_pinchout0016, 82, 17)
+            put(R.drawable.santa_idle0040, 415, 432)
+            put(R.drawable.elf_swiperight_0017, 0, 606)
+            put(R.drawable.snowman_swiperight0011, 330, 221)
+            put(R.drawable.santa_idle0001, 415, 435)
+            put(R.drawable.snowman_tap0004, 245, 227)
+            put(R.drawable.elf_tap_0013, 286, 324)
+            put(R.drawable.elf_shake_0012, 318, 233)
+            put(R.drawable.snowman_swipedown0016, 422, 13)
+            put(R.drawable.reindeer_pinchin0004, 0, 0)
+            put(R.drawable.santa_swipeup0005, 429, 375)
+            put(R.drawable.snowman_shake0003, 126, 21)
+            put(R.drawable.elf_pinchout_0004, 0, 0)
+            put(R.drawable.reindeer_swipedown0004, 364, 401)
+            put(R.drawable.reindeer_pinchout0023, 281, 262)
+            put(R.drawable.santa_swipeleft0018, 216, 579)
+            put(R.drawable.reindeer_shake0004, 383, 13)
+            put(R.drawable.santa_swipe_right20001, 415, 435)
+            put(R.drawable.santa_swipe_right20021, 389, 435)
+            put(R.drawable.santa_swipeleft0014, 429, 508)
+            put(R.drawable.elf_shake_0018, 279, 233)
+            put(R.drawable.santa_idle0003, 415, 433)
+            put(R.drawable.santa_swipeup0018, 317, 317)
+            put(R.drawable.elf_idle_0010, 435, 436)
+            put(R.drawable.snowman_pinchin0024, 401, 220)
+            put(R.drawable.snowman_swiperight0016, 429, 221)
+            put(R.drawable.snowman_pinchin0007, 35, 64)
+            put(R.drawable.reindeer_pinchin0020, 0, 0)
+            put(R.drawable.elf_swipedown_0015, 400, 605)
+            put(R.drawable.elf_tap_0014, 337, 366)
+            put(R.drawable.elf_tap_0006, 290, 333)
+            put(R.drawable.elf_swiperight_0023, 423, 440)
+            put(R.drawable.santa_swipe_right20023, 415, 435)
+            put(R.drawable.snowman_tap0002, 381, 227)
+            put(R.drawable.santa_swipedown0022, 0, 414)
+            put(R.drawable.santa_swipe_right20017, 415, 385)
+            put(R.drawable.elf_pinchin_0012, 519, 270)
+            put(R.drawable.santa_idle0008, 416, 430)
+            put(R.drawable.snowman_idle0001, 429, 221)
+            put(R.drawable.reindeer_pinchout0010, 177, 135)
+            put(R.drawable.reindeer_swipeup0019, 349, 266)
+            put(R.drawable.santa_tap0022, 358, 435)
+            put(R.drawable.santa_swipeup0012, 417, 213)
+            put(R.drawable.snowman_idle0019, 429, 218)
+            put(R.drawable.elf_swipedown_0023, 435, 460)
+            put(R.drawable.elf_pinchin_0025, 476, 280)
+            put(R.drawable.santa_swipe_right20009, 332, 416)
+            put(R.drawable.santa_idle0038, 415, 431)
+            put(R.drawable.snowman_pinchout0021, 285, 423)
+            put(R.drawable.santa_swipeup0022, 420, 438)
+            put(R.drawable.elf_pinchin_0007, 497, 828)
+            put(R.drawable.reindeer_shake0023, 342, 346)
+            put(R.drawable.snowman_idle0023, 429, 220)
+            put(R.drawable.snowman_swiperight0012, 399, 221)
+            put(R.drawable.reindeer_pinchout0017, 86, 22)
+            put(R.drawable.reindeer_swipedown0001, 342, 337)
+            put(R.drawable.snowman_pinchin0021, 182, 191)
+            put(R.drawable.snowman_swipeup0020, 429, 221)
+            put(R.drawable.reindeer_shake0019, 384, 34)
+            put(R.drawable.elf_swipeleft_0009, 391, 460)
+            put(R.drawable.snowman_tap0016, 90, 221)
+            put(R.drawable.elf_shake_0004, 228, 236)
+            put(R.drawable.snowman_tap0020, 105, 221)
+            put(R.drawable.elf_pinchout_0022, 464, 489)
+            put(R.drawable.santa_swipedown0011, 345, 613)
+            put(R.drawable.elf_pinchin_0029, 404, 450)
+            put(R.drawable.elf_shake_0013, 201, 285)
+            put(R.drawable.santa_swipeup0007, 429, 304)
+            put(R.drawable.snowman_idle0016, 429, 217)
+            put(R.drawable.santa_swipe_right20010, 312, 437)
+            put(R.drawable.reindeer_swipeup0018, 329, 183)
+            put(R.drawable.reindeer_tap0010, 342, 337)
+            put(R.drawable.elf_swipedown_0001, 435, 440)
+            put(R.drawable.elf_swipeup_0020, 404, 450)
+            put(R.drawable.elf_pinchout_0023, 459, 480)
+            put(R.drawable.santa_pinchin0018, 235, 505)
+            put(R.drawable.reindeer_pinchin0019, 0, 0)
+            put(R.drawable.santa_shake0006, 245, 474)
+            put(R.drawable.snowman_shake0019, 74, 0)
+            put(R.drawable.santa_idle0019, 415, 434)
+            put(R.drawable.snowman_swipedown0011, 394, 381)
+            put(R.drawable.snowman_pinchin0020, 167, 189)
+            put(R.drawable.santa_idle0043, 415, 434)
+            put(R.drawable.snowman_swipeleft0013, 415, 221)
+            put(R.drawable.reindeer_swipeup0023, 193, 338)
+            put(R.drawable.elf_swiperight_0003, 435, 425)
+            put(R.drawable.reindeer_swipedown0014, 343, 709)
+            put(R.drawable.santa_swipeleft0020, 351, 467)
+            put(R.drawable.snowman_swipeleft0023, 429, 221)
+            put(R.drawable.reindeer_swipeup0021, 268, 354)
+            put(R.drawable.snowman_tap0009, 79, 221)
+            put(R.drawable.elf_shake_0009, 201, 285)
+            put(R.drawable.santa_swipeleft0003, 374, 516)
+            put(R.drawable.snowman_swipeleft0022, 429, 221)
+            put(R.drawable.santa_tap0015, 270, 412)
+            put(R.drawable.snowman_pinchout0002, 412, 283)
+            put(R.drawable.elf_swipedown_0010, 397, 556)
+            put(R.drawable.elf_pinchin_0011, 521, 426)
+            put(R.drawable.reindeer_swipedown0012, 378, 709)
+            put(R.drawable.santa_pinchin0002, 358, 435)
+            put(R.drawable.reindeer_tap0004, 346, 339)
+            put(R.drawable.snowman_shake0015, 83, 0)
+            put(R.drawable.santa_shake0016, 322, 420)
+            put(R.drawable.snowman_pinchin0014, 90, 1245)
+            put(R.drawable.reindeer_swiperight0023, 330, 341)
+            put(R.drawable.santa_pinchin0019, 224, 529)
+            put(R.drawable.reindeer_swipeleft0018, 384, 355)
+            put(R.drawable.reindeer_shake0015, 384, 23)
+            put(R.drawable.snowman_pinchin0011, 90, 641)
+            put(R.drawable.santa_swipe_right20011, 412, 394)
+            put(R.drawable.santa_pinchin0004, 270, 435)
+            put(R.drawable.snowman_shake0021, 68, 11)
+            put(R.drawable.reindeer_swipeleft0012, 291, 300)
+            put(R.drawable.santa_swipeup0006, 429, 334)
+            put(R.drawable.reindeer_pinchout0006, 299, 285)
+            put(R.drawable.santa_pinchin0001, 415, 435)
+            put(R.drawable.santa_swipeup0020, 425, 462)
+            put(R.drawable.elf_swipeleft_0007, 362, 460)
+            put(R.drawable.snowman_tap0015, 87, 221)
+            put(R.drawable.elf_swiperight_0007, 506, 517)
+            put(R.drawable.elf_swipeup_0016, 476, 200)
+            put(R.drawable.elf_swipeleft_0020, 435, 389)
+            put(R.drawable.santa_swipedown0009, 429, 635)
+            put(R.drawable.santa_swipe_right20002, 420, 435)
+            put(R.drawable.elf_swipeleft_0015, 369, 460)
+            put(R.drawable.elf_swipeleft_0002, 414, 441)
+            put(R.drawable.elf_swipeleft_0008, 393, 460)
+            put(R.drawable.santa_tap0019, 270, 423)
+            put(R.drawable.elf_pinchout_0007, 0, 0)
+            put(R.drawable.snowman_swiperight0018, 429, 221)
+            put(R.drawable.elf_pinchin_0006, 487, 762)
+            put(R.drawable.snowman_pinchout0011, 255, 577)
+            put(R.drawable.snowman_swiperight0022, 417, 221)
+            put(R.drawable.reindeer_swiperight0021, 325, 361)
+            put(R.drawable.snowman_idle0007, 429, 217)
+            put(R.drawable.santa_swipedown0013, 266, 0)
+            put(R.drawable.santa_pinchout20002, 0, 0)
+            put(R.drawable.santa_swipeup0019, 422, 428)
+            put(R.drawable.snowman_swipeleft0016, 429, 221)
+            put(R.drawable.elf_swipeup_0004, 435, 200)
+            put(R.drawable.santa_swipeleft0006, 209, 565)
+            put(R.drawable.santa_idle0005, 415, 431)
+            put(R.drawable.reindeer_swipeup0014, 210, 37)
+            put(R.drawable.elf_shake_0010, 285, 309)
+            put(R.drawable.reindeer_swipeleft0008, 290, 260)
+            put(R.drawable.snowman_swipeup0016, 219, 21)
+            put(R.drawable.reindeer_swipeup0003, 342, 275)
+            put(R.drawable.reindeer_swiperight0009, 121, 685)
+            put(R.drawable.reindeer_swiperight0017, 249, 332)
+            put(R.drawable.elf_swipeup_0015, 476, 311)
+            put(R.drawable.elf_swipeup_0013, 397, 259)
+            put(R.drawable.santa_shake0024, 355, 435)
+            put(R.drawable.santa_shake0002, 328, 456)
+            put(R.drawable.reindeer_swipeleft0004, 333, 279)
+            put(R.drawable.snowman_shake0016, 76, 0)
+            put(R.drawable.santa_swipedown0014, 262, 0)
+            put(R.drawable.reindeer_swipedown0019, 384, 601)
+            put(R.drawable.elf_pinchin_0031, 435, 458)
+            put(R.drawable.santa_idle0046, 415, 435)
+            put(R.drawable.elf_pinchin_0020, 520, 898)
+            put(R.drawable.santa_tap0005, 270, 509)
+            put(R.drawable.santa_idle0009, 416, 429)
+            put(R.drawable.santa_temp_down01, 415, 435)
+            put(R.drawable.elf_pinchout_0019, 50, 0)
+            put(R.drawable.snowman_tap0006, 146, 221)
+            put(R.drawable.elf_swiperight_0021, 427, 451)
+            put(R.drawable.santa_swipeup0021, 399, 471)
+            put(R.drawable.elf_idle_0019, 435, 438)
+            put(R.drawable.elf_swiperight_0010, 888, 568)
+            put(R.drawable.reindeer_swipedown0021, 371, 437)
+            put(R.drawable.snowman_swipeleft0019, 429, 221)
+            put(R.drawable.reindeer_shake0020, 384, 99)
+            put(R.drawable.snowman_tap0008, 79, 221)
+            put(R.drawable.santa_idle0020, 415, 434)
+            put(R.drawable.snowman_tap0024, 429, 221)
+            put(R.drawable.snowman_swipeup0004, 429, 133)
+            put(R.drawable.reindeer_swipeleft0001, 342, 337)
+            put(R.drawable.snowman_shake0007, 108, 0)
+            put(R.drawable.santa_swipeleft0015, 415, 416)
+            put(R.drawable.elf_tap_0012, 221, 272)
+            put(R.drawable.elf_pinchout_0003, 250, 0)
+            put(R.drawable.reindeer_shake0022, 342, 357)
+            put(R.drawable.reindeer_shake0005, 384, 13)
+            put(R.drawable.snowman_swipeleft0021, 429, 221)
+            put(R.drawable.reindeer_swipedown0006, 384, 516)
+            put(R.drawable.elf_swiperight_0018, 0, 538)
+            put(R.drawable.elf_idle_0008, 435, 437)
+            put(R.drawable.reindeer_swipeup0017, 277, 119)
+            put(R.drawable.elf_pinchin_0022, 513, 738)
+            put(R.drawable.elf_swipeup_0018, 454, 400)
+            put(R.drawable.santa_swipeup0010, 429, 266)
+            put(R.drawable.snowman_pinchout0009, 290, 553)
+            put(R.drawable.elf_pinchin_0010, 521, 653)
+            put(R.drawable.snowman_tap0011, 79, 221)
+            put(R.drawable.elf_swipeleft_0006, 330, 460)
+            put(R.drawable.elf_swipeleft_0004, 372, 441)
+            put(R.drawable.snowman_swiperight0020, 429, 221)
+            put(R.drawable.reindeer_swiperight0015, 0, 335)
+            put(R.drawable.snowman_shake0008, 110, 0)
+            put(R.drawable.elf_swipeup_0009, 357, 152)
+            put(R.drawable.elf_swipeup_0002, 386, 400)
+            put(R.drawable.snowman_swipedown0010, 335, 435)
+            put(R.drawable.santa_swipe_right20015, 415, 353)
+            put(R.drawable.reindeer_swipeleft0023, 344, 337)
+            put(R.drawable.santa_pinchout20003, 0, 0)
+            put(R.drawable.snowman_swiperight0013, 429, 221)
+            put(R.drawable.snowman_swipedown0015, 429, 261)
+            put(R.drawable.snowman_swipeup0014, 346, 21)
+            put(R.drawable.snowman_swipedown0008, 207, 344)
+            put(R.drawable.reindeer_pinchout0012, 124, 69)
+            put(R.drawable.santa_temp_zoom_in01, 415, 435)
+            put(R.drawable.reindeer_pinchin0021, 0, 0)
+            put(R.drawable.santa_tap0017, 270, 423)
+            put(R.drawable.snowman_shake0006, 110, 0)
+            put(R.drawable.reindeer_tap0006, 342, 337)
+            put(R.drawable.elf_idle_0024, 435, 440)
+            put(R.drawable.santa_swipeleft0005, 258, 546)
+            put(R.drawable.elf_pinchin_0027, 459, 400)
+            put(R.drawable.reindeer_tap0005, 342, 337)
+            put(R.drawable.elf_swipedown_0020, 435, 470)
+            put(R.drawable.elf_idle_0011, 435, 436)
+            put(R.drawable.santa_swipedown0001, 415, 435)
+            put(R.drawable.elf_shake_0008, 318, 362)
+            put(R.drawable.reindeer_pinchout0022, 228, 197)
+            put(R.drawable.reindeer_pinchout0014, 92, 30)
+            put(R.drawable.snowman_swipedown0002, 400, 266)
+            put(R.drawable.reindeer_swiperight0001, 342, 337)
+            put(R.drawable.santa_swipedown0019, 0, 0)
+            put(R.drawable.santa_swipeleft0024, 429, 424)
+            put(R.drawable.reindeer_swiperight0005, 354, 337)
+            put(R.drawable.santa_pinchout20023, 0, 0)
+            put(R.drawable.snowman_swipeup0002, 429, 211)
+            put(R.drawable.santa_idle0022, 415, 435)
+            put(R.drawable.elf_swipeleft_0010, 317, 460)
+            put(R.drawable.snowman_tap0007, 95, 221)
+            put(R.drawable.santa_swipedown0002, 358, 435)
+            put(R.drawable.santa_idle0018, 415, 433)
+            put(R.drawable.reindeer_shake0010, 383, 13)
+            put(R.drawable.santa_tap0014, 270, 320)
+            put(R.drawable.santa_shake0020, 386, 420)
+            put(R.drawable.snowman_swipeup0017, 231, 33)
+            put(R.drawable.elf_swipeup_0023, 435, 445)
+            put(R.drawable.elf_tap_0007, 221, 272)
+            put(R.drawable.snowman_idle0021, 429, 219)
+            put(R.drawable.elf_pinchin_0013, 519, 169)
+            put(R.drawable.elf_pinchin_0018, 506, 385)
+            put(R.drawable.santa_pinchin0006, 171, 275)
+            put(R.drawable.reindeer_swipedown0015, 349, 709)
+            put(R.drawable.santa_swipe_right20007, 341, 418)
+            put(R.drawable.reindeer_swiperight0022, 304, 370)
+            put(R.drawable.santa_swipeleft0002, 398, 476)
+            put(R.drawable.santa_swipedown0004, 340, 535)
+            put(R.drawable.reindeer_swipedown0016, 357, 709)
+            put(R.drawable.snowman_swipedown0005, 285, 401)
+            put(R.drawable.reindeer_tap0009, 342, 337)
+            put(R.drawable.snowman_swipeup0021, 429, 220)
+            put(R.drawable.elf_swipedown_0006, 435, 475)
+            put(R.drawable.reindeer_swipeleft0011, 284, 285)
+            put(R.drawable.snowman_shake0014, 87, 3)
+            put(R.drawable.snowman_idle0006, 429, 218)
+            put(R.drawable.santa_swipe_right20004, 350, 428)
+            put(R.drawable.reindeer_swipeleft0005, 326, 235)
+            put(R.drawable.snowman_idle0004, 429, 219)
+            put(R.drawable.elf_shake_0001, 435, 440)
+            put(R.drawable.elf_swipedown_0022, 435, 463)
+            put(R.drawable.elf_swipeup_0017, 456, 380)
+            put(R.drawable.snowman_pinchout0013, 237, 580)
+            put(R.drawable.santa_swipeleft0016, 299, 540)
+            put(R.drawable.snowman_pinchout0010, 272, 568)
+            put(R.drawable.snowman_tap0003, 277, 248)
+            put(R.drawable.santa_shake0001, 355, 435)
+            put(R.drawable.elf_swiperight_0009, 769, 641)
+            put(R.drawable.santa_swipe_right20016, 415, 370)
+            put(R.drawable.santa_idle0010, 416, 429)
+            put(R.drawable.elf_swiperight_0006, 441, 476)
+            put(R.drawable.elf_swipeup_0007, 492, 165)
+            put(R.drawable.elf_idle_0017, 435, 437)
+            put(R.drawable.santa_swipeleft0008, 127, 618)
+            put(R.drawable.santa_pinchout20021, 0, 0)
+            put(R.drawable.santa_idle0013, 416, 429)
+            put(R.drawable.snowman_swipedown0009, 266, 281)
+            put(R.drawable.snowman_swipedown0014, 429, 411)
+            put(R.drawable.elf_tap_0003, 427, 434)
+            put(R.drawable.snowman_pinchin0003, 193, 109)
+            put(R.drawable.santa_swipeleft0012, 429, 558)
+            put(R.drawable.snowman_idle0005, 429, 218)
+            put(R.drawable.snowman_idle0010, 429, 217)
+            put(R.drawable.santa_swipedown0016, 429, 402)
+            put(R.drawable.reindeer_swiperight0010, 61, 1026)
+            put(R.drawable.snowman_pinchout0012, 237, 580)
+            put(R.drawable.elf_idle_0005, 435, 438)
+            put(R.drawable.reindeer_tap0002, 346, 339)
+            put(R.drawable.elf_tap_0004, 401, 413)
+            put(R.drawable.santa_idle0030, 416, 430)
+            put(R.drawable.elf_pinchin_0023, 521, 583)
+            put(R.drawable.reindeer_pinchin0001, 0, 0)
+            put(R.drawable.reindeer_pinchout0009, 212, 177)
+            put(R.drawable.reindeer_pinchout0001, 342, 337)
+            put(R.drawable.santa_swipeleft0022, 398, 448)
+            put(R.drawable.reindeer_swiperight0006, 363, 644)
+            put(R.drawable.snowman_tap0010, 79, 221)
+            put(R.drawable.elf_pinchout_0024, 444, 455)
+            put(R.drawable.elf_pinchout_0001, 435, 440)
+            put(R.drawable.santa_swipe_right20003, 347, 435)
+            put(R.drawable.snowman_swipeleft0020, 429, 221)
+            put(R.drawable.reindeer_shake0024, 342, 339)
+            put(R.drawable.snowman_pinchin0022, 226, 197)
+            put(R.drawable.snowman_shake0020, 73, 5)
+            put(R.drawable.santa_tap0013, 270, 412)
+            put(R.drawable.elf_swipeleft_0003, 393, 440)
+            put(R.drawable.snowman_shake0024, 382, 216)
+            put(R.drawable.santa_tap0007, 270, 586)
+            put(R.drawable.snowman_shake0013, 88, 0)
+            put(R.drawable.snowman_tap0021, 118, 221)
+            put(R.drawable.elf_swipeup_0010, 378, 84)
+            put(R.drawable.elf_swipedown_0011, 397, 560)
+            put(R.drawable.snowman_pinchin0023, 299, 207)
+            put(R.drawable.elf_swiperight_0019, 83, 515)
+            put(R.drawable.reindeer_swipeup0008, 210, 47)
+            put(R.drawable.snowman_tap0012, 79, 221)
+            put(R.drawable.reindeer_swipeleft0015, 338, 400)
+            put(R.drawable.elf_swiperight_0013, 0, 730)
+            put(R.drawable.santa_idle0028, 415, 431)
+            put(R.drawable.santa_pinchin0010, 91, 146)
+            put(R.drawable.snowman_pinchin0002, 374, 193)
+            put(R.drawable.elf_swipeup_0014, 468, 315)
+            put(R.drawable.reindeer_swipeleft0020, 384, 342)
+            put(R.drawable.elf_pinchin_0003, 460, 584)
+            put(R.drawable.elf_pinchin_0021, 500, 990)
+            put(R.drawable.reindeer_swipeleft0014, 317, 357)
+            put(R.drawable.reindeer_tap0019, 342, 337)
+            put(R.drawable.reindeer_swipeleft0017, 376, 371)
+            put(R.drawable.santa_tap0010, 270, 536)
+            put(R.drawable.reindeer_swiperight0019, 384, 389)
+            put(R.drawable.elf_shake_0019, 231, 285)
+            put(R.drawable.snowman_pinchin0016, 167, 913)
+            put(R.drawable.elf_swipeleft_0001, 435, 440)
+            put(R.drawable.snowman_shake0022, 64, 16)
+            put(R.drawable.santa_shake0012, 355, 435)
+            put(R.drawable.santa_pinchin0013, 136, 219)
+            put(R.drawable.elf_swipeleft_0014, 395, 460)
+            put(R.drawable.santa_swipeup0002, 418, 418)
+            put(R.drawable.elf_swipedown_0008, 434, 515)
+            put(R.drawable.elf_swipedown_0007, 435, 495)
+            put(R.drawable.snowman_tap0001, 429, 221)
+            put(R.drawable.snowman_pinchout0007, 325, 506)
+            put(R.drawable.santa_idle0037, 416, 430)
+            put(R.drawable.santa_swipedown0012, 265, 264)
+            put(R.drawable.santa_idle0015, 415, 431)
+            put(R.drawable.santa_pinchout20019, 0, 0)
+            put(R.drawable.reindeer_swiperight0014, 0, 335)
+            put(R.drawable.reindeer_swipeleft0006, 318, 177)
+            put(R.drawable.santa_swipe_right20022, 415, 435)
+            put(R.drawable.santa_swipedown0020, 0, 0)
+            put(R.drawable.reindeer_tap0001, 342, 337)
+            put(R.drawable.santa_swipeup0013, 312, 193)
+            put(R.drawable.reindeer_pinchout0005, 318, 308)
+            put(R.drawable.santa_shake0008, 255, 477)
+            put(R.drawable.reindeer_swipeleft0016, 353, 389)
+            put(R.drawable.snowman_swipeup0006, 429, 33)
+            put(R.drawable.snowman_shake0012, 91, 0)
+            put(R.drawable.elf_shake_0017, 201, 183)
+            put(R.drawable.reindeer_swipedown0020, 384, 510)
+            put(R.drawable.santa_idle0042, 415, 433)
+            put(R.drawable.reindeer_pinchout0002, 342, 337)
+            put(R.drawable.santa_idle0044, 415, 434)
+            put(R.drawable.santa_idle0006, 415, 431)
+            put(R.drawable.santa_swipeleft0019, 429, 428)
+            put(R.drawable.reindeer_swipedown0011, 384, 709)
+            put(R.drawable.elf_shake_0005, 201, 183)
+            put(R.drawable.snowman_swipeleft0010, 429, 221)
+            put(R.drawable.reindeer_shake0006, 384, 14)
+            put(R.drawable.santa_tap0006, 270, 557)
+            put(R.drawable.elf_pinchin_0002, 447, 512)
+            put(R.drawable.elf_swiperight_0005, 407, 458)
+            put(R.drawable.santa_idle0039, 415, 431)
+            put(R.drawable.elf_swipeup_0019, 434, 440)
+            put(R.drawable.elf_swipeleft_0011, 295, 460)
+            put(R.drawable.reindeer_pinchout0008, 246, 219)
+            put(R.drawable.snowman_shake0023, 382, 216)
+            put(R.drawable.snowman_swiperight0021, 429, 221)
+            put(R.drawable.elf_pinchin_0019, 520, 618)
+            put(R.drawable.snowman_shake0004, 122, 0)
+            put(R.drawable.reindeer_pinchout0011, 148, 99)
+            put(R.drawable.santa_swipe_right20014, 416, 340)
+            put(R.drawable.elf_pinchin_0015, 515, 95)
+            put(R.drawable.santa_idle0002, 415, 434)
+            put(R.drawable.santa_pinchout20007, 0, 0)
+            put(R.drawable.santa_pinchin0014, 170, 275)
+            put(R.drawable.santa_swipedown0003, 340, 460)
+            put(R.drawable.snowman_pinchout0024, 429, 221)
+            put(R.drawable.santa_shake0009, 243, 477)
+            put(R.drawable.elf_tap_0002, 435, 440)
+            put(R.drawable.santa_swipeleft0023, 429, 429)
+            put(R.drawable.elf_shake_0015, 263, 285)
+            put(R.drawable.santa_swipe_right20008, 336, 417)
+            put(R.drawable.elf_shake_0020, 324, 362)
+            put(R.drawable.elf_shake_0003, 176, 324)
+            put(R.drawable.reindeer_swipeup0011, 210, 34)
+            put(R.drawable.santa_tap0016, 270, 443)
+            put(R.drawable.elf_swipeleft_0005, 351, 460)
+            put(R.drawable.elf_swipeup_0022, 435, 458)
+            put(R.drawable.snowman_swipeleft0009, 429, 221)
+            put(R.drawable.santa_swipeup0014, 311, 178)
+            put(R.drawable.elf_pinchin_0026, 467, 340)
+            put(R.drawable.elf_swipedown_0017, 435, 470)
+            put(R.drawable.santa_idle0012, 416, 429)
+            put(R.drawable.reindeer_swipedown0003, 352, 366)
+            put(R.drawable.santa_swipeleft0021, 270, 462)
+            put(R.drawable.santa_pinchout20018, 0, 0)
+            put(R.drawable.reindeer_swipeup0022, 221, 344)
+            put(R.drawable.snowman_swiperight0019, 429, 221)
+            put(R.drawable.reindeer_pinchout0013, 106, 46)
+            put(R.drawable.snowman_swipedown0003, 359, 311)
+            put(R.drawable.elf_swiperight_0014, 0, 768)
+            put(R.drawable.snowman_tap0005, 213, 221)
+            put(R.drawable.snowman_swiperight0023, 429, 221)
+            put(R.drawable.reindeer_shake0007, 383, 15)
+            put(R.drawable.elf_swiperight_0012, 1280 / 2, 1280 / 2)
+            put(R.drawable.snowman_pinchin0018, 167, 370)
+            put(R.drawable.santa_idle0045, 415, 434)
+            put(R.drawable.santa_swipeup0004, 426, 385)
+            put(R.drawable.elf_swipeleft_0021, 435, 375)
+            put(R.drawable.reindeer_swiperight0013, 0, 569)
+            put(R.drawable.reindeer_swiperight0024, 342, 337)
+            put(R.drawable.reindeer_swipeleft0024, 342, 337)
+            put(R.drawable.elf_idle_0004, 435, 438)
+            put(R.drawable.snowman_tap0014, 83, 221)
+            put(R.drawable.reindeer_pinchin0005, 0, 0)
+            put(R.drawable.santa_shake0011, 326, 453)
+            put(R.drawable.santa_swipedown0015, 257, 0)
+            put(R.drawable.reindeer_swipeup0012, 210, 35)
+            put(R.drawable.snowman_swipedown0004, 320, 356)
+            put(R.drawable.reindeer_pinchin0002, 0, 0)
+            put(R.drawable.santa_idle0033, 416, 429)
+            put(R.drawable.elf_pinchout_0002, 376, 324)
+            put(R.drawable.reindeer_pinchin0006, 0, 0)
+            put(R.drawable.elf_pinchin_0009, 500, 990)
+            put(R.drawable.santa_swipeup0015, 267, 203)
+            put(R.drawable.snowman_swipeleft0018, 429, 221)
+            put(R.drawable.reindeer_swipeup0005, 344, 186)
+            put(R.drawable.reindeer_swipeup0001, 342, 337)
+            put(R.drawable.santa_tap0003, 270, 435)
+            put(R.drawable.elf_idle_0020, 435, 438)
+            put(R.drawable.elf_swipeleft_0018, 435, 441)
+            put(R.drawable.santa_swipedown0024, 0, 435)
+            put(R.drawable.snowman_shake0009, 107, 0)
+            put(R.drawable.santa_pinchout20017, 0, 0)
+            put(R.drawable.elf_idle_0003, 435, 439)
+            put(R.drawable.snowman_shake0018, 72, 0)
+            put(R.drawable.elf_swipeup_0008, 378, 188)
+            put(R.drawable.reindeer_pinchout0019, 118, 62)
+            put(R.drawable.snowman_swipeup0019, 376, 133)
+            put(R.drawable.elf_swiperight_0004, 395, 453)
+            put(R.drawable.elf_shake_0014, 318, 362)
+            put(R.drawable.elf_swiperight_0015, 0, 572)
+            put(R.drawable.snowman_pinchout0008, 307, 532)
+            put(R.drawable.elf_swiperight_0016, 0, 623)
+            put(R.drawable.reindeer_swiperight0002, 342, 337)
+            put(R.drawable.elf_pinchin_0004, 472, 655)
+            put(R.drawable.elf_swipeleft_0016, 444, 441)
+            put(R.drawable.snowman_swiperight0002, 139, 221)
+            put(R.drawable.snowman_swiperight0004, 224, 221)
+            put(R.drawable.santa_swipe_right20024, 415, 435)
+            put(R.drawable.reindeer_pinchout0020, 147, 97)
+            put(R.drawable.santa_swipeup0008, 429, 283)
+            put(R.drawable.elf_pinchin_0030, 435, 480)
+            put(R.drawable.snowman_swipeup0015, 253, 21)
+            put(R.drawable.santa_swipedown0017, 0, 0)
+            put(R.drawable.elf_pinchin_0032, 435, 445)
+            put(R.drawable.snowman_swipedown0017, 429, 129)
+            put(R.drawable.santa_pinchout20005, 0, 0)
+            put(R.drawable.snowman_swipeleft0014, 429, 221)
+            put(R.drawable.reindeer_swiperight0011, 26, 1021)
+            put(R.drawable.reindeer_shake0009, 384, 15)
+            put(R.drawable.reindeer_swiperight0007, 313, 629)
+            put(R.drawable.santa_tap0004, 270, 443)
+            put(R.drawable.reindeer_pinchin0007, 0, 0)
+            put(R.drawable.santa_swipe_right20012, 426, 350)
+            put(R.drawable.snowman_pinchin0019, 167, 234)
+            put(R.drawable.reindeer_shake0017, 384, 14)
+            put(R.drawable.santa_swipe_right20006, 346, 420)
+            put(R.drawable.snowman_pinchout0023, 382, 243)
+            put(R.drawable.elf_shake_0022, 336, 324)
+            put(R.drawable.santa_swipe_right20018, 415, 389)
+            put(R.drawable.snowman_swiperight0010, 235, 221)
+            put(R.drawable.santa_swipe_right20013, 420, 336)
+            put(R.drawable.snowman_swipeleft0015, 429, 221)
+            put(R.drawable.elf_idle_0022, 435, 439)
+            put(R.drawable.santa_shake0007, 257, 475)
+            put(R.drawable.elf_swiperight_0008, 611, 565)
+            put(R.drawable.santa_pinchin0020, 235, 505)
+            put(R.drawable.snowman_swipeleft0017, 429, 221)
+            put(R.drawable.elf_swipeleft_0017, 422, 440)
+            put(R.drawable.santa_pinchin0003, 268, 435)
+            put(R.drawable.snowman_pinchout0004, 377, 390)
+            put(R.drawable.santa_tap0018, 270, 404)
+            put(R.drawable.snowman_swipedown0019, 429, 262)
+            put(R.drawable.santa_idle0004, 415, 432)
+            put(R.drawable.reindeer_swipeup0004, 342, 197)
+            put(R.drawable.reindeer_swiperight0020, 383, 352)
+            put(R.drawable.santa_pinchin0022, 270, 435)
+            put(R.drawable.snowman_swipeup0018, 214, 71)
+            put(R.drawable.reindeer_swipeup0002, 342, 321)
+            put(R.drawable.reindeer_swipeleft0009, 284, 276)
+            put(R.drawable.santa_idle0047, 415, 435)
+            put(R.drawable.snowman_swiperight0014, 428, 221)
+            put(R.drawable.reindeer_shake0012, 384, 14)
+            put(R.drawable.elf_pinchout_0021, 184, 0)
+            put(R.drawable.snowman_pinchin0017, 167, 596)
+            put(R.drawable.santa_swipe_right20019, 415, 435)
+            put(R.drawable.reindeer_shake0011, 383, 13)
+            put(R.drawable.santa_tap0009, 269, 567)
+            put(R.drawable.elf_pinchin_0005, 462, 727)
+            put(R.drawable.snowman_pinchin0013, 90, 1008)
+            put(R.drawable.santa_swipeup0011, 429, 221)
+            put(R.drawable.elf_swipedown_0019, 435, 474)
+            put(R.drawable.snowman_tap0018, 98, 221)
+            put(R.drawable.elf_shake_0007, 244, 285)
+            put(R.drawable.elf_idle_0015, 435, 436)
+            put(R.drawable.santa_pinchin0008, 111, 178)
+            put(R.drawable.snowman_idle0008, 429, 217)
+            put(R.drawable.reindeer_swipedown0022, 354, 384)
+            put(R.drawable.reindeer_tap0007, 342, 337)
+            put(R.drawable.elf_swipedown_0013, 397, 628)
+            put(R.drawable.elf_pinchin_0028, 434, 440)
+            put(R.drawable.snowman_swipeleft0008, 429, 221)
+            put(R.drawable.snowman_tap0023, 169, 221)
+            put(R.drawable.elf_tap_0009, 132, 248)
+            put(R.drawable.elf_swipedown_0004, 435, 434)
+            put(R.drawable.santa_shake0004, 204, 478)
+            put(R.drawable.reindeer_swipedown0002, 344, 344)
+            put(R.drawable.elf_pinchout_0005, 0, 0)
+            put(R.drawable.snowman_swipeleft0002, 429, 221)
+            put(R.drawable.elf_swipedown_0021, 435, 467)
+            put(R.drawable.reindeer_tap0021, 342, 337)
+            put(R.drawable.snowman_shake0011, 95, 0)
+            put(R.drawable.elf_pinchin_0017, 520, 222)
+            put(R.drawable.santa_shake0018, 393, 420)
+            put(R.drawable.reindeer_swiperight0004, 348, 337)
+            put(R.drawable.snowman_swipeleft0012, 429, 221)
+            put(R.drawable.reindeer_swipeup0009, 210, 38)
+            put(R.drawable.reindeer_shake0003, 384, 193)
+            put(R.drawable.santa_swipeup0017, 274, 245)
+            put(R.drawable.santa_swipeup0009, 429, 271)
+
+            table = builder!!.build()
+            builder = null
         }
 
         @JvmField
         var ORIG_SIZE = Point(1280, 1280)
 
+        /**
+         * Sets out to the offsets of the given frame within [ORIG_SIZE], or to (0, 0) if it has
+         * none.
+         *
+         * @return out, for convenience.
+         */
         @JvmStatic
-        fun getOffsets(@DrawableRes drawableId: Int): Point {
-            val p = offsets[drawableId]
-            return p ?: EMPTY
+        fun getOffsets(@DrawableRes drawableId: Int, out: Point): Point {
+            val i = table.indexOf(drawableId)
+            if (i < 0) {
+                out.set(0, 0)
+            } else {
+                out.set(table.x(i), table.y(i))
+            }
+            return out
         }
 
-        private val EMPTY = Point(0, 0)
+        private fun put(@DrawableRes drawableId: Int, x: Int, y: Int) {
+            builder!!.put(drawableId, x, y)
+        }
     }
 }
\ No newline at end of file
@@ -1,44 +0,0 @@
-/*
- * Copyright 2019. Google LLC
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     https://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.google.android.apps.santatracker.dasherdancer
-
-import android.os.AsyncTask
-import com.google.android.apps.santatracker.util.SantaLog
-
-/** Async task that supports a full retry operation.  */
-abstract class RetryableAsyncTask<A, B, C> : AsyncTask<A, B, C>() {
-
-    internal abstract fun shouldRetry(): Boolean
-
-    internal abstract fun onPrepareForRetry()
-
-    internal fun retrySelf(params: Array<A>): C? {
-        return if (shouldRetry()) {
-            onPrepareForRetry()
-            doInBackground(*params)
-        } else {
-            SantaLog.d(TAG, "Should not retry, canceling task")
-
-            cancel(true)
-            null
-        }
-    }
-
-    companion object {
-
-        private const val TAG = "RetryableAT"
-    }
-}
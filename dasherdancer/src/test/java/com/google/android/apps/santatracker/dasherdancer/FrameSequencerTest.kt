@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.dasherdancer
+
+import android.graphics.BitmapFactory
+import android.graphics.drawable.Drawable
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowLooper
+import java.util.ArrayDeque
+import java.util.concurrent.AbstractExecutorService
+import java.util.concurrent.TimeUnit
+
+/** Test that [FrameSequencer] drops the frames decoded for an animation which isn't current. */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [26], constants = BuildConfig::class)
+class FrameSequencerTest {
+
+    private val elf = Elf()
+    private val idle = elf.getFrames(Character.ANIM_IDLE)
+    private val idleIndices = elf.getFrameIndices(Character.ANIM_IDLE)
+    private val tap = elf.getFrames(Character.ANIM_TAP)
+    private val tapIndices = elf.getFrameIndices(Character.ANIM_TAP)
+
+    private val executor = ManualExecutor()
+    private lateinit var sequencer: FrameSequencer
+
+    @Before
+    fun setUp() {
+        // Run what the decoding posts to the main thread only when asked to.
+        ShadowLooper.pauseMainLooper()
+        sequencer = FrameSequencer(
+                RuntimeEnvironment.application.resources, BitmapFactory.Options(), 64 * 1024,
+                executor)
+    }
+
+    @After
+    fun tearDown() {
+        ShadowLooper.unPauseMainLooper()
+    }
+
+    @Test
+    fun testAnimationIsReadyOnceDecoded() {
+        val ready = Recorder()
+        sequencer.play(idle, idleIndices, ready)
+        assertEquals(0, ready.calls)
+
+        executor.runAll()
+        ShadowLooper.runUiThreadTasks()
+
+        assertEquals(1, ready.calls)
+        for (index in idleIndices) {
+            assertNotNull(ready.drawables!![index])
+        }
+    }
+
+    @Test
+    fun testStaleAnimationIsNotDecoded() {
+        val idleReady = Recorder()
+        val tapReady = Recorder()
+        sequencer.play(idle, idleIndices, idleReady)
+        sequencer.play(tap, tapIndices, tapReady)
+
+        executor.runAll()
+        ShadowLooper.runUiThreadTasks()
+
+        assertEquals(0, idleReady.calls)
+        assertEquals(1, tapReady.calls)
+        // Nothing of idle was cached, other than the frame it shares with tap.
+        val again = Recorder()
+        sequencer.play(idle, idleIndices, again)
+        assertEquals(0, again.calls)
+    }
+
+    @Test
+    fun testFramesDecodedBeforeCancelAreNotDelivered() {
+        val ready = Recorder()
+        sequencer.play(idle, idleIndices, ready)
+        executor.runAll()
+
+        // The decoding finished, but the main thread only sees its results after the cancel.
+        sequencer.cancel()
+        ShadowLooper.runUiThreadTasks()
+        assertEquals(0, ready.calls)
+
+        // They were still cached, so the animation is ready straight away next time.
+        val again = Recorder()
+        sequencer.play(idle, idleIndices, again)
+        assertEquals(1, again.calls)
+    }
+
+    @Test
+    fun testLateFramesOfReplacedAnimationAreDropped() {
+        // With its first frames cached, an animation is handed out before the rest are decoded.
+        sequencer.prefetch(idle, idleIndices)
+        executor.runAll()
+        val ready = Recorder()
+        sequencer.play(idle, idleIndices, ready)
+        assertEquals(1, ready.calls)
+        val drawables = ready.drawables!!
+        val late = idleIndices[FrameSequencer.READY_FRAMES]
+        assertNull(drawables[late])
+
+        executor.runAll()
+        sequencer.play(tap, tapIndices, Recorder())
+        ShadowLooper.runUiThreadTasks()
+
+        assertNull(drawables[late])
+    }
+
+    @Test
+    fun testStalePrefetchIsDropped() {
+        sequencer.prefetch(idle, idleIndices)
+        sequencer.cancel()
+        executor.runAll()
+
+        val ready = Recorder()
+        sequencer.play(idle, idleIndices, ready)
+        assertEquals(0, ready.calls)
+    }
+
+    /** Counts the calls to onReady, and keeps the frames last passed to it. */
+    private class Recorder : (Array<Drawable?>) -> Unit {
+        var calls = 0
+        var drawables: Array<Drawable?>? = null
+
+        override fun invoke(drawables: Array<Drawable?>) {
+            calls++
+            this.drawables = drawables
+        }
+    }
+
+    /** Queues tasks until [runAll] runs them on the calling thread. */
+    private class ManualExecutor : AbstractExecutorService() {
+        private val tasks = ArrayDeque<Runnable>()
+        private var shutdown = false
+
+        fun runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run()
+            }
+        }
+
+        override fun execute(command: Runnable) {
+            tasks.add(command)
+        }
+
+        override fun shutdown() {
+            shutdown = true
+        }
+
+        override fun shutdownNow(): List<Runnable> {
+            shutdown = true
+            val pending = ArrayList(tasks)
+            tasks.clear()
+            return pending
+        }
+
+        override fun isShutdown() = shutdown
+
+        override fun isTerminated() = shutdown && tasks.isEmpty()
+
+        override fun awaitTermination(timeout: Long, unit: TimeUnit) = isTerminated
+    }
+}
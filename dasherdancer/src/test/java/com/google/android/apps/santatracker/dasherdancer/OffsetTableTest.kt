@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.dasherdancer
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/** Test for the sorted lookup of [OffsetTable]. */
+class OffsetTableTest {
+
+    @Test
+    fun testEmptyTable() {
+        val table = OffsetTable.Builder().build()
+
+        assertEquals(0, table.size)
+        assertTrue(table.indexOf(BASE_ID) < 0)
+    }
+
+    @Test
+    fun testFirstAndLastEntries() {
+        val table = OffsetTable.Builder()
+                .put(BASE_ID + 2, 20, 21)
+                .put(BASE_ID, 0, 1)
+                .put(BASE_ID + 1, 10, 11)
+                .build()
+
+        assertOffsets(table, BASE_ID, 0, 1)
+        assertOffsets(table, BASE_ID + 1, 10, 11)
+        assertOffsets(table, BASE_ID + 2, 20, 21)
+        assertEquals(0, table.indexOf(BASE_ID))
+        assertEquals(2, table.indexOf(BASE_ID + 2))
+    }
+
+    @Test
+    fun testMissingIds() {
+        val table = OffsetTable.Builder()
+                .put(BASE_ID, 1, 1)
+                .put(BASE_ID + 2, 2, 2)
+                .build()
+
+        assertTrue(table.indexOf(BASE_ID - 1) < 0)
+        assertTrue(table.indexOf(BASE_ID + 1) < 0)
+        assertTrue(table.indexOf(BASE_ID + 3) < 0)
+        assertTrue(table.indexOf(FEATURE_ID) < 0)
+    }
+
+    @Test
+    fun testNegativeIdsSortFirst() {
+        val table = OffsetTable.Builder()
+                .put(BASE_ID, 1, 2)
+                .put(FEATURE_ID + 1, 3, 4)
+                .put(FEATURE_ID, 5, 6)
+                .build()
+
+        // The ids of a dynamic feature module are negative as ints.
+        assertEquals(0, table.indexOf(FEATURE_ID))
+        assertEquals(1, table.indexOf(FEATURE_ID + 1))
+        assertEquals(2, table.indexOf(BASE_ID))
+        assertOffsets(table, FEATURE_ID, 5, 6)
+        assertOffsets(table, FEATURE_ID + 1, 3, 4)
+        assertOffsets(table, BASE_ID, 1, 2)
+    }
+
+    @Test
+    fun testLargestOffsetsKeepTheirBits() {
+        val table = OffsetTable.Builder()
+                .put(FEATURE_ID, 0xffff, 0xffff)
+                .put(-1, 0xffff, 0)
+                .put(BASE_ID, 0, 0xffff)
+                .build()
+
+        assertOffsets(table, FEATURE_ID, 0xffff, 0xffff)
+        assertOffsets(table, -1, 0xffff, 0)
+        assertOffsets(table, BASE_ID, 0, 0xffff)
+    }
+
+    @Test
+    fun testGrowsPastCapacity() {
+        val builder = OffsetTable.Builder(1)
+        for (i in 0 until 100) {
+            builder.put(BASE_ID + 99 - i, i, i * 2)
+        }
+        val table = builder.build()
+
+        assertEquals(100, table.size)
+        for (i in 0 until 100) {
+            assertOffsets(table, BASE_ID + 99 - i, i, i * 2)
+        }
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testNegativeOffsetRejected() {
+        OffsetTable.Builder().put(BASE_ID, -1, 0)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testOffsetOver16BitsRejected() {
+        OffsetTable.Builder().put(BASE_ID, 0, 0x10000)
+    }
+
+    private fun assertOffsets(table: OffsetTable, id: Int, x: Int, y: Int) {
+        val i = table.indexOf(id)
+        assertTrue(i >= 0)
+        assertEquals(x, table.x(i))
+        assertEquals(y, table.y(i))
+    }
+
+    companion object {
+        /** A drawable id of the base module, in package 0x7f. */
+        private const val BASE_ID = 0x7f020000
+        /** A drawable id of a dynamic feature module, in package 0x80. */
+        private const val FEATURE_ID = 0x80020000.toInt()
+    }
+}
@@ -16,36 +16,196 @@
 package com.google.android.apps.santatracker.doodles.shared;
 
 import android.graphics.Bitmap;
+import android.util.LongSparseArray;
 import android.util.Pair;
-import java.util.HashMap;
+import java.util.ArrayList;
 
 /**
  * Cache of bitmaps (and sampleSizes), mapped by resource ID and frame number.
  *
- * <p>
+ * <p>Bitmaps are cached on behalf of owners, typically one per game, and are never evicted while
+ * any owner still uses them. Once they have all been released with {@link #release}, the bitmaps
+ * stay cached in case they are needed again, up to a budget in bytes. Past that, the least
+ * recently used ones are moved to a pool, from which new decodes can take a bitmap to decode into
+ * (see {@link #takeReusable}) instead of allocating another one. An owner which has already
+ * been released doesn't keep the bitmaps it gets or puts from being evicted.
  *
- * <p>Note: This cache must be manually cleared in order to free up memory. This is under the
- * assumption that any bitmaps currently used by the app should be in the cache.
+ * <p>This class is thread-safe.
  */
 public class BitmapCache {
     public static final String TAG = BitmapCache.class.getSimpleName();
 
-    private HashMap<String, Pair<Bitmap, Integer>> bitmapCache = new HashMap<>();
+    /** Owner of bitmaps cached without one. Those are only dropped by {@link #clear}. */
+    public static final int NO_OWNER = 31;
 
-    private static String bitmapCacheKey(int id, int frameNumber) {
-        return id + ":" + frameNumber;
+    // The pool may take up to this fraction of the cache's budget on top of it.
+    private static final int POOL_FRACTION = 4;
+
+    private final long maxBytes;
+    private LongSparseArray<Entry> bitmapCache = new LongSparseArray<>();
+    // Bit i is set if owner i has been acquired and not released yet.
+    private int owners = 1 << NO_OWNER;
+    // Total size of the bitmaps in bitmapCache.
+    private long cachedBytes;
+    private ArrayList<Bitmap> pool = new ArrayList<>();
+    private long pooledBytes;
+    private long useCount;
+
+    public BitmapCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    private static long bitmapCacheKey(int id, int frameNumber) {
+        return ((long) id << 32) | (frameNumber & 0xffffffffL);
+    }
+
+    /**
+     * Start a new owner of bitmaps, which keeps the bitmaps it gets from or puts in the cache from
+     * being evicted until it is released.
+     */
+    public synchronized int acquire() {
+        int free = ~owners;
+        if (free == 0) {
+            throw new IllegalStateException("Too many bitmap cache owners.");
+        }
+        int owner = Integer.numberOfTrailingZeros(free);
+        owners |= 1 << owner;
+        return owner;
     }
 
-    public Pair<Bitmap, Integer> getBitmapFromCache(int id, int frame) {
-        Pair<Bitmap, Integer> pair = bitmapCache.get(bitmapCacheKey(id, frame));
-        return pair;
+    /**
+     * Release all the bitmaps of an owner. Bitmaps which no other owner uses may be reused for
+     * other images from now on, so the owner must not draw them anymore.
+     */
+    public synchronized void release(int owner) {
+        if (owner == NO_OWNER || (owners & (1 << owner)) == 0) {
+            return;
+        }
+        owners &= ~(1 << owner);
+        for (int i = 0; i < bitmapCache.size(); i++) {
+            bitmapCache.valueAt(i).owners &= ~(1 << owner);
+        }
+        trim();
     }
 
-    public void putBitmapInCache(Bitmap bitmap, int id, int frame, int sampleSize) {
-        bitmapCache.put(bitmapCacheKey(id, frame), new Pair(bitmap, sampleSize));
+    public synchronized Pair<Bitmap, Integer> getBitmapFromCache(int id, int frame, int owner) {
+        Entry entry = bitmapCache.get(bitmapCacheKey(id, frame));
+        if (entry == null) {
+            return null;
+        }
+        entry.owners |= owners & (1 << owner);
+        entry.lastUsed = ++useCount;
+        return entry.bitmap;
     }
 
-    public void clear() {
+    public synchronized void putBitmapInCache(
+            Bitmap bitmap, int id, int frame, int sampleSize, int owner) {
+        long key = bitmapCacheKey(id, frame);
+        Entry previous = bitmapCache.get(key);
+        if (previous != null) {
+            cachedBytes -= sizeOf(previous.bitmap.first);
+        }
+        Entry entry = new Entry(new Pair<>(bitmap, sampleSize));
+        entry.owners = owners & (1 << owner);
+        entry.lastUsed = ++useCount;
+        bitmapCache.put(key, entry);
+        cachedBytes += sizeOf(bitmap);
+        trim();
+    }
+
+    /**
+     * Take a pooled bitmap which has room for at least the given number of bytes, to decode into
+     * with {@link android.graphics.BitmapFactory.Options#inBitmap}. If it doesn't get used, hand it
+     * back with {@link #recycle}.
+     *
+     * @return the smallest such bitmap, or null if there aren't any.
+     */
+    public synchronized Bitmap takeReusable(long byteCount) {
+        int best = -1;
+        for (int i = 0; i < pool.size(); i++) {
+            int size = pool.get(i).getAllocationByteCount();
+            if (size >= byteCount
+                    && (best < 0 || size < pool.get(best).getAllocationByteCount())) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        Bitmap bitmap = pool.remove(best);
+        pooledBytes -= bitmap.getAllocationByteCount();
+        return bitmap;
+    }
+
+    /** Put a bitmap which nothing uses anymore in the pool, or recycle it if the pool is full. */
+    public synchronized void recycle(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if (!bitmap.isMutable()) {
+            bitmap.recycle();
+            return;
+        }
+        pool.add(bitmap);
+        pooledBytes += bitmap.getAllocationByteCount();
+        // Drop the oldest pooled bitmaps first.
+        while (pooledBytes > maxBytes / POOL_FRACTION) {
+            Bitmap oldest = pool.remove(0);
+            pooledBytes -= oldest.getAllocationByteCount();
+            oldest.recycle();
+        }
+    }
+
+    /** Total size of the cached and pooled bitmaps. */
+    public synchronized long getByteCount() {
+        return cachedBytes + pooledBytes;
+    }
+
+    /**
+     * Forget all bitmaps, whether they are in use or not. They are left for the garbage collector
+     * rather than recycled, since they may still be drawn.
+     */
+    public synchronized void clear() {
         bitmapCache.clear();
+        cachedBytes = 0;
+        pool.clear();
+        pooledBytes = 0;
+    }
+
+    /** Evict the least recently used bitmaps which no owner uses until within maxBytes. */
+    private void trim() {
+        while (cachedBytes > maxBytes) {
+            int lru = -1;
+            for (int i = 0; i < bitmapCache.size(); i++) {
+                Entry entry = bitmapCache.valueAt(i);
+                if (entry.owners == 0
+                        && (lru < 0 || entry.lastUsed < bitmapCache.valueAt(lru).lastUsed)) {
+                    lru = i;
+                }
+            }
+            if (lru < 0) {
+                // Everything left is in use.
+                return;
+            }
+            Bitmap bitmap = bitmapCache.valueAt(lru).bitmap.first;
+            bitmapCache.removeAt(lru);
+            cachedBytes -= sizeOf(bitmap);
+            recycle(bitmap);
+        }
+    }
+
+    private static long sizeOf(Bitmap bitmap) {
+        return bitmap == null ? 0 : bitmap.getAllocationByteCount();
+    }
+
+    private static class Entry {
+        final Pair<Bitmap, Integer> bitmap;
+        // Bit i is set if owner i uses this bitmap.
+        int owners;
+        long lastUsed;
+
+        Entry(Pair<Bitmap, Integer> bitmap) {
+            this.bitmap = bitmap;
+        }
     }
 }
@@ -138,15 +138,13 @@ public class ColoredRectangleActor extends Actor implements Touchable {
 
     @Override
     public boolean canHandleTouchAt(Vector2D worldCoords, float cameraScale) {
-        Vector2D lowerRight = Vector2D.get(position).add(dimens);
+        Vector2D lowerRight = Vector2D.scratch(position).add(dimens);
         boolean retVal =
                 Util.pointIsWithinBounds(position, lowerRight, worldCoords)
                         || worldCoords.distanceTo(upMidpoint) < Constants.SELECTION_RADIUS
                         || worldCoords.distanceTo(downMidpoint) < Constants.SELECTION_RADIUS
                         || worldCoords.distanceTo(leftMidpoint) < Constants.SELECTION_RADIUS
                         || worldCoords.distanceTo(rightMidpoint) < Constants.SELECTION_RADIUS;
-
-        lowerRight.release();
         return retVal;
     }
 
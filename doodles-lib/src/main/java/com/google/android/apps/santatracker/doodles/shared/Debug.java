@@ -15,10 +15,10 @@
  */
 package com.google.android.apps.santatracker.doodles.shared;
 
-import android.content.res.Resources;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
 import com.google.android.apps.santatracker.doodles.shared.actor.SpriteActor;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.animation.Sprites;
 
 /** Debug flags (collected in one place). */
@@ -47,8 +47,8 @@ public class Debug {
 
     // Return a SpriteActor of an "X" marker, centered over (x, y). For marking positions for
     // debugging.
-    public static SpriteActor makeDebugMarkerX(Resources resources, float x, float y) {
-        AnimatedSprite sprite = AnimatedSprite.fromFrames(resources, Sprites.debug_marker);
+    public static SpriteActor makeDebugMarkerX(SpriteLoader sprites, float x, float y) {
+        AnimatedSprite sprite = sprites.fromFrames(Sprites.debug_marker);
         return new SpriteActor(
                 sprite,
                 Vector2D.get(x - sprite.frameWidth / 2, y - sprite.frameHeight / 2),
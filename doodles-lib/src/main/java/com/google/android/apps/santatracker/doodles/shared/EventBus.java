@@ -15,12 +15,18 @@
  */
 package com.google.android.apps.santatracker.doodles.shared;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import java.util.Arrays;
 
-/** A simple event bus for passing events between objects. */
+/**
+ * A simple event bus for passing events between objects.
+ *
+ * <p>Events are sent far more often than listeners change, so the listeners are kept in arrays
+ * indexed by event type which are never modified, only replaced with an updated copy. Sending an
+ * event doesn't take any locks; it goes to the listeners which were registered when it was sent.
+ */
 public class EventBus {
     public static final int VIBRATE = 0;
     public static final int SCORE_CHANGED = 1;
@@ -35,39 +41,73 @@ public class EventBus {
     public static final int MUTE_SOUNDS = 10;
     public static final int GAME_OVER = 11;
     public static final int GAME_LOADED = 12;
-    private static EventBus instance;
+    private static final EventBusListener[] NO_LISTENERS = new EventBusListener[0];
+    private static final EventBus instance = new EventBus();
+    // Guards replacing the listener arrays. Sending events doesn't take it.
     private final Object lock = new Object();
-    // Listeners for specific events.
-    private Map<Integer, Set<EventBusListener>> specificListeners;
+    // Listeners for specific events, indexed by type.
+    private volatile EventBusListener[][] specificListeners = new EventBusListener[0][];
     // Listeners for all events.
-    private Set<EventBusListener> globalListeners;
+    private volatile EventBusListener[] globalListeners = NO_LISTENERS;
+    // Listeners for specific events which are called on the UI thread, indexed by type.
+    private volatile EventBusListener[][] queuedListeners = new EventBusListener[0][];
 
-    private EventBus() {
-        globalListeners = new HashSet<>();
-        specificListeners = new HashMap<>();
-    }
+    // Events waiting to be delivered to queuedListeners. All guarded by queueLock.
+    private final Object queueLock = new Object();
+    private int[] queuedTypes = new int[16];
+    private Object[] queuedData = new Object[16];
+    private int queuedCount;
+    private boolean deliveryScheduled;
+    // The arrays which were being delivered from the last time queuedTypes and queuedData were
+    // swapped out, to be swapped back in next time.
+    private int[] spareTypes = new int[16];
+    private Object[] spareData = new Object[16];
+    private Handler mainHandler;
+
+    private final Choreographer.FrameCallback deliverQueuedEvents =
+            new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    deliverQueuedEvents();
+                }
+            };
+
+    private final Runnable scheduleDelivery =
+            new Runnable() {
+                @Override
+                public void run() {
+                    Choreographer.getInstance().postFrameCallback(deliverQueuedEvents);
+                }
+            };
+
+    private EventBus() {}
 
     public static EventBus getInstance() {
-        if (instance == null) {
-            instance = new EventBus();
-        }
         return instance;
     }
 
     /** Register for a specific event. Listener will only be called for events of that type. */
     public void register(EventBusListener listener, int type) {
         synchronized (lock) {
-            if (!specificListeners.containsKey(type)) {
-                specificListeners.put(type, new HashSet<EventBusListener>());
-            }
-            specificListeners.get(type).add(listener);
+            specificListeners = withListener(specificListeners, type, listener);
         }
     }
 
     /** Register for all events. Listener will be called for events of any type. */
     public void register(EventBusListener listener) {
         synchronized (lock) {
-            globalListeners.add(listener);
+            globalListeners = withListener(globalListeners, listener);
+        }
+    }
+
+    /**
+     * Register for a specific event, to be received on the UI thread. Rather than posting each
+     * event to the UI thread on its own, events sent during a frame are delivered together at the
+     * start of the next one, in the order they were sent.
+     */
+    public void registerQueued(EventBusListener listener, int type) {
+        synchronized (lock) {
+            queuedListeners = withListener(queuedListeners, type, listener);
         }
     }
 
@@ -78,36 +118,116 @@ public class EventBus {
 
     /** Send an event with data. Type of the data is up to the caller. */
     public void sendEvent(int type, Object data) {
-        synchronized (lock) {
-            try {
-                Set<EventBusListener> listeners = specificListeners.get(type);
-                if (listeners != null) {
-                    for (EventBusListener listener : listeners) {
-                        listener.onEventReceived(type, data);
-                    }
-                }
-                for (EventBusListener listener : globalListeners) {
-                    listener.onEventReceived(type, data);
-                }
-            } catch (ClassCastException e) {
-                // This was happening when 2 games were running at the same time (which shouldn't be
-                // possible, but was happening in monkey testing). Game A's listener would try
-                // casting
-                // the data arg to the expected type for Game A, but this would fail if Game B sent
-                // a data
-                // of a different type.
-                //
-                // Ignore this and continue running.
-            }
+        if (listenersFor(queuedListeners, type) != null) {
+            queue(type, data);
         }
+        deliver(listenersFor(specificListeners, type), type, data);
+        deliver(globalListeners, type, data);
     }
 
-    /** Removes all the listeners from this EventBus. */
+    /** Removes all the listeners from this EventBus, and drops any events not delivered yet. */
     public void clearListeners() {
         synchronized (lock) {
-            specificListeners.clear();
-            globalListeners.clear();
+            specificListeners = new EventBusListener[0][];
+            globalListeners = NO_LISTENERS;
+            queuedListeners = new EventBusListener[0][];
+        }
+        synchronized (queueLock) {
+            Arrays.fill(queuedData, 0, queuedCount, null);
+            queuedCount = 0;
+        }
+    }
+
+    private void queue(int type, Object data) {
+        synchronized (queueLock) {
+            if (queuedCount == queuedTypes.length) {
+                queuedTypes = Arrays.copyOf(queuedTypes, queuedCount * 2);
+                queuedData = Arrays.copyOf(queuedData, queuedCount * 2);
+            }
+            queuedTypes[queuedCount] = type;
+            queuedData[queuedCount] = data;
+            queuedCount++;
+            if (deliveryScheduled) {
+                return;
+            }
+            deliveryScheduled = true;
+            if (mainHandler == null) {
+                mainHandler = new Handler(Looper.getMainLooper());
+            }
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            scheduleDelivery.run();
+        } else {
+            mainHandler.post(scheduleDelivery);
+        }
+    }
+
+    private void deliverQueuedEvents() {
+        int[] types;
+        Object[] data;
+        int count;
+        synchronized (queueLock) {
+            types = queuedTypes;
+            data = queuedData;
+            count = queuedCount;
+            // Events sent from here on go into the other arrays, while these are read.
+            queuedTypes = spareTypes;
+            queuedData = spareData;
+            queuedCount = 0;
+            spareTypes = types;
+            spareData = data;
+            deliveryScheduled = false;
+        }
+        for (int i = 0; i < count; i++) {
+            deliver(listenersFor(queuedListeners, types[i]), types[i], data[i]);
+            data[i] = null;
+        }
+    }
+
+    private static void deliver(EventBusListener[] listeners, int type, Object data) {
+        if (listeners == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < listeners.length; i++) { // Avoiding iterators to avoid garbage.
+                listeners[i].onEventReceived(type, data);
+            }
+        } catch (ClassCastException e) {
+            // This was happening when 2 games were running at the same time (which shouldn't be
+            // possible, but was happening in monkey testing). Game A's listener would try
+            // casting
+            // the data arg to the expected type for Game A, but this would fail if Game B sent
+            // a data
+            // of a different type.
+            //
+            // Ignore this and continue running.
+        }
+    }
+
+    private static EventBusListener[] listenersFor(EventBusListener[][] table, int type) {
+        return type >= 0 && type < table.length ? table[type] : null;
+    }
+
+    private static EventBusListener[][] withListener(
+            EventBusListener[][] table, int type, EventBusListener listener) {
+        if (type < 0) {
+            throw new IllegalArgumentException("Event types can't be negative: " + type);
+        }
+        EventBusListener[][] copy = Arrays.copyOf(table, Math.max(table.length, type + 1));
+        copy[type] = withListener(copy[type] == null ? NO_LISTENERS : copy[type], listener);
+        return copy;
+    }
+
+    private static EventBusListener[] withListener(
+            EventBusListener[] listeners, EventBusListener listener) {
+        for (EventBusListener registered : listeners) {
+            if (registered.equals(listener)) {
+                return listeners;
+            }
         }
+        EventBusListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        return copy;
     }
 
     /** Interface for objects which want to listen to the event bus. */
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared;
+
+/**
+ * A {@link GameLoop} which {@link LogicRefreshThread} steps at a fixed rate. Every call to {@link
+ * #update(float)} advances the game by the same amount of time, no matter how irregularly the
+ * logic thread gets scheduled.
+ */
+public interface FixedStepGameLoop extends GameLoop {
+
+    /**
+     * Called on the logic thread once the steps for a tick have run.
+     *
+     * @param alpha How far the wall clock has got between the last step and the next one, from 0
+     *     (inclusive) to 1 (exclusive). Rendering the state blended this far between the last two
+     *     steps keeps motion smooth when the display refreshes at a different rate than the game
+     *     steps.
+     */
+    void onStepsFinished(float alpha);
+}
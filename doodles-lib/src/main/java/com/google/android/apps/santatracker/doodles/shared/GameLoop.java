@@ -20,7 +20,7 @@ public interface GameLoop {
 
     /**
      * @param deltaMs Milliseconds since the last time update was called. Will be capped to avoid
-     *     big jumps.
+     *     big jumps. Always the same for a {@link FixedStepGameLoop}.
      */
     void update(float deltaMs);
 }
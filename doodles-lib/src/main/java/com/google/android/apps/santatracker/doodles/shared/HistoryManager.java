@@ -17,12 +17,18 @@ package com.google.android.apps.santatracker.doodles.shared;
 
 import android.content.Context;
 import android.os.AsyncTask;
+import android.util.AtomicFile;
 import com.google.android.apps.santatracker.util.SantaLog;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -35,6 +41,10 @@ import org.json.JSONObject;
  * make it easier to make a game picker that showed your status on each game. Since there are
  * canonical types it would then know how to read them. We add a setArbitraryData and
  * getArbitaryData for any game that wants to put other kind of information in.
+ *
+ * <p>Saving is write-behind: {@link #save} only schedules a write, and any saves made before that
+ * write starts are folded into it. Each game's JSON is serialized when it changes, so a write only
+ * has to join the games together rather than serialize all of them again.
  */
 public class HistoryManager {
     public static final String BEST_PLACE_KEY = "place";
@@ -45,11 +55,21 @@ public class HistoryManager {
     public static final String ARBITRARY_DATA_KEY = "arb";
     private static final String TAG = HistoryManager.class.getSimpleName();
     private static final String FILENAME = "history.json";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // All reads and writes of the history file, from every HistoryManager, happen one at a time.
+    private static final Executor DISK_EXECUTOR = Executors.newSingleThreadExecutor();
 
     private final Context context;
     private volatile JSONObject history;
     private HistoryListener listener;
 
+    private final Object lock = new Object();
+    // The serialized JSON of each game, guarded by lock.
+    private final Map<String, String> serializedGames = new TreeMap<>();
+    // Whether a write has been scheduled but not started yet, guarded by lock.
+    private boolean writePending;
+
     /** Creates a history manager. HistoryListener can be null. */
     public HistoryManager(Context context, HistoryListener listener) {
         this.context = context;
@@ -84,6 +104,7 @@ public class HistoryManager {
             JSONObject gameObject = getGameObject(gameType);
             gameObject.put(BEST_PLACE_KEY, place);
             history.put(gameType.toString(), gameObject);
+            updateSerializedGame(gameType.toString(), gameObject);
         } catch (JSONException e) {
             SantaLog.e(TAG, "error setting place", e);
         }
@@ -100,6 +121,7 @@ public class HistoryManager {
             JSONObject gameObject = getGameObject(gameType);
             gameObject.put(BEST_STAR_COUNT_KEY, count);
             history.put(gameType.toString(), gameObject);
+            updateSerializedGame(gameType.toString(), gameObject);
         } catch (JSONException e) {
             SantaLog.e(TAG, "error setting place", e);
         }
@@ -114,6 +136,7 @@ public class HistoryManager {
             JSONObject gameObject = getGameObject(gameType);
             gameObject.put(BEST_TIME_MILLISECONDS_KEY, timeInMilliseconds);
             history.put(gameType.toString(), gameObject);
+            updateSerializedGame(gameType.toString(), gameObject);
         } catch (JSONException e) {
             SantaLog.e(TAG, "error setting time", e);
         }
@@ -128,6 +151,7 @@ public class HistoryManager {
             JSONObject gameObject = getGameObject(gameType);
             gameObject.put(BEST_SCORE_KEY, score);
             history.put(gameType.toString(), gameObject);
+            updateSerializedGame(gameType.toString(), gameObject);
         } catch (JSONException e) {
             SantaLog.e(TAG, "error setting score", e);
         }
@@ -142,6 +166,7 @@ public class HistoryManager {
             JSONObject gameObject = getGameObject(gameType);
             gameObject.put(BEST_DISTANCE_METERS_KEY, distanceInMeters);
             history.put(gameType.toString(), gameObject);
+            updateSerializedGame(gameType.toString(), gameObject);
         } catch (JSONException e) {
             SantaLog.e(TAG, "error setting distance", e);
         }
@@ -153,6 +178,7 @@ public class HistoryManager {
             JSONObject gameObject = getGameObject(gameType);
             gameObject.put(ARBITRARY_DATA_KEY, data);
             history.put(gameType.toString(), gameObject);
+            updateSerializedGame(gameType.toString(), gameObject);
         } catch (JSONException e) {
             SantaLog.e(TAG, "error setting distance", e);
         }
@@ -220,33 +246,76 @@ public class HistoryManager {
         }
     }
 
-    /** Saves the file in the background. */
+    /**
+     * Saves the file in the background. Saves made before the write starts are coalesced into it,
+     * so the listener may be told about fewer saves than were made.
+     */
     public void save() {
-        new AsyncTask<Void, Void, Void>() {
+        synchronized (lock) {
+            if (history == null || writePending) {
+                return;
+            }
+            writePending = true;
+        }
+        new AsyncTask<Void, Void, Boolean>() {
             @Override
-            protected Void doInBackground(Void... params) {
+            protected Boolean doInBackground(Void... params) {
+                String contents;
+                synchronized (lock) {
+                    writePending = false;
+                    contents = joinSerializedGames();
+                }
                 try {
-                    FileOutputStream outputStream =
-                            context.openFileOutput(FILENAME, Context.MODE_PRIVATE);
-                    byte[] bytes = history.toString().getBytes();
-                    outputStream.write(bytes);
-                    outputStream.close();
-                    SantaLog.i(TAG, "Saved: " + history);
+                    write(contents);
+                    SantaLog.i(TAG, "Saved: " + contents);
+                    return true;
                 } catch (IOException e) {
-                    SantaLog.w(TAG, "Couldn't save JSON at: " + FILENAME);
-                } catch (Exception e) {
-                    SantaLog.w(TAG, "Crazy exception happened", e);
+                    SantaLog.w(TAG, "Couldn't save JSON at: " + FILENAME, e);
+                    return false;
                 }
-                return null;
             }
 
             @Override
-            protected void onPostExecute(Void result) {
-                if (listener != null) {
+            protected void onPostExecute(Boolean saved) {
+                if (saved && listener != null) {
                     listener.onFinishedSaving();
                 }
             }
-        }.execute();
+        }.executeOnExecutor(DISK_EXECUTOR);
+    }
+
+    private void updateSerializedGame(String key, JSONObject gameObject) {
+        synchronized (lock) {
+            serializedGames.put(key, gameObject.toString());
+        }
+    }
+
+    /** Builds the history JSON from the serialized games. Must hold lock. */
+    private String joinSerializedGames() {
+        StringBuilder builder = new StringBuilder("{");
+        for (Map.Entry<String, String> game : serializedGames.entrySet()) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(JSONObject.quote(game.getKey())).append(':').append(game.getValue());
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Replaces the history file. AtomicFile syncs the new file before dropping the old one, so a
+     * crash part way through leaves either the old history or the new one, never a torn file.
+     */
+    private void write(String contents) throws IOException {
+        AtomicFile file = new AtomicFile(new File(context.getFilesDir(), FILENAME));
+        FileOutputStream outputStream = file.startWrite();
+        try {
+            outputStream.write(contents.getBytes(UTF_8));
+            file.finishWrite(outputStream);
+        } catch (IOException e) {
+            file.failWrite(outputStream);
+            throw e;
+        }
     }
 
     /** ******************** File Management ************************* */
@@ -259,28 +328,32 @@ public class HistoryManager {
         new AsyncTask<Void, Void, Void>() {
             @Override
             protected Void doInBackground(Void... params) {
+                JSONObject loaded = new JSONObject();
                 try {
-                    File file = new File(context.getFilesDir(), FILENAME);
-                    int length = (int) file.length();
-                    if (length <= 0) {
-                        history = new JSONObject();
-                        return null;
+                    AtomicFile file = new AtomicFile(new File(context.getFilesDir(), FILENAME));
+                    byte[] bytes = file.readFully();
+                    if (bytes.length > 0) {
+                        loaded = new JSONObject(new String(bytes, UTF_8));
                     }
-
-                    byte[] bytes = new byte[length];
-                    FileInputStream inputStream = new FileInputStream(file);
-                    inputStream.read(bytes);
-                    inputStream.close();
-
-                    history = new JSONObject(new String(bytes, "UTF-8"));
-                    SantaLog.i(TAG, "Loaded: " + history);
+                    SantaLog.i(TAG, "Loaded: " + loaded);
+                } catch (FileNotFoundException e) {
+                    // Nothing saved yet.
                 } catch (JSONException e) {
                     SantaLog.w(TAG, "Couldn't create JSON for: " + FILENAME);
-                } catch (UnsupportedEncodingException e) {
-                    SantaLog.d(TAG, "Couldn't decode: " + FILENAME);
                 } catch (IOException e) {
                     SantaLog.w(TAG, "Couldn't read history: " + FILENAME);
                 }
+                synchronized (lock) {
+                    Iterator<String> keys = loaded.keys();
+                    while (keys.hasNext()) {
+                        String key = keys.next();
+                        JSONObject gameObject = loaded.optJSONObject(key);
+                        if (gameObject != null) {
+                            serializedGames.put(key, gameObject.toString());
+                        }
+                    }
+                    history = loaded;
+                }
                 return null;
             }
 
@@ -290,7 +363,7 @@ public class HistoryManager {
                     listener.onFinishedLoading();
                 }
             }
-        }.execute();
+        }.executeOnExecutor(DISK_EXECUTOR);
     }
 
     /** Listener for when the history is loaded. */
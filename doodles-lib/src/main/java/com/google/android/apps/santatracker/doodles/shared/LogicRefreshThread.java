@@ -27,6 +27,12 @@ public class LogicRefreshThread extends Thread {
     // Wait at least this long between updates.
     // Update at 120 FPS so that stutters due to draw-loop synchronization are less noticeable.
     private static final int MODEL_INTERVAL_MS = 1000 / 60;
+    // Length of a step in fixed-step mode.
+    private static final float FIXED_STEP_MS = 1000f / 60;
+    // Longest stretch of wall clock time a single tick will catch up on. As with the variable step
+    // cap, it's better for the game to appear to slow down after a stall than to jump.
+    private static final float MAX_TICK_MS = 100;
+    private static final long NANOS_PER_MS = 1000000;
     private final ConditionVariable handlerCreatedCV = new ConditionVariable();
     private Handler handler;
     // Toggled in start/stop, and used in handleMessage to conditionally schedule the next refresh.
@@ -35,8 +41,22 @@ public class LogicRefreshThread extends Thread {
     private GameLoop gameLoop;
     private long lastTick;
     private int framesSkippedSinceLastUpdate = 0;
+    private final boolean fixedStep;
+    private long lastTickNanos;
+    private float accumulatedMs;
 
     public LogicRefreshThread() {
+        this(false);
+    }
+
+    /**
+     * @param fixedStep Whether to step the game loop in fixed {@link #FIXED_STEP_MS} increments,
+     *     carrying leftover time over to the next tick, instead of by however long it has been
+     *     since the last update. If the game loop is a {@link FixedStepGameLoop}, it is told how
+     *     far into the next step each tick ends so that it can interpolate its rendering.
+     */
+    public LogicRefreshThread(boolean fixedStep) {
+        this.fixedStep = fixedStep;
         setPriority(Thread.MAX_PRIORITY);
     }
 
@@ -49,7 +69,15 @@ public class LogicRefreshThread extends Thread {
                     @Override
                     public void handleMessage(Message msg) {
                         if (running && gameLoop != null) {
-                            if (msg.what == REFRESH_MODEL) {
+                            if (msg.what == REFRESH_MODEL && fixedStep) {
+                                long tickStartNanos = System.nanoTime();
+                                runFixedSteps(tickStartNanos);
+                                long timeToUpdate =
+                                        (System.nanoTime() - tickStartNanos) / NANOS_PER_MS;
+                                sendEmptyMessageDelayed(
+                                        REFRESH_MODEL,
+                                        Math.max(1, MODEL_INTERVAL_MS - timeToUpdate));
+                            } else if (msg.what == REFRESH_MODEL) {
                                 float deltaMs = System.currentTimeMillis() - lastTick;
                                 // Cap deltaMs. Better for game to appear to slow down than have
                                 // skips/jumps.
@@ -63,6 +91,7 @@ public class LogicRefreshThread extends Thread {
                                     if (running && gameLoop != null) {
                                         gameLoop.update(deltaMs);
                                     }
+                                    Vector2D.resetScratch();
                                 }
 
                                 // Wait different amounts of time depending on how much time the
@@ -81,10 +110,33 @@ public class LogicRefreshThread extends Thread {
         Looper.loop();
     }
 
+    private void runFixedSteps(long nowNanos) {
+        float elapsedMs = (nowNanos - lastTickNanos) / (float) NANOS_PER_MS;
+        lastTickNanos = nowNanos;
+        accumulatedMs += Math.min(MAX_TICK_MS, elapsedMs) * Debug.SPEED_MULTIPLIER;
+
+        while (accumulatedMs >= FIXED_STEP_MS) {
+            GameLoop loop = gameLoop;
+            if (!running || loop == null) {
+                return;
+            }
+            loop.update(FIXED_STEP_MS);
+            Vector2D.resetScratch();
+            accumulatedMs -= FIXED_STEP_MS;
+        }
+
+        GameLoop loop = gameLoop;
+        if (running && loop instanceof FixedStepGameLoop) {
+            ((FixedStepGameLoop) loop).onStepsFinished(accumulatedMs / FIXED_STEP_MS);
+        }
+    }
+
     public void startHandler(GameLoop gameLoop) {
         this.gameLoop = gameLoop;
         running = true;
         lastTick = System.currentTimeMillis();
+        lastTickNanos = System.nanoTime();
+        accumulatedMs = 0;
 
         handlerCreatedCV.block();
         handler.sendEmptyMessage(REFRESH_MODEL);
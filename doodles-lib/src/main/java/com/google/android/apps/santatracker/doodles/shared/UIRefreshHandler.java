@@ -48,6 +48,9 @@ public class UIRefreshHandler extends Handler {
     public void handleMessage(Message msg) {
         if (running) {
             if (msg.what == REFRESH_UI_MESSAGE) {
+                // Draws and touch handling run between these messages on this same thread, so
+                // nothing can still be using a scratch vector from the previous frame.
+                Vector2D.resetScratch();
                 long timeBeforeDraw = System.currentTimeMillis();
                 if (view != null) {
                     // invalidate
@@ -15,15 +15,36 @@
  */
 package com.google.android.apps.santatracker.doodles.shared;
 
-import java.util.Stack;
-
-/** A basic 2D vector, with convenience functions to interact with it. */
+/**
+ * A basic 2D vector, with convenience functions to interact with it.
+ *
+ * <p>Vectors come from a pool which is confined to the calling thread, so acquiring one never takes
+ * a lock or contends with the other game thread. There are two ways to get one:
+ *
+ * <ul>
+ *   <li>{@link #get(float, float)} for vectors which outlive the current frame. These may be handed
+ *       back with {@link #release()} once they are no longer used.
+ *   <li>{@link #scratch(float, float)} for temporaries inside a single update or draw. These are
+ *       all reclaimed at once by {@link #resetScratch()} at the end of the frame, and must not be
+ *       kept beyond it or released.
+ * </ul>
+ */
 public class Vector2D {
     private static final int MAX_POOL_SIZE = 50;
-    private static final Stack<Vector2D> vectorPool = new Stack<>();
+    // Past this many scratch vectors in one frame, fall back to plain allocation rather than
+    // letting the arena of a thread which never resets it grow without bound.
+    private static final int MAX_SCRATCH_SIZE = 256;
+    private static final ThreadLocal<Pool> POOL =
+            new ThreadLocal<Pool>() {
+                @Override
+                protected Pool initialValue() {
+                    return new Pool();
+                }
+            };
 
     public float x;
     public float y;
+    private boolean isScratch;
 
     private Vector2D(float x, float y) {
         this.x = x;
@@ -34,9 +55,11 @@ public class Vector2D {
         return get(0, 0);
     }
 
-    public static synchronized Vector2D get(float x, float y) {
-        if (!vectorPool.isEmpty()) {
-            Vector2D v = vectorPool.pop();
+    public static Vector2D get(float x, float y) {
+        Pool pool = POOL.get();
+        if (pool.size > 0) {
+            Vector2D v = pool.vectors[--pool.size];
+            pool.vectors[pool.size] = null;
             v.set(x, y);
             return v;
         } else {
@@ -48,6 +71,34 @@ public class Vector2D {
         return get(other.x, other.y);
     }
 
+    /**
+     * Get a temporary vector which stays valid until the next call to {@link #resetScratch()} on
+     * this thread. Don't hold on to it beyond the current frame, and don't release it.
+     */
+    public static Vector2D scratch(float x, float y) {
+        Pool pool = POOL.get();
+        if (pool.scratchUsed < pool.scratch.length) {
+            return pool.scratch[pool.scratchUsed++].set(x, y);
+        }
+        if (pool.scratch.length < MAX_SCRATCH_SIZE) {
+            pool.growScratch();
+            return pool.scratch[pool.scratchUsed++].set(x, y);
+        }
+        return new Vector2D(x, y);
+    }
+
+    public static Vector2D scratch(Vector2D other) {
+        return scratch(other.x, other.y);
+    }
+
+    /**
+     * Reclaim every scratch vector handed out on this thread. {@link LogicRefreshThread} and {@link
+     * UIRefreshHandler} call this between frames.
+     */
+    public static void resetScratch() {
+        POOL.get().scratchUsed = 0;
+    }
+
     public static float getLength(float x, float y) {
         return (float) Math.sqrt(x * x + y * y);
     }
@@ -58,8 +109,13 @@ public class Vector2D {
      * expected.
      */
     public void release() {
-        if (vectorPool.size() < MAX_POOL_SIZE) {
-            vectorPool.push(this);
+        if (isScratch) {
+            // Scratch vectors go back in bulk in resetScratch.
+            return;
+        }
+        Pool pool = POOL.get();
+        if (pool.size < MAX_POOL_SIZE) {
+            pool.vectors[pool.size++] = this;
         }
     }
 
@@ -139,4 +195,23 @@ public class Vector2D {
         float dy = y - other.y;
         return (float) Math.sqrt(dx * dx + dy * dy);
     }
+
+    /** The vectors available to a single thread. Only ever touched by that thread. */
+    private static class Pool {
+        final Vector2D[] vectors = new Vector2D[MAX_POOL_SIZE];
+        int size;
+        Vector2D[] scratch = new Vector2D[0];
+        int scratchUsed;
+
+        void growScratch() {
+            Vector2D[] grown =
+                    new Vector2D[Math.min(MAX_SCRATCH_SIZE, Math.max(16, scratch.length * 2))];
+            System.arraycopy(scratch, 0, grown, 0, scratch.length);
+            for (int i = scratch.length; i < grown.length; i++) {
+                grown[i] = new Vector2D(0, 0);
+                grown[i].isScratch = true;
+            }
+            scratch = grown;
+        }
+    }
 }
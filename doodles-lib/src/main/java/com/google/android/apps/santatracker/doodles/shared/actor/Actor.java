@@ -54,6 +54,12 @@ public abstract class Actor implements Comparable<Actor> {
     public float restitution = 1.0f;
     public float inverseMass = INFINITE_MASS;
 
+    // Where this actor was the last time a RenderSnapshot captured it, so that the next capture
+    // knows where to interpolate from. Only touched by the logic thread.
+    boolean hasSnapshot;
+    float snapshotX;
+    float snapshotY;
+
     public Actor() {
         this(Vector2D.get(0, 0), Vector2D.get(0, 0));
     }
@@ -75,6 +81,15 @@ public abstract class Actor implements Comparable<Actor> {
         // Nothing to do for base class implementation.
     }
 
+    /**
+     * Record into the frame every sprite which {@link #draw} would draw right now, for games which
+     * draw from a {@link RenderSnapshot}. Called on the logic thread. Nothing is recorded for the
+     * base class implementation.
+     */
+    public void capture(RenderSnapshot.Frame frame) {
+        // Nothing to do for base class implementation.
+    }
+
     @Override
     public int compareTo(Actor another) {
         int zDiff = zIndex - another.zIndex;
@@ -94,25 +94,21 @@ public class Camera extends Actor {
      * @param levelMaxPosition The desired maximum visible portion of the level.
      */
     public void moveImmediatelyTo(Vector2D levelMinPosition, Vector2D levelMaxPosition) {
-        Vector2D levelDimens = Vector2D.get(levelMaxPosition).subtract(levelMinPosition);
+        Vector2D levelDimens = Vector2D.scratch(levelMaxPosition).subtract(levelMinPosition);
 
         float pannedScale = Math.min(screenWidth / levelDimens.x, screenHeight / levelDimens.y);
         Vector2D screenDimensInWorldCoords =
-                Vector2D.get(screenWidth, screenHeight).scale(1 / pannedScale);
+                Vector2D.scratch(screenWidth, screenHeight).scale(1 / pannedScale);
 
         // pannedPosition = levelMinPosition - (screenDimensInWorldCoords - levelDimens) / 2
         Vector2D pannedPosition =
-                Vector2D.get(levelMinPosition)
+                Vector2D.scratch(levelMinPosition)
                         .subtract(
                                 (screenDimensInWorldCoords.x - levelDimens.x) * 0.5f,
                                 (screenDimensInWorldCoords.y - levelDimens.y) * 0.5f);
 
         position.set(pannedPosition);
         scale = pannedScale;
-
-        screenDimensInWorldCoords.release();
-        levelDimens.release();
-        pannedPosition.release();
     }
 
     /**
@@ -73,4 +73,9 @@ public class FakeButtonActor extends Actor {
         super.draw(canvas);
         sprite.draw(canvas);
     }
+
+    @Override
+    public void capture(RenderSnapshot.Frame frame) {
+        sprite.capture(frame);
+    }
 }
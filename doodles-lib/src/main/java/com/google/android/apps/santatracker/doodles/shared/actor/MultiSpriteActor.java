@@ -16,9 +16,9 @@
 
 package com.google.android.apps.santatracker.doodles.shared.actor;
 
-import android.content.res.Resources;
 import com.google.android.apps.santatracker.doodles.shared.Vector2D;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.util.SantaLog;
 import java.util.HashMap;
 import java.util.Map;
@@ -38,10 +38,10 @@ public class MultiSpriteActor extends SpriteActor {
     }
 
     public static MultiSpriteActor create(
-            Data[] data, String selectedSprite, Vector2D position, Resources resources) {
+            Data[] data, String selectedSprite, Vector2D position, SpriteLoader loader) {
         Map<String, AnimatedSprite> sprites = new HashMap<>();
         for (int i = 0; i < data.length; i++) {
-            sprites.put(data[i].key, data[i].getSprite(resources));
+            sprites.put(data[i].key, data[i].getSprite(loader));
         }
         return new MultiSpriteActor(sprites, selectedSprite, position, Vector2D.get());
     }
@@ -66,9 +66,9 @@ public class MultiSpriteActor extends SpriteActor {
             this.numFrames = idList.length;
         }
 
-        public AnimatedSprite getSprite(Resources resources) {
+        public AnimatedSprite getSprite(SpriteLoader sprites) {
             if (idList != null) {
-                return AnimatedSprite.fromFrames(resources, idList);
+                return sprites.fromFrames(idList);
             }
             return null;
         }
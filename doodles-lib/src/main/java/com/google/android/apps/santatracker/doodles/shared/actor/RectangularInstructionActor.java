@@ -16,10 +16,10 @@
 
 package com.google.android.apps.santatracker.doodles.shared.actor;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite.AnimatedSpriteListener;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.animation.Sprites;
 
 /** An actor that shows instructions for a game. */
@@ -37,8 +37,8 @@ public class RectangularInstructionActor extends Actor {
     private boolean animationIsReversed = false;
 
     /** @param diagram Animated sprite showing instructions in a loop. */
-    public RectangularInstructionActor(Resources resources, AnimatedSprite diagram) {
-        this.rectangle = AnimatedSprite.fromFrames(resources, Sprites.tutoappear_new);
+    public RectangularInstructionActor(SpriteLoader sprites, AnimatedSprite diagram) {
+        this.rectangle = sprites.fromFrames(Sprites.tutoappear_new);
         this.diagram = diagram;
 
         // Off-center anchor point lets us match the rectangle's animation with a simple scale.
@@ -137,4 +137,12 @@ public class RectangularInstructionActor extends Actor {
             diagram.draw(canvas);
         }
     }
+
+    @Override
+    public void capture(RenderSnapshot.Frame frame) {
+        if (!hidden) {
+            rectangle.capture(frame);
+            diagram.capture(frame);
+        }
+    }
 }
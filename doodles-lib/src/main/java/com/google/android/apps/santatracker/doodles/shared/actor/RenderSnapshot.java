@@ -0,0 +1,349 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared.actor;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands what to draw from the logic thread to the UI thread without either of them holding the
+ * model lock while the other works. Meant for games on a fixed-step {@link
+ * com.google.android.apps.santatracker.doodles.shared.LogicRefreshThread}: the logic thread
+ * captures a frame with {@link #beginCapture} and {@link #endCapture} after every step and calls
+ * {@link #publish} once the tick's steps are done, and the UI thread draws whatever {@link
+ * #latest} returns.
+ *
+ * <p>A frame is a list of sprite draws, each with the bitmap, source and destination rectangles,
+ * position, scale, rotation and alpha it had when it was captured, so drawing a frame never reads
+ * the actors or sprites themselves. Each draw also records how far its actor moved over its last
+ * step, and is drawn blended between the two positions by the alpha passed to {@link #publish}.
+ *
+ * <p>Three frames rotate between the two threads: one being written, one being drawn, and the
+ * newest finished one waiting to be picked up. Neither thread ever waits for the other.
+ */
+public class RenderSnapshot {
+    private final AtomicReference<Frame> pending = new AtomicReference<>(new Frame());
+    // Only touched by the logic thread.
+    private Frame writing = new Frame();
+    private boolean hasCapture;
+    // Only touched by the UI thread.
+    private Frame reading = new Frame();
+    private volatile boolean hasPublished;
+
+    /**
+     * Start recording a frame. Call on the logic thread at the end of every step, add what to draw
+     * to the returned frame in draw order, then call {@link #endCapture}. Only the last capture
+     * before {@link #publish} is drawn, but each one moves the interpolation start point along.
+     *
+     * @param camera the camera to record, or null if the game doesn't have one.
+     */
+    public Frame beginCapture(Actor camera) {
+        Frame frame = writing;
+        frame.clear();
+        if (camera != null) {
+            frame.setCamera(camera);
+        }
+        return frame;
+    }
+
+    /** Finish the frame started by {@link #beginCapture}, ready to be published. */
+    public void endCapture() {
+        hasCapture = true;
+    }
+
+    /**
+     * Hand the last capture over to the UI thread. Does nothing if nothing has been captured since
+     * the last publish (e.g. while the game is paused), so the UI thread keeps the frame it has.
+     *
+     * @param alpha how far to blend from each actor's previous position to its captured one.
+     */
+    public void publish(float alpha) {
+        if (!hasCapture) {
+            return;
+        }
+        hasCapture = false;
+        writing.alpha = alpha;
+        writing.isNew = true;
+        writing = pending.getAndSet(writing);
+        hasPublished = true;
+    }
+
+    /**
+     * Get the newest published frame. Call on the UI thread; the frame stays valid until the next
+     * call.
+     *
+     * @return the frame, or null if nothing has been published yet.
+     */
+    public Frame latest() {
+        if (!hasPublished) {
+            return null;
+        }
+        if (pending.get().isNew) {
+            // Anything the logic thread swaps in between the check and here is newer still.
+            reading = pending.getAndSet(reading);
+            reading.isNew = false;
+        }
+        return reading;
+    }
+
+    /** One captured frame. */
+    public static class Frame {
+        // Per sprite draw: x, y, scale x, scale y, rotation in degrees, and the offset from the
+        // actor's captured position back to its previous one.
+        private static final int TRANSFORM = 7;
+
+        private Bitmap[] bitmaps = new Bitmap[32];
+        private int[] srcRects = new int[32 * 4];
+        private float[] dstRects = new float[32 * 4];
+        private float[] transforms = new float[32 * TRANSFORM];
+        private int[] alphas = new int[32];
+        private int size;
+        // Draws from this index on are in screen space, or -1 if there aren't any.
+        private int uiStart = -1;
+        // The offset from the actor being added back to its previous position.
+        private float backX;
+        private float backY;
+
+        private float cameraFromX;
+        private float cameraFromY;
+        private float cameraToX;
+        private float cameraToY;
+        private float cameraScale = 1;
+        private float cameraShakeX;
+        private float cameraShakeY;
+        private float alpha;
+        private boolean isNew;
+
+        // Only used by the UI thread, to draw.
+        private final Paint paint = new Paint();
+        private final Rect srcRect = new Rect();
+        private final RectF dstRect = new RectF();
+
+        Frame() {
+            paint.setAntiAlias(true);
+            paint.setFilterBitmap(true);
+        }
+
+        /**
+         * Record the actor, unless it is hidden, by having it {@link Actor#capture} its sprites.
+         * Its sprites are drawn blended from where the actor was at the previous capture.
+         */
+        public void add(Actor actor) {
+            if (!actor.hidden) {
+                if (actor.hasSnapshot) {
+                    backX = actor.snapshotX - actor.position.x;
+                    backY = actor.snapshotY - actor.position.y;
+                }
+                actor.capture(this);
+                backX = 0;
+                backY = 0;
+            }
+            advance(actor);
+        }
+
+        /** Record each of the actors in order. Synchronizes on the list while doing so. */
+        public void addAll(List<? extends Actor> actors) {
+            synchronized (actors) {
+                for (int i = 0; i < actors.size(); i++) {
+                    add(actors.get(i));
+                }
+            }
+        }
+
+        /**
+         * Record one sprite draw. Called by {@link
+         * com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite#capture};
+         * the rectangles are copied, so they can be reused straight away.
+         *
+         * @param rotation in radians.
+         */
+        public void addSprite(
+                Bitmap bitmap,
+                Rect src,
+                RectF dst,
+                float x,
+                float y,
+                float scaleX,
+                float scaleY,
+                float rotation,
+                int alpha) {
+            int i = size;
+            if (i == bitmaps.length) {
+                grow();
+            }
+            bitmaps[i] = bitmap;
+            srcRects[i * 4] = src.left;
+            srcRects[i * 4 + 1] = src.top;
+            srcRects[i * 4 + 2] = src.right;
+            srcRects[i * 4 + 3] = src.bottom;
+            dstRects[i * 4] = dst.left;
+            dstRects[i * 4 + 1] = dst.top;
+            dstRects[i * 4 + 2] = dst.right;
+            dstRects[i * 4 + 3] = dst.bottom;
+            int t = i * TRANSFORM;
+            transforms[t] = x;
+            transforms[t + 1] = y;
+            transforms[t + 2] = scaleX;
+            transforms[t + 3] = scaleY;
+            transforms[t + 4] = (float) Math.toDegrees(rotation);
+            transforms[t + 5] = backX;
+            transforms[t + 6] = backY;
+            alphas[i] = alpha;
+            size++;
+        }
+
+        /**
+         * Everything added from now on is UI, drawn by {@link #drawUi} in screen space rather than
+         * by {@link #drawWorld}.
+         */
+        public void beginUi() {
+            uiStart = size;
+        }
+
+        /** Record the camera shake, which {@link #getCameraShakeX} and Y hand back. */
+        public void setCameraShake(float x, float y) {
+            cameraShakeX = x;
+            cameraShakeY = y;
+        }
+
+        public float getCameraX() {
+            return lerp(cameraFromX, cameraToX);
+        }
+
+        public float getCameraY() {
+            return lerp(cameraFromY, cameraToY);
+        }
+
+        public float getCameraScale() {
+            return cameraScale;
+        }
+
+        public float getCameraShakeX() {
+            return cameraShakeX;
+        }
+
+        public float getCameraShakeY() {
+            return cameraShakeY;
+        }
+
+        /** Draw the world, i.e. everything added before {@link #beginUi}, in captured order. */
+        public void drawWorld(Canvas canvas) {
+            draw(canvas, 0, uiStart < 0 ? size : uiStart);
+        }
+
+        /** Draw the UI, i.e. everything added after {@link #beginUi}, in captured order. */
+        public void drawUi(Canvas canvas) {
+            if (uiStart >= 0) {
+                draw(canvas, uiStart, size);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        Bitmap getBitmap(int index) {
+            return bitmaps[index];
+        }
+
+        /** The x of the index-th sprite draw, blended from its actor's previous position. */
+        float getX(int index) {
+            int t = index * TRANSFORM;
+            return transforms[t] + transforms[t + 5] * (1 - alpha);
+        }
+
+        /** The y of the index-th sprite draw, blended from its actor's previous position. */
+        float getY(int index) {
+            int t = index * TRANSFORM;
+            return transforms[t + 1] + transforms[t + 6] * (1 - alpha);
+        }
+
+        float getScaleX(int index) {
+            return transforms[index * TRANSFORM + 2];
+        }
+
+        int getAlpha(int index) {
+            return alphas[index];
+        }
+
+        private void draw(Canvas canvas, int start, int end) {
+            for (int i = start; i < end; i++) {
+                int t = i * TRANSFORM;
+                srcRect.set(
+                        srcRects[i * 4],
+                        srcRects[i * 4 + 1],
+                        srcRects[i * 4 + 2],
+                        srcRects[i * 4 + 3]);
+                dstRect.set(
+                        dstRects[i * 4],
+                        dstRects[i * 4 + 1],
+                        dstRects[i * 4 + 2],
+                        dstRects[i * 4 + 3]);
+                paint.setAlpha(alphas[i]);
+
+                canvas.save();
+                canvas.translate(getX(i), getY(i));
+                canvas.scale(transforms[t + 2], transforms[t + 3], 0, 0);
+                canvas.rotate(transforms[t + 4], 0, 0);
+                canvas.drawBitmap(bitmaps[i], srcRect, dstRect, paint);
+                canvas.restore();
+            }
+        }
+
+        private float lerp(float from, float to) {
+            return from + (to - from) * alpha;
+        }
+
+        private void clear() {
+            // Let go of the bitmaps, which may belong to a game which has finished since.
+            Arrays.fill(bitmaps, 0, size, null);
+            size = 0;
+            uiStart = -1;
+            cameraShakeX = 0;
+            cameraShakeY = 0;
+        }
+
+        private void setCamera(Actor camera) {
+            cameraFromX = camera.hasSnapshot ? camera.snapshotX : camera.position.x;
+            cameraFromY = camera.hasSnapshot ? camera.snapshotY : camera.position.y;
+            cameraToX = camera.position.x;
+            cameraToY = camera.position.y;
+            cameraScale = camera.scale;
+            advance(camera);
+        }
+
+        private static void advance(Actor actor) {
+            actor.snapshotX = actor.position.x;
+            actor.snapshotY = actor.position.y;
+            actor.hasSnapshot = true;
+        }
+
+        private void grow() {
+            int size = bitmaps.length * 2;
+            bitmaps = Arrays.copyOf(bitmaps, size);
+            srcRects = Arrays.copyOf(srcRects, size * 4);
+            dstRects = Arrays.copyOf(dstRects, size * 4);
+            transforms = Arrays.copyOf(transforms, size * TRANSFORM);
+            alphas = Arrays.copyOf(alphas, size);
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.google.android.apps.santatracker.doodles.shared.animation;
 
+import android.content.Context;
+import android.content.pm.PackageManager;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
@@ -24,34 +26,56 @@ import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.util.Pair;
+import android.util.SparseArray;
+import androidx.annotation.VisibleForTesting;
 import com.google.android.apps.santatracker.doodles.shared.BitmapCache;
 import com.google.android.apps.santatracker.doodles.shared.CallbackProcess;
 import com.google.android.apps.santatracker.doodles.shared.ProcessChain;
 import com.google.android.apps.santatracker.doodles.shared.Vector2D;
 import com.google.android.apps.santatracker.doodles.shared.WaitProcess;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 import com.google.android.apps.santatracker.doodles.shared.physics.Util;
 import com.google.android.apps.santatracker.util.SantaLog;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * An animated image. This also handles static, non-animated images: those are just animations with
  * only 1 frame.
+ *
+ * <p>Frames are drawn from a table of rectangles within their bitmaps, in the bitmaps' own pixels,
+ * so that they can either each have their own image ({@link #fromFrames}) or be packed into the
+ * pages of a sprite sheet ({@link #fromSheet}).
  */
 public class AnimatedSprite {
     private static final String TAG = AnimatedSprite.class.getSimpleName();
     private static final int DEFAULT_FPS = 24;
     private static final int NUM_TRIES_TO_LOAD_FROM_MEMORY = 3;
+    // The bitmap cache keeps bitmaps no game uses anymore up to this fraction of the memory class.
+    private static final int CACHE_MEMORY_FRACTION = 4;
+    private static final String SHEET_CACHE_DIR = "sprite_sheets";
+    // Enough for the sheets of every game; the ones loaded the longest ago are deleted past this.
+    private static final int MAX_CACHED_SHEETS = 64;
 
     // When loading any sprite, this was the last successful sampleSize.  We start loading the next
     // Sprite with this sampleSize.
     public static int lastUsedSampleSize = 1;
 
+    // Created by the first acquireCache(), with a budget based on the memory class.
     private static BitmapCache bitmapCache;
+    // The layouts of the sheets loaded so far, by the hash of their frame ids. Their pages are in
+    // the bitmap cache, under the same id and frame numbers -1, -2 and so on.
+    private static final SparseArray<SpriteSheet> sheets = new SparseArray<>();
     public int frameWidth;
     public int frameHeight;
     public Vector2D anchor = Vector2D.get();
     private Bitmap[] frames;
+    // The bounds of each frame within its bitmap, as left, top, right, bottom.
+    private int[] frameRects;
     private int fps = DEFAULT_FPS;
     private int numFrames;
     private boolean loop = true;
@@ -74,8 +98,10 @@ public class AnimatedSprite {
     private RectF dstRect = new RectF();
 
     /** Use fromFrames() to construct an AnimatedSprite. */
-    private AnimatedSprite(Bitmap[] frames, int sampleSize) {
+    private AnimatedSprite(
+            Bitmap[] frames, int[] frameRects, int frameWidth, int frameHeight, int sampleSize) {
         this.frames = frames;
+        this.frameRects = frameRects;
         this.sampleSize = sampleSize;
         if (lastUsedSampleSize < sampleSize) {
             lastUsedSampleSize = sampleSize;
@@ -84,45 +110,204 @@ public class AnimatedSprite {
         if (numFrames == 0) {
             throw new IllegalArgumentException("Can't have AnimatedSprite with zero frames.");
         }
-        frameWidth = frames[0].getWidth() * sampleSize;
-        frameHeight = frames[0].getHeight() * sampleSize;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
         listeners = new ArrayList<>();
         paint = new Paint();
         paint.setAntiAlias(true);
         paint.setFilterBitmap(true);
     }
 
-    /** Return AnimatedSprite built from separate images (one image per frame). */
-    public static AnimatedSprite fromFrames(Resources resources, int[] ids) {
+    /**
+     * Return AnimatedSprite built from separate images (one image per frame), caching their bitmaps
+     * for the given owner. Games load their sprites with {@link SpriteLoader#fromFrames} instead.
+     */
+    static AnimatedSprite fromFrames(
+            Resources resources, int[] ids, BitmapCache cache, int cacheOwner) {
         int sampleSize = lastUsedSampleSize;
+        int firstSampleSize = sampleSize;
         Bitmap frames[] = new Bitmap[ids.length];
         for (int i = 0; i < ids.length; i++) {
-            Pair<Bitmap, Integer> pair = getBitmapFromCache(ids[i], 0);
-            if (pair != null) {
-                frames[i] = pair.first;
-                sampleSize = pair.second;
+            sampleSize = loadBitmap(resources, ids[i], sampleSize, frames, i, cache, cacheOwner);
+            if (i == 0) {
+                firstSampleSize = sampleSize;
             }
-            if (frames[i] == null) {
-                final BitmapFactory.Options options = new BitmapFactory.Options();
-                for (int tries = 0; tries < NUM_TRIES_TO_LOAD_FROM_MEMORY; tries++) {
-                    try {
-                        // Decode bitmap with inSampleSize set
-                        options.inSampleSize = sampleSize;
-                        frames[i] = BitmapFactory.decodeResource(resources, ids[i], options);
-                    } catch (OutOfMemoryError oom) {
-                        sampleSize *= 2;
-                        SantaLog.d(TAG, "loading failed, trying sampleSize: " + sampleSize, oom);
-                    }
+        }
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("Can't have AnimatedSprite with zero frames.");
+        }
+        return new AnimatedSprite(
+                frames,
+                wholeFrameRects(frames),
+                frames[0].getWidth() * firstSampleSize,
+                frames[0].getHeight() * firstSampleSize,
+                sampleSize);
+    }
+
+    /**
+     * Return AnimatedSprite built from the frames packed into a sprite sheet, caching its pages for
+     * the given owner. The sheet is packed from the frames the first time, and written to the
+     * given file; later loads decode its pages from there. Games load their sprites with {@link
+     * SpriteLoader#fromSheet} instead.
+     *
+     * @param cacheFile the file to keep the sheet in, or null not to keep it.
+     * @param cacheKey identifies everything the sheet depends on, such as the frames and the
+     *     version of the app.
+     */
+    static AnimatedSprite fromSheet(
+            Resources resources,
+            int[] ids,
+            BitmapCache cache,
+            int cacheOwner,
+            File cacheFile,
+            String cacheKey) {
+        int key = Arrays.hashCode(ids);
+        SpriteSheet sheet;
+        synchronized (sheets) {
+            sheet = sheets.get(key);
+        }
+        Bitmap[] pages = null;
+        if (sheet != null && sheet.isFor(ids)) {
+            pages = getCachedPages(sheet, key, cache, cacheOwner);
+        }
+        if (pages == null && cacheFile != null) {
+            ArrayList<byte[]> encoded = new ArrayList<>();
+            sheet = SpriteSheet.readFrom(cacheFile, cacheKey, encoded);
+            if (sheet != null && sheet.isFor(ids)) {
+                pages = decodePages(sheet, encoded, cache);
+                cacheFile.setLastModified(System.currentTimeMillis());
+            }
+        }
+        if (pages == null) {
+            ArrayList<Bitmap> packed = new ArrayList<>();
+            sheet = packSheet(resources, ids, cache, packed);
+            pages = packed.toArray(new Bitmap[packed.size()]);
+            if (cacheFile != null) {
+                saveSheet(sheet, packed, cacheFile, cacheKey);
+            }
+        }
+        int sampleSize =
+                Math.max(1, Math.round(sheet.getPageSourceWidth(0) / (float) pages[0].getWidth()));
+        for (int p = 0; p < pages.length; p++) {
+            cache.putBitmapInCache(pages[p], key, -1 - p, sampleSize, cacheOwner);
+        }
+        synchronized (sheets) {
+            sheets.put(key, sheet);
+        }
+
+        Bitmap[] frames = new Bitmap[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            frames[i] = pages[sheet.getPage(i)];
+        }
+        return new AnimatedSprite(
+                frames,
+                sheet.getFrameRects(pages),
+                sheet.getSourceWidth(0),
+                sheet.getSourceHeight(0),
+                sampleSize);
+    }
+
+    /** Return the cached pages of a sheet, or null unless they are all cached. */
+    private static Bitmap[] getCachedPages(
+            SpriteSheet sheet, int key, BitmapCache cache, int owner) {
+        Bitmap[] pages = new Bitmap[sheet.getPageCount()];
+        for (int p = 0; p < pages.length; p++) {
+            Pair<Bitmap, Integer> pair = cache.getBitmapFromCache(key, -1 - p, owner);
+            if (pair == null || pair.first == null) {
+                return null;
+            }
+            pages[p] = pair.first;
+        }
+        return pages;
+    }
+
+    /**
+     * Decode the pages of a sheet read from its cache file, starting at the last sample size.
+     *
+     * @return the pages, or null if any of them couldn't be decoded.
+     */
+    private static Bitmap[] decodePages(
+            SpriteSheet sheet, List<byte[]> encoded, BitmapCache cache) {
+        // The pages were packed from frames decoded at the sheet's sample size already.
+        int sampleSize = Math.max(1, lastUsedSampleSize / sheet.getSampleSize());
+        Bitmap[] pages = new Bitmap[encoded.size()];
+        for (int p = 0; p < pages.length; p++) {
+            decodeBitmap(null, 0, encoded.get(p), sampleSize, pages, p, cache);
+            if (pages[p] == null) {
+                for (int q = 0; q < p; q++) {
+                    cache.recycle(pages[q]);
                 }
-                putBitmapInCache(frames[i], ids[i], 0, sampleSize);
+                return null;
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Decode the frames of an animation and pack them into the pages of a new sheet. The frames
+     * go back to the cache's pool once they have been copied into their page.
+     */
+    private static SpriteSheet packSheet(
+            Resources resources, int[] ids, BitmapCache cache, List<Bitmap> pages) {
+        int sampleSize = lastUsedSampleSize;
+        Bitmap[] frames = new Bitmap[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            int frameSampleSize =
+                    decodeBitmap(resources, ids[i], null, sampleSize, frames, i, cache);
+            if (frameSampleSize != sampleSize && frames[i] != null) {
+                // The frames of a sheet all have the same sample size, so start over at this one.
+                for (int j = 0; j < i; j++) {
+                    cache.recycle(frames[j]);
+                    frames[j] = null;
+                }
+                cache.recycle(frames[i]);
+                frames[i] = null;
+                sampleSize = frameSampleSize;
+                i = -1;
+            }
+        }
+        SpriteSheet sheet = SpriteSheet.pack(ids, frames, sampleSize, pages);
+        for (Bitmap frame : frames) {
+            cache.recycle(frame);
+        }
+        return sheet;
+    }
+
+    private static void saveSheet(
+            SpriteSheet sheet, List<Bitmap> pages, File cacheFile, String cacheKey) {
+        File dir = cacheFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            SantaLog.w(TAG, "Can't create sprite sheet cache directory " + dir);
+            return;
+        }
+        try {
+            sheet.writeTo(cacheFile, cacheKey, pages);
+        } catch (IOException e) {
+            SantaLog.w(TAG, "Couldn't save sprite sheet to " + cacheFile + ": " + e);
+            cacheFile.delete();
+        }
+
+        File[] cached = dir.listFiles();
+        if (cached != null && cached.length > MAX_CACHED_SHEETS) {
+            // oldest first
+            Arrays.sort(
+                    cached,
+                    new Comparator<File>() {
+                        @Override
+                        public int compare(File a, File b) {
+                            return Long.compare(a.lastModified(), b.lastModified());
+                        }
+                    });
+            for (int i = 0; i < cached.length - MAX_CACHED_SHEETS; i++) {
+                cached[i].delete();
             }
         }
-        return new AnimatedSprite(frames, sampleSize);
     }
 
     /** Return AnimatedSprite built from the given Bitmap objects. (For testing). */
     public static AnimatedSprite fromBitmapsForTest(Bitmap frames[]) {
-        return new AnimatedSprite(frames, 1);
+        return new AnimatedSprite(
+                frames, wholeFrameRects(frames), frames[0].getWidth(), frames[0].getHeight(), 1);
     }
 
     /**
@@ -130,31 +315,183 @@ public class AnimatedSprite {
      * deep clone, only the frames & FPS of the original sprite are copied.
      */
     public static AnimatedSprite fromAnimatedSprite(AnimatedSprite other) {
-        AnimatedSprite sprite = new AnimatedSprite(other.frames, other.sampleSize);
+        AnimatedSprite sprite =
+                new AnimatedSprite(
+                        other.frames,
+                        other.frameRects,
+                        other.frameWidth,
+                        other.frameHeight,
+                        other.sampleSize);
         sprite.setFPS(other.fps);
         return sprite;
     }
 
-    private static Pair<Bitmap, Integer> getBitmapFromCache(int id, int frame) {
-        if (bitmapCache == null) {
-            bitmapCache = new BitmapCache();
+    /**
+     * Put the bitmap of the given resource into bitmaps[index], decoding it unless it is cached.
+     *
+     * @return the sample size of the bitmap.
+     */
+    private static int loadBitmap(
+            Resources resources,
+            int id,
+            int sampleSize,
+            Bitmap[] bitmaps,
+            int index,
+            BitmapCache cache,
+            int owner) {
+        Pair<Bitmap, Integer> pair = cache.getBitmapFromCache(id, 0, owner);
+        if (pair != null && pair.first != null) {
+            bitmaps[index] = pair.first;
+            return pair.second;
         }
-        return bitmapCache.getBitmapFromCache(id, frame);
+        sampleSize = decodeBitmap(resources, id, null, sampleSize, bitmaps, index, cache);
+        cache.putBitmapInCache(bitmaps[index], id, 0, sampleSize, owner);
+        return sampleSize;
     }
 
-    private static void putBitmapInCache(Bitmap bitmap, int id, int frame, int sampleSize) {
+    /**
+     * Decode the given resource, or the given encoded image if data isn't null, into
+     * bitmaps[index]. Each time decoding runs out of memory, the sample size is doubled and it is
+     * tried again.
+     *
+     * @return the sample size of the bitmap.
+     */
+    private static int decodeBitmap(
+            Resources resources,
+            int id,
+            byte[] data,
+            int sampleSize,
+            Bitmap[] bitmaps,
+            int index,
+            BitmapCache cache) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        for (int tries = 0; tries < NUM_TRIES_TO_LOAD_FROM_MEMORY; tries++) {
+            try {
+                // Decode bitmap with inSampleSize set
+                options.inSampleSize = sampleSize;
+                bitmaps[index] = decodePooled(resources, id, data, options, cache);
+                break;
+            } catch (OutOfMemoryError oom) {
+                sampleSize *= 2;
+                SantaLog.d(TAG, "loading failed, trying sampleSize: " + sampleSize, oom);
+            }
+        }
+        return sampleSize;
+    }
+
+    /** Decode into a bitmap from the cache's pool if one is big enough for it. */
+    private static Bitmap decodePooled(
+            Resources resources,
+            int id,
+            byte[] data,
+            BitmapFactory.Options options,
+            BitmapCache cache) {
+        options.inJustDecodeBounds = true;
+        decode(resources, id, data, options);
+        options.inJustDecodeBounds = false;
+        Bitmap reusable = cache.takeReusable((long) options.outWidth * options.outHeight * 4);
+        options.inMutable = true;
+        options.inBitmap = reusable;
+        Bitmap bitmap;
+        try {
+            bitmap = decode(resources, id, data, options);
+        } catch (IllegalArgumentException e) {
+            // The pooled bitmap can't be decoded into after all, e.g. it has another config.
+            options.inBitmap = null;
+            bitmap = decode(resources, id, data, options);
+        } finally {
+            options.inBitmap = null;
+        }
+        if (reusable != null && bitmap != reusable) {
+            cache.recycle(reusable);
+        }
+        return bitmap;
+    }
+
+    private static Bitmap decode(
+            Resources resources, int id, byte[] data, BitmapFactory.Options options) {
+        return data != null
+                ? BitmapFactory.decodeByteArray(data, 0, data.length, options)
+                : BitmapFactory.decodeResource(resources, id, options);
+    }
+
+    private static int[] wholeFrameRects(Bitmap[] frames) {
+        int[] frameRects = new int[frames.length * 4];
+        for (int i = 0; i < frames.length; i++) {
+            if (frames[i] != null) {
+                frameRects[i * 4 + 2] = frames[i].getWidth();
+                frameRects[i * 4 + 3] = frames[i].getHeight();
+            }
+        }
+        return frameRects;
+    }
+
+    /**
+     * Start caching bitmaps for a new owner, typically a game which is about to load. The bitmaps
+     * of the sprites it loads with the returned loader are kept until it calls {@link
+     * #releaseCache}, however many other games acquire and release the cache meanwhile. Sprite
+     * sheets are kept in the context's cache directory between loads.
+     *
+     * @param memoryClassMb the memory class of the app, from {@link
+     *     android.app.ActivityManager#getMemoryClass}. Bitmaps no game uses anymore are kept up to
+     *     a fraction of it, in case they are needed again.
+     */
+    public static synchronized SpriteLoader acquireCache(Context context, int memoryClassMb) {
         if (bitmapCache == null) {
-            bitmapCache = new BitmapCache();
+            bitmapCache = new BitmapCache(memoryClassMb * 1024L * 1024L / CACHE_MEMORY_FRACTION);
+        }
+        String sheetKeyPrefix = getSheetKeyPrefix(context);
+        return new SpriteLoader(
+                context.getResources(),
+                bitmapCache,
+                bitmapCache.acquire(),
+                sheetKeyPrefix == null ? null : new File(context.getCacheDir(), SHEET_CACHE_DIR),
+                sheetKeyPrefix);
+    }
+
+    /**
+     * Returns what the cache keys of sprite sheets start with: the installed version of the app,
+     * whose resources may have changed since the sheets were packed, and the screen density the
+     * frames are decoded for. Returns null if it can't be determined, in which case sheets aren't
+     * cached.
+     */
+    private static String getSheetKeyPrefix(Context context) {
+        long installTime;
+        try {
+            installTime =
+                    context.getPackageManager()
+                            .getPackageInfo(context.getPackageName(), 0)
+                            .lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            SantaLog.w(TAG, "Can't find own package info, not caching sprite sheets.");
+            return null;
         }
-        bitmapCache.putBitmapInCache(bitmap, id, frame, sampleSize);
+        return installTime + "@" + context.getResources().getDisplayMetrics().densityDpi;
     }
 
-    public static void clearCache() {
-        if (AnimatedSprite.bitmapCache != null) {
-            AnimatedSprite.bitmapCache.clear();
+    /**
+     * Let the bitmaps of a loader be evicted and decoded into for other sprites. The sprites it
+     * loaded must not be drawn anymore.
+     */
+    public static void releaseCache(SpriteLoader loader) {
+        loader.cache.release(loader.cacheOwner);
+    }
+
+    public static synchronized void clearCache() {
+        if (bitmapCache != null) {
+            bitmapCache.clear();
+        }
+        synchronized (sheets) {
+            sheets.clear();
         }
     }
 
+    /** Total size of the cached and pooled bitmaps. */
+    @VisibleForTesting
+    static synchronized long getCacheByteCount() {
+        return bitmapCache == null ? 0 : bitmapCache.getByteCount();
+    }
+
     /** Set whether to loop the animation or not. */
     public void setLoop(boolean loop) {
         this.loop = loop;
@@ -279,16 +616,10 @@ public class AnimatedSprite {
 
     public void draw(Canvas canvas) {
         if (!hidden) {
-            // Integer cast should round down, but clamp it just in case the synchronization with
-            // the
-            // update thread isn't perfect.
-            int frameIndexFloor = Util.clamp((int) frameIndex, 0, numFrames - 1);
+            int frameIndexFloor = setDrawRects();
             float scaleX = flippedX ? -this.scaleX : this.scaleX;
 
             canvas.save();
-            srcRect.set(0, 0, frameWidth, frameHeight);
-            dstRect.set(-anchor.x, -anchor.y, -anchor.x + frameWidth, -anchor.y + frameHeight);
-
             canvas.translate(position.x, position.y);
             canvas.scale(scaleX, scaleY, 0, 0);
             canvas.rotate((float) Math.toDegrees(rotation), 0, 0);
@@ -298,6 +629,38 @@ public class AnimatedSprite {
         }
     }
 
+    /**
+     * Record into the frame what {@link #draw} would draw right now, so that the frame can be drawn
+     * later on another thread however this sprite changes in the meantime.
+     */
+    public void capture(RenderSnapshot.Frame frame) {
+        if (!hidden) {
+            int frameIndexFloor = setDrawRects();
+            frame.addSprite(
+                    frames[frameIndexFloor],
+                    srcRect,
+                    dstRect,
+                    position.x,
+                    position.y,
+                    flippedX ? -scaleX : scaleX,
+                    scaleY,
+                    rotation,
+                    paint.getAlpha());
+        }
+    }
+
+    /** Set srcRect and dstRect for the current frame, and return its index. */
+    private int setDrawRects() {
+        // Integer cast should round down, but clamp it just in case the synchronization with the
+        // update thread isn't perfect.
+        int frameIndexFloor = Util.clamp((int) frameIndex, 0, numFrames - 1);
+        int rect = frameIndexFloor * 4;
+        srcRect.set(
+                frameRects[rect], frameRects[rect + 1], frameRects[rect + 2], frameRects[rect + 3]);
+        dstRect.set(-anchor.x, -anchor.y, -anchor.x + frameWidth, -anchor.y + frameHeight);
+        return frameIndexFloor;
+    }
+
     // Unlike Actors, AnimatedSprites use setters instead of public fields for position, scale, etc.
     // This matches how it works on iOS, which uses setters because the actual values must be passed
     // down into SKNodes.
@@ -360,9 +723,15 @@ public class AnimatedSprite {
     // be what you want.
     public void reverseFrames() {
         for (int i = 0; i < frames.length / 2; i++) {
+            int j = frames.length - i - 1;
             Bitmap temp = frames[i];
-            frames[i] = frames[frames.length - i - 1];
-            frames[frames.length - i - 1] = temp;
+            frames[i] = frames[j];
+            frames[j] = temp;
+            for (int k = 0; k < 4; k++) {
+                int tempRect = frameRects[i * 4 + k];
+                frameRects[i * 4 + k] = frameRects[j * 4 + k];
+                frameRects[j * 4 + k] = tempRect;
+            }
         }
     }
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.doodles.shared.animation;
+
+import android.content.res.Resources;
+import com.google.android.apps.santatracker.doodles.shared.BitmapCache;
+import java.io.File;
+
+/**
+ * Loads the sprites of one game. Their bitmaps are cached for that game, and stay cached until it
+ * hands the loader back to {@link AnimatedSprite#releaseCache}. Get one from {@link
+ * AnimatedSprite#acquireCache}.
+ */
+public class SpriteLoader {
+    private final Resources resources;
+    final BitmapCache cache;
+    final int cacheOwner;
+    // Where sprite sheets are kept between loads, or null not to keep them.
+    private final File sheetDir;
+    private final String sheetKeyPrefix;
+
+    SpriteLoader(
+            Resources resources,
+            BitmapCache cache,
+            int cacheOwner,
+            File sheetDir,
+            String sheetKeyPrefix) {
+        this.resources = resources;
+        this.cache = cache;
+        this.cacheOwner = cacheOwner;
+        this.sheetDir = sheetDir;
+        this.sheetKeyPrefix = sheetKeyPrefix;
+    }
+
+    public Resources getResources() {
+        return resources;
+    }
+
+    /** Return AnimatedSprite built from separate images (one image per frame). */
+    public AnimatedSprite fromFrames(int[] ids) {
+        return AnimatedSprite.fromFrames(resources, ids, cache, cacheOwner);
+    }
+
+    /**
+     * Return AnimatedSprite built from a sprite sheet of the given images, which is packed the
+     * first time they are loaded. Loading it again decodes a bitmap per page of the sheet rather
+     * than one per frame.
+     */
+    public AnimatedSprite fromSheet(int[] ids) {
+        if (ids.length < 2) {
+            // A single image gains nothing from being packed.
+            return fromFrames(ids);
+        }
+        File file = null;
+        String key = null;
+        if (sheetDir != null) {
+            StringBuilder sb = new StringBuilder(sheetKeyPrefix);
+            for (int id : ids) {
+                sb.append('/').append(id);
+            }
+            key = sb.toString();
+            file = new File(sheetDir, "sheet_" + Integer.toHexString(key.hashCode()));
+        }
+        return AnimatedSprite.fromSheet(resources, ids, cache, cacheOwner, file, key);
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.doodles.shared.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import com.google.android.apps.santatracker.util.SantaLog;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The layout of an animation whose frames are packed into a few large pages, so that loading it
+ * decodes one bitmap per page rather than one per frame. Sheets are packed the first time an
+ * animation is loaded, and written to a cache file which later loads decode the pages from.
+ *
+ * <p>Frame bounds are kept in source pixels, those of the frames decoded at a sample size of 1.
+ * {@link #getFrameRects} scales them by how wide each page was decoded relative to its source
+ * width, so they stay right whatever sample size the sheet was packed or decoded at.
+ */
+class SpriteSheet {
+    private static final String TAG = SpriteSheet.class.getSimpleName();
+
+    // Pages are never larger than this, so that a hardware canvas can draw them on any device.
+    // Frames too big for a page get a page of their own.
+    static final int PAGE_SIZE = 2048;
+
+    // Transparent pixels left between frames, so that filtering at the edge of a frame never
+    // samples its neighbour, even once the page is decoded at a sample size of 2.
+    static final int GAP = 2;
+
+    private static final int CACHE_MAGIC = 0x53535348; // "SSSH"
+    private static final int CACHE_VERSION = 1;
+
+    private final int[] ids;
+    private final int sampleSize;
+    private final int[] framePages;
+    // The bounds of each frame as left, top, right, bottom, in source pixels.
+    private final int[] sourceRects;
+    private final int[] pageSourceWidths;
+    private final int[] pageSourceHeights;
+
+    private SpriteSheet(int[] ids, int sampleSize, int pageCount) {
+        this.ids = ids;
+        this.sampleSize = sampleSize;
+        framePages = new int[ids.length];
+        sourceRects = new int[ids.length * 4];
+        pageSourceWidths = new int[pageCount];
+        pageSourceHeights = new int[pageCount];
+    }
+
+    /**
+     * Packs the frames of an animation into pages, which are added to the given list. The frames
+     * are left as they are. Null frames (e.g. ones that failed to decode) get an empty rect.
+     *
+     * @param sampleSize the sample size all the frames were decoded at.
+     */
+    static SpriteSheet pack(int[] ids, final Bitmap[] frames, int sampleSize, List<Bitmap> pages) {
+        // Shelf packing, as in the playgames TextureAtlas: place frames left to right along a
+        // shelf, tallest first, and start a new shelf (or page) when one is full.
+        ArrayList<Integer> order = new ArrayList<>(frames.length);
+        for (int i = 0; i < frames.length; i++) {
+            order.add(i);
+        }
+        Collections.sort(
+                order,
+                new Comparator<Integer>() {
+                    @Override
+                    public int compare(Integer a, Integer b) {
+                        return heightOf(frames[b]) - heightOf(frames[a]);
+                    }
+                });
+
+        int[] left = new int[frames.length];
+        int[] top = new int[frames.length];
+        ArrayList<int[]> pageSizes = new ArrayList<>();
+        int[] framePages = new int[frames.length];
+        int shelfPage = -1;
+        int shelfX = 0, shelfY = 0, shelfHeight = 0;
+        for (int i : order) {
+            Bitmap frame = frames[i];
+            if (frame == null) {
+                continue;
+            }
+            int w = frame.getWidth();
+            int h = frame.getHeight();
+            if (w > PAGE_SIZE || h > PAGE_SIZE) {
+                framePages[i] = pageSizes.size();
+                pageSizes.add(new int[] {w, h});
+                continue;
+            }
+
+            if (shelfPage < 0 || shelfX + w > PAGE_SIZE) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (shelfPage < 0 || shelfY + h > PAGE_SIZE) {
+                shelfPage = pageSizes.size();
+                pageSizes.add(new int[] {0, 0});
+                shelfY = 0;
+            }
+            framePages[i] = shelfPage;
+            left[i] = shelfX;
+            top[i] = shelfY;
+            shelfX += w + GAP;
+            shelfHeight = Math.max(shelfHeight, h + GAP);
+
+            int[] size = pageSizes.get(shelfPage);
+            size[0] = Math.max(size[0], shelfX - GAP);
+            size[1] = Math.max(size[1], shelfY + h);
+        }
+        if (pageSizes.isEmpty()) {
+            pageSizes.add(new int[] {1, 1});
+        }
+
+        SpriteSheet sheet = new SpriteSheet(ids, sampleSize, pageSizes.size());
+        Canvas[] canvases = new Canvas[pageSizes.size()];
+        for (int p = 0; p < canvases.length; p++) {
+            int[] size = pageSizes.get(p);
+            Bitmap page = Bitmap.createBitmap(size[0], size[1], Bitmap.Config.ARGB_8888);
+            pages.add(page);
+            canvases[p] = new Canvas(page);
+            sheet.pageSourceWidths[p] = size[0] * sampleSize;
+            sheet.pageSourceHeights[p] = size[1] * sampleSize;
+        }
+
+        Rect src = new Rect();
+        Rect dst = new Rect();
+        for (int i = 0; i < frames.length; i++) {
+            sheet.framePages[i] = framePages[i];
+            Bitmap frame = frames[i];
+            if (frame == null) {
+                continue;
+            }
+            int x = left[i], y = top[i], w = frame.getWidth(), h = frame.getHeight();
+            // Drawing through explicit rects keeps the canvas from rescaling the frame by density.
+            src.set(0, 0, w, h);
+            dst.set(x, y, x + w, y + h);
+            canvases[framePages[i]].drawBitmap(frame, src, dst, null);
+
+            int rect = i * 4;
+            sheet.sourceRects[rect] = x * sampleSize;
+            sheet.sourceRects[rect + 1] = y * sampleSize;
+            sheet.sourceRects[rect + 2] = (x + w) * sampleSize;
+            sheet.sourceRects[rect + 3] = (y + h) * sampleSize;
+        }
+        return sheet;
+    }
+
+    private static int heightOf(Bitmap frame) {
+        return frame == null ? 0 : frame.getHeight();
+    }
+
+    /** Returns whether this is the sheet of the given frames. */
+    boolean isFor(int[] ids) {
+        return Arrays.equals(this.ids, ids);
+    }
+
+    /** Returns the sample size the frames were decoded at when they were packed. */
+    int getSampleSize() {
+        return sampleSize;
+    }
+
+    int getPageCount() {
+        return pageSourceWidths.length;
+    }
+
+    int getPageSourceWidth(int page) {
+        return pageSourceWidths[page];
+    }
+
+    /** Returns the page the given frame was packed into. */
+    int getPage(int frame) {
+        return framePages[frame];
+    }
+
+    int getSourceWidth(int frame) {
+        return sourceRects[frame * 4 + 2] - sourceRects[frame * 4];
+    }
+
+    int getSourceHeight(int frame) {
+        return sourceRects[frame * 4 + 3] - sourceRects[frame * 4 + 1];
+    }
+
+    /**
+     * Returns the bounds of every frame as left, top, right, bottom, in the pixels of the given
+     * pages.
+     */
+    int[] getFrameRects(Bitmap[] pages) {
+        int[] rects = new int[sourceRects.length];
+        for (int i = 0; i < framePages.length; i++) {
+            int page = framePages[i];
+            int width = pages[page].getWidth();
+            int height = pages[page].getHeight();
+            for (int k = 0; k < 4; k += 2) {
+                rects[i * 4 + k] = scale(sourceRects[i * 4 + k], width, pageSourceWidths[page]);
+                rects[i * 4 + k + 1] =
+                        scale(sourceRects[i * 4 + k + 1], height, pageSourceHeights[page]);
+            }
+        }
+        return rects;
+    }
+
+    private static int scale(int value, int decoded, int source) {
+        return (int) (((long) value * decoded + source / 2) / source);
+    }
+
+    /**
+     * Writes this sheet and its pages to the given file, the pages as PNGs. The file is written
+     * under a temporary name and renamed into place, so a reader never sees a partial sheet.
+     *
+     * @param key identifies what the sheet was built from; {@link #readFrom} only accepts a file
+     *     written with the same key.
+     */
+    void writeTo(File file, String key, List<Bitmap> pages) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(CACHE_VERSION);
+            out.writeUTF(key);
+            out.writeInt(sampleSize);
+            out.writeInt(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                out.writeInt(ids[i]);
+                out.writeInt(framePages[i]);
+                for (int k = 0; k < 4; k++) {
+                    out.writeInt(sourceRects[i * 4 + k]);
+                }
+            }
+            out.writeInt(pages.size());
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            for (int p = 0; p < pages.size(); p++) {
+                png.reset();
+                pages.get(p).compress(Bitmap.CompressFormat.PNG, 100, png);
+                out.writeInt(pageSourceWidths[p]);
+                out.writeInt(pageSourceHeights[p]);
+                out.writeInt(png.size());
+                png.writeTo(out);
+            }
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Couldn't rename " + tmp + " to " + file);
+        }
+    }
+
+    /**
+     * Reads a sheet written by {@link #writeTo}, adding its encoded pages to the given list.
+     *
+     * @return the sheet, or null if the file doesn't exist, is unreadable or was written with a
+     *     different key.
+     */
+    static SpriteSheet readFrom(File file, String key, List<byte[]> pages) {
+        if (!file.exists()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != CACHE_MAGIC
+                    || in.readInt() != CACHE_VERSION
+                    || !key.equals(in.readUTF())) {
+                return null;
+            }
+            int sampleSize = in.readInt();
+            int[] ids = new int[in.readInt()];
+            int[] framePages = new int[ids.length];
+            int[] sourceRects = new int[ids.length * 4];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = in.readInt();
+                framePages[i] = in.readInt();
+                for (int k = 0; k < 4; k++) {
+                    sourceRects[i * 4 + k] = in.readInt();
+                }
+            }
+            SpriteSheet sheet = new SpriteSheet(ids, sampleSize, in.readInt());
+            System.arraycopy(framePages, 0, sheet.framePages, 0, ids.length);
+            System.arraycopy(sourceRects, 0, sheet.sourceRects, 0, sourceRects.length);
+            for (int p = 0; p < sheet.getPageCount(); p++) {
+                sheet.pageSourceWidths[p] = in.readInt();
+                sheet.pageSourceHeights[p] = in.readInt();
+                byte[] png = new byte[in.readInt()];
+                in.readFully(png);
+                pages.add(png);
+            }
+            return sheet;
+        } catch (IOException | RuntimeException e) {
+            SantaLog.w(TAG, "Couldn't read sprite sheet " + file + ": " + e);
+            pages.clear();
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignored
+                }
+            }
+        }
+    }
+}
@@ -172,10 +172,11 @@ public class Polygon {
     }
 
     public int getMidpointIndex(Vector2D point, float scale) {
+        Vector2D midpoint = Vector2D.scratch(0, 0);
         for (int i = 0; i < vertices.size(); i++) {
             Vector2D start = vertices.get(i);
             Vector2D end = vertices.get(i < vertices.size() - 1 ? i + 1 : 0);
-            if (point.distanceTo(Util.getMidpoint(start, end))
+            if (point.distanceTo(Util.getMidpoint(start, end, midpoint))
                     < Math.max(Constants.SELECTION_RADIUS, Constants.SELECTION_RADIUS / scale)) {
                 return i;
             }
@@ -207,16 +208,14 @@ public class Polygon {
     private void updateInversionStatus() {
         Vector2D start = vertices.get(0);
         Vector2D end = vertices.get(1);
-        Vector2D midpoint = Util.getMidpoint(start, end);
-        Vector2D normal = Vector2D.get(end).subtract(start).toNormal().scale(0.1f);
+        Vector2D midpoint = Util.getMidpoint(start, end, Vector2D.scratch(0, 0));
+        Vector2D normal = Vector2D.scratch(end).subtract(start).toNormal().scale(0.1f);
 
         if (contains(midpoint.add(normal))) {
             isInverted = true;
         } else {
             isInverted = false;
         }
-        normal.release();
-        midpoint.release();
     }
 
     /**
@@ -239,7 +238,7 @@ public class Polygon {
 
         // Find a Y value that's definitely outside the polygon.
         float maxY = max.y + 1;
-        Vector2D outsidePoint = Vector2D.get(point.x, maxY);
+        Vector2D outsidePoint = Vector2D.scratch(point.x, maxY);
 
         // Check how many edges lie between (p.x, p.y) and (p.x, maxY).
         boolean inside = false;
@@ -271,7 +270,6 @@ public class Polygon {
                 inside = !inside;
             }
         }
-        outsidePoint.release();
         return inside;
     }
 
@@ -293,6 +291,8 @@ public class Polygon {
     }
 
     public void draw(Canvas canvas) {
+        Vector2D midpoint = Vector2D.scratch(0, 0);
+        Vector2D normal = Vector2D.scratch(0, 0);
         for (int i = 0; i < vertices.size(); i++) {
             Vector2D start = vertices.get(i);
             Vector2D end;
@@ -301,8 +301,8 @@ public class Polygon {
             } else {
                 end = vertices.get(0);
             }
-            Vector2D midpoint = Util.getMidpoint(start, end);
-            Vector2D normal = Vector2D.get(end).subtract(start).toNormal();
+            Util.getMidpoint(start, end, midpoint);
+            normal.set(end).subtract(start).toNormal();
 
             canvas.drawCircle(start.x, start.y, VERTEX_RADIUS, vertexPaint);
             canvas.drawLine(start.x, start.y, end.x, end.y, linePaint);
@@ -313,9 +313,6 @@ public class Polygon {
                     midpoint.x + normal.x * 20,
                     midpoint.y + normal.y * 20,
                     linePaint);
-
-            midpoint.release();
-            normal.release();
         }
     }
 
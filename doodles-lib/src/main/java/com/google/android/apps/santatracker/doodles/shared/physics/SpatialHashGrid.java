@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared.physics;
+
+import android.util.LongSparseArray;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A uniform grid broad phase. Items are registered with their axis-aligned bounds and bucketed into
+ * every cell those bounds touch, so that a query only has to look at the items near the query
+ * region instead of every registered item. The candidates returned by a query may not actually
+ * intersect the region; callers are expected to run their own narrow phase on them (e.g. {@link
+ * Util#rectIntersectsRect} or {@link Util#convexPolygonIntersectsConvexPolygon}).
+ *
+ * <p>This class is not thread-safe.
+ */
+public class SpatialHashGrid<T> {
+    private final float cellSize;
+    private final LongSparseArray<ArrayList<Entry<T>>> cells = new LongSparseArray<>();
+    private final IdentityHashMap<T, Entry<T>> entries = new IdentityHashMap<>();
+    // Emptied cells are recycled so that items moving across the grid don't churn allocations.
+    private final ArrayList<ArrayList<Entry<T>>> spareCells = new ArrayList<>();
+    private int queryStamp;
+
+    /**
+     * @param cellSize the width and height of a grid cell, in world units. This should be around
+     *     the size of a typical item; much smaller and items span many cells, much larger and
+     *     queries return many items which are nowhere near the query region.
+     */
+    public SpatialHashGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /** Register an item with the extents of the given polygon. */
+    public void insert(T item, Polygon body) {
+        insert(item, body.min.x, body.min.y, body.max.x, body.max.y);
+    }
+
+    /**
+     * Register an item with the given axis-aligned bounds. If the item is already registered, it is
+     * moved to the new bounds instead. Moving an item within the cells it already occupies is free,
+     * so it is fine to call this every frame for items which move.
+     */
+    public void insert(T item, float minX, float minY, float maxX, float maxY) {
+        int minCol = toCell(minX);
+        int minRow = toCell(minY);
+        int maxCol = toCell(maxX);
+        int maxRow = toCell(maxY);
+
+        Entry<T> entry = entries.get(item);
+        if (entry == null) {
+            entry = new Entry<>(item);
+            entries.put(item, entry);
+        } else if (entry.minCol == minCol
+                && entry.minRow == minRow
+                && entry.maxCol == maxCol
+                && entry.maxRow == maxRow) {
+            return;
+        } else {
+            removeFromCells(entry);
+        }
+
+        entry.minCol = minCol;
+        entry.minRow = minRow;
+        entry.maxCol = maxCol;
+        entry.maxRow = maxRow;
+        for (int col = minCol; col <= maxCol; col++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                long key = key(col, row);
+                ArrayList<Entry<T>> cell = cells.get(key);
+                if (cell == null) {
+                    cell =
+                            spareCells.isEmpty()
+                                    ? new ArrayList<Entry<T>>()
+                                    : spareCells.remove(spareCells.size() - 1);
+                    cells.put(key, cell);
+                }
+                cell.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Unregister an item.
+     *
+     * @return true if the item was registered, false otherwise.
+     */
+    public boolean remove(T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry == null) {
+            return false;
+        }
+        removeFromCells(entry);
+        return true;
+    }
+
+    /** Unregister all items. */
+    public void clear() {
+        for (int i = 0; i < cells.size(); i++) {
+            ArrayList<Entry<T>> cell = cells.valueAt(i);
+            cell.clear();
+            spareCells.add(cell);
+        }
+        cells.clear();
+        entries.clear();
+    }
+
+    /** Return the number of registered items. */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find the items which may intersect the given axis-aligned bounds. Each item is reported at
+     * most once, even if it spans several of the cells covered by the query.
+     *
+     * @param out the list to fill with candidates. It is cleared first, so callers can keep reusing
+     *     the same list instead of allocating one per query.
+     * @return out, for convenience.
+     */
+    public List<T> query(float minX, float minY, float maxX, float maxY, List<T> out) {
+        out.clear();
+        int stamp = ++queryStamp;
+        int maxCol = toCell(maxX);
+        int maxRow = toCell(maxY);
+        for (int col = toCell(minX); col <= maxCol; col++) {
+            for (int row = toCell(minY); row <= maxRow; row++) {
+                ArrayList<Entry<T>> cell = cells.get(key(col, row));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    Entry<T> entry = cell.get(i);
+                    if (entry.queryStamp != stamp) {
+                        entry.queryStamp = stamp;
+                        out.add(entry.item);
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Find the items which may intersect the extents of the given polygon. */
+    public List<T> query(Polygon body, List<T> out) {
+        return query(body.min.x, body.min.y, body.max.x, body.max.y, out);
+    }
+
+    private void removeFromCells(Entry<T> entry) {
+        for (int col = entry.minCol; col <= entry.maxCol; col++) {
+            for (int row = entry.minRow; row <= entry.maxRow; row++) {
+                long key = key(col, row);
+                ArrayList<Entry<T>> cell = cells.get(key);
+                if (cell == null) {
+                    continue;
+                }
+                cell.remove(entry);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                    spareCells.add(cell);
+                }
+            }
+        }
+    }
+
+    private int toCell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xffffffffL);
+    }
+
+    private static class Entry<T> {
+        final T item;
+        int minCol;
+        int minRow;
+        int maxCol;
+        int maxRow;
+        int queryStamp;
+
+        Entry(T item) {
+            this.item = item;
+        }
+    }
+}
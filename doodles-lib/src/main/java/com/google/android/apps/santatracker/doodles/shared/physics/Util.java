@@ -119,51 +119,60 @@ public final class Util {
      * @return true if the polygons intersect, false otherwise.
      */
     public static boolean convexPolygonIntersectsConvexPolygon(Polygon p1, Polygon p2) {
-        for (int i = 0; i < p1.normals.size(); i++) {
-            Vector2D normal = p1.normals.get(i);
-            float p1Min = getMinProjectionInDirection(normal, p1.vertices);
-            float p1Max = getMaxProjectionInDirection(normal, p1.vertices);
-            float p2Min = getMinProjectionInDirection(normal, p2.vertices);
-            float p2Max = getMaxProjectionInDirection(normal, p2.vertices);
-            if (p1Max < p2Min || p2Max < p1Min) {
-                // If there is a separating axis, these polygons do not intersect.
-                return false;
-            }
+        // The extents are kept up to date as the polygons move, so use them to reject far apart
+        // pairs before projecting onto every edge normal.
+        if (p1.max.x < p2.min.x
+                || p2.max.x < p1.min.x
+                || p1.max.y < p2.min.y
+                || p2.max.y < p1.min.y) {
+            return false;
         }
-        for (int i = 0; i < p2.normals.size(); i++) {
-            Vector2D normal = p2.normals.get(i);
-            float p1Min = getMinProjectionInDirection(normal, p1.vertices);
-            float p1Max = getMaxProjectionInDirection(normal, p1.vertices);
-            float p2Min = getMinProjectionInDirection(normal, p2.vertices);
-            float p2Max = getMaxProjectionInDirection(normal, p2.vertices);
+        return !hasSeparatingAxis(p1.normals, p1.vertices, p2.vertices)
+                && !hasSeparatingAxis(p2.normals, p1.vertices, p2.vertices);
+    }
+
+    private static boolean hasSeparatingAxis(
+            List<Vector2D> normals, List<Vector2D> vertices1, List<Vector2D> vertices2) {
+        for (int i = 0; i < normals.size(); i++) {
+            Vector2D normal = normals.get(i);
+            // Project both polygons in a single pass over their vertices each, rather than
+            // walking them once for the minimum and again for the maximum.
+            float p1Min = Float.POSITIVE_INFINITY;
+            float p1Max = Float.NEGATIVE_INFINITY;
+            for (int j = 0; j < vertices1.size(); j++) {
+                float projection = vertices1.get(j).dot(normal);
+                p1Min = Math.min(p1Min, projection);
+                p1Max = Math.max(p1Max, projection);
+            }
+            float p2Min = Float.POSITIVE_INFINITY;
+            float p2Max = Float.NEGATIVE_INFINITY;
+            for (int j = 0; j < vertices2.size(); j++) {
+                float projection = vertices2.get(j).dot(normal);
+                p2Min = Math.min(p2Min, projection);
+                p2Max = Math.max(p2Max, projection);
+            }
             if (p1Max < p2Min || p2Max < p1Min) {
                 // If there is a separating axis, these polygons do not intersect.
-                return false;
+                return true;
             }
         }
-        return true;
-    }
-
-    private static float getMaxProjectionInDirection(Vector2D direction, List<Vector2D> points) {
-        float max = points.get(0).dot(direction);
-        for (int i = 1; i < points.size(); i++) {
-            max = Math.max(max, points.get(i).dot(direction));
-        }
-        return max;
+        return false;
     }
 
-    private static float getMinProjectionInDirection(Vector2D direction, List<Vector2D> points) {
-        float min = points.get(0).dot(direction);
-        for (int i = 1; i < points.size(); i++) {
-            min = Math.min(min, points.get(i).dot(direction));
-        }
-        return min;
+    public static Vector2D getMidpoint(Vector2D p, Vector2D q) {
+        return getMidpoint(p, q, Vector2D.get());
     }
 
-    public static Vector2D getMidpoint(Vector2D p, Vector2D q) {
+    /**
+     * Compute the midpoint of p and q into out, so that callers in the update or draw loop can pass
+     * in a {@link Vector2D#scratch} vector instead of taking one from the pool.
+     *
+     * @return out, for convenience.
+     */
+    public static Vector2D getMidpoint(Vector2D p, Vector2D q, Vector2D out) {
         float deltaX = q.x - p.x;
         float deltaY = q.y - p.y;
-        return Vector2D.get(p.x + deltaX / 2, p.y + deltaY / 2);
+        return out.set(p.x + deltaX / 2, p.y + deltaY / 2);
     }
 
     public static float clamp(float value, float lowerBound, float upperBound) {
@@ -32,12 +32,13 @@ import com.google.android.apps.santatracker.doodles.BaseDoodleActivity;
 import com.google.android.apps.santatracker.doodles.R;
 import com.google.android.apps.santatracker.doodles.shared.AndroidUtils;
 import com.google.android.apps.santatracker.doodles.shared.EventBus;
-import com.google.android.apps.santatracker.doodles.shared.GameLoop;
+import com.google.android.apps.santatracker.doodles.shared.FixedStepGameLoop;
 import com.google.android.apps.santatracker.doodles.shared.HistoryManager;
 import com.google.android.apps.santatracker.doodles.shared.LogicRefreshThread;
 import com.google.android.apps.santatracker.doodles.shared.UIRefreshHandler;
 import com.google.android.apps.santatracker.doodles.shared.UIUtil;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.logging.DoodleLogEvent.Builder;
 import com.google.android.apps.santatracker.doodles.shared.logging.DoodleLogTimer;
 import com.google.android.apps.santatracker.doodles.shared.logging.DoodleLogger;
@@ -47,7 +48,7 @@ import com.google.android.apps.santatracker.invites.AppInvitesFragment;
 
 /** Base class for Pineapple game fragments. */
 public abstract class GameFragment extends Fragment
-        implements GameLoop, ScoreView.OnShareClickedListener {
+        implements FixedStepGameLoop, ScoreView.OnShareClickedListener {
 
     // Minimum length of the title screen.
     public static final long TITLE_DURATION_MS = 1000;
@@ -121,6 +122,9 @@ public abstract class GameFragment extends Fragment
     protected boolean resumeAfterLoading;
     private ImageView titleImageView;
     private AsyncTask<Void, Void, Void> asyncLoadGameTask;
+    // Loads this game's sprites, and keeps their bitmaps cached for it until the view is destroyed.
+    // Acquired by each loadGame(). Sprites still loading once it is released are just not kept.
+    protected SpriteLoader spriteLoader;
 
     public GameFragment() {
         this.logger = new DoodleNullLogger();
@@ -185,7 +189,10 @@ public abstract class GameFragment extends Fragment
             asyncLoadGameTask.cancel(true);
         }
         EventBus.getInstance().clearListeners();
-        AnimatedSprite.clearCache();
+        // Keep the bitmaps cached for the next game, which can reuse them or decode into them.
+        if (spriteLoader != null) {
+            AnimatedSprite.releaseCache(spriteLoader);
+        }
         if (soundManager != null) {
             soundManager.releaseAll();
         }
@@ -218,6 +225,7 @@ public abstract class GameFragment extends Fragment
             // Low available memory, go ahead and load things with a larger sample size.
             AnimatedSprite.lastUsedSampleSize = 2;
         }
+        spriteLoader = AnimatedSprite.acquireCache(getActivity(), activityManager.getMemoryClass());
 
         firstPassLoadOnUiThread();
         secondPassLoadOnBackgroundThread();
@@ -275,8 +283,20 @@ public abstract class GameFragment extends Fragment
         return isFinishedLoading;
     }
 
+    /**
+     * Override to return true to have {@link #update(float)} called with a fixed step instead of
+     * the time since the last update. See {@link #onStepsFinished(float)} for interpolating
+     * rendering between steps.
+     */
+    protected boolean usesFixedTimestep() {
+        return false;
+    }
+
+    @Override
+    public void onStepsFinished(float alpha) {}
+
     protected void startHandlers() {
-        logicRefreshThread = new LogicRefreshThread();
+        logicRefreshThread = new LogicRefreshThread(usesFixedTimestep());
         logicRefreshThread.start();
         uiRefreshHandler = new UIRefreshHandler();
 
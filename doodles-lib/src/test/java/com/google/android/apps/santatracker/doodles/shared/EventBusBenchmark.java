@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Contention benchmark of {@link EventBus}: a logic thread sends sound events while the UI thread
+ * sends score events and, every so often, registers a listener or clears them all, as the game
+ * fragments do while loading. The HashMap-backed bus behind one lock which EventBus used to be is
+ * measured alongside for comparison.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class EventBusBenchmark {
+
+    private static final int EVENTS = 1000000;
+    private static final int REGISTER_EVERY = 1000;
+    private static final int CLEAR_EVERY = 50000;
+
+    private interface Bus {
+        void register(EventBus.EventBusListener listener, int type);
+
+        void sendEvent(int type, Object data);
+
+        void clearListeners();
+    }
+
+    private static class Stats {
+        long blocked;
+        long received;
+    }
+
+    @Test
+    public void benchmarkContention() throws Exception {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean.isThreadContentionMonitoringSupported()) {
+            bean.setThreadContentionMonitoringEnabled(true);
+        }
+        final EventBus eventBus = EventBus.getInstance();
+        Bus current =
+                new Bus() {
+                    @Override
+                    public void register(EventBus.EventBusListener listener, int type) {
+                        eventBus.register(listener, type);
+                    }
+
+                    @Override
+                    public void sendEvent(int type, Object data) {
+                        eventBus.sendEvent(type, data);
+                    }
+
+                    @Override
+                    public void clearListeners() {
+                        eventBus.clearListeners();
+                    }
+                };
+        Bus legacy = new LegacyEventBus();
+
+        // Warm up both, then measure.
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run("HashMap behind a lock", legacy, report);
+            Stats stats = run("copy-on-write arrays", current, report);
+            if (report) {
+                // Sending never takes a lock, and the UI thread is the only one registering.
+                assertEquals(0, stats.blocked);
+                assertTrue(stats.received > 0);
+            }
+        }
+        eventBus.clearListeners();
+    }
+
+    private Stats run(String name, final Bus bus, boolean report) throws Exception {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        final Stats stats = new Stats();
+        final long[] received = new long[1];
+        final EventBus.EventBusListener listener =
+                new EventBus.EventBusListener() {
+                    @Override
+                    public void onEventReceived(int type, Object data) {
+                        // Racy, but only used to check that events got through at all.
+                        received[0]++;
+                    }
+                };
+        bus.clearListeners();
+        bus.register(listener, EventBus.PLAY_SOUND);
+        bus.register(listener, EventBus.SCORE_CHANGED);
+        final Integer sound = 42;
+
+        final long[] nanos = new long[2];
+        Thread logic =
+                new Thread(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                long start = System.nanoTime();
+                                for (int i = 0; i < EVENTS; i++) {
+                                    bus.sendEvent(EventBus.PLAY_SOUND, sound);
+                                }
+                                nanos[0] = System.nanoTime() - start;
+                            }
+                        },
+                        "logic");
+        Thread ui =
+                new Thread(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                long start = System.nanoTime();
+                                for (int i = 0; i < EVENTS; i++) {
+                                    bus.sendEvent(EventBus.SCORE_CHANGED, sound);
+                                    if (i % CLEAR_EVERY == 0) {
+                                        bus.clearListeners();
+                                        bus.register(listener, EventBus.PLAY_SOUND);
+                                        bus.register(listener, EventBus.SCORE_CHANGED);
+                                    } else if (i % REGISTER_EVERY == 0) {
+                                        bus.register(
+                                                new EventBus.EventBusListener() {
+                                                    @Override
+                                                    public void onEventReceived(
+                                                            int type, Object data) {}
+                                                },
+                                                EventBus.VIBRATE);
+                                    }
+                                }
+                                nanos[1] = System.nanoTime() - start;
+                            }
+                        },
+                        "ui");
+        Thread[] threads = {logic, ui};
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        long blockedMillis = 0;
+        while (logic.isAlive() || ui.isAlive()) {
+            // Sample the contention counters while the threads are still running.
+            for (Thread thread : threads) {
+                ThreadInfo info = bean.getThreadInfo(thread.getId());
+                if (info != null) {
+                    stats.blocked = Math.max(stats.blocked, info.getBlockedCount());
+                    blockedMillis = Math.max(blockedMillis, info.getBlockedTime());
+                }
+            }
+            Thread.sleep(1);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stats.received = received[0];
+        if (report) {
+            System.out.println(
+                    String.format(
+                            "EventBusBenchmark %-22s logic %6.1f ns/event, ui %6.1f ns/event, "
+                                    + "blocked %d times (%d ms)",
+                            name,
+                            (double) nanos[0] / EVENTS,
+                            (double) nanos[1] / EVENTS,
+                            stats.blocked,
+                            blockedMillis));
+        }
+        return stats;
+    }
+
+    /** The bus EventBus used to be: boxed types in a HashMap, all behind one lock. */
+    private static class LegacyEventBus implements Bus {
+        private final Object lock = new Object();
+        private final Map<Integer, Set<EventBus.EventBusListener>> specificListeners =
+                new HashMap<>();
+
+        @Override
+        public void register(EventBus.EventBusListener listener, int type) {
+            synchronized (lock) {
+                Set<EventBus.EventBusListener> listeners = specificListeners.get(type);
+                if (listeners == null) {
+                    listeners = new HashSet<>();
+                    specificListeners.put(type, listeners);
+                }
+                listeners.add(listener);
+            }
+        }
+
+        @Override
+        public void sendEvent(int type, Object data) {
+            synchronized (lock) {
+                Set<EventBus.EventBusListener> listeners = specificListeners.get(type);
+                if (listeners != null) {
+                    for (EventBus.EventBusListener listener : listeners) {
+                        listener.onEventReceived(type, data);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void clearListeners() {
+            synchronized (lock) {
+                specificListeners.clear();
+            }
+        }
+    }
+}
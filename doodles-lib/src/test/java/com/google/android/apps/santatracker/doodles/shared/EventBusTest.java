@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/** Test for the dispatch of {@link EventBus} events, directly and queued for the UI thread. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class EventBusTest {
+
+    private final EventBus eventBus = EventBus.getInstance();
+
+    @Before
+    public void setUp() {
+        eventBus.clearListeners();
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @After
+    public void tearDown() {
+        eventBus.clearListeners();
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    @Test
+    public void testDirectListenersAreCalledOnSendingThread() {
+        RecordingListener specific = new RecordingListener();
+        RecordingListener global = new RecordingListener();
+        eventBus.register(specific, EventBus.PLAY_SOUND);
+        eventBus.register(global);
+
+        eventBus.sendEvent(EventBus.PLAY_SOUND, 1);
+        eventBus.sendEvent(EventBus.VIBRATE);
+
+        assertEquals("8:1", specific.toString());
+        assertEquals("8:1 0:null", global.toString());
+    }
+
+    @Test
+    public void testListenerRegisteredTwiceIsCalledOnce() {
+        RecordingListener listener = new RecordingListener();
+        eventBus.register(listener, EventBus.PLAY_SOUND);
+        eventBus.register(listener, EventBus.PLAY_SOUND);
+
+        eventBus.sendEvent(EventBus.PLAY_SOUND, 1);
+
+        assertEquals("8:1", listener.toString());
+    }
+
+    @Test
+    public void testQueuedEventsAreDeliveredInOrderOnUiThread() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        eventBus.registerQueued(listener, EventBus.SCORE_CHANGED);
+        eventBus.registerQueued(listener, EventBus.PLAY_SOUND);
+
+        Thread logic =
+                new Thread(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                for (int i = 0; i < 1000; i++) {
+                                    int type =
+                                            i % 2 == 0
+                                                    ? EventBus.SCORE_CHANGED
+                                                    : EventBus.PLAY_SOUND;
+                                    eventBus.sendEvent(type, i);
+                                }
+                            }
+                        });
+        logic.start();
+        logic.join();
+        assertEquals(0, listener.data.size());
+        // All of them are delivered from a single post to the UI thread.
+        assertEquals(1, Robolectric.getForegroundThreadScheduler().size());
+
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        assertEquals(1000, listener.data.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? EventBus.SCORE_CHANGED : EventBus.PLAY_SOUND,
+                    (int) listener.types.get(i));
+            assertEquals(i, listener.data.get(i));
+        }
+        assertSame(Thread.currentThread(), listener.thread);
+    }
+
+    @Test
+    public void testEventsSentDuringDeliveryAreDeliveredNextFrame() {
+        final RecordingListener listener =
+                new RecordingListener() {
+                    @Override
+                    public void onEventReceived(int type, Object data) {
+                        super.onEventReceived(type, data);
+                        if ((int) data < 3) {
+                            eventBus.sendEvent(type, (int) data + 10);
+                        }
+                    }
+                };
+        eventBus.registerQueued(listener, EventBus.SCORE_CHANGED);
+
+        for (int i = 0; i < 3; i++) {
+            eventBus.sendEvent(EventBus.SCORE_CHANGED, i);
+        }
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals("1:0 1:1 1:2", listener.toString());
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        assertEquals("1:0 1:1 1:2 1:10 1:11 1:12", listener.toString());
+    }
+
+    @Test
+    public void testQueuedAndDirectListenersGetTheSameEvent() {
+        RecordingListener queued = new RecordingListener();
+        RecordingListener direct = new RecordingListener();
+        eventBus.registerQueued(queued, EventBus.SCORE_CHANGED);
+        eventBus.register(direct, EventBus.SCORE_CHANGED);
+
+        eventBus.sendEvent(EventBus.SCORE_CHANGED, 5);
+        assertEquals("1:5", direct.toString());
+        assertEquals("", queued.toString());
+
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals("1:5", queued.toString());
+    }
+
+    @Test
+    public void testClearListenersDropsUndeliveredEvents() {
+        RecordingListener listener = new RecordingListener();
+        eventBus.registerQueued(listener, EventBus.SCORE_CHANGED);
+        eventBus.sendEvent(EventBus.SCORE_CHANGED, 1);
+
+        eventBus.clearListeners();
+        eventBus.registerQueued(listener, EventBus.SCORE_CHANGED);
+        eventBus.sendEvent(EventBus.SCORE_CHANGED, 2);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        assertEquals("1:2", listener.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTypesCantBeRegistered() {
+        eventBus.register(new RecordingListener(), -1);
+    }
+
+    private static class RecordingListener implements EventBus.EventBusListener {
+        final List<Integer> types = new ArrayList<>();
+        final List<Object> data = new ArrayList<>();
+        Thread thread;
+
+        @Override
+        public void onEventReceived(int type, Object data) {
+            types.add(type);
+            this.data.add(data);
+            thread = Thread.currentThread();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < types.size(); i++) {
+                if (i > 0) {
+                    builder.append(' ');
+                }
+                builder.append(types.get(i)).append(':').append(data.get(i));
+            }
+            return builder.toString();
+        }
+    }
+}
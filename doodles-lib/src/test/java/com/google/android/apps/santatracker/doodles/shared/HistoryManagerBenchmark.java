@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared;
+
+import static org.junit.Assert.assertEquals;
+
+import android.util.AtomicFile;
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import java.io.FileOutputStream;
+import java.nio.charset.Charset;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Measures 1000 updates of a score, each followed by {@link HistoryManager#save}: on the calling
+ * thread, and for the writes, when they are coalesced and when each save gets its own write. The
+ * old save, which serialized the whole history and rewrote the file on every call, is measured
+ * alongside for comparison. Every game carries some arbitrary data, so that the history isn't
+ * trivially small.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class HistoryManagerBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int UPDATES = 1000;
+    private static final int ARBITRARY_ENTRIES = 200;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void benchmarkUpdates() throws Exception {
+        HistoryManager manager = HistoryManagerTest.load();
+        for (GameType gameType : GameType.values()) {
+            JSONObject data = new JSONObject();
+            for (int i = 0; i < ARBITRARY_ENTRIES; i++) {
+                data.put("level" + i, i * 17);
+            }
+            manager.setArbitraryData(gameType, data);
+            manager.setBestScore(gameType, 0);
+        }
+        manager.save();
+        HistoryManagerTest.flush();
+        HistoryManagerTest.CountingListener listener = new HistoryManagerTest.CountingListener();
+        manager.setListener(listener);
+
+        long coalescedCaller = Long.MAX_VALUE;
+        long coalescedWrites = Long.MAX_VALUE;
+        long eachWrite = Long.MAX_VALUE;
+        long legacy = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long old = legacySaves();
+
+            // The updates come faster than the disk, so their saves fold into one write.
+            listener.saves = 0;
+            Robolectric.getBackgroundThreadScheduler().pause();
+            long start = System.nanoTime();
+            for (int i = 0; i < UPDATES; i++) {
+                manager.setBestScore(GameType.values()[i % GameType.values().length], i);
+                manager.save();
+            }
+            long caller = System.nanoTime() - start;
+            Robolectric.getBackgroundThreadScheduler().unPause();
+            start = System.nanoTime();
+            HistoryManagerTest.flush();
+            long writes = System.nanoTime() - start;
+            assertEquals(1, listener.saves);
+
+            // The disk keeps up, so every save gets its own write.
+            listener.saves = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < UPDATES; i++) {
+                manager.setBestScore(GameType.values()[i % GameType.values().length], i);
+                manager.save();
+                HistoryManagerTest.flush();
+            }
+            long each = System.nanoTime() - start;
+            assertEquals(UPDATES, listener.saves);
+
+            if (round >= WARMUP_ROUNDS) {
+                coalescedCaller = Math.min(coalescedCaller, caller);
+                coalescedWrites = Math.min(coalescedWrites, writes);
+                eachWrite = Math.min(eachWrite, each);
+                legacy = Math.min(legacy, old);
+            }
+        }
+
+        // The file has the last update of each game.
+        HistoryManager loaded = HistoryManagerTest.load();
+        for (int i = UPDATES - GameType.values().length; i < UPDATES; i++) {
+            GameType gameType = GameType.values()[i % GameType.values().length];
+            assertEquals(i, loaded.getBestScore(gameType), 0);
+            assertEquals(ARBITRARY_ENTRIES, loaded.getArbitraryData(gameType).length());
+        }
+
+        report("coalesced, calling thread", coalescedCaller);
+        report("coalesced, writes", coalescedWrites);
+        report("write per save", eachWrite);
+        report("legacy write per save", legacy);
+    }
+
+    /** The old save: the whole history serialized and the file rewritten in place, every time. */
+    private static long legacySaves() throws Exception {
+        AtomicFile file = new AtomicFile(HistoryManagerTest.file());
+        JSONObject history = new JSONObject(new String(file.readFully(), UTF_8));
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            GameType gameType = GameType.values()[i % GameType.values().length];
+            history.getJSONObject(gameType.toString()).put(HistoryManager.BEST_SCORE_KEY, i);
+            FileOutputStream outputStream = new FileOutputStream(HistoryManagerTest.file());
+            outputStream.write(history.toString().getBytes(UTF_8));
+            outputStream.close();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.println(
+                String.format(
+                        "HistoryManagerBenchmark %-26s %10.1f us for %d updates, %8.2f us/update",
+                        name, nanos / 1000.0, UPDATES, nanos / 1000.0 / UPDATES));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.util.AtomicFile;
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.Charset;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/** Test for saving and loading the {@link HistoryManager} file. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class HistoryManagerTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testSavedHistoryIsLoaded() {
+        HistoryManager manager = load();
+        manager.setBestScore(GameType.SWIMMING, 12.5);
+        manager.setBestPlace(GameType.PURSUIT, 2);
+        manager.save();
+        flush();
+
+        HistoryManager loaded = load();
+        assertEquals(12.5, loaded.getBestScore(GameType.SWIMMING), 0);
+        assertEquals(2, (int) loaded.getBestPlace(GameType.PURSUIT));
+        assertNull(loaded.getBestTime(GameType.WATER_POLO));
+    }
+
+    @Test
+    public void testInterruptedWriteLeavesPreviousHistory() throws Exception {
+        HistoryManager manager = load();
+        manager.setBestScore(GameType.SWIMMING, 10);
+        manager.save();
+        flush();
+
+        // The process dies part way through the next write, before it is finished.
+        AtomicFile atomicFile = new AtomicFile(file());
+        FileOutputStream outputStream = atomicFile.startWrite();
+        outputStream.write("{\"SWIMMING\":{\"sco".getBytes(UTF_8));
+        outputStream.close();
+
+        HistoryManager loaded = load();
+        assertEquals(10, loaded.getBestScore(GameType.SWIMMING), 0);
+
+        // And the history can be saved again afterwards.
+        loaded.setBestScore(GameType.SWIMMING, 20);
+        loaded.save();
+        flush();
+        assertEquals(20, load().getBestScore(GameType.SWIMMING), 0);
+    }
+
+    @Test
+    public void testSavesBeforeWriteAreCoalesced() throws Exception {
+        HistoryManager manager = load();
+        CountingListener listener = new CountingListener();
+        manager.setListener(listener);
+
+        Robolectric.getBackgroundThreadScheduler().pause();
+        for (int i = 0; i < 10; i++) {
+            manager.setBestScore(GameType.SWIMMING, i);
+            manager.save();
+        }
+        Robolectric.getBackgroundThreadScheduler().unPause();
+        flush();
+
+        assertEquals(1, listener.saves);
+        // The one write has the last value.
+        JSONObject saved = new JSONObject(new String(new AtomicFile(file()).readFully(), UTF_8));
+        JSONObject swimming = saved.getJSONObject(GameType.SWIMMING.toString());
+        assertEquals(9, swimming.getDouble(HistoryManager.BEST_SCORE_KEY), 0);
+    }
+
+    @Test
+    public void testUnreadableHistoryStartsEmpty() throws Exception {
+        FileOutputStream outputStream = new FileOutputStream(file());
+        outputStream.write("not json".getBytes(UTF_8));
+        outputStream.close();
+
+        HistoryManager loaded = load();
+        assertNull(loaded.getBestScore(GameType.SWIMMING));
+        loaded.setBestScore(GameType.SWIMMING, 1);
+        assertEquals(1, loaded.getBestScore(GameType.SWIMMING), 0);
+    }
+
+    static File file() {
+        return new File(RuntimeEnvironment.application.getFilesDir(), "history.json");
+    }
+
+    /** Returns a manager whose history has been loaded. */
+    static HistoryManager load() {
+        HistoryManager manager = new HistoryManager(RuntimeEnvironment.application, null);
+        flush();
+        return manager;
+    }
+
+    /** Runs the pending loads and writes, then their callbacks. */
+    static void flush() {
+        Robolectric.flushBackgroundThreadScheduler();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+    static class CountingListener implements HistoryManager.HistoryListener {
+        int loads;
+        int saves;
+
+        @Override
+        public void onFinishedLoading() {
+            loads++;
+        }
+
+        @Override
+        public void onFinishedSaving() {
+            saves++;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Stack;
+import org.junit.Test;
+
+/**
+ * Stress test of the {@link Vector2D} pool from the logic and UI threads at once, reporting the
+ * time, the bytes allocated and the times each thread blocked on a monitor, per frame. The
+ * synchronized, Stack-backed pool which Vector2D used to have is measured alongside for comparison.
+ */
+public class Vector2DBenchmark {
+
+    private static final int FRAMES = 20000;
+    private static final int VECTORS_PER_FRAME = 40;
+
+    private interface Frame {
+        /** @param held room for the frame's vectors, private to the calling thread. */
+        void run(int frame, Object[] held);
+    }
+
+    private float sink;
+
+    @Test
+    public void benchmarkPools() throws Exception {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean.isThreadContentionMonitoringSupported()) {
+            bean.setThreadContentionMonitoringEnabled(true);
+        }
+
+        // Warm up all three, then measure.
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run("synchronized stack", report, new Frame() {
+                @Override
+                public void run(int frame, Object[] held) {
+                    for (int i = 0; i < VECTORS_PER_FRAME; i++) {
+                        held[i] = LegacyVector.get(i, frame);
+                    }
+                    for (int i = 0; i < VECTORS_PER_FRAME; i++) {
+                        LegacyVector v = (LegacyVector) held[i];
+                        sink += v.x;
+                        v.release();
+                    }
+                }
+            });
+            Stats pooled = run("thread-local get/release", report, new Frame() {
+                @Override
+                public void run(int frame, Object[] held) {
+                    for (int i = 0; i < VECTORS_PER_FRAME; i++) {
+                        held[i] = Vector2D.get(i, frame);
+                    }
+                    for (int i = 0; i < VECTORS_PER_FRAME; i++) {
+                        Vector2D v = (Vector2D) held[i];
+                        sink += v.x;
+                        v.release();
+                    }
+                }
+            });
+            Stats scratch = run("scratch + resetScratch", report, new Frame() {
+                @Override
+                public void run(int frame, Object[] held) {
+                    for (int i = 0; i < VECTORS_PER_FRAME; i++) {
+                        sink += Vector2D.scratch(i, frame).x;
+                    }
+                    Vector2D.resetScratch();
+                }
+            });
+            if (report) {
+                // Neither thread-confined pool ever takes a lock.
+                assertEquals(0, pooled.blocked);
+                assertEquals(0, scratch.blocked);
+                assertTrue(scratch.bytesPerFrame < 1);
+            }
+        }
+    }
+
+    private static class Stats {
+        long blocked;
+        double bytesPerFrame;
+    }
+
+    /** Runs the frame on a logic thread and a UI thread at once. */
+    private Stats run(String name, boolean report, final Frame frame) throws Exception {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        final long[] nanos = new long[2];
+        final long[] allocated = new long[2];
+        Thread[] threads = new Thread[2];
+        for (int t = 0; t < 2; t++) {
+            final int index = t;
+            threads[t] =
+                    new Thread(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    Object[] held = new Object[VECTORS_PER_FRAME];
+                                    long id = Thread.currentThread().getId();
+                                    long bytes = allocatedBytes(bean, id);
+                                    long start = System.nanoTime();
+                                    for (int i = 0; i < FRAMES; i++) {
+                                        frame.run(i, held);
+                                    }
+                                    nanos[index] = System.nanoTime() - start;
+                                    allocated[index] = allocatedBytes(bean, id) - bytes;
+                                }
+                            },
+                            t == 0 ? "logic" : "ui");
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Stats stats = new Stats();
+        long blockedMillis = 0;
+        while (threads[0].isAlive() || threads[1].isAlive()) {
+            // Sample the contention counters while the threads are still running.
+            for (Thread thread : threads) {
+                ThreadInfo info = bean.getThreadInfo(thread.getId());
+                if (info != null) {
+                    stats.blocked = Math.max(stats.blocked, info.getBlockedCount());
+                    blockedMillis = Math.max(blockedMillis, info.getBlockedTime());
+                }
+            }
+            Thread.sleep(1);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stats.bytesPerFrame = (allocated[0] + allocated[1]) / (2.0 * FRAMES);
+        if (report) {
+            System.out.println(
+                    String.format(
+                            "Vector2DBenchmark %-26s %8.1f ns/frame %8.1f B/frame "
+                                    + "blocked %d times (%d ms)",
+                            name,
+                            (nanos[0] + nanos[1]) / (2.0 * FRAMES),
+                            stats.bytesPerFrame,
+                            stats.blocked,
+                            blockedMillis));
+        }
+        return stats;
+    }
+
+    private static long allocatedBytes(ThreadMXBean bean, long id) {
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(id);
+        }
+        return 0;
+    }
+
+    /** The pool Vector2D used to have: one synchronized Stack shared by every thread. */
+    private static class LegacyVector {
+        private static final Stack<LegacyVector> pool = new Stack<>();
+        float x;
+        float y;
+
+        static synchronized LegacyVector get(float x, float y) {
+            LegacyVector v = pool.isEmpty() ? new LegacyVector() : pool.pop();
+            v.x = x;
+            v.y = y;
+            return v;
+        }
+
+        void release() {
+            if (pool.size() < 50) {
+                pool.push(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+
+/** Test for the {@link Vector2D} pool. */
+public class Vector2DTest {
+
+    @After
+    public void tearDown() {
+        Vector2D.resetScratch();
+    }
+
+    @Test
+    public void testReleasedVectorIsReused() {
+        Vector2D v = Vector2D.get(1, 2);
+        v.release();
+
+        Vector2D reused = Vector2D.get(3, 4);
+        assertSame(v, reused);
+        assertEquals(3, reused.x, 0);
+        assertEquals(4, reused.y, 0);
+    }
+
+    @Test
+    public void testPoolIsConfinedToItsThread() throws Exception {
+        final AtomicReference<Vector2D> released = new AtomicReference<>();
+        Thread other =
+                new Thread(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                Vector2D v = Vector2D.get(1, 1);
+                                v.release();
+                                released.set(v);
+                            }
+                        });
+        other.start();
+        other.join();
+
+        // A vector released on another thread must never be handed out on this one.
+        assertNotSame(released.get(), Vector2D.get(0, 0));
+    }
+
+    @Test
+    public void testScratchIsReclaimedOnReset() {
+        Vector2D first = Vector2D.scratch(1, 2);
+        Vector2D second = Vector2D.scratch(3, 4);
+        assertNotSame(first, second);
+
+        Vector2D.resetScratch();
+
+        assertSame(first, Vector2D.scratch(5, 6));
+        assertEquals(5, first.x, 0);
+        assertEquals(6, first.y, 0);
+    }
+
+    @Test
+    public void testReleasingScratchDoesNotPoolIt() {
+        Vector2D scratch = Vector2D.scratch(1, 2);
+        scratch.release();
+
+        // Otherwise get() could hand out a vector which the next scratch() call also hands out.
+        assertNotSame(scratch, Vector2D.get(0, 0));
+    }
+
+    @Test
+    public void testScratchFallsBackToAllocationWhenNeverReset() {
+        IdentityHashMap<Vector2D, Boolean> seen = new IdentityHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            seen.put(Vector2D.scratch(i, i), true);
+        }
+
+        // Every vector handed out within a frame is distinct, even past the arena's limit.
+        assertEquals(1000, seen.size());
+    }
+}
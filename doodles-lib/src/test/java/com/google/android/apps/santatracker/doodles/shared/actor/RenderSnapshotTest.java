@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared.actor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.graphics.Bitmap;
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/** Test for {@link RenderSnapshot}. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class RenderSnapshotTest {
+
+    private final RenderSnapshot snapshot = new RenderSnapshot();
+    private Bitmap[] bitmaps;
+    private SpriteActor actor;
+
+    /** Draws its sprite at its position, like most actors. */
+    private static class SpriteActor extends Actor {
+        final AnimatedSprite sprite;
+
+        SpriteActor(AnimatedSprite sprite) {
+            this.sprite = sprite;
+        }
+
+        @Override
+        public void capture(RenderSnapshot.Frame frame) {
+            sprite.setPosition(position.x, position.y);
+            sprite.setScale(scale, scale);
+            sprite.capture(frame);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        bitmaps =
+                new Bitmap[] {
+                    Bitmap.createBitmap(4, 4, Bitmap.Config.ARGB_8888),
+                    Bitmap.createBitmap(4, 4, Bitmap.Config.ARGB_8888)
+                };
+        actor = new SpriteActor(AnimatedSprite.fromBitmapsForTest(bitmaps));
+    }
+
+    @Test
+    public void testNothingToDrawBeforeFirstPublish() {
+        assertNull(snapshot.latest());
+
+        // A publish with nothing captured doesn't hand over anything either.
+        snapshot.publish(1);
+        assertNull(snapshot.latest());
+    }
+
+    @Test
+    public void testDrawsCapturedStateNotLiveState() {
+        actor.position.set(10, 20);
+        actor.scale = 2;
+        actor.sprite.setAlpha(0.5f);
+        capture(actor);
+        snapshot.publish(1);
+
+        // Everything the actor and its sprite do after the capture must not show up in the frame.
+        actor.position.set(100, 200);
+        actor.scale = 3;
+        actor.sprite.setFrameIndex(1);
+        actor.sprite.setAlpha(1);
+        actor.sprite.setHidden(true);
+        actor.sprite.setPosition(100, 200);
+
+        RenderSnapshot.Frame frame = snapshot.latest();
+        assertEquals(1, frame.size());
+        assertSame(bitmaps[0], frame.getBitmap(0));
+        assertEquals(10, frame.getX(0), 0);
+        assertEquals(20, frame.getY(0), 0);
+        assertEquals(2, frame.getScaleX(0), 0);
+        assertEquals(127, frame.getAlpha(0));
+    }
+
+    @Test
+    public void testInterpolatesFromPreviousCapture() {
+        actor.position.set(0, 0);
+        capture(actor);
+        actor.position.set(10, -20);
+        capture(actor);
+        snapshot.publish(0.25f);
+
+        RenderSnapshot.Frame frame = snapshot.latest();
+        assertEquals(2.5f, frame.getX(0), 0.0001f);
+        assertEquals(-5, frame.getY(0), 0.0001f);
+    }
+
+    @Test
+    public void testCameraIsInterpolated() {
+        Camera camera = new Camera(100, 100);
+        camera.position.set(0, 0);
+        snapshot.beginCapture(camera);
+        snapshot.endCapture();
+        camera.position.set(0, 40);
+        snapshot.beginCapture(camera).setCameraShake(1, 2);
+        snapshot.endCapture();
+        snapshot.publish(0.5f);
+
+        RenderSnapshot.Frame frame = snapshot.latest();
+        assertEquals(20, frame.getCameraY(), 0.0001f);
+        assertEquals(1, frame.getCameraShakeX(), 0);
+        assertEquals(2, frame.getCameraShakeY(), 0);
+    }
+
+    @Test
+    public void testHiddenActorsAreSkipped() {
+        SpriteActor hidden = new SpriteActor(AnimatedSprite.fromBitmapsForTest(bitmaps));
+        hidden.hidden = true;
+        List<Actor> actors = new ArrayList<Actor>(Arrays.asList(actor, hidden));
+        snapshot.beginCapture(null).addAll(actors);
+        snapshot.endCapture();
+        snapshot.publish(1);
+
+        assertEquals(1, snapshot.latest().size());
+    }
+
+    @Test
+    public void testDrawnFrameIsKeptUntilNextLatest() {
+        actor.position.set(1, 0);
+        capture(actor);
+        snapshot.publish(1);
+        RenderSnapshot.Frame drawing = snapshot.latest();
+
+        // The logic thread keeps capturing and publishing while the UI thread is drawing.
+        for (int i = 2; i < 5; i++) {
+            actor.position.set(i, 0);
+            capture(actor);
+            snapshot.publish(1);
+        }
+        assertEquals(1, drawing.getX(0), 0);
+
+        // The next draw picks up the newest frame.
+        assertEquals(4, snapshot.latest().getX(0), 0);
+    }
+
+    private void capture(Actor actor) {
+        snapshot.beginCapture(null).add(actor);
+        snapshot.endCapture();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared.animation;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import com.google.android.apps.santatracker.doodles.R;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/** Test for the bitmap cache behind {@link AnimatedSprite#acquireCache}. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class AnimatedSpriteCacheTest {
+
+    private static final int MEMORY_CLASS_MB = 1;
+    // A quarter of the memory class is kept for bitmaps no game uses, and the pool of bitmaps to
+    // decode into may take up to a quarter of that on top of it.
+    private static final long BUDGET = MEMORY_CLASS_MB * 1024L * 1024L / 4;
+    private static final long BUDGET_WITH_POOL = BUDGET + BUDGET / 4;
+
+    private static final int[][] GAMES = {
+        {R.drawable.tutoappear_new_00, R.drawable.tutoappear_new_01, R.drawable.debug_marker},
+        {R.drawable.tutoappear_new_02, R.drawable.tutoappear_new_03},
+        {R.drawable.tutoappear_new_04, R.drawable.tutoappear_new_05, R.drawable.tutoappear_new_00},
+    };
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.application;
+        AnimatedSprite.clearCache();
+    }
+
+    @After
+    public void tearDown() {
+        AnimatedSprite.clearCache();
+    }
+
+    @Test
+    public void testPeakBytesOfThreeGamesBackToBack() {
+        long[] inUse = new long[GAMES.length];
+        for (int i = 0; i < GAMES.length; i++) {
+            inUse[i] = bytesInUse(GAMES[i]);
+            assertTrue(inUse[i] > 0);
+        }
+
+        long peak = 0;
+        for (int i = 0; i < GAMES.length; i++) {
+            SpriteLoader game = AnimatedSprite.acquireCache(context, MEMORY_CLASS_MB);
+            for (int id : GAMES[i]) {
+                game.fromFrames(new int[] {id});
+                long bytes = AnimatedSprite.getCacheByteCount();
+                peak = Math.max(peak, bytes);
+                // Only what the other games left behind is evicted to make room.
+                assertTrue(bytes <= BUDGET_WITH_POOL + inUse[i]);
+            }
+            // None of the game's own bitmaps were evicted while it loaded.
+            assertTrue(AnimatedSprite.getCacheByteCount() >= inUse[i]);
+
+            AnimatedSprite.releaseCache(game);
+            assertTrue(AnimatedSprite.getCacheByteCount() <= BUDGET_WITH_POOL);
+        }
+        System.out.println(
+                String.format(
+                        "AnimatedSpriteCacheTest peak %d bytes, budget %d bytes, in use %d/%d/%d",
+                        peak, BUDGET, inUse[0], inUse[1], inUse[2]));
+    }
+
+    /** Returns the bytes of the bitmaps of a game, loaded on its own. */
+    private long bytesInUse(int[] ids) {
+        AnimatedSprite.clearCache();
+        SpriteLoader game = AnimatedSprite.acquireCache(context, MEMORY_CLASS_MB);
+        game.fromFrames(ids);
+        long bytes = AnimatedSprite.getCacheByteCount();
+        AnimatedSprite.releaseCache(game);
+        AnimatedSprite.clearCache();
+        return bytes;
+    }
+}
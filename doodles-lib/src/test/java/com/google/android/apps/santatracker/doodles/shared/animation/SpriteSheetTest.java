@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.doodles.shared.animation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import java.io.File;
+import java.util.ArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/** Test for {@link SpriteSheet} and the sprites loaded from it. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class SpriteSheetTest {
+
+    private static final int MEMORY_CLASS_MB = 64;
+
+    @Before
+    public void setUp() {
+        AnimatedSprite.clearCache();
+    }
+
+    @After
+    public void tearDown() {
+        AnimatedSprite.clearCache();
+        AnimatedSprite.lastUsedSampleSize = 1;
+    }
+
+    @Test
+    public void testFramesArePackedApart() {
+        Bitmap[] frames = {frame(300, 200), frame(120, 340), frame(500, 90), frame(60, 60)};
+        ArrayList<Bitmap> pages = new ArrayList<>();
+        SpriteSheet sheet = SpriteSheet.pack(ids(frames.length), frames, 1, pages);
+
+        assertEquals(1, pages.size());
+        int[] rects = sheet.getFrameRects(pages.toArray(new Bitmap[0]));
+        for (int i = 0; i < frames.length; i++) {
+            Rect rect = rect(rects, i);
+            assertEquals(frames[i].getWidth(), rect.width());
+            assertEquals(frames[i].getHeight(), rect.height());
+            assertEquals(frames[i].getWidth(), sheet.getSourceWidth(i));
+            assertTrue(rect.left >= 0 && rect.top >= 0);
+            assertTrue(rect.right <= pages.get(0).getWidth());
+            assertTrue(rect.bottom <= pages.get(0).getHeight());
+            for (int j = 0; j < i; j++) {
+                Rect other = rect(rects, j);
+                other.inset(-SpriteSheet.GAP, -SpriteSheet.GAP);
+                assertFalse(Rect.intersects(rect, other));
+            }
+        }
+    }
+
+    @Test
+    public void testFramesSpillOntoMorePages() {
+        Bitmap[] frames = new Bitmap[6];
+        for (int i = 0; i < 5; i++) {
+            frames[i] = frame(1000, 1000);
+        }
+        // Too wide for a page, so it gets one of its own.
+        frames[5] = frame(SpriteSheet.PAGE_SIZE + 1, 10);
+        ArrayList<Bitmap> pages = new ArrayList<>();
+        SpriteSheet sheet = SpriteSheet.pack(ids(frames.length), frames, 1, pages);
+
+        // Four 1000x1000 frames fit on a page.
+        assertEquals(3, sheet.getPageCount());
+        assertEquals(3, pages.size());
+        assertNotEquals(sheet.getPage(0), sheet.getPage(4));
+        Bitmap ownPage = pages.get(sheet.getPage(5));
+        assertEquals(SpriteSheet.PAGE_SIZE + 1, ownPage.getWidth());
+        assertEquals(10, ownPage.getHeight());
+        for (Bitmap page : pages) {
+            if (page != ownPage) {
+                assertTrue(page.getWidth() <= SpriteSheet.PAGE_SIZE);
+                assertTrue(page.getHeight() <= SpriteSheet.PAGE_SIZE);
+            }
+        }
+    }
+
+    @Test
+    public void testRectsAreScaledToDecodedPages() {
+        // Frames of 100x80 decoded at a sample size of 2.
+        Bitmap[] frames = {frame(50, 40), frame(50, 40), frame(50, 40), frame(50, 40)};
+        ArrayList<Bitmap> pages = new ArrayList<>();
+        SpriteSheet sheet = SpriteSheet.pack(ids(frames.length), frames, 2, pages);
+        assertEquals(100, sheet.getSourceWidth(0));
+        assertEquals(80, sheet.getSourceHeight(0));
+        assertEquals(pages.get(0).getWidth() * 2, sheet.getPageSourceWidth(0));
+
+        int[] packed = sheet.getFrameRects(pages.toArray(new Bitmap[0]));
+        // The page decoded from the cache file at a further sample size of 2.
+        Bitmap page = pages.get(0);
+        Bitmap[] decoded = {
+            Bitmap.createScaledBitmap(page, page.getWidth() / 2, page.getHeight() / 2, true)
+        };
+        int[] rects = sheet.getFrameRects(decoded);
+        for (int i = 0; i < frames.length; i++) {
+            assertEquals(50, rect(packed, i).width());
+            Rect rect = rect(rects, i);
+            assertEquals(Math.round(rect(packed, i).left / 2.0f), rect.left);
+            assertEquals(Math.round(rect(packed, i).top / 2.0f), rect.top);
+            assertEquals(25, rect.width());
+            assertEquals(20, rect.height());
+            assertTrue(rect.right <= decoded[0].getWidth());
+            assertTrue(rect.bottom <= decoded[0].getHeight());
+        }
+    }
+
+    @Test
+    public void testWriteAndReadBack() throws Exception {
+        Bitmap[] frames = {frame(30, 20), frame(40, 10), frame(20, 20)};
+        ArrayList<Bitmap> pages = new ArrayList<>();
+        int[] ids = ids(frames.length);
+        SpriteSheet sheet = SpriteSheet.pack(ids, frames, 2, pages);
+        File file = new File(RuntimeEnvironment.application.getCacheDir(), "sheet_test");
+        sheet.writeTo(file, "key", pages);
+
+        ArrayList<byte[]> encoded = new ArrayList<>();
+        assertNull(SpriteSheet.readFrom(file, "other key", encoded));
+        assertTrue(encoded.isEmpty());
+
+        SpriteSheet read = SpriteSheet.readFrom(file, "key", encoded);
+        assertTrue(read.isFor(ids));
+        assertEquals(2, read.getSampleSize());
+        assertEquals(pages.size(), encoded.size());
+        Bitmap[] pageArray = pages.toArray(new Bitmap[0]);
+        assertArrayEquals(sheet.getFrameRects(pageArray), read.getFrameRects(pageArray));
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void testSheetSpriteDrawsEveryFrameFromOnePage() {
+        AnimatedSprite.lastUsedSampleSize = 2;
+        SpriteLoader game =
+                AnimatedSprite.acquireCache(RuntimeEnvironment.application, MEMORY_CLASS_MB);
+        AnimatedSprite sprite = game.fromSheet(Sprites.tutoappear_new);
+        RecordingCanvas canvas = new RecordingCanvas();
+
+        sprite.draw(canvas);
+        Bitmap page = canvas.bitmap;
+        ArrayList<Rect> drawn = new ArrayList<>();
+        for (int i = 0; i < sprite.getNumFrames(); i++) {
+            sprite.setFrameIndex(i);
+            sprite.draw(canvas);
+            // Every frame is a sub-rect of the one decoded page.
+            assertSame(page, canvas.bitmap);
+            // The rects are in the page's pixels, which were decoded at half the size.
+            assertEquals(sprite.frameWidth, canvas.src.width() * 2);
+            assertEquals(sprite.frameHeight, canvas.src.height() * 2);
+            assertTrue(canvas.src.right <= page.getWidth());
+            assertTrue(canvas.src.bottom <= page.getHeight());
+            for (Rect other : drawn) {
+                assertFalse(Rect.intersects(canvas.src, other));
+            }
+            drawn.add(new Rect(canvas.src));
+        }
+
+        // Another game loading the same frames gets the same page rather than decoding them.
+        SpriteLoader other =
+                AnimatedSprite.acquireCache(RuntimeEnvironment.application, MEMORY_CLASS_MB);
+        AnimatedSprite again = other.fromSheet(Sprites.tutoappear_new);
+        again.draw(canvas);
+        assertSame(page, canvas.bitmap);
+        AnimatedSprite.releaseCache(game);
+        AnimatedSprite.releaseCache(other);
+    }
+
+    private static Bitmap frame(int width, int height) {
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    private static int[] ids(int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = 0x7f020000 + i;
+        }
+        return ids;
+    }
+
+    private static Rect rect(int[] rects, int frame) {
+        return new Rect(
+                rects[frame * 4], rects[frame * 4 + 1], rects[frame * 4 + 2], rects[frame * 4 + 3]);
+    }
+
+    /** Keeps the bitmap and source rect of the last sprite drawn. */
+    private static class RecordingCanvas extends Canvas {
+        Bitmap bitmap;
+        final Rect src = new Rect();
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+            this.bitmap = bitmap;
+            this.src.set(src);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared.physics;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import com.google.android.apps.santatracker.doodles.shared.Vector2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Measures the swimmer's collision check in penguinswim with and without {@link SpatialHashGrid},
+ * as the obstacle density ({@code Config.SWIMMING_OBSTACLE_DENSITY}, obstacles per row of a level
+ * chunk) grows. The level geometry mirrors SwimmingLevelChunk and ObstacleManager: a 1280 wide
+ * lane, chunks of 100 rows over 5000 units, four live chunks and lane-wide grid cells.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class SpatialHashGridBenchmark {
+
+    private static final float LEVEL_WIDTH = 1280;
+    private static final float CHUNK_HEIGHT = 5000;
+    private static final int NUM_ROWS = 100;
+    private static final int LIVE_CHUNKS = 4;
+    private static final float CELL_SIZE = LEVEL_WIDTH / 5;
+    private static final float OBSTACLE_SIZE = 200;
+    private static final float SWIMMER_WIDTH = 100;
+    private static final float SWIMMER_HEIGHT = 150;
+
+    private static final double[] DENSITIES = {0.25, 0.5, 1, 2, 4};
+    private static final int TICKS = 2000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+
+    @Test
+    public void benchmarkObstacleDensity() {
+        for (double density : DENSITIES) {
+            run(density);
+        }
+    }
+
+    private void run(double density) {
+        Random random = new Random(42);
+        int count = (int) (LIVE_CHUNKS * NUM_ROWS * density);
+        List<Polygon> obstacles = new ArrayList<>(count);
+        SpatialHashGrid<Polygon> grid = new SpatialHashGrid<>(CELL_SIZE);
+        for (int i = 0; i < count; i++) {
+            Polygon obstacle =
+                    box(
+                            random.nextFloat() * (LEVEL_WIDTH - OBSTACLE_SIZE),
+                            -random.nextFloat() * LIVE_CHUNKS * CHUNK_HEIGHT,
+                            OBSTACLE_SIZE,
+                            OBSTACLE_SIZE);
+            obstacles.add(obstacle);
+            grid.insert(obstacle, obstacle);
+        }
+        Polygon swimmer = box(LEVEL_WIDTH / 2, 0, SWIMMER_WIDTH, SWIMMER_HEIGHT);
+        List<Polygon> nearby = new ArrayList<>();
+
+        long linearNanos = Long.MAX_VALUE;
+        long gridNanos = Long.MAX_VALUE;
+        int linearHits = 0;
+        int gridHits = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            linearHits = 0;
+            for (int tick = 0; tick < TICKS; tick++) {
+                moveSwimmer(swimmer, tick);
+                for (int i = 0; i < obstacles.size(); i++) {
+                    if (Util.convexPolygonIntersectsConvexPolygon(swimmer, obstacles.get(i))) {
+                        linearHits++;
+                    }
+                }
+            }
+            long linear = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            gridHits = 0;
+            for (int tick = 0; tick < TICKS; tick++) {
+                moveSwimmer(swimmer, tick);
+                grid.query(swimmer, nearby);
+                for (int i = 0; i < nearby.size(); i++) {
+                    if (Util.convexPolygonIntersectsConvexPolygon(swimmer, nearby.get(i))) {
+                        gridHits++;
+                    }
+                }
+            }
+            long gridded = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                linearNanos = Math.min(linearNanos, linear);
+                gridNanos = Math.min(gridNanos, gridded);
+            }
+        }
+
+        assertEquals(linearHits, gridHits);
+        System.out.println(
+                String.format(
+                        "SpatialHashGridBenchmark density %4.2f (%4d obstacles): "
+                                + "linear %8.1f ns/tick, grid %8.1f ns/tick, %d hits",
+                        density,
+                        count,
+                        (double) linearNanos / TICKS,
+                        (double) gridNanos / TICKS,
+                        gridHits));
+    }
+
+    /** Swims down the live chunks, drifting across the lanes. */
+    private static void moveSwimmer(Polygon swimmer, int tick) {
+        float y = -(tick * LIVE_CHUNKS * CHUNK_HEIGHT) / TICKS;
+        float x = (LEVEL_WIDTH - SWIMMER_WIDTH) * (0.5f + 0.5f * (float) Math.sin(tick * 0.01));
+        swimmer.moveTo(x, y);
+    }
+
+    private static Polygon box(float x, float y, float width, float height) {
+        // Wound clockwise, so the normals point out.
+        return new Polygon(
+                new ArrayList<>(
+                        Arrays.asList(
+                                Vector2D.get(x, y),
+                                Vector2D.get(x + width, y),
+                                Vector2D.get(x + width, y + height),
+                                Vector2D.get(x, y + height))));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.doodles.shared.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.apps.santatracker.doodles.BuildConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/** Test for {@link SpatialHashGrid}. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class SpatialHashGridTest {
+
+    private final SpatialHashGrid<String> grid = new SpatialHashGrid<>(10);
+    private final List<String> out = new ArrayList<>();
+
+    @Test
+    public void testQueryFindsOnlyNearbyItems() {
+        grid.insert("near", 1, 1, 4, 4);
+        grid.insert("far", 101, 101, 104, 104);
+
+        assertEquals(Arrays.asList("near"), grid.query(0, 0, 5, 5, out));
+        assertEquals(Arrays.asList("far"), grid.query(100, 100, 105, 105, out));
+        assertTrue(grid.query(50, 50, 55, 55, out).isEmpty());
+    }
+
+    @Test
+    public void testItemSpanningCellsIsReportedOnce() {
+        grid.insert("wide", -15, -15, 25, 25);
+
+        assertEquals(Arrays.asList("wide"), grid.query(-20, -20, 30, 30, out));
+    }
+
+    @Test
+    public void testNegativeCoordinates() {
+        grid.insert("item", -4, -4, -1, -1);
+
+        assertEquals(Arrays.asList("item"), grid.query(-5, -5, -2, -2, out));
+        assertTrue(grid.query(1, 1, 5, 5, out).isEmpty());
+    }
+
+    @Test
+    public void testInsertAgainMovesItem() {
+        grid.insert("item", 1, 1, 4, 4);
+        grid.insert("item", 51, 51, 54, 54);
+
+        assertEquals(1, grid.size());
+        assertTrue(grid.query(0, 0, 5, 5, out).isEmpty());
+        assertEquals(Arrays.asList("item"), grid.query(50, 50, 55, 55, out));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        grid.insert("a", 1, 1, 4, 4);
+        grid.insert("b", 2, 2, 5, 5);
+
+        assertTrue(grid.remove("a"));
+        assertFalse(grid.remove("a"));
+        assertEquals(Arrays.asList("b"), grid.query(0, 0, 5, 5, out));
+
+        grid.clear();
+        assertEquals(0, grid.size());
+        assertTrue(grid.query(0, 0, 5, 5, out).isEmpty());
+
+        // Cells emptied by clear() are reused.
+        grid.insert("c", 1, 1, 4, 4);
+        assertEquals(Arrays.asList("c"), grid.query(0, 0, 5, 5, out));
+    }
+
+    @Test
+    public void testQueryClearsOutList() {
+        out.add("stale");
+        grid.insert("item", 1, 1, 4, 4);
+
+        assertEquals(Arrays.asList("item"), grid.query(0, 0, 5, 5, out));
+    }
+
+    @Test
+    public void testCandidatesCoverEveryOverlap() {
+        // Every item overlapping a query must come back from it, whatever the cell alignment.
+        List<float[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            float x = (i * 37) % 300 - 150;
+            float y = (i * 53) % 300 - 150;
+            float size = 1 + (i % 25);
+            boxes.add(new float[] {x, y, x + size, y + size});
+            grid.insert(String.valueOf(i), x, y, x + size, y + size);
+        }
+        for (int q = 0; q < 50; q++) {
+            float minX = (q * 29) % 300 - 150;
+            float minY = (q * 41) % 300 - 150;
+            float maxX = minX + 5 + q;
+            float maxY = minY + 5 + q;
+            HashSet<String> candidates = new HashSet<>(grid.query(minX, minY, maxX, maxY, out));
+            for (int i = 0; i < boxes.size(); i++) {
+                float[] b = boxes.get(i);
+                if (b[0] <= maxX && minX <= b[2] && b[1] <= maxY && minY <= b[3]) {
+                    assertTrue(candidates.contains(String.valueOf(i)));
+                }
+            }
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.google.android.apps.gumball;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.jbox2d.collision.shapes.CircleShape;
 import org.jbox2d.collision.shapes.EdgeShape;
 import org.jbox2d.collision.shapes.PolygonShape;
@@ -27,27 +29,121 @@ import org.jbox2d.dynamics.Body;
 import org.jbox2d.dynamics.BodyDef;
 import org.jbox2d.dynamics.BodyType;
 import org.jbox2d.dynamics.FixtureDef;
+import org.jbox2d.dynamics.Fixture;
 import org.jbox2d.dynamics.World;
 
-/** Wraps the game world and physics simulation for the gumball game. */
+/**
+ * Wraps the game world and physics simulation for the gumball game.
+ *
+ * <p>Once {@link #start started}, the world is stepped on its own thread at a fixed rate, and the
+ * position of every body is copied to a {@link Snapshot} after each step for the view to draw.
+ * The simulation thread holds the lock of this object while it steps the world, so any other
+ * thread must synchronize on it to change the world. Contact listeners are called on the
+ * simulation thread. While {@link #setPaused paused}, the thread waits without stepping.
+ */
 public class PhysicsWorld {
 
+    /** Receives events from the simulation thread, on the simulation thread. */
+    public interface Callback {
+        /** Called after a new snapshot has been published. */
+        void onSnapshot();
+    }
+
+    /** The bodies to draw and their positions after a step of the simulation. */
+    public static class Snapshot {
+        /** Number of bodies in the snapshot, which are the first entries of the arrays. */
+        public int count;
+
+        public Object[] userData = new Object[0];
+        /** The shape of the first fixture of each body. */
+        public Shape[] shapes = new Shape[0];
+
+        public float[] x = new float[0];
+        public float[] y = new float[0];
+        public float[] angle = new float[0];
+
+        /** Whether the view hasn't picked up this snapshot yet. */
+        private boolean isNew;
+
+        /** Empties the snapshot, making room for the given number of bodies. */
+        private void reset(int capacity) {
+            if (userData.length < capacity) {
+                int size = Math.max(capacity, userData.length * 2);
+                userData = new Object[size];
+                shapes = new Shape[size];
+                x = new float[size];
+                y = new float[size];
+                angle = new float[size];
+            } else {
+                // Drop the references to bodies which may be gone.
+                for (int i = 0; i < count; i++) {
+                    userData[i] = null;
+                    shapes[i] = null;
+                }
+            }
+            count = 0;
+        }
+    }
+
     /** All {@link org.jbox2d.dynamics.Body} objects in the world. */
     private List<Body> mBodies = new ArrayList<Body>();
     /** The Physics world. */
     private World mWorld;
     /** Bodies that are to be removed from the scene. */
     public List<Body> mBodiesToBeRemoved = new ArrayList<Body>();
-    /** Render refresh rate. */
+    /** Simulated time of a step, in seconds. */
     private static final float FRAME_RATE = 1.0f / 45.0f;
+    /** Real time between steps: the cadence of the old loop, which stepped every 10ms. */
+    private static final long STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /**
+     * Most steps taken at once to catch up after the simulation thread was held up. Any more are
+     * dropped, so that a slow device runs the game slower rather than falling further behind.
+     */
+    private static final int MAX_CATCH_UP_STEPS = 4;
+    /** Change of gravity, in m/s^2, after which bodies which fell asleep are woken up. */
+    private static final float GRAVITY_WAKE_THRESHOLD = 0.5f;
+
+    /** Gravity to apply before the next step, as set by {@link #setGravity}. */
+    private volatile float mGravityX;
+
+    private volatile float mGravityY;
+    /** Gravity when the bodies were last woken up. Only used by the simulating thread. */
+    private final Vec2 mWakeGravity = new Vec2();
+
+    private final Vec2 mGravity = new Vec2();
+
+    /**
+     * The newest published snapshot, waiting for the view to pick it up. Three snapshots rotate
+     * between the two threads: one being filled in, one being drawn and this one, so neither
+     * thread ever waits for the other.
+     */
+    private final AtomicReference<Snapshot> mPendingSnapshot =
+            new AtomicReference<Snapshot>(new Snapshot());
+    /** The snapshot the simulation thread fills in next. Only used by the simulation thread. */
+    private Snapshot mBackSnapshot = new Snapshot();
+    /** The snapshot the view draws. Only used by the UI thread. */
+    private Snapshot mFrontSnapshot = new Snapshot();
+
+    private Thread mSimulationThread;
+    private volatile boolean mSimulating;
+
+    /** Guards mPaused, and is notified when it changes. */
+    private final Object mPauseLock = new Object();
+
+    private boolean mPaused;
+
     /** Create the physics world and draws the boundries */
-    public void create(Vec2 gravity) {
+    public synchronized void create(Vec2 gravity) {
 
         // Create Physics World with Gravity
         mWorld = new World(gravity);
-        mWorld.setAllowSleep(false);
-        mWorld.setSleepingAllowed(false);
+        // Let gumballs which have come to rest sleep; setGravity wakes them when tilting.
+        mWorld.setAllowSleep(true);
+        mWorld.setSleepingAllowed(true);
         mWorld.setAutoClearForces(true);
+        mGravityX = gravity.x;
+        mGravityY = gravity.y;
+        mWakeGravity.set(gravity);
 
         BodyDef groundBodyDef = new BodyDef();
 
@@ -75,7 +171,7 @@ public class PhysicsWorld {
     }
 
     /** Adds a gumball to the scene. */
-    public void addGumball(
+    public synchronized void addGumball(
             float x,
             float y,
             Gumball gumball,
@@ -90,7 +186,7 @@ public class PhysicsWorld {
         addItem(x, y, circleShape, bounce, gumball, density, friction, bodyType);
     }
 
-    public void addPipeSides(
+    public synchronized void addPipeSides(
             float x,
             float y,
             int data,
@@ -106,7 +202,7 @@ public class PhysicsWorld {
         addItem(x, y, edgeShapes, bounce, data, density, friction, bodyType);
     }
 
-    public void addPipeBottom(
+    public synchronized void addPipeBottom(
             float x,
             float y,
             int data,
@@ -120,7 +216,7 @@ public class PhysicsWorld {
         addItem(x, y, edgeShapes, bounce, data, density, friction, bodyType);
     }
 
-    public void addFloor(
+    public synchronized void addFloor(
             float x,
             float y,
             int data,
@@ -134,7 +230,7 @@ public class PhysicsWorld {
         addItem(x, y, edgeShapes, bounce, data, density, friction, bodyType);
     }
 
-    public void addItem(
+    public synchronized void addItem(
             float x,
             float y,
             Shape[] shapes,
@@ -164,7 +260,7 @@ public class PhysicsWorld {
         }
     }
 
-    public void addItem(
+    public synchronized void addItem(
             float x,
             float y,
             Shape shape,
@@ -191,7 +287,7 @@ public class PhysicsWorld {
         body.createFixture(fixtureDef);
     }
 
-    public void addItem(
+    public synchronized void addItem(
             float x,
             float y,
             Shape shape,
@@ -218,8 +314,18 @@ public class PhysicsWorld {
         body.createFixture(fixtureDef);
     }
 
-    /** Updates the physics world by removing all pending bodies. */
-    public void update() {
+    /**
+     * Sets the gravity, e.g. from the tilt of the device. It is applied before the next step, so
+     * this can be called from any thread without waiting for the simulation.
+     */
+    public void setGravity(float x, float y) {
+        mGravityX = x;
+        mGravityY = y;
+    }
+
+    /** Updates the physics world by removing all pending bodies, then steps it once. */
+    public synchronized void update() {
+        applyGravity();
         // Update Physics World
         for (int i = 0; i < mBodiesToBeRemoved.size(); i++) {
             mWorld.destroyBody(mBodiesToBeRemoved.get(i));
@@ -229,6 +335,158 @@ public class PhysicsWorld {
         mWorld.clearForces();
     }
 
+    /**
+     * Starts stepping the world on a new thread, unless it is paused. Each step takes {@link
+     * #FRAME_RATE} of simulated time, at a fixed rate whatever the frame rate.
+     */
+    public void start(final Callback callback) {
+        stop();
+        mSimulating = true;
+        mSimulationThread =
+                new Thread("GumballPhysics") {
+                    @Override
+                    public void run() {
+                        try {
+                            simulate(callback);
+                        } catch (InterruptedException e) {
+                            // Stopped.
+                        }
+                    }
+                };
+        mSimulationThread.start();
+    }
+
+    /** Stops the simulation thread and waits for it to finish its current step. */
+    public void stop() {
+        if (mSimulationThread == null) {
+            return;
+        }
+        mSimulating = false;
+        mSimulationThread.interrupt();
+        boolean interrupted = false;
+        while (mSimulationThread.isAlive()) {
+            try {
+                mSimulationThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        mSimulationThread = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Pauses or resumes the simulation. While paused, the simulation thread waits instead of
+     * stepping, and the time spent paused is not caught up on.
+     */
+    public void setPaused(boolean paused) {
+        synchronized (mPauseLock) {
+            mPaused = paused;
+            mPauseLock.notifyAll();
+        }
+    }
+
+    private void simulate(Callback callback) throws InterruptedException {
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+        while (mSimulating) {
+            if (awaitResume()) {
+                previousTime = System.nanoTime();
+                accumulator = 0;
+            }
+            long time = System.nanoTime();
+            accumulator += time - previousTime;
+            previousTime = time;
+
+            int steps = 0;
+            while (accumulator >= STEP_NANOS && steps < MAX_CATCH_UP_STEPS) {
+                update();
+                accumulator -= STEP_NANOS;
+                steps++;
+            }
+            if (accumulator >= STEP_NANOS) {
+                accumulator %= STEP_NANOS;
+            }
+            if (steps > 0) {
+                publishSnapshot();
+                callback.onSnapshot();
+            }
+            TimeUnit.NANOSECONDS.sleep(STEP_NANOS - accumulator);
+        }
+    }
+
+    /**
+     * Blocks while the simulation is paused, until it is resumed or the thread is interrupted.
+     *
+     * @return whether the simulation was paused.
+     */
+    private boolean awaitResume() throws InterruptedException {
+        synchronized (mPauseLock) {
+            if (!mPaused) {
+                return false;
+            }
+            while (mPaused) {
+                mPauseLock.wait();
+            }
+            return true;
+        }
+    }
+
+    /** Must hold the lock of this object. */
+    private void applyGravity() {
+        float x = mGravityX;
+        float y = mGravityY;
+        mGravity.set(x, y);
+        mWorld.setGravity(mGravity);
+        if (Math.abs(x - mWakeGravity.x) > GRAVITY_WAKE_THRESHOLD
+                || Math.abs(y - mWakeGravity.y) > GRAVITY_WAKE_THRESHOLD) {
+            mWakeGravity.set(x, y);
+            for (Body body = mWorld.getBodyList(); body != null; body = body.getNext()) {
+                if (body.getType() == BodyType.DYNAMIC) {
+                    body.setAwake(true);
+                }
+            }
+        }
+    }
+
+    /** Copies the bodies of the world into the back snapshot, then hands it to the view. */
+    public void publishSnapshot() {
+        Snapshot snapshot = mBackSnapshot;
+        synchronized (this) {
+            snapshot.reset(mWorld.getBodyCount());
+            for (Body body = mWorld.getBodyList(); body != null; body = body.getNext()) {
+                Fixture fixture = body.getFixtureList();
+                if (body.getUserData() == null || fixture == null || fixture.getShape() == null) {
+                    continue;
+                }
+                int i = snapshot.count++;
+                Vec2 position = body.getPosition();
+                snapshot.userData[i] = body.getUserData();
+                snapshot.shapes[i] = fixture.getShape();
+                snapshot.x[i] = position.x;
+                snapshot.y[i] = position.y;
+                snapshot.angle[i] = body.getAngle();
+            }
+        }
+        snapshot.isNew = true;
+        mBackSnapshot = mPendingSnapshot.getAndSet(snapshot);
+    }
+
+    /**
+     * Returns the latest snapshot. Call on the UI thread; the snapshot stays unchanged until the
+     * next call, however many steps the simulation takes meanwhile.
+     */
+    public Snapshot latestSnapshot() {
+        if (mPendingSnapshot.get().isNew) {
+            // Anything the simulation swaps in between the check and here is newer still.
+            mFrontSnapshot = mPendingSnapshot.getAndSet(mFrontSnapshot);
+            mFrontSnapshot.isNew = false;
+        }
+        return mFrontSnapshot;
+    }
+
     /** Gets a reference to the world. */
     public World getWorld() {
         return mWorld;
@@ -59,8 +59,10 @@ import com.google.android.apps.santatracker.util.ImmersiveModeHelper;
 import com.google.android.apps.santatracker.util.SoundPoolUtils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -93,8 +95,12 @@ public class TiltGameFragment extends Fragment
      * Initial Y position of the floor and pipes in the physics world.
      */
     public static final float WORLD_FLOOR_Y = 0f;
-    /** Holder for sound pool id to handle playbacks, connects and disconnects. */
-    private final HashMap<UUID, Boolean> mSoundPoolId = new HashMap<>();
+    /**
+     * Holder for sound pool id to handle playbacks, connects and disconnects. Contacts are handled
+     * on the simulation thread, hence the synchronized map.
+     */
+    private final Map<UUID, Boolean> mSoundPoolId =
+            Collections.synchronizedMap(new HashMap<UUID, Boolean>());
     /** View that contains the main game. */
     private TiltGameView mGameView;
     /** Box2D physics world for this game. */
@@ -106,8 +112,33 @@ public class TiltGameFragment extends Fragment
      * @see android.view.Display#getRotation()
      */
     private int mRotation;
-    /** Main game thread. */
+    /** Loads the first level once the game isn't paused anymore. */
     private Runnable mGameThread;
+    /** Redraws the view after each step of the simulation. */
+    private final PhysicsWorld.Callback mSimulationCallback =
+            new PhysicsWorld.Callback() {
+                @Override
+                public void onSnapshot() {
+                    mGameView.postInvalidateOnAnimation();
+                }
+            };
+    /** Handles a gumball going into the pipe on the UI thread. */
+    private final Runnable mOnBallInPipe =
+            new Runnable() {
+                @Override
+                public void run() {
+                    onBallInPipe();
+                }
+            };
+    /** Handles a gumball going over the edge on the UI thread. */
+    private final Runnable mOnBallLost =
+            new Runnable() {
+                @Override
+                public void run() {
+                    moveOutlet((mCurrentGumball.mXInitPos));
+                    mCountLevelBallRespawns++;
+                }
+            };
     /**
      * Previous value of the sensor's Y reading. Used to calculate the rotational offset between
      * sensor events.
@@ -200,7 +231,7 @@ public class TiltGameFragment extends Fragment
      */
     private int mCountLevelBallRespawns = 0;
 
-    /** Flag indicating if the game is paused. */
+    /** Flag indicating if the game is paused. Only change it through {@link #setPaused}. */
     private boolean wasPaused = false;
 
     private ImageView mViewPlayButton;
@@ -481,21 +512,21 @@ public class TiltGameFragment extends Fragment
             mGameThread =
                     new Runnable() {
                         public void run() {
-                            synchronized (mWorld) {
-                                if (!wasPaused) {
-                                    if (mCurrentLevelNum == 0) {
-                                        mCurrentLevelNum++;
-                                        loadLevel(mCurrentLevelNum);
-                                    }
-                                    mWorld.update();
-                                    mGameView.invalidate();
-                                }
+                            if (wasPaused) {
+                                getActivity()
+                                        .getWindow()
+                                        .getDecorView()
+                                        .postDelayed(mGameThread, 10);
+                            } else if (mCurrentLevelNum == 0) {
+                                mCurrentLevelNum++;
+                                loadLevel(mCurrentLevelNum);
                             }
-                            getActivity().getWindow().getDecorView().postDelayed(mGameThread, 10);
                         }
                     };
         }
         getActivity().getWindow().getDecorView().postDelayed(mGameThread, 1000);
+        // The physics are stepped off the UI thread, which only draws the results.
+        mWorld.start(mSimulationCallback);
 
         loadBackgroundMusic();
         updateSignInButtonVisibility();
@@ -507,6 +538,7 @@ public class TiltGameFragment extends Fragment
         pauseGame();
         stopBackgroundMusic();
         getActivity().getWindow().getDecorView().removeCallbacks(mGameThread);
+        mWorld.stop();
     }
 
     private void stopBackgroundMusic() {
@@ -558,7 +590,7 @@ public class TiltGameFragment extends Fragment
             mTimeLeftInMillis = GameConstants.GUMBALL_INIT_TIME;
             mMatchScore = 0;
             mViewScore.setText(String.valueOf(mMatchScore));
-            wasPaused = false;
+            setPaused(false);
 
             // Hide the pause screen
             mViewPlayAgainBackground.clearAnimation();
@@ -623,7 +655,7 @@ public class TiltGameFragment extends Fragment
         }
         // restrict x to ~+-45 degrees
         x *= 0.5;
-        mWorld.getWorld().setGravity(new Vec2(x, mPreviousSensorY));
+        mWorld.setGravity(x, mPreviousSensorY);
     }
 
     @Override
@@ -633,6 +665,8 @@ public class TiltGameFragment extends Fragment
      * Handle contact with objects in the Box 2D world. Here the main game logic is implemented:
      * When a ball hits the bottom pipe, it is removed and the next level or ball is started. When
      * the ball goes over the edge, it is removed and a new ball is dropped from the pipe again.
+     *
+     * <p>This is called on the simulation thread, so the views are updated on the UI thread.
      */
     @Override
     public void endContact(Contact contact) {
@@ -647,7 +681,7 @@ public class TiltGameFragment extends Fragment
             mWorld.mBodiesToBeRemoved.add(contact.getFixtureB().getBody());
             mSoundPoolId.remove(
                     ((Gumball) contact.getFixtureB().getBody().getUserData()).mSoundPoolId);
-            onBallInPipe();
+            mGameView.post(mOnBallInPipe);
         } else if (contact.getFixtureB().getBody().getUserData() != null
                 && !(contact.getFixtureB().getBody().getUserData() instanceof Gumball)
                 && (
@@ -660,7 +694,7 @@ public class TiltGameFragment extends Fragment
             mWorld.mBodiesToBeRemoved.add(contact.getFixtureA().getBody());
             mSoundPoolId.remove(
                     ((Gumball) contact.getFixtureA().getBody().getUserData()).mSoundPoolId);
-            onBallInPipe();
+            mGameView.post(mOnBallInPipe);
         } else if (contact.getFixtureA().getBody().getUserData() != null
                 && !(contact.getFixtureA().getBody().getUserData() instanceof Gumball)
                 && contact.getFixtureA().getBody().getUserData().equals(TiltGameView.GAME_FLOOR)) {
@@ -672,8 +706,7 @@ public class TiltGameFragment extends Fragment
                 SoundPoolUtils.playSoundEffect(mSoundPool, mSoundBallFail);
             }
             mWorld.getWorld().step(1.0f / 60.0f, 10, 10);
-            moveOutlet((mCurrentGumball.mXInitPos));
-            mCountLevelBallRespawns++;
+            mGameView.post(mOnBallLost);
         } else if (contact.getFixtureB().getBody().getUserData() != null
                 && !(contact.getFixtureB().getBody().getUserData() instanceof Gumball)
                 && contact.getFixtureB().getBody().getUserData().equals(TiltGameView.GAME_FLOOR)) {
@@ -685,8 +718,7 @@ public class TiltGameFragment extends Fragment
                 SoundPoolUtils.playSoundEffect(mSoundPool, mSoundBallFail);
             }
             mWorld.getWorld().step(1.0f / 60.0f, 10, 10);
-            moveOutlet((mCurrentGumball.mXInitPos));
-            mCountLevelBallRespawns++;
+            mGameView.post(mOnBallLost);
         }
     }
 
@@ -838,6 +870,33 @@ public class TiltGameFragment extends Fragment
         mCountLevelBallRespawns = 0;
         mNumberCollected = 0;
         mViewPlayAgainLevel.setText(String.valueOf(levelNumber));
+        // Keep the simulation thread from stepping a half built level.
+        boolean loaded;
+        synchronized (mWorld) {
+            loaded = loadLevelBodies(levelNumber);
+        }
+
+        // Start the timer
+        if (loaded && mCurrentGumball != null) {
+            if (mCurrentLevelNum > 1) {
+                // Do not include gumball dropping time in countdown calculation.
+                mTimeLeftInMillis += GameConstants.GUMBALL_ADDED_TIME;
+            }
+            mCountDownTimer = new GameCountdown(mFramesPerSecond, mTimeLeftInMillis);
+            mCountDownTimer.start();
+            mGameView.setGameCountDown(mCountDownTimer);
+
+            // Move the outlet to its initial position
+            moveOutlet((mCurrentGumball.mXInitPos));
+        }
+    }
+
+    /**
+     * Replaces the bodies of the game world with those of a level. Must hold the world lock.
+     *
+     * @return whether the level could be read.
+     */
+    private boolean loadLevelBodies(int levelNumber) {
         Body body = mWorld.getWorld().getBodyList();
         while (body != null) {
             if (body.m_userData == null) {
@@ -913,23 +972,11 @@ public class TiltGameFragment extends Fragment
                 mGumballQueue.add(gumballObject);
             }
             mCurrentGumball = mGumballQueue.poll();
-
-            // Start the timer
-            if (mCurrentGumball != null) {
-                if (mCurrentLevelNum > 1) {
-                    // Do not include gumball dropping time in countdown calculation.
-                    mTimeLeftInMillis += GameConstants.GUMBALL_ADDED_TIME;
-                }
-                mCountDownTimer = new GameCountdown(mFramesPerSecond, mTimeLeftInMillis);
-                mCountDownTimer.start();
-                mGameView.setGameCountDown(mCountDownTimer);
-
-                // Move the outlet to its initial position
-                moveOutlet((mCurrentGumball.mXInitPos));
-            }
+            return true;
         } catch (IOException e) {
         } catch (JSONException e) {
         }
+        return false;
     }
 
     /**
@@ -1047,7 +1094,7 @@ public class TiltGameFragment extends Fragment
         mViewPlayButton.setVisibility(View.VISIBLE);
         if (mCountDownTimer != null) {
             mCountDownTimer.cancel();
-            wasPaused = true;
+            setPaused(true);
         }
         mViewMatchPauseOverlay.setVisibility(View.VISIBLE);
         mViewCancelBar.setVisibility(View.VISIBLE);
@@ -1058,6 +1105,12 @@ public class TiltGameFragment extends Fragment
         ImmersiveModeHelper.setImmersiveStickyWithActionBar(getActivity().getWindow());
     }
 
+    /** Pauses or resumes the game, and the simulation with it. */
+    private void setPaused(boolean paused) {
+        wasPaused = paused;
+        mWorld.setPaused(paused);
+    }
+
     /** Continue the paused game. Restart the countdown timer and hide the pause game screen. */
     private void unPauseGame() {
         mViewPauseButton.setVisibility(View.VISIBLE);
@@ -1067,7 +1120,7 @@ public class TiltGameFragment extends Fragment
         mCountDownTimer = new GameCountdown(mFramesPerSecond, mTimeLeftInMillis);
         mCountDownTimer.start();
         mGameView.setGameCountDown(mCountDownTimer);
-        wasPaused = false;
+        setPaused(false);
         SensorManager sensorManager =
                 (SensorManager) getActivity().getSystemService(Activity.SENSOR_SERVICE);
         Sensor sensor = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
@@ -1175,7 +1228,7 @@ public class TiltGameFragment extends Fragment
             mViewCountdown.setTextColor(Color.WHITE);
             mViewCountdown.setTypeface(Typeface.DEFAULT);
             if (mViewPlayAgainBackground.getVisibility() != View.VISIBLE && !wasPaused) {
-                wasPaused = true;
+                setPaused(true);
                 submitScore(GameConstants.LEADERBOARDS_GUMBALL, mMatchScore);
                 if (mBackgroundMusic != null) {
                     mBackgroundMusic.stop();
@@ -1205,7 +1258,7 @@ public class TiltGameFragment extends Fragment
         @Override
         public void run() {
             mDrawableTransition.stop();
-            wasPaused = false;
+            setPaused(false);
             mViewInstructions.setVisibility(View.GONE);
             Editor edit = mSharedPreferences.edit();
             edit.putBoolean(GameConstants.GUMBALL_INSTRUCTIONS_VIEWED, true);
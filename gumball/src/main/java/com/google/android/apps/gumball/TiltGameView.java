@@ -30,10 +30,7 @@ import java.util.Random;
 import org.jbox2d.collision.shapes.CircleShape;
 import org.jbox2d.collision.shapes.EdgeShape;
 import org.jbox2d.collision.shapes.Shape;
-import org.jbox2d.common.Vec2;
-import org.jbox2d.dynamics.Body;
 import org.jbox2d.dynamics.BodyType;
-import org.jbox2d.dynamics.Fixture;
 
 /**
  * Custom view which contains the elements used in the physics word. It handles the painting of all
@@ -347,33 +344,29 @@ public class TiltGameView extends View {
             return;
         }
 
-        // Iterate through all of the bodies in the game world and draw the corresponding bitmaps
-        Body body = mWorld.getWorld().getBodyList();
-        while (body != null) {
-            if (body.m_userData == null || body.m_userData.equals(PIPE_BOTTOM)) {
-                body = body.getNext();
-                continue;
-            }
-            // Skip bodies with empty fixtures or shapes
-            Fixture fixture = body.getFixtureList();
-            if (fixture == null) {
-                body = body.getNext();
-                continue;
-            }
-            Shape shape = fixture.getShape();
-            if (shape == null) {
-                body = body.getNext();
+        // Iterate through all of the bodies of the latest step of the game world and draw the
+        // corresponding bitmaps. Bodies without user data or shapes are left out of the snapshot.
+        drawSnapshot(canvas, mWorld.latestSnapshot(), scale);
+    }
+
+    private void drawSnapshot(Canvas canvas, PhysicsWorld.Snapshot snapshot, float scale) {
+        for (int i = 0; i < snapshot.count; i++) {
+            Object userData = snapshot.userData[i];
+            if (userData.equals(PIPE_BOTTOM)) {
                 continue;
             }
+            Shape shape = snapshot.shapes[i];
 
             // Get the position.
-            Vec2 position = body.getPosition();
+            float x = snapshot.x[i];
+            float y = snapshot.y[i];
+            float degrees = (float) (180 * snapshot.angle[i] / Math.PI);
 
             // Get the bitmap of this body.
             Bitmap bitmap = null;
-            if (body.getUserData() instanceof Gumball) {
+            if (userData instanceof Gumball) {
                 // For a gumball, load the correct color
-                Gumball gumball = (Gumball) body.getUserData();
+                Gumball gumball = (Gumball) userData;
                 if (gumball.mGumballColorId == GUMBALL_BLUE) {
                     bitmap = mGumballBlue;
                 } else if (gumball.mGumballColorId == GUMBALL_YELLOW) {
@@ -387,51 +380,51 @@ public class TiltGameView extends View {
                 } else if (gumball.mGumballColorId == GUMBALL_PURPLE) {
                     bitmap = mGumballPurple;
                 }
-            } else if (body.m_userData.equals(CANE_MAIN_LONG)) {
+            } else if (userData.equals(CANE_MAIN_LONG)) {
                 bitmap = mCaneMainLong;
-            } else if (body.m_userData.equals(CANE_MAIN_LONG_REVERSE)) {
+            } else if (userData.equals(CANE_MAIN_LONG_REVERSE)) {
                 bitmap = mCaneMainLongReverse;
-            } else if (body.m_userData.equals(CANE_MAIN_MEDIUM)) {
+            } else if (userData.equals(CANE_MAIN_MEDIUM)) {
                 bitmap = mCaneMainMed;
-            } else if (body.m_userData.equals(CANE_MAIN_MEDIUM_REVERSE)) {
+            } else if (userData.equals(CANE_MAIN_MEDIUM_REVERSE)) {
                 bitmap = mCaneMainMedReverse;
-            } else if (body.m_userData.equals(CANE_MAIN_SMALL)) {
+            } else if (userData.equals(CANE_MAIN_SMALL)) {
                 bitmap = mCaneMainSmall;
-            } else if (body.m_userData.equals(CANE_MAIN_SMALL_REVERSE)) {
+            } else if (userData.equals(CANE_MAIN_SMALL_REVERSE)) {
                 bitmap = mCaneMainSmallReverse;
-            } else if (body.m_userData.equals(CANE_MAIN_TINY)) {
+            } else if (userData.equals(CANE_MAIN_TINY)) {
                 bitmap = mCaneMainTiny;
-            } else if (body.m_userData.equals(CANE_MAIN_TINY_REVERSE)) {
+            } else if (userData.equals(CANE_MAIN_TINY_REVERSE)) {
                 bitmap = mCaneMainTinyReverse;
-            } else if (body.m_userData.equals(CANE_HOOK)) {
+            } else if (userData.equals(CANE_HOOK)) {
                 bitmap = mCaneHook;
-            } else if (body.m_userData.equals(CANE_HOOK_FLIP)) {
+            } else if (userData.equals(CANE_HOOK_FLIP)) {
                 bitmap = mCaneHookFlip;
-            } else if (body.m_userData.equals(CANE_HOOK_REVERSE)) {
+            } else if (userData.equals(CANE_HOOK_REVERSE)) {
                 bitmap = mCaneHookReverse;
-            } else if (body.m_userData.equals(CANE_HOOK_REVERSE_FLIP)) {
+            } else if (userData.equals(CANE_HOOK_REVERSE_FLIP)) {
                 bitmap = mCaneHookReverseFlip;
-            } else if (body.m_userData.equals(CANE_END)) {
+            } else if (userData.equals(CANE_END)) {
                 bitmap = mCaneEnd;
-            } else if (body.m_userData.equals(CANE_END_FLIP)) {
+            } else if (userData.equals(CANE_END_FLIP)) {
                 bitmap = mCaneEndFlip;
-            } else if (body.m_userData.equals(CANE_END_REVERSE)) {
+            } else if (userData.equals(CANE_END_REVERSE)) {
                 bitmap = mCaneEndReverse;
-            } else if (body.m_userData.equals(CANE_END_REVERSE_FLIP)) {
+            } else if (userData.equals(CANE_END_REVERSE_FLIP)) {
                 bitmap = mCaneEndReverseFlip;
-            } else if (body.m_userData.equals(PIPE_SIDES)) {
+            } else if (userData.equals(PIPE_SIDES)) {
                 bitmap = mPipeSides;
-            } else if (body.m_userData.equals(CANE_MAIN_SMALL_ANGLE_NINE)) {
+            } else if (userData.equals(CANE_MAIN_SMALL_ANGLE_NINE)) {
                 bitmap = mCaneMainSmallAngleNine;
-            } else if (body.m_userData.equals(CANE_MAIN_SMALL_ANGLE_SIX)) {
+            } else if (userData.equals(CANE_MAIN_SMALL_ANGLE_SIX)) {
                 bitmap = mCaneMainSmallAngleSix;
-            } else if (body.m_userData.equals(CANE_MAIN_SMALL_ANGLE_TWELVE)) {
+            } else if (userData.equals(CANE_MAIN_SMALL_ANGLE_TWELVE)) {
                 bitmap = mCaneMainSmallAngleTwelve;
-            } else if (body.m_userData.equals(CANE_MAIN_REVERSE_TINY_ANGLE_SIX)) {
+            } else if (userData.equals(CANE_MAIN_REVERSE_TINY_ANGLE_SIX)) {
                 bitmap = mCaneMainReverseTinyAngleTwelve;
-            } else if (body.m_userData.equals(CANE_MAIN_LARGE_ANGLE_SIX)) {
+            } else if (userData.equals(CANE_MAIN_LARGE_ANGLE_SIX)) {
                 bitmap = mCaneMainLargeAngleSix;
-            } else if (body.m_userData.equals(CANE_MAIN_MED_ANGLE_SIX)) {
+            } else if (userData.equals(CANE_MAIN_MED_ANGLE_SIX)) {
                 bitmap = mCaneMainMedAngleSix;
             }
 
@@ -439,30 +432,21 @@ public class TiltGameView extends View {
                 // Draw a gumball
                 CircleShape circleShape = (CircleShape) shape;
                 canvas.save();
-                canvas.rotate(
-                        (float) (180 * body.getAngle() / Math.PI),
-                        scale * position.x,
-                        scale * position.y);
+                canvas.rotate(degrees, scale * x, scale * y);
                 canvas.drawBitmap(
                         bitmap,
-                        scale * (position.x - circleShape.m_radius),
-                        scale * (position.y - circleShape.m_radius),
+                        scale * (x - circleShape.m_radius),
+                        scale * (y - circleShape.m_radius),
                         mPaint);
                 canvas.restore();
 
             } else if (shape instanceof EdgeShape && bitmap != null) {
                 // Draw all other objects
                 final int saveCount = canvas.save();
-                canvas.rotate(
-                        (float) (180 * body.getAngle() / Math.PI),
-                        scale * position.x,
-                        scale * position.y);
-                canvas.drawBitmap(bitmap, scale * (position.x), scale * (position.y), mPaint);
+                canvas.rotate(degrees, scale * x, scale * y);
+                canvas.drawBitmap(bitmap, scale * x, scale * y, mPaint);
                 canvas.restoreToCount(saveCount);
             }
-
-            // Continue drawing with the next body in the world
-            body = body.getNext();
         }
     }
 
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.gumball;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.BodyType;
+import org.junit.Test;
+
+/**
+ * Steps {@link PhysicsWorld} headlessly over the candy canes of every level, with gumballs which
+ * are either resting or rolling around as the device tilts, reporting steps per second averaged
+ * over the levels. The loop the game used to have, with sleeping disabled and gravity set on the
+ * world directly, is measured alongside for comparison.
+ */
+public class PhysicsWorldBenchmark {
+
+    private static final int LEVELS = 13;
+    private static final int[] GUMBALLS = {6, 30, 80};
+    /** Steps for the gumballs to fall onto the canes before measuring. */
+    private static final int SETTLE_STEPS = 300;
+
+    private static final int MEASURED_STEPS = 500;
+    /** Real time the simulation thread has for each step. */
+    private static final double STEP_BUDGET_MILLIS = 10;
+    /** Steps for the tilt to sweep from one side to the other and back, about 2s of play. */
+    private static final int TILT_PERIOD_STEPS = 200;
+    /** Gravity along x when the device is tilted by ~45 degrees, after the halving of the game. */
+    private static final float MAX_TILT_GRAVITY = 4.9f;
+    /** Gravity along y, as the game keeps it while tilting. */
+    private static final float GRAVITY_Y = -9f;
+
+    private static final Pattern CANE =
+            Pattern.compile(
+                    "\"type\"\\s*:\\s*(-?\\d+)\\s*,\\s*\"xPos\"\\s*:\\s*(-?[\\d.]+)\\s*,"
+                            + "\\s*\"yPos\"\\s*:\\s*(-?[\\d.]+)");
+
+    private interface Stepper {
+        void step(PhysicsWorld world, float gravityX);
+    }
+
+    /** The current loop: gravity is applied by the world, which then publishes a snapshot. */
+    private static final Stepper CURRENT =
+            new Stepper() {
+                @Override
+                public void step(PhysicsWorld world, float gravityX) {
+                    world.setGravity(gravityX, GRAVITY_Y);
+                    world.update();
+                    world.publishSnapshot();
+                }
+            };
+
+    /** The loop the game used to have, which never let bodies sleep. */
+    private static final Stepper LEGACY =
+            new Stepper() {
+                private final Vec2 mGravity = new Vec2();
+
+                @Override
+                public void step(PhysicsWorld world, float gravityX) {
+                    mGravity.set(gravityX, GRAVITY_Y);
+                    world.getWorld().setGravity(mGravity);
+                    world.getWorld().step(1.0f / 45.0f, 10, 10);
+                    world.getWorld().clearForces();
+                }
+            };
+
+    @Test
+    public void benchmarkLevels() throws Exception {
+        String[] levels = new String[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            levels[i] = readLevel(i + 1);
+        }
+
+        // Warm up, then measure.
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            for (int gumballs : GUMBALLS) {
+                double legacyResting = run(levels, gumballs, false, true);
+                double currentResting = run(levels, gumballs, false, false);
+                double legacyTilting = run(levels, gumballs, true, true);
+                double currentTilting = run(levels, gumballs, true, false);
+                if (!report) {
+                    continue;
+                }
+                System.out.println(
+                        String.format(
+                                "PhysicsWorldBenchmark %2d gumballs  resting %8.0f -> %8.0f steps/s"
+                                        + "  tilting %8.0f -> %8.0f steps/s"
+                                        + "  (%.3f ms of the %.0f ms budget per step)",
+                                gumballs,
+                                legacyResting,
+                                currentResting,
+                                legacyTilting,
+                                currentTilting,
+                                1000 / currentTilting,
+                                STEP_BUDGET_MILLIS));
+                // Gumballs at rest sleep rather than being stepped.
+                assertTrue(currentResting > legacyResting);
+                // While tilting every gumball is awake, as it always was: no slower than before,
+                // give or take the noise of the measurement.
+                assertTrue(currentTilting > legacyTilting * 0.8);
+            }
+        }
+    }
+
+    /** @return the steps per second averaged over all levels. */
+    private static double run(String[] levels, int gumballs, boolean tilting, boolean legacy) {
+        double total = 0;
+        for (String level : levels) {
+            PhysicsWorld world = createLevel(level, gumballs);
+            if (legacy) {
+                world.getWorld().setAllowSleep(false);
+            }
+            Stepper stepper = legacy ? LEGACY : CURRENT;
+            for (int i = 0; i < SETTLE_STEPS; i++) {
+                stepper.step(world, 0);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_STEPS; i++) {
+                stepper.step(world, tilting ? tilt(i) : 0);
+            }
+            total += MEASURED_STEPS / ((System.nanoTime() - start) / 1e9);
+        }
+        return total / levels.length;
+    }
+
+    private static float tilt(int step) {
+        return MAX_TILT_GRAVITY * (float) Math.sin(2 * Math.PI * step / TILT_PERIOD_STEPS);
+    }
+
+    /** Builds the level as TiltGameFragment does, with the gumballs spread out above it. */
+    private static PhysicsWorld createLevel(String level, int gumballs) {
+        PhysicsWorld world = new PhysicsWorld();
+        world.create(new Vec2(0, GRAVITY_Y));
+        Matcher cane = CANE.matcher(level);
+        while (cane.find()) {
+            int type = Integer.parseInt(cane.group(1));
+            world.addItem(
+                    Float.parseFloat(cane.group(2)),
+                    Float.parseFloat(cane.group(3)),
+                    Edges.getEdges(type),
+                    TiltGameFragment.WORLD_OBJECT_BOUNCE,
+                    type,
+                    TiltGameFragment.WORLD_OBJECT_DENSITY,
+                    TiltGameFragment.WORLD_OBJECT_FRICTION,
+                    BodyType.STATIC);
+        }
+        world.addItem(
+                TiltGameFragment.WORLD_FLOOR_X,
+                TiltGameFragment.WORLD_FLOOR_Y,
+                Edges.getPipeSideEdges(),
+                TiltGameFragment.WORLD_OBJECT_BOUNCE,
+                TiltGameView.PIPE_SIDES,
+                TiltGameFragment.WORLD_OBJECT_DENSITY,
+                TiltGameFragment.WORLD_OBJECT_FRICTION,
+                BodyType.STATIC);
+        world.addFloor(
+                TiltGameFragment.WORLD_FLOOR_X,
+                TiltGameFragment.WORLD_FLOOR_Y,
+                TiltGameView.GAME_FLOOR,
+                TiltGameFragment.WORLD_OBJECT_DENSITY,
+                TiltGameFragment.WORLD_OBJECT_FRICTION,
+                TiltGameFragment.WORLD_FLOOR_FRICTION,
+                BodyType.STATIC);
+        world.addPipeBottom(
+                TiltGameFragment.WORLD_FLOOR_X,
+                TiltGameFragment.WORLD_FLOOR_Y,
+                TiltGameView.PIPE_BOTTOM,
+                TiltGameFragment.WORLD_OBJECT_DENSITY,
+                TiltGameFragment.WORLD_OBJECT_FRICTION,
+                TiltGameFragment.WORLD_FLOOR_FRICTION,
+                BodyType.STATIC);
+        // Rows of ten across the width of the machine, above the canes.
+        for (int i = 0; i < gumballs; i++) {
+            world.addGumball(
+                    0.6f + (i % 10) * 0.85f,
+                    5f + (i / 10) * 0.6f,
+                    new Gumball(),
+                    TiltGameView.GUMBALL_DENSITY,
+                    TiltGameView.GUMBALL_RADIUS,
+                    TiltGameView.GUMBALL_BOUNCE,
+                    TiltGameView.GUMBALL_FRICTION,
+                    BodyType.DYNAMIC);
+        }
+        return world;
+    }
+
+    /** Reads the level file; unit tests run from the module directory. */
+    private static String readLevel(int levelNumber) throws Exception {
+        File file = new File("src/main/res/raw/level" + levelNumber + ".json");
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
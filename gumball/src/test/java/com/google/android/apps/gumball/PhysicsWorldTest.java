@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.gumball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.BodyType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PhysicsWorldTest {
+
+    private PhysicsWorld world;
+    private final AtomicInteger snapshots = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        world = new PhysicsWorld();
+        world.create(new Vec2(0, -9f));
+        world.start(
+                new PhysicsWorld.Callback() {
+                    @Override
+                    public void onSnapshot() {
+                        snapshots.incrementAndGet();
+                    }
+                });
+    }
+
+    @After
+    public void tearDown() {
+        world.stop();
+    }
+
+    @Test
+    public void testPausedThreadWaitsWithoutStepping() throws Exception {
+        world.setPaused(true);
+        Thread thread = awaitState(Thread.State.WAITING);
+        int paused = snapshots.get();
+
+        Thread.sleep(200);
+        assertEquals(paused, snapshots.get());
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        world.setPaused(true);
+        awaitState(Thread.State.WAITING);
+        int paused = snapshots.get();
+
+        world.setPaused(false);
+        Thread.sleep(100);
+        assertTrue(snapshots.get() > paused);
+    }
+
+    @Test
+    public void testStopWhilePaused() throws Exception {
+        world.setPaused(true);
+        Thread thread = awaitState(Thread.State.WAITING);
+
+        world.stop();
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void testDrawnSnapshotDoesNotHoldUpSimulation() throws Exception {
+        PhysicsWorld.Snapshot drawn = world.latestSnapshot();
+        int published = snapshots.get();
+
+        // A slow frame: the view keeps drawing the same snapshot while the simulation steps on.
+        Thread.sleep(100);
+        assertTrue(snapshots.get() > published);
+        assertNotSame(drawn, world.latestSnapshot());
+    }
+
+    @Test
+    public void testDrawnSnapshotIsNotChangedBySteps() {
+        PhysicsWorld stepped = new PhysicsWorld();
+        stepped.create(new Vec2(0, -9f));
+        stepped.addGumball(
+                5f,
+                5f,
+                new Gumball(),
+                TiltGameView.GUMBALL_DENSITY,
+                TiltGameView.GUMBALL_RADIUS,
+                TiltGameView.GUMBALL_BOUNCE,
+                TiltGameView.GUMBALL_FRICTION,
+                BodyType.DYNAMIC);
+        stepped.update();
+        stepped.publishSnapshot();
+        PhysicsWorld.Snapshot drawn = stepped.latestSnapshot();
+        assertEquals(1, drawn.count);
+        float y = drawn.y[0];
+
+        for (int i = 0; i < 10; i++) {
+            stepped.update();
+            stepped.publishSnapshot();
+        }
+        assertEquals(1, drawn.count);
+        assertEquals(y, drawn.y[0], 0.0f);
+
+        // The next frame gets the newest step, in which the gumball has fallen further.
+        PhysicsWorld.Snapshot next = stepped.latestSnapshot();
+        assertNotSame(drawn, next);
+        assertEquals(1, next.count);
+        assertTrue(next.y[0] < y);
+    }
+
+    /** Waits for the simulation thread to reach the state, and returns it. */
+    private static Thread awaitState(Thread.State state) throws InterruptedException {
+        Thread thread = null;
+        for (int i = 0; i < 200; i++) {
+            for (Thread candidate : Thread.getAllStackTraces().keySet()) {
+                if ("GumballPhysics".equals(candidate.getName()) && candidate.isAlive()) {
+                    thread = candidate;
+                }
+            }
+            if (thread != null && thread.getState() == state) {
+                return thread;
+            }
+            Thread.sleep(5);
+        }
+        assertNotNull(thread);
+        assertEquals(state, thread.getState());
+        return thread;
+    }
+}
@@ -15,15 +15,13 @@
  */
 package com.google.android.apps.santatracker.doodles.penguinswim;
 
-import android.content.Context;
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.Debug;
 import com.google.android.apps.santatracker.doodles.shared.Touchable;
 import com.google.android.apps.santatracker.doodles.shared.Vector2D;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
 import com.google.android.apps.santatracker.doodles.shared.actor.SpriteActor;
-import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.physics.Polygon;
 import com.google.android.apps.santatracker.doodles.shared.physics.Util;
 import com.google.android.apps.santatracker.util.SantaLog;
@@ -92,7 +90,7 @@ public class BoundingBoxSpriteActor extends CollisionActor implements Touchable
     }
 
     public static BoundingBoxSpriteActor create(
-            Vector2D position, String type, Resources resources) {
+            Vector2D position, String type, SpriteLoader sprites) {
         if (!TYPE_TO_RESOURCE_MAP.containsKey(type)) {
             SantaLog.e(TAG, "Unknown object type: " + type);
             return null;
@@ -101,13 +99,13 @@ public class BoundingBoxSpriteActor extends CollisionActor implements Touchable
 
         BoundingBoxSpriteActor actor;
         if (type.equals(HAND_GRAB)) {
-            actor = HandGrabActor.create(position, resources);
+            actor = HandGrabActor.create(position, sprites);
         } else {
             actor =
                     new BoundingBoxSpriteActor(
                             getBoundingBox(position, data.vertexOffsets, SCALE),
                             new SpriteActor(
-                                    AnimatedSprite.fromFrames(resources, data.resIds),
+                                    sprites.fromSheet(data.resIds),
                                     Vector2D.get(position),
                                     Vector2D.get(0, 0)),
                             Vector2D.get(data.spriteOffset),
@@ -123,12 +121,12 @@ public class BoundingBoxSpriteActor extends CollisionActor implements Touchable
         return actor;
     }
 
-    public static BoundingBoxSpriteActor fromJSON(JSONObject json, Context context)
+    public static BoundingBoxSpriteActor fromJSON(JSONObject json, SpriteLoader sprites)
             throws JSONException {
         String type = json.getString(Actor.TYPE_KEY);
         Vector2D position =
                 Vector2D.get((float) json.getDouble(X_KEY), (float) json.getDouble(Y_KEY));
-        return create(position, type, context.getResources());
+        return create(position, type, sprites);
     }
 
     protected static Polygon getBoundingBox(
@@ -164,7 +162,7 @@ public class BoundingBoxSpriteActor extends CollisionActor implements Touchable
     @Override
     public boolean canHandleTouchAt(Vector2D worldCoords, float cameraScale) {
         Vector2D lowerRight =
-                Vector2D.get(position)
+                Vector2D.scratch(position)
                         .add(spriteOffset)
                         .add(
                                 spriteActor.sprite.frameWidth * scale,
@@ -172,9 +170,9 @@ public class BoundingBoxSpriteActor extends CollisionActor implements Touchable
         boolean retVal =
                 super.canHandleTouchAt(worldCoords, cameraScale)
                         || Util.pointIsWithinBounds(
-                                Vector2D.get(position).add(spriteOffset), lowerRight, worldCoords);
-
-        lowerRight.release();
+                                Vector2D.scratch(position).add(spriteOffset),
+                                lowerRight,
+                                worldCoords);
         return retVal;
     }
 
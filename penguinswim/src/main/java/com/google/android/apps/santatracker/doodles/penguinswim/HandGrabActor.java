@@ -15,13 +15,13 @@
  */
 package com.google.android.apps.santatracker.doodles.penguinswim;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.EventBus;
 import com.google.android.apps.santatracker.doodles.shared.Vector2D;
 import com.google.android.apps.santatracker.doodles.shared.actor.MultiSpriteActor;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite.AnimatedSpriteListener;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.physics.Polygon;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,7 +32,7 @@ public class HandGrabActor extends BoundingBoxSpriteActor {
     private static final String LEMON_GRAB_SPRITE = "lemon grab";
     private static final String LEMON_GRAB_SPRITE_FLIPPED = "lemon grab flipped";
 
-    private static final float COLLISION_DISTANCE_THRESHOLD = 100;
+    static final float COLLISION_DISTANCE_THRESHOLD = 100;
     private static final Vector2D[] VERTEX_OFFSETS = {
         Vector2D.get(0, 0),
         Vector2D.get(110f, 0),
@@ -59,18 +59,17 @@ public class HandGrabActor extends BoundingBoxSpriteActor {
         scale = SwimmerActor.SWIMMER_SCALE;
     }
 
-    public static HandGrabActor create(Vector2D position, Resources res) {
+    public static HandGrabActor create(Vector2D position, SpriteLoader sprites) {
         Map<String, AnimatedSprite> spriteMap = new HashMap<>();
         boolean shouldFlip = position.x + VERTEX_OFFSETS[1].x / 2 < SwimmingModel.LEVEL_WIDTH / 2;
 
         AnimatedSprite lemonGrabSprite =
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_canegrab);
+                sprites.fromSheet(PenguinSwimSprites.penguin_swim_canegrab);
         lemonGrabSprite.setLoop(false);
         lemonGrabSprite.setFlippedX(shouldFlip);
 
         spriteMap.put(LEMON_GRAB_SPRITE, lemonGrabSprite);
-        spriteMap.put(
-                X_SPRITE, AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_candy));
+        spriteMap.put(X_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_candy));
 
         MultiSpriteActor spriteActor =
                 new MultiSpriteActor(spriteMap, X_SPRITE, position, Vector2D.get(0, 0));
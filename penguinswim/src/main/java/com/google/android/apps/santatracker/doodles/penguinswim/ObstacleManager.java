@@ -15,8 +15,10 @@
  */
 package com.google.android.apps.santatracker.doodles.penguinswim;
 
-import android.content.Context;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
+import com.google.android.apps.santatracker.doodles.shared.physics.Polygon;
+import com.google.android.apps.santatracker.doodles.shared.physics.SpatialHashGrid;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,15 +28,23 @@ public class ObstacleManager extends Actor {
     private static final String TAG = ObstacleManager.class.getSimpleName();
     private static final int NUM_INITIAL_CHUNKS = 4;
     private static final int RETAIN_THRESHOLD = 2000;
+    // Hand grabs collide when the swimmer is near them rather than overlapping them, so look this
+    // far around the swimmer for collision candidates.
+    private static final float COLLISION_QUERY_MARGIN = HandGrabActor.COLLISION_DISTANCE_THRESHOLD;
 
     private LinkedList<SwimmingLevelChunk> levelChunks;
     private SwimmerActor swimmer;
+    private final SpatialHashGrid<BoundingBoxSpriteActor> obstacleGrid;
+    private final List<BoundingBoxSpriteActor> nearbyObstacles = new ArrayList<>();
 
-    public ObstacleManager(SwimmerActor swimmer, Context context) {
+    public ObstacleManager(SwimmerActor swimmer, SpriteLoader sprites) {
         levelChunks = new LinkedList<>();
-        SwimmingLevelChunk.generateAllLevelChunks(-1000, context);
+        obstacleGrid = new SpatialHashGrid<>(SwimmingLevelChunk.OBSTACLE_GRID_CELL_SIZE);
+        SwimmingLevelChunk.generateAllLevelChunks(-1000, sprites);
         for (int i = 1; i < NUM_INITIAL_CHUNKS; i++) {
-            levelChunks.add(SwimmingLevelChunk.getNextChunk());
+            SwimmingLevelChunk chunk = SwimmingLevelChunk.getNextChunk();
+            levelChunks.add(chunk);
+            chunk.addObstaclesTo(obstacleGrid);
         }
         this.swimmer = swimmer;
         zIndex = 1;
@@ -53,18 +63,28 @@ public class ObstacleManager extends Actor {
                 SwimmingLevelChunk nextChunk = SwimmingLevelChunk.getNextChunk();
                 if (nextChunk != null) {
                     levelChunks.add(nextChunk);
+                    nextChunk.addObstaclesTo(obstacleGrid);
                 }
             }
 
             if (levelChunks.getFirst().endY - swimmer.position.y > RETAIN_THRESHOLD) {
-                levelChunks.remove(0);
+                levelChunks.remove(0).removeObstaclesFrom(obstacleGrid);
             }
         }
     }
 
     public void resolveCollisions(SwimmerActor swimmer, float deltaMs) {
-        for (int i = 0; i < levelChunks.size(); i++) {
-            levelChunks.get(i).resolveCollisions(swimmer, deltaMs);
+        // Only the obstacles around the swimmer can collide with it, so skip the rest of the live
+        // chunks entirely.
+        Polygon body = swimmer.collisionBody;
+        obstacleGrid.query(
+                body.min.x - COLLISION_QUERY_MARGIN,
+                body.min.y - COLLISION_QUERY_MARGIN,
+                body.max.x + COLLISION_QUERY_MARGIN,
+                body.max.y + COLLISION_QUERY_MARGIN,
+                nearbyObstacles);
+        for (int i = 0; i < nearbyObstacles.size(); i++) {
+            nearbyObstacles.get(i).resolveCollision(swimmer, deltaMs);
         }
     }
 
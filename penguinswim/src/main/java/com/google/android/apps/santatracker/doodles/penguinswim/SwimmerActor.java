@@ -15,7 +15,6 @@
  */
 package com.google.android.apps.santatracker.doodles.penguinswim;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.CallbackProcess;
 import com.google.android.apps.santatracker.doodles.shared.Debug;
@@ -26,6 +25,7 @@ import com.google.android.apps.santatracker.doodles.shared.WaitProcess;
 import com.google.android.apps.santatracker.doodles.shared.actor.MultiSpriteActor;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite.AnimatedSpriteListener;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.physics.Polygon;
 import com.google.android.apps.santatracker.doodles.shared.physics.Util;
 import com.google.android.apps.santatracker.doodles.shared.views.GameFragment;
@@ -191,61 +191,52 @@ public class SwimmerActor extends BoundingBoxSpriteActor {
     }
 
     public static final SwimmerActor create(
-            Vector2D position, Resources res, final GameFragment gameFragment) {
+            Vector2D position, SpriteLoader sprites, final GameFragment gameFragment) {
         if (gameFragment.isDestroyed) {
             return null;
         }
         Map<String, AnimatedSprite> spriteMap = new HashMap<>();
         spriteMap.put(
-                KICKOFF_IDLE_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_idle));
+                KICKOFF_IDLE_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_idle));
         if (gameFragment.isDestroyed) {
             return null;
         }
         spriteMap.put(
-                KICKOFF_START_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_start));
+                KICKOFF_START_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_start));
         if (gameFragment.isDestroyed) {
             return null;
         }
-        spriteMap.put(
-                RINGS_SPRITE, AnimatedSprite.fromFrames(res, PenguinSwimSprites.swimming_rings));
+        spriteMap.put(RINGS_SPRITE, sprites.fromSheet(PenguinSwimSprites.swimming_rings));
         if (gameFragment.isDestroyed) {
             return null;
         }
         spriteMap.put(
-                SWIM_LOOP_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_swimming));
+                SWIM_LOOP_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_swimming));
         if (gameFragment.isDestroyed) {
             return null;
         }
         spriteMap.put(
-                CAN_COLLIDE_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_dazed));
+                CAN_COLLIDE_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_dazed));
         if (gameFragment.isDestroyed) {
             return null;
         }
-        spriteMap.put(
-                FREEZE_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_frozen));
+        spriteMap.put(FREEZE_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_frozen));
         if (gameFragment.isDestroyed) {
             return null;
         }
         spriteMap.put(
-                DIVE_DOWN_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_descending));
+                DIVE_DOWN_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_descending));
         if (gameFragment.isDestroyed) {
             return null;
         }
         spriteMap.put(
                 UNDER_LOOP_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_swimmingunderwater));
+                sprites.fromSheet(PenguinSwimSprites.penguin_swim_swimmingunderwater));
         if (gameFragment.isDestroyed) {
             return null;
         }
         spriteMap.put(
-                RISE_UP_SPRITE,
-                AnimatedSprite.fromFrames(res, PenguinSwimSprites.penguin_swim_ascending));
+                RISE_UP_SPRITE, sprites.fromSheet(PenguinSwimSprites.penguin_swim_ascending));
         if (gameFragment.isDestroyed) {
             return null;
         }
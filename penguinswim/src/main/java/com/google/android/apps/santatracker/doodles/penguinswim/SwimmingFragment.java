@@ -134,8 +134,6 @@ public class SwimmingFragment extends GameFragment
             return null;
         }
 
-        levelManager = new SwimmingLevelManager(context);
-
         wrapper = new FrameLayout(context);
         return wrapper;
     }
@@ -152,6 +150,7 @@ public class SwimmingFragment extends GameFragment
                 new FrameLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
 
         final SwimmingFragment that = this;
+        levelManager = new SwimmingLevelManager(context, spriteLoader);
         scoreView = getScoreView();
         pauseView = getPauseView();
 
@@ -589,12 +588,12 @@ public class SwimmingFragment extends GameFragment
                 Vector2D.get(0, 0), Vector2D.get(SwimmingModel.LEVEL_WIDTH, 0));
         newLevel.playCount = playCount++;
         newLevel.locale = getResources().getConfiguration().locale;
+        newLevel.sprites = spriteLoader;
 
         if (isDestroyed) {
             return;
         }
-        SwimmerActor swimmer =
-                SwimmerActor.create(Vector2D.get(0, 0), context.getResources(), this);
+        SwimmerActor swimmer = SwimmerActor.create(Vector2D.get(0, 0), spriteLoader, this);
         if (swimmer == null) {
             return;
         }
@@ -609,8 +608,7 @@ public class SwimmingFragment extends GameFragment
 
         SpriteActor banner =
                 new SpriteActor(
-                        AnimatedSprite.fromFrames(
-                                context.getResources(), PenguinSwimSprites.penguin_swim_banner),
+                        spriteLoader.fromSheet(PenguinSwimSprites.penguin_swim_banner),
                         Vector2D.get(SwimmingModel.LEVEL_WIDTH / 2, startingBlock.position.y),
                         Vector2D.get());
         banner.scale = 2;
@@ -632,7 +630,7 @@ public class SwimmingFragment extends GameFragment
         if (isDestroyed) {
             return;
         }
-        ObstacleManager obstacleManager = new ObstacleManager(swimmer, context);
+        ObstacleManager obstacleManager = new ObstacleManager(swimmer, spriteLoader);
         newLevel.addActor(obstacleManager);
 
         newLevel.camera.position.y = -newLevel.camera.toWorldScale(newLevel.screenHeight);
@@ -640,11 +638,10 @@ public class SwimmingFragment extends GameFragment
         // swimming.
 
         AnimatedSprite swimmingTutorialSprite =
-                AnimatedSprite.fromFrames(
-                        context.getResources(), PenguinSwimSprites.tutorial_swimming);
+                spriteLoader.fromSheet(PenguinSwimSprites.tutorial_swimming);
         swimmingTutorialSprite.setFPS(6);
         RectangularInstructionActor instructions =
-                new RectangularInstructionActor(context.getResources(), swimmingTutorialSprite);
+                new RectangularInstructionActor(spriteLoader, swimmingTutorialSprite);
         instructions.hidden = true;
         instructions.scale = (newLevel.screenWidth * 0.6f) / instructions.rectangle.frameWidth;
         // Put instructions at top right, slightly below pause button.
@@ -15,7 +15,6 @@
  */
 package com.google.android.apps.santatracker.doodles.penguinswim;
 
-import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
@@ -26,7 +25,9 @@ import android.graphics.Paint;
 import com.google.android.apps.santatracker.doodles.Config;
 import com.google.android.apps.santatracker.doodles.shared.Vector2D;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.physics.Polygon;
+import com.google.android.apps.santatracker.doodles.shared.physics.SpatialHashGrid;
 import com.google.android.apps.santatracker.doodles.shared.physics.Util;
 import com.google.android.apps.santatracker.util.SantaLog;
 import java.util.ArrayList;
@@ -43,6 +44,8 @@ public class SwimmingLevelChunk extends Actor {
     public static final int NUM_COLS = 50;
     public static final float COL_WIDTH = SwimmingModel.LEVEL_WIDTH / (float) NUM_COLS;
     public static final float ROW_HEIGHT = CHUNK_HEIGHT / (float) NUM_ROWS;
+    // One lane wide. Obstacles are narrower than a lane, so each one lands in at most four cells.
+    static final float OBSTACLE_GRID_CELL_SIZE = SwimmingModel.LEVEL_WIDTH / 5f;
     private static final String TAG = SwimmingLevelChunk.class.getSimpleName();
     private static final int SOLUTION_PATH_NUM_COLS = 50;
     private static final Random RANDOM = new Random();
@@ -65,7 +68,7 @@ public class SwimmingLevelChunk extends Actor {
     private boolean mirrored;
 
     private SwimmingLevelChunk(
-            float startY, SolutionPath solutionPath, boolean mirrored, Context context) {
+            float startY, SolutionPath solutionPath, boolean mirrored, SpriteLoader sprites) {
 
         // Get swimming obstacle density from config
         Config config = new Config();
@@ -74,28 +77,28 @@ public class SwimmingLevelChunk extends Actor {
         this.solutionPath = solutionPath;
         this.mirrored = mirrored;
         this.startY = startY;
-        generateObstacles(context);
+        generateObstacles(sprites);
         removeObstaclesFromSolutionPath(startY);
         this.endY = startY - solutionPath.getChunkHeight();
     }
 
-    public static SwimmingLevelChunk create(float startY, Context context) {
+    public static SwimmingLevelChunk create(float startY, SpriteLoader sprites) {
         if (pathList == null || pathList.size() == 0) {
-            loadChunkTemplates(context.getResources());
+            loadChunkTemplates(sprites.getResources());
         }
         // Increase the probability that the random chunk will be a "middle open" chunk.
         int pathIndex = Math.min(pathList.size() - 1, RANDOM.nextInt(pathList.size() + 1));
         SolutionPath solutionPath = pathList.get(pathIndex);
-        return new SwimmingLevelChunk(startY, solutionPath, RANDOM.nextBoolean(), context);
+        return new SwimmingLevelChunk(startY, solutionPath, RANDOM.nextBoolean(), sprites);
     }
 
-    public static void generateAllLevelChunks(float startY, Context context) {
+    public static void generateAllLevelChunks(float startY, SpriteLoader sprites) {
         long startTime = System.currentTimeMillis();
         swimmingLevelChunks = new LinkedList<>();
-        SwimmingLevelChunk chunk = create(startY, context);
+        SwimmingLevelChunk chunk = create(startY, sprites);
         while (SwimmingModel.getMetersFromWorldY(chunk.endY) < LEVEL_LENGTH_IN_METERS) {
             swimmingLevelChunks.add(chunk);
-            chunk = create(chunk.endY, context);
+            chunk = create(chunk.endY, sprites);
         }
         SantaLog.d(
                 TAG,
@@ -151,14 +154,26 @@ public class SwimmingLevelChunk extends Actor {
         }
     }
 
-    public void resolveCollisions(SwimmerActor swimmer, float deltaMs) {
+    public void addObstaclesTo(SpatialHashGrid<BoundingBoxSpriteActor> grid) {
         for (int i = 0; i < obstacles.size(); i++) {
-            obstacles.get(i).resolveCollision(swimmer, deltaMs);
+            BoundingBoxSpriteActor obstacle = obstacles.get(i);
+            grid.insert(obstacle, obstacle.collisionBody);
+        }
+    }
+
+    public void removeObstaclesFrom(SpatialHashGrid<BoundingBoxSpriteActor> grid) {
+        for (int i = 0; i < obstacles.size(); i++) {
+            grid.remove(obstacles.get(i));
         }
     }
 
-    private void generateObstacles(Context context) {
+    private void generateObstacles(SpriteLoader sprites) {
         obstacles = new ArrayList<>();
+        // Only used to reject overlapping obstacles while placing them, so that each placement
+        // checks its neighbours rather than every obstacle placed so far.
+        SpatialHashGrid<BoundingBoxSpriteActor> placed =
+                new SpatialHashGrid<>(OBSTACLE_GRID_CELL_SIZE);
+        List<BoundingBoxSpriteActor> neighbours = new ArrayList<>();
         for (int i = 0; i < solutionPath.getNumRows() * DEFAULT_OBSTACLE_DENSITY; i++) {
             float x = RANDOM.nextInt((4 * SwimmingModel.LEVEL_WIDTH) / 5);
             float y =
@@ -193,12 +208,12 @@ public class SwimmingLevelChunk extends Actor {
             }
 
             BoundingBoxSpriteActor obstacle =
-                    BoundingBoxSpriteActor.create(
-                            Vector2D.get(x, y), TYPES.get(type), context.getResources());
+                    BoundingBoxSpriteActor.create(Vector2D.get(x, y), TYPES.get(type), sprites);
             Polygon obstacleBody = obstacle.collisionBody;
             boolean shouldAdd = true;
-            for (int j = 0; j < obstacles.size(); j++) {
-                Polygon otherBody = obstacles.get(j).collisionBody;
+            placed.query(obstacleBody, neighbours);
+            for (int j = 0; j < neighbours.size(); j++) {
+                Polygon otherBody = neighbours.get(j).collisionBody;
                 if (Util.rectIntersectsRect(
                         otherBody.min.x,
                         otherBody.min.y,
@@ -213,6 +228,7 @@ public class SwimmingLevelChunk extends Actor {
             }
             if (shouldAdd) {
                 obstacles.add(obstacle);
+                placed.insert(obstacle, obstacleBody);
             }
         }
     }
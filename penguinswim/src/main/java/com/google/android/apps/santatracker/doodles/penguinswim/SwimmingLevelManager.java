@@ -19,6 +19,7 @@ import android.content.Context;
 import android.os.Environment;
 import com.google.android.apps.santatracker.doodles.shared.Vector2D;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.util.SantaLog;
 import java.io.File;
 import java.util.ArrayList;
@@ -32,8 +33,11 @@ public class SwimmingLevelManager extends LevelManager<SwimmingModel> {
     private static final int DEFAULT_OBSTACLE_Y = -1000;
     public static File levelsDir = null;
 
-    public SwimmingLevelManager(Context context) {
+    private final SpriteLoader sprites;
+
+    public SwimmingLevelManager(Context context, SpriteLoader sprites) {
         super(context);
+        this.sprites = sprites;
     }
 
     @Override
@@ -45,8 +49,7 @@ public class SwimmingLevelManager extends LevelManager<SwimmingModel> {
             int x = i * SwimmingModel.LEVEL_WIDTH / types.size();
             int y = DEFAULT_OBSTACLE_Y;
             BoundingBoxSpriteActor obstacle =
-                    BoundingBoxSpriteActor.create(
-                            Vector2D.get(x, y), types.get(i), context.getResources());
+                    BoundingBoxSpriteActor.create(Vector2D.get(x, y), types.get(i), sprites);
             model.addActor(obstacle);
         }
         return model;
@@ -65,7 +68,7 @@ public class SwimmingLevelManager extends LevelManager<SwimmingModel> {
         String type = json.getString(Actor.TYPE_KEY);
         Actor actor = null;
         if (BoundingBoxSpriteActor.TYPE_TO_RESOURCE_MAP.containsKey(type)) {
-            actor = BoundingBoxSpriteActor.fromJSON(json, context);
+            actor = BoundingBoxSpriteActor.fromJSON(json, sprites);
         } else {
             SantaLog.w(TAG, "Unable to create object of type: " + type);
         }
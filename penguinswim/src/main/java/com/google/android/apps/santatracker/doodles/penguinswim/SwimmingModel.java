@@ -17,7 +17,6 @@ package com.google.android.apps.santatracker.doodles.penguinswim;
 
 import android.animation.ValueAnimator;
 import android.animation.ValueAnimator.AnimatorUpdateListener;
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.os.Build;
 import android.os.Vibrator;
@@ -36,6 +35,7 @@ import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
 import com.google.android.apps.santatracker.doodles.shared.actor.Camera;
 import com.google.android.apps.santatracker.doodles.shared.actor.CameraShake;
 import com.google.android.apps.santatracker.doodles.shared.actor.RectangularInstructionActor;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.physics.Util;
 import java.text.NumberFormat;
 import java.util.ArrayList;
@@ -72,6 +72,8 @@ public class SwimmingModel implements TiltModel, EventBusListener {
     public ObstacleManager obstacleManager;
     public Vibrator vibrator;
     public Locale locale;
+    // Loads the sprites of the actors created in the level editor.
+    public SpriteLoader sprites;
     public int distanceMeters;
     public int currentScoreThreshold = 0;
 
@@ -308,9 +310,9 @@ public class SwimmingModel implements TiltModel, EventBusListener {
         }
     }
 
-    public void createActor(Vector2D position, String objectType, Resources resources) {
+    public void createActor(Vector2D position, String objectType) {
         if (BoundingBoxSpriteActor.TYPE_TO_RESOURCE_MAP.containsKey(objectType)) {
-            actors.add(BoundingBoxSpriteActor.create(position, objectType, resources));
+            actors.add(BoundingBoxSpriteActor.create(position, objectType, sprites));
         }
     }
 
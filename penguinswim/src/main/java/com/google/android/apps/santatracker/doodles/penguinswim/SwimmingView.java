@@ -269,7 +269,7 @@ public class SwimmingView extends View {
                                     if (model == null) {
                                         throw new IllegalStateException();
                                     }
-                                    model.createActor(center, items[which], getResources());
+                                    model.createActor(center, items[which]);
                                 }
                             });
             return builder.create();
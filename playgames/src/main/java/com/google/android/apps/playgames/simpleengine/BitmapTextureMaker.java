@@ -17,10 +17,15 @@
 package com.google.android.apps.playgames.simpleengine;
 
 import android.content.Context;
+import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.view.WindowManager;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 
 class BitmapTextureMaker implements Runnable {
 
@@ -31,6 +36,15 @@ class BitmapTextureMaker implements Runnable {
     private Context mContext = null;
     private int mScreenWidth = 0;
     private int mScreenHeight = 0;
+    private int mDensityDpi = 0;
+
+    // Packed atlases from earlier launches are kept here, named after their cache key. Only the
+    // most recently used few are kept, since each one is several megabytes.
+    private static final String ATLAS_CACHE_DIR = "texture_atlas";
+    private static final int MAX_CACHED_ATLASES = 4;
+
+    // The loaded bitmaps, packed into pages. Non null once loading has finished.
+    private TextureAtlas mAtlas = null;
 
     private ArrayList<BitmapEntry> mEntries = new ArrayList<BitmapEntry>();
 
@@ -58,6 +72,7 @@ class BitmapTextureMaker implements Runnable {
         WindowManager wm = (WindowManager) mContext.getSystemService(Context.WINDOW_SERVICE);
         mScreenWidth = wm.getDefaultDisplay().getWidth();
         mScreenHeight = wm.getDefaultDisplay().getHeight();
+        mDensityDpi = mContext.getResources().getDisplayMetrics().densityDpi;
         Logger.d(
                 "Starting async load of bitmaps. Screen dimensions "
                         + mScreenWidth
@@ -92,14 +107,101 @@ class BitmapTextureMaker implements Runnable {
 
     @Override
     public void run() {
-        for (BitmapEntry e : mEntries) {
-            loadBitmapEntry(e);
+        String cacheKey = getCacheKey();
+        File cacheFile = null;
+        if (cacheKey != null) {
+            cacheFile =
+                    new File(
+                            new File(mContext.getCacheDir(), ATLAS_CACHE_DIR),
+                            "atlas_" + Integer.toHexString(cacheKey.hashCode()));
+            mAtlas = TextureAtlas.readFrom(cacheFile, cacheKey);
+        }
+
+        if (mAtlas != null) {
+            Logger.d("Loaded texture atlas from " + cacheFile + ", skipping bitmap decoding.");
+            cacheFile.setLastModified(System.currentTimeMillis());
+        } else {
+            ArrayList<Bitmap> bitmaps = new ArrayList<Bitmap>(mEntries.size());
+            for (BitmapEntry e : mEntries) {
+                loadBitmapEntry(e);
+                bitmaps.add(e.bitmap);
+                // the atlas owns (and recycles) the bitmap from here on
+                e.bitmap = null;
+            }
+            mAtlas = TextureAtlas.pack(bitmaps);
+            if (cacheFile != null) {
+                saveAtlas(cacheFile, cacheKey);
+            }
         }
         mContext = null;
         mFinishedLoading = true;
         Logger.d("Finished loading bitmaps.");
     }
 
+    /**
+     * Returns a key identifying everything the packed atlas depends on: the requested images, the
+     * screen they were scaled for and the installed version of the app (whose resources may have
+     * changed since the last launch). Returns null if the key can't be determined, in which case
+     * the atlas isn't cached.
+     */
+    private String getCacheKey() {
+        long installTime;
+        try {
+            installTime =
+                    mContext.getPackageManager()
+                            .getPackageInfo(mContext.getPackageName(), 0)
+                            .lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            Logger.w("Can't find own package info, not caching texture atlas.");
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(installTime)
+                .append('/')
+                .append(mScreenWidth)
+                .append('x')
+                .append(mScreenHeight)
+                .append('@')
+                .append(mDensityDpi);
+        for (BitmapEntry e : mEntries) {
+            sb.append('/').append(e.resId);
+            sb.append(':').append(e.dimType);
+            sb.append(':').append(e.maxDim);
+        }
+        return sb.toString();
+    }
+
+    private void saveAtlas(File cacheFile, String cacheKey) {
+        File dir = cacheFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Logger.w("Can't create texture atlas cache directory " + dir);
+            return;
+        }
+        try {
+            mAtlas.writeTo(cacheFile, cacheKey);
+            Logger.d("Saved texture atlas to " + cacheFile);
+        } catch (IOException e) {
+            Logger.w("Couldn't save texture atlas to " + cacheFile + ": " + e);
+            cacheFile.delete();
+        }
+
+        File[] cached = dir.listFiles();
+        if (cached != null && cached.length > MAX_CACHED_ATLASES) {
+            // oldest first
+            Arrays.sort(
+                    cached,
+                    new Comparator<File>() {
+                        @Override
+                        public int compare(File a, File b) {
+                            return Long.compare(a.lastModified(), b.lastModified());
+                        }
+                    });
+            for (int i = 0; i < cached.length - MAX_CACHED_ATLASES; i++) {
+                cached[i].delete();
+            }
+        }
+    }
+
     void loadBitmapEntry(BitmapEntry e) {
         Logger.d("Loading bitmap entry " + e.toString());
 
@@ -172,15 +274,16 @@ class BitmapTextureMaker implements Runnable {
         return mStartedLoading;
     }
 
-    public Bitmap getBitmap(int index) {
+    /**
+     * Returns the loaded bitmaps packed into an atlas. Bitmap number i of the atlas is the one
+     * requested with {@link #getTag getTag(i)}.
+     */
+    public TextureAtlas getAtlas() {
         if (!mFinishedLoading) {
-            Logger.e("Can't call getBitmap before BitmapTextureMaker is finished loading.");
+            Logger.e("Can't call getAtlas before BitmapTextureMaker is finished loading.");
             return null;
         }
-        if (index < 0 || index >= mEntries.size()) {
-            return null;
-        }
-        return mEntries.get(index).bitmap;
+        return mAtlas;
     }
 
     public int getBitmapCount() {
@@ -199,5 +302,9 @@ class BitmapTextureMaker implements Runnable {
                 e.bitmap = null;
             }
         }
+        if (mAtlas != null) {
+            mAtlas.dispose();
+            mAtlas = null;
+        }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.playgames.simpleengine;
+
+/**
+ * Ring buffer of input records, passed from one producer thread (the UI thread) to one consumer
+ * thread (the game thread) without locking or allocating. Each record is {@link #INTS} ints and
+ * {@link #FLOATS} floats, stored in arrays which are allocated up front.
+ *
+ * <p>The producer writes a record with {@link #offer}, or with {@link #offerReserved} for records
+ * which must not be dropped: those may also use the last slots, which are kept free of the others.
+ * The consumer reads the records with {@link #beginRead}, {@link #getInt} and {@link #getFloat},
+ * then hands their slots back with {@link #endRead}.
+ */
+final class InputQueue {
+    static final int INTS = 2;
+    static final int FLOATS = 4;
+
+    private final int mMask;
+    // most unread records offer() lets in, leaving the rest of the slots to offerReserved()
+    private final int mUnreservedLimit;
+    private final int[] mInts;
+    private final float[] mFloats;
+
+    // number of records ever written and read. They only ever grow, and may wrap around; only
+    // their difference matters. Writing them publishes the records (or slots) to the other thread.
+    private volatile int mWritten = 0;
+    private volatile int mRead = 0;
+    // mRead as of beginRead(), so that reading the records doesn't read the volatile each time.
+    // Consumer thread only.
+    private int mReadBase = 0;
+
+    /**
+     * @param capacity maximum number of unread records. Must be a power of two.
+     * @param reserved number of slots only {@link #offerReserved} may use, less than capacity.
+     */
+    InputQueue(int capacity, int reserved) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        if (reserved < 0 || reserved >= capacity) {
+            throw new IllegalArgumentException("Reserved slots out of range: " + reserved);
+        }
+        mMask = capacity - 1;
+        mUnreservedLimit = capacity - reserved;
+        mInts = new int[capacity * INTS];
+        mFloats = new float[capacity * FLOATS];
+    }
+
+    /**
+     * Adds a record, unless only the reserved slots are left. Producer thread only.
+     *
+     * @return false if the queue is full, in which case the record is dropped.
+     */
+    boolean offer(int i0, int i1, float f0, float f1, float f2, float f3) {
+        return offer(mUnreservedLimit, i0, i1, f0, f1, f2, f3);
+    }
+
+    /**
+     * Adds a record, using the reserved slots if need be. Producer thread only.
+     *
+     * @return false if every slot is taken, in which case the record is dropped.
+     */
+    boolean offerReserved(int i0, int i1, float f0, float f1, float f2, float f3) {
+        return offer(mMask + 1, i0, i1, f0, f1, f2, f3);
+    }
+
+    private boolean offer(int limit, int i0, int i1, float f0, float f1, float f2, float f3) {
+        int written = mWritten;
+        if (written - mRead >= limit) {
+            return false;
+        }
+        int slot = written & mMask;
+        mInts[slot * INTS] = i0;
+        mInts[slot * INTS + 1] = i1;
+        mFloats[slot * FLOATS] = f0;
+        mFloats[slot * FLOATS + 1] = f1;
+        mFloats[slot * FLOATS + 2] = f2;
+        mFloats[slot * FLOATS + 3] = f3;
+        mWritten = written + 1;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return mWritten == mRead;
+    }
+
+    /**
+     * Returns the number of records which can be read. Records offered after this call are left for
+     * the next one. Consumer thread only.
+     */
+    int beginRead() {
+        mReadBase = mRead;
+        return mWritten - mReadBase;
+    }
+
+    /** Returns an int of the index-th record since {@link #beginRead}. Consumer thread only. */
+    int getInt(int index, int field) {
+        return mInts[((mReadBase + index) & mMask) * INTS + field];
+    }
+
+    /** Returns a float of the index-th record since {@link #beginRead}. Consumer thread only. */
+    float getFloat(int index, int field) {
+        return mFloats[((mReadBase + index) & mMask) * FLOATS + field];
+    }
+
+    /** Frees the slots of the first count records for the producer. Consumer thread only. */
+    void endRead(int count) {
+        mRead = mReadBase + count;
+    }
+}
@@ -25,6 +25,7 @@ import android.opengl.Matrix;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
 
 public final class Renderer {
@@ -67,6 +68,10 @@ public final class Renderer {
         float aspect; // aspect ratio (width/height), computed when texture is loaded
         int width, height; // computed when texture is loaded
 
+        // region of glTex holding this texture; images share atlas pages, so this is usually
+        // only part of glTex
+        float u0 = 0.0f, v0 = 0.0f, u1 = 1.0f, v1 = 1.0f;
+
         // texture request parameters
         static final int TYPE_IMAGE = 0;
         static final int TYPE_TEXT = 1;
@@ -102,6 +107,7 @@ public final class Renderer {
     private int mLocSampler = -1;
     private int mLocPosition = -1;
     private int mLocTexCoord = -1;
+    private int mLocTexRect = -1;
 
     // quad data
     private static float[] QUAD_GEOM = { // screenX, screenY, z, u, v
@@ -115,6 +121,38 @@ public final class Renderer {
     private final int QUAD_GEOM_TEXCOORD_OFFSET = 3;
     FloatBuffer mQuadGeomBuf = null;
 
+    // shader program for drawing one sprite at a time
+    private int mProgram = 0;
+
+    // Batching: sprites are transformed on the CPU and appended to one vertex buffer, and each run
+    // of consecutive sprites sharing a texture goes out in a single draw call. Sprites are never
+    // reordered to lengthen the runs, since blending depends on drawing them back to front.
+    private boolean mBatchingEnabled = true;
+    private int mBatchProgram = 0;
+    private int mLocBatchMatrix = -1;
+    private int mLocBatchSampler = -1;
+    private int mLocBatchPosition = -1;
+    private int mLocBatchTexCoord = -1;
+    private int mLocBatchColor = -1;
+    private int mLocBatchTintFactor = -1;
+    private static final int MAX_BATCH_QUADS = 1024;
+    // x, y, u, v, r, g, b, a, tintFactor
+    private static final int BATCH_VERTEX_FLOATS = 9;
+    private static final int BATCH_QUAD_FLOATS = 4 * BATCH_VERTEX_FLOATS;
+    private static final int BATCH_STRIDE = BATCH_VERTEX_FLOATS * 4;
+    private static final int BATCH_TEXCOORD_OFFSET = 2;
+    private static final int BATCH_COLOR_OFFSET = 4;
+    private static final int BATCH_TINT_OFFSET = 8;
+    private final float[] mBatchVerts = new float[MAX_BATCH_QUADS * BATCH_QUAD_FLOATS];
+    private FloatBuffer mBatchVertBuf = null;
+    private ShortBuffer mBatchIndexBuf = null;
+    private int mBatchQuads = 0;
+    private int mBatchTex = 0;
+
+    // draw calls issued by the last frame, for profiling
+    private int mDrawCalls = 0;
+    private int mLastFrameDrawCalls = 0;
+
     // projection matrix
     float[] mProjMat = null;
 
@@ -164,6 +202,7 @@ public final class Renderer {
         Logger.d("Program linking log: " + GLES20.glGetProgramInfoLog(program));
 
         Logger.d("Activating shader.");
+        mProgram = program;
         GLES20.glUseProgram(program);
 
         // get locations
@@ -173,6 +212,7 @@ public final class Renderer {
         mLocSampler = GLES20.glGetUniformLocation(program, "u_Sampler");
         mLocPosition = GLES20.glGetAttribLocation(program, "a_Position");
         mLocTexCoord = GLES20.glGetAttribLocation(program, "a_TexCoord");
+        mLocTexRect = GLES20.glGetUniformLocation(program, "u_TexRect");
         Logger.d(
                 "Locations: "
                         + "mLocMatrix="
@@ -191,7 +231,10 @@ public final class Renderer {
                         + mLocPosition
                         + "; "
                         + "mLocTexCoord="
-                        + mLocTexCoord);
+                        + mLocTexCoord
+                        + "; "
+                        + "mLocTexRect="
+                        + mLocTexRect);
 
         ByteBuffer bb = ByteBuffer.allocateDirect(SIZEOF_FLOAT * QUAD_GEOM.length);
         bb.order(ByteOrder.nativeOrder());
@@ -199,6 +242,8 @@ public final class Renderer {
         mQuadGeomBuf.put(QUAD_GEOM);
         mQuadGeomBuf.position(0);
 
+        initBatching();
+
         // set up opengl blending
         GLES20.glEnable(GLES20.GL_BLEND);
 
@@ -208,12 +253,70 @@ public final class Renderer {
         GLES20.glBlendFunc(GLES20.GL_ONE, GLES20.GL_ONE_MINUS_SRC_ALPHA);
     }
 
+    private void initBatching() {
+        Logger.d("Compiling batch shaders.");
+        int vertShader = compileShader(GLES20.GL_VERTEX_SHADER, ShaderSource.BATCH_VERTEX_SHADER);
+        Logger.d("Batch vertex shader compilation log: " + GLES20.glGetShaderInfoLog(vertShader));
+        int fragShader = compileShader(GLES20.GL_FRAGMENT_SHADER, ShaderSource.BATCH_FRAG_SHADER);
+        Logger.d("Batch fragment shader compilation log: " + GLES20.glGetShaderInfoLog(fragShader));
+        mBatchProgram = linkProgram(vertShader, fragShader);
+        Logger.d("Batch program linking log: " + GLES20.glGetProgramInfoLog(mBatchProgram));
+
+        mLocBatchMatrix = GLES20.glGetUniformLocation(mBatchProgram, "u_Matrix");
+        mLocBatchSampler = GLES20.glGetUniformLocation(mBatchProgram, "u_Sampler");
+        mLocBatchPosition = GLES20.glGetAttribLocation(mBatchProgram, "a_Position");
+        mLocBatchTexCoord = GLES20.glGetAttribLocation(mBatchProgram, "a_TexCoord");
+        mLocBatchColor = GLES20.glGetAttribLocation(mBatchProgram, "a_Color");
+        mLocBatchTintFactor = GLES20.glGetAttribLocation(mBatchProgram, "a_TintFactor");
+
+        ByteBuffer vb = ByteBuffer.allocateDirect(SIZEOF_FLOAT * mBatchVerts.length);
+        vb.order(ByteOrder.nativeOrder());
+        mBatchVertBuf = vb.asFloatBuffer();
+
+        // Every quad is two triangles over its four vertices, in the same order as QUAD_GEOM's
+        // triangle strip, so the index buffer never changes.
+        ByteBuffer ib = ByteBuffer.allocateDirect(2 * 6 * MAX_BATCH_QUADS);
+        ib.order(ByteOrder.nativeOrder());
+        mBatchIndexBuf = ib.asShortBuffer();
+        for (int i = 0; i < MAX_BATCH_QUADS; i++) {
+            short first = (short) (i * 4);
+            mBatchIndexBuf.put(first);
+            mBatchIndexBuf.put((short) (first + 1));
+            mBatchIndexBuf.put((short) (first + 2));
+            mBatchIndexBuf.put((short) (first + 2));
+            mBatchIndexBuf.put((short) (first + 1));
+            mBatchIndexBuf.put((short) (first + 3));
+        }
+        mBatchIndexBuf.position(0);
+    }
+
+    /**
+     * Switches between batching sprites into as few draw calls as possible (the default) and
+     * drawing every sprite with its own draw call.
+     */
+    public void setBatchingEnabled(boolean enabled) {
+        mBatchingEnabled = enabled;
+    }
+
+    /** Returns the number of draw calls the last frame took. */
+    public int getLastFrameDrawCalls() {
+        return mLastFrameDrawCalls;
+    }
+
     private void pushTex(int tex) {
         GLES20.glUniform1i(mLocSampler, 0);
         GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, tex);
         GLES20.glBindTexture(GLES20.GL_TEXTURE0, tex);
     }
 
+    private void pushTexRect(TexInfo ti) {
+        if (ti == null) {
+            GLES20.glUniform4f(mLocTexRect, 0.0f, 0.0f, 1.0f, 1.0f);
+        } else {
+            GLES20.glUniform4f(mLocTexRect, ti.u0, ti.v0, ti.u1 - ti.u0, ti.v1 - ti.v0);
+        }
+    }
+
     private void pushColor(float r, float g, float b, float a, float factor) {
         GLES20.glUniform4f(mLocColor, r, g, b, a);
         GLES20.glUniform1f(mLocTintFactor, factor);
@@ -246,6 +349,105 @@ public final class Renderer {
 
         // draw
         GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, QUAD_GEOM_VERTEX_COUNT);
+        mDrawCalls++;
+    }
+
+    private void beginBatch() {
+        GLES20.glUseProgram(mBatchProgram);
+        GLES20.glUniformMatrix4fv(mLocBatchMatrix, 1, false, mProjMat, 0);
+        GLES20.glUniform1i(mLocBatchSampler, 0);
+        GLES20.glEnableVertexAttribArray(mLocBatchPosition);
+        GLES20.glEnableVertexAttribArray(mLocBatchTexCoord);
+        GLES20.glEnableVertexAttribArray(mLocBatchColor);
+        GLES20.glEnableVertexAttribArray(mLocBatchTintFactor);
+        mBatchQuads = 0;
+    }
+
+    private void batchQuad(
+            TexInfo ti,
+            float centerX,
+            float centerY,
+            float width,
+            float height,
+            float rotation,
+            float[] color,
+            float tintFactor) {
+        int tex = 0;
+        float u0 = 0.0f, v0 = 0.0f, u1 = 1.0f, v1 = 1.0f;
+        if (ti != null) {
+            tex = ti.glTex;
+            u0 = ti.u0;
+            v0 = ti.v0;
+            u1 = ti.u1;
+            v1 = ti.v1;
+        }
+        if (mBatchQuads > 0 && (tex != mBatchTex || mBatchQuads == MAX_BATCH_QUADS)) {
+            flushBatch();
+        }
+        mBatchTex = tex;
+
+        // Same transform as drawQuad: scale the unit quad, rotate it counterclockwise by rotation
+        // degrees, then move it to the center. (ax, ay) and (bx, by) are the quad's scaled and
+        // rotated half-width and half-height axes.
+        float cos = 1.0f, sin = 0.0f;
+        if (rotation != 0.0f) {
+            double radians = Math.toRadians(rotation);
+            cos = (float) Math.cos(radians);
+            sin = (float) Math.sin(radians);
+        }
+        float ax = cos * width * 0.5f, ay = sin * width * 0.5f;
+        float bx = -sin * height * 0.5f, by = cos * height * 0.5f;
+
+        int o = mBatchQuads * BATCH_QUAD_FLOATS;
+        o = putBatchVertex(o, centerX - ax - bx, centerY - ay - by, u0, v1, color, tintFactor);
+        o = putBatchVertex(o, centerX + ax - bx, centerY + ay - by, u1, v1, color, tintFactor);
+        o = putBatchVertex(o, centerX - ax + bx, centerY - ay + by, u0, v0, color, tintFactor);
+        putBatchVertex(o, centerX + ax + bx, centerY + ay + by, u1, v0, color, tintFactor);
+        mBatchQuads++;
+    }
+
+    private int putBatchVertex(
+            int offset, float x, float y, float u, float v, float[] color, float tintFactor) {
+        float[] verts = mBatchVerts;
+        verts[offset] = x;
+        verts[offset + 1] = y;
+        verts[offset + 2] = u;
+        verts[offset + 3] = v;
+        verts[offset + 4] = color[0];
+        verts[offset + 5] = color[1];
+        verts[offset + 6] = color[2];
+        verts[offset + 7] = color[3];
+        verts[offset + 8] = tintFactor;
+        return offset + BATCH_VERTEX_FLOATS;
+    }
+
+    private void flushBatch() {
+        if (mBatchQuads == 0) {
+            return;
+        }
+        // One bulk copy into the direct buffer; putting floats one at a time is much slower.
+        mBatchVertBuf.clear();
+        mBatchVertBuf.put(mBatchVerts, 0, mBatchQuads * BATCH_QUAD_FLOATS);
+
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mBatchTex);
+        mBatchVertBuf.position(0);
+        GLES20.glVertexAttribPointer(
+                mLocBatchPosition, 2, GLES20.GL_FLOAT, false, BATCH_STRIDE, mBatchVertBuf);
+        mBatchVertBuf.position(BATCH_TEXCOORD_OFFSET);
+        GLES20.glVertexAttribPointer(
+                mLocBatchTexCoord, 2, GLES20.GL_FLOAT, false, BATCH_STRIDE, mBatchVertBuf);
+        mBatchVertBuf.position(BATCH_COLOR_OFFSET);
+        GLES20.glVertexAttribPointer(
+                mLocBatchColor, 4, GLES20.GL_FLOAT, false, BATCH_STRIDE, mBatchVertBuf);
+        mBatchVertBuf.position(BATCH_TINT_OFFSET);
+        GLES20.glVertexAttribPointer(
+                mLocBatchTintFactor, 1, GLES20.GL_FLOAT, false, BATCH_STRIDE, mBatchVertBuf);
+
+        mBatchIndexBuf.position(0);
+        GLES20.glDrawElements(
+                GLES20.GL_TRIANGLES, mBatchQuads * 6, GLES20.GL_UNSIGNED_SHORT, mBatchIndexBuf);
+        mDrawCalls++;
+        mBatchQuads = 0;
     }
 
     void calcCoordSystemBounds(int surfWidth, int surfHeight, RectF outBounds) {
@@ -297,11 +499,34 @@ public final class Renderer {
     }
 
     void generateImageTextures() {
+        // one GL texture per atlas page, shared by all the images packed into it
+        TextureAtlas atlas = mBitmapTextureMaker.getAtlas();
+        int[] pageTex = new int[atlas.getPageCount()];
+        GLES20.glGenTextures(pageTex.length, pageTex, 0);
+        for (int p = 0; p < pageTex.length; p++) {
+            bitmapToGLTexture(pageTex[p], atlas.getPageBitmap(p));
+        }
+
         int count = mBitmapTextureMaker.getBitmapCount();
         int i;
         for (i = 0; i < count; i++) {
-            int texIndex = mBitmapTextureMaker.getTag(i);
-            generateTexture(texIndex, mBitmapTextureMaker.getBitmap(i));
+            int page = atlas.getPage(i);
+            if (page < 0) {
+                continue;
+            }
+            TexInfo ti = mTexInfo.get(mBitmapTextureMaker.getTag(i));
+            float pageWidth = atlas.getPageBitmap(page).getWidth();
+            float pageHeight = atlas.getPageBitmap(page).getHeight();
+            int left = atlas.getLeft(i), top = atlas.getTop(i);
+
+            ti.glTex = pageTex[page];
+            ti.width = atlas.getWidth(i);
+            ti.height = atlas.getHeight(i);
+            ti.aspect = ti.width / (float) ti.height;
+            ti.u0 = left / pageWidth;
+            ti.v0 = top / pageHeight;
+            ti.u1 = (left + ti.width) / pageWidth;
+            ti.v1 = (top + ti.height) / pageHeight;
         }
         mBitmapTextureMaker.dispose();
         mBitmapTextureMaker = null;
@@ -381,11 +606,21 @@ public final class Renderer {
             // we are still loading textures, so don't render any sprites yet
             return;
         }
+        mDrawCalls = 0;
+        if (mBatchingEnabled) {
+            beginBatch();
+        } else {
+            GLES20.glUseProgram(mProgram);
+        }
         int i, size = mSprites.size();
         for (i = 0; i < size; i++) {
             Sprite s = mSprites.get(i);
             drawSprite(s);
         }
+        if (mBatchingEnabled) {
+            flushBatch();
+        }
+        mLastFrameDrawCalls = mDrawCalls;
     }
 
     private boolean drawSprite(Sprite s) {
@@ -395,16 +630,14 @@ public final class Renderer {
 
         float tintFactor = s.tintFactor;
         TexInfo ti = null;
+        int tex = 0;
         if (s.texIndex >= 0 && s.texIndex < mTexInfo.size()) {
             ti = mTexInfo.get(s.texIndex);
-            pushTex(ti.glTex);
-
+            tex = ti.glTex;
         } else {
-            pushTex(0);
             tintFactor = 1.0f;
         }
         parseColor(s.color, mTmpColor);
-        pushColor(mTmpColor[0], mTmpColor[1], mTmpColor[2], mTmpColor[3], tintFactor);
 
         float width = s.width, height = s.height, x = s.x, y = s.y;
 
@@ -439,7 +672,14 @@ public final class Renderer {
                 y -= height * 0.5f;
             }
         }
-        drawQuad(x, y, width, height, s.rotation);
+        if (mBatchingEnabled) {
+            batchQuad(ti, x, y, width, height, s.rotation, mTmpColor, tintFactor);
+        } else {
+            pushTex(tex);
+            pushTexRect(ti);
+            pushColor(mTmpColor[0], mTmpColor[1], mTmpColor[2], mTmpColor[3], tintFactor);
+            drawQuad(x, y, width, height, s.rotation);
+        }
         return true;
     }
 
@@ -512,7 +752,12 @@ public final class Renderer {
             if (ti.glTex > 0) {
                 arr[0] = ti.glTex;
                 GLES20.glDeleteTextures(1, arr, 0);
-                ti.glTex = 0;
+                // images packed into the same atlas page share its texture; only delete it once
+                for (TexInfo other : mTexInfo) {
+                    if (other.glTex == arr[0]) {
+                        other.glTex = 0;
+                    }
+                }
             }
         }
         mTexInfo.clear();
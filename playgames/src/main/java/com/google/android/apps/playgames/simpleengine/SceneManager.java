@@ -45,25 +45,21 @@ public class SceneManager {
     private boolean mActivityResumed = false;
     private boolean mActivityHasFocus = false;
 
-    // queue of MotionEvents to process from the game thread
-    private ArrayList<OurMotionEvent> mMotionEventQueue = new ArrayList<OurMotionEvent>(32);
-    private ArrayList<OurMotionEvent> mMotionEventRecycle = new ArrayList<OurMotionEvent>(32);
-
-    private ArrayList<OurSensorEvent> mSensorEventQueue = new ArrayList<>(32);
-    private ArrayList<OurSensorEvent> mSensorEventRecycle = new ArrayList<>(32);
-
-    private ArrayList<OurMotionEvent> mTmpMotionEvent = new ArrayList<OurMotionEvent>(32);
-    private ArrayList<OurSensorEvent> mTmpSensorEvent = new ArrayList<>(32);
-    // this flag is raised by the UI thread when it adds something to mMotionEventQueue
-    // and lowered by the game thread when it processes the motion event queue. This flag
-    // should only be modified when mMotionEventQueue is locked; it can be read without
-    // locking.
-    private volatile boolean mCheckMotionEvents = false;
+    // queues of touch and sensor input, written by the UI thread and read by the game thread.
+    // Motion records are (action, pointer ID, screen x, screen y, delta x, delta y) and sensor
+    // records are (accuracy, unused, x, y, unused, unused). Sensors can deliver hundreds of samples
+    // per second, so each has room for about half a second of them; if the game thread stalls for
+    // longer than that, the newest input is dropped. Moves only fill the motion queue up to the
+    // slots reserved for pointers going down and up, so that a flood of moves never makes a scene
+    // miss a press or a release.
+    private static final int INPUT_QUEUE_CAPACITY = 256;
+    private static final int MOTION_QUEUE_RESERVED_FOR_PRESSES = 64;
+    private InputQueue mMotionEventQueue =
+            new InputQueue(INPUT_QUEUE_CAPACITY, MOTION_QUEUE_RESERVED_FOR_PRESSES);
+    private InputQueue mSensorEventQueue = new InputQueue(INPUT_QUEUE_CAPACITY, 0);
 
     private boolean mLargePresentMode = false;
 
-    private volatile boolean mCheckSensorEvents = false;
-
     // last x, y of pointer, keyed by pointer ID
     private SparseArray<PointF> mLastTouchCoords = new SparseArray<PointF>();
 
@@ -181,10 +177,10 @@ public class SceneManager {
         mRenderer.doFrame();
 
         // process touch events
-        if (mCheckMotionEvents) {
+        if (!mMotionEventQueue.isEmpty()) {
             processMotionEvents();
         }
-        if (mCheckSensorEvents) {
+        if (!mSensorEventQueue.isEmpty()) {
             processSensorEvents();
         }
     }
@@ -229,46 +225,44 @@ public class SceneManager {
     public boolean onTouchEvent(MotionEvent event) {
         // we are running on the UI thread, so deliver the event to the queue,
         // where the game thread will pick it up to process
-        synchronized (mMotionEventQueue) {
-            int action = event.getActionMasked();
+        int action = event.getActionMasked();
 
-            // get updates about each pointer in the gesture
-            int i;
-            for (i = 0; i < event.getPointerCount(); i++) {
-                int pointerId = event.getPointerId(i);
-                float x = event.getX(i);
-                float y = event.getY(i);
+        // get updates about each pointer in the gesture
+        int i;
+        for (i = 0; i < event.getPointerCount(); i++) {
+            int pointerId = event.getPointerId(i);
+            float x = event.getX(i);
+            float y = event.getY(i);
 
-                // figure out delta from last touch event
-                float deltaX = x - getLastTouchX(pointerId, x);
-                float deltaY = y - getLastTouchY(pointerId, y);
+            // figure out delta from last touch event
+            float deltaX = x - getLastTouchX(pointerId, x);
+            float deltaY = y - getLastTouchY(pointerId, y);
 
-                // queue the motion event
-                queueMotionEvent(MotionEvent.ACTION_MOVE, pointerId, x, y, deltaX, deltaY);
+            // queue the motion event
+            queueMotionEvent(MotionEvent.ACTION_MOVE, pointerId, x, y, deltaX, deltaY);
 
-                // update last touch coordinates
-                setLastTouchCoords(pointerId, x, y);
-            }
+            // update last touch coordinates
+            setLastTouchCoords(pointerId, x, y);
+        }
 
-            // figure out if a pointer went up or down
-            int id;
-            PointF point;
-            switch (action) {
-                case MotionEvent.ACTION_UP:
-                case MotionEvent.ACTION_POINTER_UP:
-                    id = event.getPointerId(event.getActionIndex());
-                    forgetLastTouchCoords(id);
-                    queueMotionEvent(
-                            MotionEvent.ACTION_UP, id, event.getX(), event.getY(), 0.0f, 0.0f);
-                    break;
-                case MotionEvent.ACTION_DOWN:
-                case MotionEvent.ACTION_POINTER_DOWN:
-                    id = event.getPointerId(event.getActionIndex());
-                    setLastTouchCoords(id, event.getX(), event.getY());
-                    queueMotionEvent(
-                            MotionEvent.ACTION_DOWN, id, event.getX(), event.getY(), 0.0f, 0.0f);
-                    break;
-            }
+        // figure out if a pointer went up or down
+        int id;
+        PointF point;
+        switch (action) {
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_POINTER_UP:
+                id = event.getPointerId(event.getActionIndex());
+                forgetLastTouchCoords(id);
+                queueMotionEvent(
+                        MotionEvent.ACTION_UP, id, event.getX(), event.getY(), 0.0f, 0.0f);
+                break;
+            case MotionEvent.ACTION_DOWN:
+            case MotionEvent.ACTION_POINTER_DOWN:
+                id = event.getPointerId(event.getActionIndex());
+                setLastTouchCoords(id, event.getX(), event.getY());
+                queueMotionEvent(
+                        MotionEvent.ACTION_DOWN, id, event.getX(), event.getY(), 0.0f, 0.0f);
+                break;
         }
         return true;
     }
@@ -316,30 +310,18 @@ public class SceneManager {
 
     private void queueMotionEvent(
             int action, int pointerId, float screenX, float screenY, float deltaX, float deltaY) {
-        OurMotionEvent e =
-                mMotionEventRecycle.size() > 0
-                        ? mMotionEventRecycle.remove(mMotionEventRecycle.size() - 1)
-                        : new OurMotionEvent();
-        e.action = action;
-        e.pointerId = pointerId;
-        e.screenX = screenX;
-        e.screenY = screenY;
-        e.deltaX = deltaX;
-        e.deltaY = deltaY;
-        mMotionEventQueue.add(e);
-        mCheckMotionEvents = true;
+        if (action == MotionEvent.ACTION_MOVE) {
+            // moves are dropped first: losing one only costs a scene part of a drag
+            mMotionEventQueue.offer(action, pointerId, screenX, screenY, deltaX, deltaY);
+        } else if (!mMotionEventQueue.offerReserved(
+                action, pointerId, screenX, screenY, deltaX, deltaY)) {
+            Logger.w("Motion event queue is full, dropping event.");
+        }
     }
 
     private void queueSensorEvent(float x, float y, int accuracy) {
-        OurSensorEvent e =
-                mSensorEventRecycle.size() > 0
-                        ? mSensorEventRecycle.remove(mSensorEventRecycle.size() - 1)
-                        : new OurSensorEvent();
-        e.x = x;
-        e.y = y;
-        e.accuracy = accuracy;
-        mSensorEventQueue.add(e);
-        mCheckSensorEvents = true;
+        // no logging when full: this runs for every sensor sample
+        mSensorEventQueue.offer(accuracy, 0, x, y, 0.0f, 0.0f);
     }
 
     public Renderer getRenderer() {
@@ -352,85 +334,52 @@ public class SceneManager {
 
     private void processSensorEvents() {
         int i;
-        synchronized (mSensorEventQueue) {
-            for (i = 0; i < mSensorEventQueue.size(); i++) {
-                OurSensorEvent e = mSensorEventQueue.get(i);
-                if (e != null) {
-                    mTmpSensorEvent.add(mSensorEventQueue.get(i));
-                }
-            }
-            mSensorEventQueue.clear();
-            mCheckSensorEvents = false;
-        }
-        // process the sensor events
-        for (i = 0; i < mTmpSensorEvent.size(); i++) {
-            processSensorEvent(mTmpSensorEvent.get(i));
-        }
-
-        // recycle the objects
-        synchronized (mSensorEventQueue) {
-            for (i = 0; i < mTmpMotionEvent.size(); i++) {
-                mSensorEventRecycle.add(mTmpSensorEvent.get(i));
-            }
-            mTmpSensorEvent.clear();
-        }
-    }
-
-    private void processSensorEvent(OurSensorEvent e) {
-        if (mCurScene == null) {
-            return;
-        }
-        if (e != null) {
-            mCurScene.onSensorChanged(e.x, e.y, e.accuracy);
+        int count = mSensorEventQueue.beginRead();
+        for (i = 0; i < count && mCurScene != null; i++) {
+            mCurScene.onSensorChanged(
+                    mSensorEventQueue.getFloat(i, 0),
+                    mSensorEventQueue.getFloat(i, 1),
+                    mSensorEventQueue.getInt(i, 0));
         }
+        mSensorEventQueue.endRead(count);
     }
 
     private void processMotionEvents() {
         int i;
-
-        // move array items to our temporary array so we can unlock the original
-        synchronized (mMotionEventQueue) {
-            for (i = 0; i < mMotionEventQueue.size(); i++) {
-                mTmpMotionEvent.add(mMotionEventQueue.get(i));
-            }
-            mMotionEventQueue.clear();
-            mCheckMotionEvents = false;
-        }
-
-        // process the motion events
-        for (i = 0; i < mTmpMotionEvent.size(); i++) {
-            processMotionEvent(mTmpMotionEvent.get(i));
-        }
-
-        // recycle the objects
-        synchronized (mMotionEventQueue) {
-            for (i = 0; i < mTmpMotionEvent.size(); i++) {
-                mMotionEventRecycle.add(mTmpMotionEvent.get(i));
-            }
-            mTmpMotionEvent.clear();
+        int count = mMotionEventQueue.beginRead();
+        for (i = 0; i < count; i++) {
+            processMotionEvent(
+                    mMotionEventQueue.getInt(i, 0),
+                    mMotionEventQueue.getInt(i, 1),
+                    mMotionEventQueue.getFloat(i, 0),
+                    mMotionEventQueue.getFloat(i, 1),
+                    mMotionEventQueue.getFloat(i, 2),
+                    mMotionEventQueue.getFloat(i, 3));
         }
+        mMotionEventQueue.endRead(count);
     }
 
-    private void processMotionEvent(OurMotionEvent event) {
+    private void processMotionEvent(
+            int action, int pointerId, float screenX, float screenY, float deltaX, float deltaY) {
         if (mCurScene == null) {
             return;
         }
 
         // convert the screen coordinates to our standard coordinate system
-        float x = mRenderer.convertScreenX(event.screenX);
-        float y = mRenderer.convertScreenY(event.screenY);
-        float deltaX = mRenderer.convertScreenDeltaX(event.deltaX);
-        float deltaY = mRenderer.convertScreenDeltaY(event.deltaY);
+        float x = mRenderer.convertScreenX(screenX);
+        float y = mRenderer.convertScreenY(screenY);
+        float dx = mRenderer.convertScreenDeltaX(deltaX);
+        float dy = mRenderer.convertScreenDeltaY(deltaY);
 
-        switch (event.action) {
+        switch (action) {
             case MotionEvent.ACTION_DOWN:
-                mCurScene.onPointerDown(event.pointerId, x, y);
+                mCurScene.onPointerDown(pointerId, x, y);
                 break;
             case MotionEvent.ACTION_MOVE:
-                mCurScene.onPointerMove(event.pointerId, x, y, deltaX, deltaY);
+                mCurScene.onPointerMove(pointerId, x, y, dx, dy);
                 break;
             case MotionEvent.ACTION_UP:
-                mCurScene.onPointerUp(event.pointerId, x, y);
+                mCurScene.onPointerUp(pointerId, x, y);
                 break;
         }
     }
@@ -451,18 +400,4 @@ public class SceneManager {
                 break;
         }
     }
-
-    private class OurMotionEvent {
-
-        int action;
-        int pointerId;
-        float screenX, screenY;
-        float deltaX, deltaY;
-    }
-
-    private class OurSensorEvent {
-        float x;
-        float y;
-        int accuracy;
-    }
 }
@@ -31,10 +31,12 @@ public class ShaderSource {
             COMMON_DECLS
                     + "attribute vec4 a_Position;     \n"
                     + "attribute vec2 a_TexCoord;     \n"
+                    // the texture's region of its atlas page: left, top, width, height
+                    + "uniform vec4 u_TexRect;        \n"
                     + "void main()                    \n"
                     + "{                              \n"
                     + "   v_Color = u_Color;          \n"
-                    + "   v_TexCoord = a_TexCoord;    \n"
+                    + "   v_TexCoord = u_TexRect.xy + a_TexCoord * u_TexRect.zw; \n"
                     + "   gl_Position = u_Matrix * a_Position; \n"
                     + "}                              \n";
 
@@ -45,4 +47,36 @@ public class ShaderSource {
                     + "   vec4 c = mix(texture2D(u_Sampler, v_TexCoord), u_Color, u_TintFactor);\n"
                     + "   gl_FragColor = c;\n"
                     + "}\n";
+
+    // Used when batching: each vertex carries its own color and tint factor, and positions are
+    // already transformed into world space, so a whole batch shares the projection matrix.
+    public static final String BATCH_VERTEX_SHADER =
+            "precision mediump float;       \n"
+                    + "uniform mat4 u_Matrix;         \n"
+                    + "attribute vec2 a_Position;     \n"
+                    + "attribute vec2 a_TexCoord;     \n"
+                    + "attribute vec4 a_Color;        \n"
+                    + "attribute float a_TintFactor;  \n"
+                    + "varying vec4 v_Color;          \n"
+                    + "varying vec2 v_TexCoord;       \n"
+                    + "varying float v_TintFactor;    \n"
+                    + "void main()                    \n"
+                    + "{                              \n"
+                    + "   v_Color = a_Color;          \n"
+                    + "   v_TexCoord = a_TexCoord;    \n"
+                    + "   v_TintFactor = a_TintFactor; \n"
+                    + "   gl_Position = u_Matrix * vec4(a_Position, 0.0, 1.0); \n"
+                    + "}                              \n";
+
+    public static final String BATCH_FRAG_SHADER =
+            "precision mediump float;       \n"
+                    + "uniform sampler2D u_Sampler;   \n"
+                    + "varying vec4 v_Color;          \n"
+                    + "varying vec2 v_TexCoord;       \n"
+                    + "varying float v_TintFactor;    \n"
+                    + "void main()                    \n"
+                    + "{                              \n"
+                    + "   vec4 t = texture2D(u_Sampler, v_TexCoord); \n"
+                    + "   gl_FragColor = mix(t, v_Color, v_TintFactor);\n"
+                    + "}\n";
 }
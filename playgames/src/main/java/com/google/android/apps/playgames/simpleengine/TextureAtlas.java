@@ -0,0 +1,346 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.playgames.simpleengine;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A set of images packed into a few large pages, so that sprites drawn with different images can
+ * share one GL texture. Each image keeps the index it was packed with; its location is given by
+ * {@link #getPage}, {@link #getLeft}, {@link #getTop}, {@link #getWidth} and {@link #getHeight}.
+ */
+class TextureAtlas {
+
+    // Pages are never larger than this; 2048 is a safe GL_MAX_TEXTURE_SIZE on the devices we run
+    // on. Images too big for a page get a page of their own.
+    static final int PAGE_SIZE = 2048;
+
+    // Every packed image is surrounded by a copy of its own edge pixels this wide, so linear
+    // filtering at its edges never samples the neighbouring image.
+    static final int PADDING = 1;
+
+    private static final int CACHE_MAGIC = 0x53415441; // "SATA"
+    private static final int CACHE_VERSION = 1;
+
+    private final ArrayList<Bitmap> mPages = new ArrayList<Bitmap>();
+    private final int[] mPage;
+    private final int[] mLeft;
+    private final int[] mTop;
+    private final int[] mWidth;
+    private final int[] mHeight;
+
+    private TextureAtlas(int count) {
+        mPage = new int[count];
+        mLeft = new int[count];
+        mTop = new int[count];
+        mWidth = new int[count];
+        mHeight = new int[count];
+    }
+
+    /**
+     * Packs the given images into pages. The images are recycled once they have been copied into
+     * their page. Null images (e.g. ones that failed to decode) are allowed and get no page.
+     */
+    static TextureAtlas pack(final List<Bitmap> images) {
+        int count = images.size();
+        TextureAtlas atlas = new TextureAtlas(count);
+
+        // Shelf packing: place images left to right along a shelf, tallest first so each shelf is
+        // only as tall as its first image, and start a new shelf (or page) when one is full.
+        ArrayList<Integer> order = new ArrayList<Integer>(count);
+        for (int i = 0; i < count; i++) {
+            order.add(i);
+        }
+        Collections.sort(
+                order,
+                new Comparator<Integer>() {
+                    @Override
+                    public int compare(Integer a, Integer b) {
+                        return heightOf(images.get(b)) - heightOf(images.get(a));
+                    }
+                });
+
+        ArrayList<int[]> pageSizes = new ArrayList<int[]>();
+        int shelfPage = -1;
+        int shelfX = 0, shelfY = 0, shelfHeight = 0;
+        for (int i : order) {
+            Bitmap image = images.get(i);
+            if (image == null) {
+                atlas.mPage[i] = -1;
+                continue;
+            }
+            int w = image.getWidth();
+            int h = image.getHeight();
+            atlas.mWidth[i] = w;
+            atlas.mHeight[i] = h;
+
+            int paddedW = w + 2 * PADDING;
+            int paddedH = h + 2 * PADDING;
+            if (paddedW > PAGE_SIZE || paddedH > PAGE_SIZE) {
+                atlas.mPage[i] = pageSizes.size();
+                pageSizes.add(new int[] {w, h});
+                continue;
+            }
+
+            if (shelfPage < 0 || shelfX + paddedW > PAGE_SIZE) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (shelfPage < 0 || shelfY + paddedH > PAGE_SIZE) {
+                shelfPage = pageSizes.size();
+                pageSizes.add(new int[] {0, 0});
+                shelfY = 0;
+            }
+            atlas.mPage[i] = shelfPage;
+            atlas.mLeft[i] = shelfX + PADDING;
+            atlas.mTop[i] = shelfY + PADDING;
+            shelfX += paddedW;
+            shelfHeight = Math.max(shelfHeight, paddedH);
+
+            int[] size = pageSizes.get(shelfPage);
+            size[0] = Math.max(size[0], shelfX);
+            size[1] = Math.max(size[1], shelfY + shelfHeight);
+        }
+
+        Canvas[] canvases = new Canvas[pageSizes.size()];
+        for (int p = 0; p < canvases.length; p++) {
+            int[] size = pageSizes.get(p);
+            Bitmap page = Bitmap.createBitmap(size[0], size[1], Bitmap.Config.ARGB_8888);
+            atlas.mPages.add(page);
+            canvases[p] = new Canvas(page);
+        }
+
+        Rect src = new Rect();
+        Rect dst = new Rect();
+        for (int i = 0; i < count; i++) {
+            Bitmap image = images.get(i);
+            if (image == null) {
+                continue;
+            }
+            int x = atlas.mLeft[i], y = atlas.mTop[i], w = atlas.mWidth[i], h = atlas.mHeight[i];
+            Canvas canvas = canvases[atlas.mPage[i]];
+
+            // Drawing through explicit rects keeps the canvas from rescaling the image by density.
+            src.set(0, 0, w, h);
+            dst.set(x, y, x + w, y + h);
+            canvas.drawBitmap(image, src, dst, null);
+
+            // An image with a page to itself has no neighbours, and clamping to the page's edges
+            // already does what the padding would.
+            boolean ownPage = x == 0;
+            for (int pad = 1; pad <= PADDING && !ownPage; pad++) {
+                int left = x - pad, right = x + w - 1 + pad;
+                int top = y - pad, bottom = y + h - 1 + pad;
+                // extrude the edges...
+                copyStrip(canvas, image, src, dst, 0, 0, 1, h, left, y);
+                copyStrip(canvas, image, src, dst, w - 1, 0, 1, h, right, y);
+                copyStrip(canvas, image, src, dst, 0, 0, w, 1, x, top);
+                copyStrip(canvas, image, src, dst, 0, h - 1, w, 1, x, bottom);
+                // ...and the corners
+                copyStrip(canvas, image, src, dst, 0, 0, 1, 1, left, top);
+                copyStrip(canvas, image, src, dst, w - 1, 0, 1, 1, right, top);
+                copyStrip(canvas, image, src, dst, 0, h - 1, 1, 1, left, bottom);
+                copyStrip(canvas, image, src, dst, w - 1, h - 1, 1, 1, right, bottom);
+            }
+            image.recycle();
+        }
+
+        Logger.d("Packed " + count + " images into " + atlas.mPages.size() + " atlas page(s).");
+        return atlas;
+    }
+
+    private static int heightOf(Bitmap image) {
+        return image == null ? 0 : image.getHeight();
+    }
+
+    private static void copyStrip(
+            Canvas canvas,
+            Bitmap image,
+            Rect src,
+            Rect dst,
+            int srcX,
+            int srcY,
+            int w,
+            int h,
+            int dstX,
+            int dstY) {
+        src.set(srcX, srcY, srcX + w, srcY + h);
+        dst.set(dstX, dstY, dstX + w, dstY + h);
+        canvas.drawBitmap(image, src, dst, null);
+    }
+
+    int getPageCount() {
+        return mPages.size();
+    }
+
+    Bitmap getPageBitmap(int page) {
+        return mPages.get(page);
+    }
+
+    int getCount() {
+        return mPage.length;
+    }
+
+    /** Returns the page the given image was packed into, or -1 if it has none. */
+    int getPage(int index) {
+        return mPage[index];
+    }
+
+    int getLeft(int index) {
+        return mLeft[index];
+    }
+
+    int getTop(int index) {
+        return mTop[index];
+    }
+
+    int getWidth(int index) {
+        return mWidth[index];
+    }
+
+    int getHeight(int index) {
+        return mHeight[index];
+    }
+
+    void dispose() {
+        for (Bitmap page : mPages) {
+            page.recycle();
+        }
+        mPages.clear();
+    }
+
+    /**
+     * Writes this atlas to the given file. The file is written under a temporary name and renamed
+     * into place, so a reader never sees a partially written atlas.
+     *
+     * @param key identifies what the atlas was built from; {@link #readFrom} only accepts a file
+     *     written with the same key.
+     */
+    void writeTo(File file, String key) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out =
+                new DataOutputStream(
+                        new DeflaterOutputStream(
+                                new BufferedOutputStream(new FileOutputStream(tmp)),
+                                new Deflater(Deflater.BEST_SPEED)));
+        try {
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(CACHE_VERSION);
+            out.writeUTF(key);
+            out.writeInt(mPage.length);
+            for (int i = 0; i < mPage.length; i++) {
+                out.writeInt(mPage[i]);
+                out.writeInt(mLeft[i]);
+                out.writeInt(mTop[i]);
+                out.writeInt(mWidth[i]);
+                out.writeInt(mHeight[i]);
+            }
+            out.writeInt(mPages.size());
+            for (Bitmap page : mPages) {
+                out.writeInt(page.getWidth());
+                out.writeInt(page.getHeight());
+                ByteBuffer pixels = ByteBuffer.allocate(page.getByteCount());
+                page.copyPixelsToBuffer(pixels);
+                out.write(pixels.array(), 0, pixels.position());
+            }
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Couldn't rename " + tmp + " to " + file);
+        }
+    }
+
+    /**
+     * Reads an atlas written by {@link #writeTo}.
+     *
+     * @return the atlas, or null if the file doesn't exist, is unreadable or was written with a
+     *     different key.
+     */
+    static TextureAtlas readFrom(File file, String key) {
+        if (!file.exists()) {
+            return null;
+        }
+        TextureAtlas atlas = null;
+        DataInputStream in = null;
+        try {
+            in =
+                    new DataInputStream(
+                            new InflaterInputStream(
+                                    new BufferedInputStream(new FileInputStream(file))));
+            if (in.readInt() != CACHE_MAGIC
+                    || in.readInt() != CACHE_VERSION
+                    || !key.equals(in.readUTF())) {
+                return null;
+            }
+            atlas = new TextureAtlas(in.readInt());
+            for (int i = 0; i < atlas.mPage.length; i++) {
+                atlas.mPage[i] = in.readInt();
+                atlas.mLeft[i] = in.readInt();
+                atlas.mTop[i] = in.readInt();
+                atlas.mWidth[i] = in.readInt();
+                atlas.mHeight[i] = in.readInt();
+            }
+            int pageCount = in.readInt();
+            for (int p = 0; p < pageCount; p++) {
+                Bitmap page =
+                        Bitmap.createBitmap(in.readInt(), in.readInt(), Bitmap.Config.ARGB_8888);
+                atlas.mPages.add(page);
+                byte[] pixels = new byte[page.getByteCount()];
+                in.readFully(pixels);
+                page.copyPixelsFromBuffer(ByteBuffer.wrap(pixels));
+            }
+            TextureAtlas result = atlas;
+            atlas = null;
+            return result;
+        } catch (IOException | RuntimeException e) {
+            Logger.w("Couldn't read texture atlas " + file + ": " + e);
+            return null;
+        } finally {
+            if (atlas != null) {
+                atlas.dispose();
+            }
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignored
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.playgames.simpleengine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.Test;
+
+/**
+ * Sensor input benchmark of {@link InputQueue}: a UI thread delivers sensor samples at 500 Hz while
+ * a game thread renders at 60 fps, with 8ms of work per frame, and drains the queue once per
+ * frame. Reports the time to drain per frame and the slowest offer, and checks that every sample
+ * arrives in order. The locked, pooled lists SceneManager used to have are measured alongside for
+ * comparison.
+ */
+public class InputQueueBenchmark {
+
+    private static final int SENSOR_HZ = 500;
+    private static final int FPS = 60;
+    private static final long WORK_NANOS_PER_FRAME = TimeUnit.MILLISECONDS.toNanos(8);
+    private static final long DURATION_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final int CAPACITY = 256;
+
+    private interface Queue {
+        /** UI thread: queues sample i. */
+        boolean offer(int i);
+
+        /** Game thread: delivers every queued sample to the sink, and returns how many. */
+        int drain(Sink sink);
+    }
+
+    private interface Sink {
+        void onSample(int accuracy, float x, float y);
+    }
+
+    @Test
+    public void benchmarkSensorInput() throws Exception {
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run("locked lists", report, new LegacyQueue());
+            Stats stats = run("InputQueue", report, new RingQueue());
+            if (report) {
+                assertEquals(0, stats.dropped);
+            }
+        }
+    }
+
+    private static class Stats {
+        int offered;
+        int dropped;
+        long slowestOfferNanos;
+    }
+
+    private static Stats run(String name, boolean report, final Queue queue) throws Exception {
+        final Stats stats = new Stats();
+        final long end = System.nanoTime() + DURATION_NANOS;
+        Thread ui =
+                new Thread(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                long period = TimeUnit.SECONDS.toNanos(1) / SENSOR_HZ;
+                                long next = System.nanoTime();
+                                while (next < end) {
+                                    long start = System.nanoTime();
+                                    if (!queue.offer(stats.offered++)) {
+                                        stats.dropped++;
+                                    }
+                                    stats.slowestOfferNanos =
+                                            Math.max(
+                                                    stats.slowestOfferNanos,
+                                                    System.nanoTime() - start);
+                                    next += period;
+                                    LockSupport.parkNanos(next - System.nanoTime());
+                                }
+                            }
+                        },
+                        "ui");
+        ui.start();
+
+        // game thread
+        final int[] received = new int[1];
+        Sink sink =
+                new Sink() {
+                    @Override
+                    public void onSample(int accuracy, float x, float y) {
+                        // samples arrive once each, in order
+                        assertEquals(received[0]++, accuracy);
+                        assertEquals(accuracy, x, 0.0f);
+                    }
+                };
+        long framePeriod = TimeUnit.SECONDS.toNanos(1) / FPS;
+        long drainNanos = 0;
+        int frames = 0;
+        long next = System.nanoTime();
+        while (ui.isAlive()) {
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < WORK_NANOS_PER_FRAME) {
+                // busy, like a frame's update and draw
+            }
+            start = System.nanoTime();
+            queue.drain(sink);
+            drainNanos += System.nanoTime() - start;
+            frames++;
+            next += framePeriod;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        ui.join();
+        queue.drain(sink);
+        assertEquals(stats.offered - stats.dropped, received[0]);
+
+        if (report) {
+            System.out.println(
+                    String.format(
+                            "InputQueueBenchmark %-12s %5d samples %3d dropped  "
+                                    + "drain %6.1f us/frame  slowest offer %6.3f ms",
+                            name,
+                            stats.offered,
+                            stats.dropped,
+                            drainNanos / 1000.0 / frames,
+                            stats.slowestOfferNanos / 1e6));
+        }
+        return stats;
+    }
+
+    private static class RingQueue implements Queue {
+        private final InputQueue mQueue = new InputQueue(CAPACITY, 0);
+
+        @Override
+        public boolean offer(int i) {
+            return mQueue.offer(i, 0, i, -i, 0.0f, 0.0f);
+        }
+
+        @Override
+        public int drain(Sink sink) {
+            int count = mQueue.beginRead();
+            for (int i = 0; i < count; i++) {
+                sink.onSample(mQueue.getInt(i, 0), mQueue.getFloat(i, 0), mQueue.getFloat(i, 1));
+            }
+            mQueue.endRead(count);
+            return count;
+        }
+    }
+
+    /**
+     * The sensor queue SceneManager used to have: pooled records in a list, moved to a second list
+     * under the lock to be processed, then recycled under the lock again.
+     */
+    private static class LegacyQueue implements Queue {
+        private static class Sample {
+            float x;
+            float y;
+            int accuracy;
+        }
+
+        private final ArrayList<Sample> mQueue = new ArrayList<Sample>(32);
+        private final ArrayList<Sample> mRecycle = new ArrayList<Sample>(32);
+        private final ArrayList<Sample> mTmp = new ArrayList<Sample>(32);
+        private volatile boolean mCheck = false;
+
+        @Override
+        public boolean offer(int i) {
+            synchronized (mQueue) {
+                Sample s =
+                        mRecycle.size() > 0 ? mRecycle.remove(mRecycle.size() - 1) : new Sample();
+                s.x = i;
+                s.y = -i;
+                s.accuracy = i;
+                mQueue.add(s);
+                mCheck = true;
+            }
+            return true;
+        }
+
+        @Override
+        public int drain(Sink sink) {
+            if (!mCheck) {
+                return 0;
+            }
+            int i;
+            synchronized (mQueue) {
+                mTmp.addAll(mQueue);
+                mQueue.clear();
+                mCheck = false;
+            }
+            for (i = 0; i < mTmp.size(); i++) {
+                Sample s = mTmp.get(i);
+                sink.onSample(s.accuracy, s.x, s.y);
+            }
+            int count = mTmp.size();
+            synchronized (mQueue) {
+                mRecycle.addAll(mTmp);
+                mTmp.clear();
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.playgames.simpleengine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.view.MotionEvent;
+import org.junit.Test;
+
+public class InputQueueTest {
+
+    @Test
+    public void testEmpty() {
+        InputQueue queue = new InputQueue(4, 0);
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.beginRead());
+    }
+
+    @Test
+    public void testDeliversInOrder() {
+        InputQueue queue = new InputQueue(8, 0);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(i, -i, i, i * 2, i * 3, i * 4));
+        }
+        assertFalse(queue.isEmpty());
+
+        assertEquals(5, queue.beginRead());
+        for (int i = 0; i < 5; i++) {
+            assertRecord(queue, i, i);
+        }
+        queue.endRead(5);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testWrapsAround() {
+        InputQueue queue = new InputQueue(4, 0);
+        int next = 0;
+        int expected = 0;
+        // offer three and read two at a time, so that records straddle the end of the arrays
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                if (queue.offer(next, -next, next, next * 2, next * 3, next * 4)) {
+                    next++;
+                }
+            }
+            int count = Math.min(2, queue.beginRead());
+            for (int i = 0; i < count; i++) {
+                assertRecord(queue, i, expected++);
+            }
+            queue.endRead(count);
+        }
+        int count = queue.beginRead();
+        for (int i = 0; i < count; i++) {
+            assertRecord(queue, i, expected++);
+        }
+        queue.endRead(count);
+        assertEquals(next, expected);
+        assertTrue(next > 4 * 3);
+    }
+
+    @Test
+    public void testFullQueueDropsNewest() {
+        InputQueue queue = new InputQueue(4, 0);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i, -i, i, i * 2, i * 3, i * 4));
+        }
+        assertFalse(queue.offer(99, 0, 0, 0, 0, 0));
+        assertFalse(queue.offerReserved(99, 0, 0, 0, 0, 0));
+
+        assertEquals(4, queue.beginRead());
+        for (int i = 0; i < 4; i++) {
+            assertRecord(queue, i, i);
+        }
+        // reading frees the slots again
+        queue.endRead(1);
+        assertTrue(queue.offer(4, -4, 4, 8, 12, 16));
+        assertEquals(4, queue.beginRead());
+        assertRecord(queue, 3, 4);
+    }
+
+    @Test
+    public void testRecordsOfferedDuringReadAreLeftForNextRead() {
+        InputQueue queue = new InputQueue(4, 0);
+        queue.offer(0, 0, 0, 0, 0, 0);
+        assertEquals(1, queue.beginRead());
+        queue.offer(1, -1, 1, 2, 3, 4);
+        queue.endRead(1);
+
+        assertEquals(1, queue.beginRead());
+        assertRecord(queue, 0, 1);
+    }
+
+    @Test
+    public void testReservedSlotsKeptForPresses() {
+        InputQueue queue = new InputQueue(8, 2);
+        int moves = 0;
+        while (queue.offer(MotionEvent.ACTION_MOVE, 0, moves, 0, 0, 0)) {
+            moves++;
+        }
+        assertEquals(6, moves);
+
+        // the presses still get in, in order after the moves, until every slot is taken
+        assertTrue(queue.offerReserved(MotionEvent.ACTION_DOWN, 1, 0, 0, 0, 0));
+        assertFalse(queue.offer(MotionEvent.ACTION_MOVE, 0, 0, 0, 0, 0));
+        assertTrue(queue.offerReserved(MotionEvent.ACTION_DOWN, 2, 0, 0, 0, 0));
+        assertFalse(queue.offerReserved(MotionEvent.ACTION_DOWN, 3, 0, 0, 0, 0));
+
+        assertEquals(8, queue.beginRead());
+        for (int i = 0; i < moves; i++) {
+            assertEquals(MotionEvent.ACTION_MOVE, queue.getInt(i, 0));
+            assertEquals(i, queue.getFloat(i, 0), 0.0f);
+        }
+        assertEquals(MotionEvent.ACTION_DOWN, queue.getInt(6, 0));
+        assertEquals(1, queue.getInt(6, 1));
+        assertEquals(MotionEvent.ACTION_DOWN, queue.getInt(7, 0));
+        assertEquals(2, queue.getInt(7, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePowerOfTwo() {
+        new InputQueue(6, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReservedMustLeaveRoom() {
+        new InputQueue(4, 4);
+    }
+
+    private static void assertRecord(InputQueue queue, int index, int value) {
+        assertEquals(value, queue.getInt(index, 0));
+        assertEquals(-value, queue.getInt(index, 1));
+        assertEquals(value, queue.getFloat(index, 0), 0.0f);
+        assertEquals(value * 2, queue.getFloat(index, 1), 0.0f);
+        assertEquals(value * 3, queue.getFloat(index, 2), 0.0f);
+        assertEquals(value * 4, queue.getFloat(index, 3), 0.0f);
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.playgames.simpleengine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.opengl.GLES20;
+import com.google.android.apps.playgames.BuildConfig;
+import com.google.android.apps.playgames.R;
+import java.nio.Buffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+
+/**
+ * Headless frame benchmark of {@link Renderer}: draws a Jetpack sized scene with and without
+ * batching against a GLES20 which only counts the calls made to it, and reports the GL calls, draw
+ * calls and CPU time per frame.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class, shadows = RendererBenchmark.CountingGLES20.class)
+public class RendererBenchmark {
+
+    private static final int[] IMAGES = {
+        R.drawable.games_digit_0, R.drawable.games_digit_1, R.drawable.games_digit_2,
+        R.drawable.games_digit_3, R.drawable.games_digit_4, R.drawable.games_digit_5,
+        R.drawable.games_digit_6, R.drawable.games_digit_7, R.drawable.games_digit_8,
+        R.drawable.games_digit_9, R.drawable.games_digit_negative
+    };
+    // candies, clouds and score digits, with an untextured sprite (e.g. a tinted bar) every so
+    // often to break up the texture runs
+    private static final int SPRITES = 400;
+    private static final int UNTEXTURED_EVERY = 50;
+    private static final int FRAMES = 2000;
+    private static final long LOAD_TIMEOUT_MS = 10000;
+
+    @Test
+    public void benchmarkFrame() throws Exception {
+        Renderer renderer = new Renderer();
+        int[] tex = new int[IMAGES.length];
+        int i;
+        for (i = 0; i < IMAGES.length; i++) {
+            tex[i] = renderer.requestImageTex(IMAGES[i], "image" + i, Renderer.DIM_HEIGHT, 0.1f);
+        }
+        renderer.onGLSurfaceCreated(RuntimeEnvironment.application);
+        renderer.onGLSurfaceChanged(1920, 1080);
+        long deadline = System.currentTimeMillis() + LOAD_TIMEOUT_MS;
+        while (!renderer.prepareFrame()) {
+            assertTrue("Textures didn't load", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+
+        for (i = 0; i < SPRITES; i++) {
+            Renderer.Sprite s = renderer.createSprite();
+            s.texIndex = i % UNTEXTURED_EVERY == 0 ? -1 : tex[i % tex.length];
+            s.x = (i % 20) * 0.08f - 0.8f;
+            s.y = (i / 20) * 0.05f - 0.5f;
+            s.width = s.height = 0.05f;
+            s.rotation = i % 7 == 0 ? 15.0f : 0.0f;
+        }
+
+        Stats single = run(renderer, false);
+        Stats batched = run(renderer, true);
+        print("one draw per sprite", single);
+        print("batched", batched);
+
+        assertEquals(SPRITES, single.drawCalls);
+        assertTrue(batched.drawCalls < single.drawCalls);
+        assertTrue(batched.glCalls < single.glCalls);
+    }
+
+    private static class Stats {
+        int glCalls;
+        int drawCalls;
+        double nanosPerFrame;
+    }
+
+    private static Stats run(Renderer renderer, boolean batching) {
+        renderer.setBatchingEnabled(batching);
+        // warm up
+        int f;
+        for (f = 0; f < FRAMES; f++) {
+            renderer.doFrame();
+        }
+        CountingGLES20.reset();
+        long start = System.nanoTime();
+        for (f = 0; f < FRAMES; f++) {
+            renderer.doFrame();
+        }
+        Stats stats = new Stats();
+        stats.nanosPerFrame = (System.nanoTime() - start) / (double) FRAMES;
+        stats.glCalls = CountingGLES20.sCalls / FRAMES;
+        stats.drawCalls = CountingGLES20.sDrawCalls / FRAMES;
+        assertEquals(renderer.getLastFrameDrawCalls(), stats.drawCalls);
+        return stats;
+    }
+
+    private static void print(String name, Stats stats) {
+        System.out.println(
+                String.format(
+                        "RendererBenchmark %-20s %5d GL calls/frame %4d draw calls/frame "
+                                + "%9.1f ns/frame",
+                        name,
+                        stats.glCalls,
+                        stats.drawCalls,
+                        stats.nanosPerFrame));
+    }
+
+    /** Stands in for the GL driver, counting every call Renderer makes. */
+    @Implements(GLES20.class)
+    public static class CountingGLES20 {
+        static int sCalls = 0;
+        static int sDrawCalls = 0;
+        private static int sNextName = 1;
+
+        static void reset() {
+            sCalls = 0;
+            sDrawCalls = 0;
+        }
+
+        private static int nextName() {
+            sCalls++;
+            return sNextName++;
+        }
+
+        @Implementation
+        public static int glCreateShader(int type) {
+            return nextName();
+        }
+
+        @Implementation
+        public static int glCreateProgram() {
+            return nextName();
+        }
+
+        @Implementation
+        public static void glGenTextures(int n, int[] textures, int offset) {
+            int i;
+            for (i = 0; i < n; i++) {
+                textures[offset + i] = nextName();
+            }
+        }
+
+        @Implementation
+        public static int glGetUniformLocation(int program, String name) {
+            return nextName();
+        }
+
+        @Implementation
+        public static int glGetAttribLocation(int program, String name) {
+            return nextName();
+        }
+
+        @Implementation
+        public static String glGetShaderInfoLog(int shader) {
+            sCalls++;
+            return "";
+        }
+
+        @Implementation
+        public static String glGetProgramInfoLog(int program) {
+            sCalls++;
+            return "";
+        }
+
+        @Implementation
+        public static void glShaderSource(int shader, String string) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glCompileShader(int shader) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glAttachShader(int program, int shader) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glLinkProgram(int program) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glUseProgram(int program) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glClearColor(float red, float green, float blue, float alpha) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glClear(int mask) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glEnable(int cap) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glBlendFunc(int sfactor, int dfactor) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glViewport(int x, int y, int width, int height) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glBindTexture(int target, int texture) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glTexParameterf(int target, int pname, float param) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glDeleteTextures(int n, int[] textures, int offset) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glUniform1i(int location, int x) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glUniform1f(int location, float x) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glUniform4f(int location, float x, float y, float z, float w) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glUniformMatrix4fv(
+                int location, int count, boolean transpose, float[] value, int offset) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glEnableVertexAttribArray(int index) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glVertexAttribPointer(
+                int indx, int size, int type, boolean normalized, int stride, Buffer ptr) {
+            sCalls++;
+        }
+
+        @Implementation
+        public static void glDrawArrays(int mode, int first, int count) {
+            sCalls++;
+            sDrawCalls++;
+        }
+
+        @Implementation
+        public static void glDrawElements(int mode, int count, int type, Buffer indices) {
+            sCalls++;
+            sDrawCalls++;
+        }
+    }
+}
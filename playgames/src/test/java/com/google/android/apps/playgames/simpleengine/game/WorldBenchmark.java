@@ -0,0 +1,307 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.playgames.simpleengine.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.apps.playgames.BuildConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Benchmark of {@link World#detectCollisions}. It models Jetpack: items fall down the screen and
+ * respawn at the top, and the player is checked against them once per frame. Reports the time per
+ * frame of the query and of {@link World#doFrame}. A uniform grid broad phase, rebuilt at every
+ * query since everything moved in between, is measured alongside for comparison and checked to
+ * find the same objects. With one query per frame, sorting every collider into the grid costs more
+ * than testing it against the player, which is why World doesn't have one.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class WorldBenchmark {
+
+    private static final int[] OBJECTS = {100, 1000, 5000};
+    private static final int FRAMES = 500;
+    private static final int ROUNDS = 8;
+    private static final float DELTA_T = 1.0f / 60.0f;
+    private static final long SEED = 2019;
+
+    // the sizes of Jetpack's present collider and player
+    private static final float ITEM_WIDTH = 0.10f;
+    private static final float ITEM_HEIGHT = ITEM_WIDTH * 2;
+    private static final float PLAYER_SIZE = 0.2f;
+    private static final float CELL_SIZE = ITEM_HEIGHT;
+    private static final float FALL_SPEED_MIN = 0.2f;
+    private static final float FALL_SPEED_MAX = 0.35f;
+    // the items fall from the top to the bottom of the screen, with the player in between
+    private static final float TOP = 1.0f;
+    private static final float BOTTOM = -1.0f;
+    private static final float HALF_WIDTH = 1.0f;
+
+    @Test
+    public void benchmarkDetectCollisions() {
+        for (int objects : OBJECTS) {
+            int hits = checkSameHits(objects);
+
+            Stats linear = new Stats();
+            Stats grid = new Stats();
+            for (int round = 0; round < ROUNDS; round++) {
+                run(objects, null, linear);
+                run(objects, new Grid(CELL_SIZE), grid);
+            }
+            System.out.println(
+                    String.format(
+                            "WorldBenchmark %5d objects %6d hits  linear %6.1f + %6.1f = %6.1f us"
+                                    + "  grid %6.1f + %6.1f = %6.1f us",
+                            objects,
+                            hits,
+                            linear.queryMicros,
+                            linear.frameMicros,
+                            linear.queryMicros + linear.frameMicros,
+                            grid.queryMicros,
+                            grid.frameMicros,
+                            grid.queryMicros + grid.frameMicros));
+            if (objects == 1000) {
+                assertTrue(
+                        linear.queryMicros + linear.frameMicros
+                                < grid.queryMicros + grid.frameMicros);
+            }
+        }
+    }
+
+    /** Best times per frame, in microseconds, over the rounds. */
+    private static class Stats {
+        double queryMicros = Double.MAX_VALUE;
+        double frameMicros = Double.MAX_VALUE;
+    }
+
+    private static class Scene {
+        final World world = new World(null);
+        final Random random = new Random(SEED);
+        final ArrayList<GameObject> hits = new ArrayList<GameObject>();
+        final int objects;
+        final GameObject player;
+        // the broad phase to query, or null to query the World
+        final Grid grid;
+        int nextId = 0;
+
+        Scene(int objects, Grid grid) {
+            this.objects = objects;
+            this.grid = grid;
+            player = world.newGameObject(0, 0.0f, 0.0f);
+            player.setBoxCollider(PLAYER_SIZE, PLAYER_SIZE);
+            while (world.gameObjects.size() <= objects) {
+                spawn(BOTTOM + random.nextFloat() * (TOP - BOTTOM));
+            }
+        }
+
+        void spawn(float y) {
+            float speed = FALL_SPEED_MIN + random.nextFloat() * (FALL_SPEED_MAX - FALL_SPEED_MIN);
+            GameObject item =
+                    world.newGameObject(1, (random.nextFloat() * 2 - 1) * HALF_WIDTH, y);
+            item.setBoxCollider(ITEM_WIDTH, ITEM_HEIGHT);
+            item.velY = -speed;
+            item.timeToLive = (y - BOTTOM) / speed;
+            item.ivar[0] = nextId++;
+        }
+
+        /** Moves the player and the items, and respawns the items which fell off the screen. */
+        void doFrame(int frame) {
+            player.displaceTo(
+                    (float) Math.sin(frame * DELTA_T) * HALF_WIDTH,
+                    (float) Math.cos(frame * DELTA_T * 0.5f) * 0.5f);
+            world.doFrame(DELTA_T);
+            while (world.gameObjects.size() <= objects) {
+                spawn(TOP);
+            }
+        }
+
+        boolean query() {
+            if (grid == null) {
+                return world.detectCollisions(player, hits, true);
+            }
+            grid.rebuild(world.gameObjects);
+            return grid.detectCollisions(player, hits);
+        }
+
+        /** The ids of the objects last hit, in order. */
+        int[] hitIds() {
+            int[] ids = new int[hits.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = hits.get(i).ivar[0];
+            }
+            Arrays.sort(ids);
+            return ids;
+        }
+    }
+
+    /** Plays the same frames with and without the grid, and returns the total number of hits. */
+    private static int checkSameHits(int objects) {
+        Scene linear = new Scene(objects, null);
+        Scene grid = new Scene(objects, new Grid(CELL_SIZE));
+        int hits = 0;
+        for (int f = 0; f < FRAMES; f++) {
+            linear.doFrame(f);
+            grid.doFrame(f);
+            assertEquals(linear.query(), grid.query());
+            assertEquals(Arrays.toString(linear.hitIds()), Arrays.toString(grid.hitIds()));
+            hits += linear.hits.size();
+        }
+        assertTrue(hits > 0);
+        return hits;
+    }
+
+    private static void run(int objects, Grid grid, Stats stats) {
+        Scene scene = new Scene(objects, grid);
+        long queryNanos = 0;
+        long frameNanos = 0;
+        for (int f = 0; f < FRAMES; f++) {
+            long start = System.nanoTime();
+            scene.doFrame(f);
+            long end = System.nanoTime();
+            scene.query();
+            queryNanos += System.nanoTime() - end;
+            frameNanos += end - start;
+        }
+        stats.queryMicros = Math.min(stats.queryMicros, queryNanos / 1000.0 / FRAMES);
+        stats.frameMicros = Math.min(stats.frameMicros, frameNanos / 1000.0 / FRAMES);
+    }
+
+    /**
+     * A uniform grid over the colliders of a World, which are sorted into the cells of their
+     * centers with a counting sort. Queries then only test the objects in the cells within reach.
+     */
+    private static class Grid {
+        private final float mInverseCellSize;
+        private int mMinCol, mMinRow, mCols, mRows;
+        // the objects of cell c are mObjects[mCellStart[c]] up to mObjects[mCellStart[c + 1] - 1]
+        private int[] mCellStart = new int[1];
+        private GameObject[] mObjects = new GameObject[0];
+        private int[] mObjectCells = new int[0];
+        private float mMaxHalfWidth, mMaxHalfHeight;
+
+        Grid(float cellSize) {
+            mInverseCellSize = 1.0f / cellSize;
+        }
+
+        void rebuild(ArrayList<GameObject> gameObjects) {
+            int count = gameObjects.size();
+            if (mObjectCells.length < count) {
+                mObjectCells = new int[count * 2];
+                mObjects = new GameObject[count * 2];
+            }
+            int minCol = Integer.MAX_VALUE, maxCol = Integer.MIN_VALUE;
+            int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+            mMaxHalfWidth = mMaxHalfHeight = 0.0f;
+            int i;
+            for (i = 0; i < count; i++) {
+                GameObject o = gameObjects.get(i);
+                if (o.dead || !o.collides) {
+                    continue;
+                }
+                minCol = Math.min(minCol, toCell(o.x));
+                maxCol = Math.max(maxCol, toCell(o.x));
+                minRow = Math.min(minRow, toCell(o.y));
+                maxRow = Math.max(maxRow, toCell(o.y));
+                mMaxHalfWidth = Math.max(mMaxHalfWidth, o.collBoxWidth * 0.5f);
+                mMaxHalfHeight = Math.max(mMaxHalfHeight, o.collBoxHeight * 0.5f);
+            }
+            mMinCol = minCol;
+            mMinRow = minRow;
+            mCols = Math.max(maxCol - minCol + 1, 0);
+            mRows = Math.max(maxRow - minRow + 1, 0);
+            int cells = mCols * mRows;
+            if (mCellStart.length < cells + 1) {
+                mCellStart = new int[cells + 1];
+            } else {
+                Arrays.fill(mCellStart, 0, cells + 1, 0);
+            }
+
+            // count the objects of each cell, in the slot after it
+            for (i = 0; i < count; i++) {
+                GameObject o = gameObjects.get(i);
+                if (o.dead || !o.collides) {
+                    mObjectCells[i] = -1;
+                    continue;
+                }
+                int cell = (toCell(o.y) - minRow) * mCols + toCell(o.x) - minCol;
+                mObjectCells[i] = cell;
+                mCellStart[cell + 1]++;
+            }
+            // then where each cell starts, and put the objects there
+            for (i = 0; i < cells; i++) {
+                mCellStart[i + 1] += mCellStart[i];
+            }
+            for (i = 0; i < count; i++) {
+                if (mObjectCells[i] >= 0) {
+                    mObjects[mCellStart[mObjectCells[i]]++] = gameObjects.get(i);
+                }
+            }
+            // which leaves each cell's start where the next one starts
+            for (i = cells; i > 0; i--) {
+                mCellStart[i] = mCellStart[i - 1];
+            }
+            mCellStart[0] = 0;
+        }
+
+        boolean detectCollisions(GameObject object, ArrayList<GameObject> result) {
+            result.clear();
+            boolean found = false;
+            // objects are in the cell of their center, so look as far as the biggest collider
+            // reaches
+            float reachX = object.collBoxWidth * 0.5f + mMaxHalfWidth;
+            float reachY = object.collBoxHeight * 0.5f + mMaxHalfHeight;
+            int minCol = Math.max(toCell(object.x - reachX), mMinCol);
+            int maxCol = Math.min(toCell(object.x + reachX), mMinCol + mCols - 1);
+            int minRow = Math.max(toCell(object.y - reachY), mMinRow);
+            int maxRow = Math.min(toCell(object.y + reachY), mMinRow + mRows - 1);
+            // the cells of a row are next to each other, so test their objects in one go
+            for (int row = minRow; row <= maxRow && minCol <= maxCol; row++) {
+                int rowStart = (row - mMinRow) * mCols - mMinCol;
+                int end = mCellStart[rowStart + maxCol + 1];
+                for (int i = mCellStart[rowStart + minCol]; i < end; i++) {
+                    GameObject o = mObjects[i];
+                    if (o != object && collide(object, o)) {
+                        found = true;
+                        result.add(o);
+                    }
+                }
+            }
+            return found;
+        }
+
+        private int toCell(float coordinate) {
+            float scaled = coordinate * mInverseCellSize;
+            int cell = (int) scaled;
+            return scaled < cell ? cell - 1 : cell;
+        }
+
+        /** The overlap test of World, without going through RectF. */
+        private static boolean collide(GameObject a, GameObject b) {
+            return a.x - a.collBoxWidth * 0.5f < b.x + b.collBoxWidth * 0.5f
+                    && b.x - b.collBoxWidth * 0.5f < a.x + a.collBoxWidth * 0.5f
+                    && a.y - a.collBoxHeight * 0.5f < b.y + b.collBoxHeight * 0.5f
+                    && b.y - b.collBoxHeight * 0.5f < a.y + a.collBoxHeight * 0.5f;
+        }
+    }
+}
@@ -191,29 +191,28 @@ public class PlacesIntentService extends IntentService {
     }
 
     /**
-     * Compares cached places by their distance from the requesting center, weighing their distance
-     * by the number of times the place has been used.
+     * A cached place along with its distance from the requesting center, and that distance
+     * weighed by the number of times the place has been used. Both are computed once up front
+     * rather than on every comparison while sorting.
      */
-    private static class PlaceComparator implements Comparator<Place> {
+    private static class WeightedPlace {
 
-        LatLng center;
-        int radius;
-        double usedPlaceRadiusWeight;
-
-        PlaceComparator(LatLng center, int radius, double usedPlaceRadiusWeight) {
-            this.center = center;
-            this.radius = radius;
-            this.usedPlaceRadiusWeight = usedPlaceRadiusWeight;
-        }
+        static final Comparator<WeightedPlace> BY_WEIGHTED_DISTANCE =
+                new Comparator<WeightedPlace>() {
+                    @Override
+                    public int compare(WeightedPlace a, WeightedPlace b) {
+                        return a.weightedDistance - b.weightedDistance;
+                    }
+                };
 
-        private int weightedDistanceTo(Place place) {
-            return Distance.between(center, place.getLatLng())
-                    + (int) (place.used * radius * usedPlaceRadiusWeight);
-        }
+        final Place place;
+        final int distance;
+        final int weightedDistance;
 
-        @Override
-        public int compare(Place a, Place b) {
-            return weightedDistanceTo(a) - weightedDistanceTo(b);
+        WeightedPlace(Place place, LatLng center, int radius, double usedPlaceRadiusWeight) {
+            this.place = place;
+            this.distance = Distance.between(center, place.getLatLng());
+            this.weightedDistance = distance + (int) (place.used * radius * usedPlaceRadiusWeight);
         }
     }
 
@@ -223,21 +222,25 @@ public class PlacesIntentService extends IntentService {
 
         // Build a set of present locations we can use to check that we
         // don't choose a place that already exists as a present.
+        // Only presents within the radius can coincide with a place within it.
         Set<LatLng> presents = new HashSet<>();
-        for (Present present : repository.getAllPresents()) {
+        for (Present present : repository.getPresentsWithin(center, radius)) {
             presents.add(present.getLatLng());
         }
 
-        // Sort all places by distance, and filter down to the top X in correct proximity.
-        // We'll then choose one of these randomly as the result.
-        List<Place> allPlaces = repository.getAllPlaces();
-        Collections.sort(
-                allPlaces, new PlaceComparator(center, radius, mConfig.USED_PLACE_RADIUS_WEIGHT));
+        // Sort the places within the radius by weighted distance, and filter down to the top X in
+        // correct proximity. We'll then choose one of these randomly as the result.
+        List<WeightedPlace> nearbyPlaces = new ArrayList<>();
+        for (Place place : repository.getPlacesWithin(center, radius)) {
+            nearbyPlaces.add(
+                    new WeightedPlace(place, center, radius, mConfig.USED_PLACE_RADIUS_WEIGHT));
+        }
+        Collections.sort(nearbyPlaces, WeightedPlace.BY_WEIGHTED_DISTANCE);
         List<Place> potentialPlaces = new ArrayList<>();
-        for (Place place : allPlaces) {
-            int distance = Distance.between(center, place.getLatLng());
-            boolean closeEnough = distance <= radius;
-            boolean farEnough = distance > mConfig.REACHABLE_RADIUS_METERS;
+        for (WeightedPlace weighted : nearbyPlaces) {
+            Place place = weighted.place;
+            boolean closeEnough = weighted.distance <= radius;
+            boolean farEnough = weighted.distance > mConfig.REACHABLE_RADIUS_METERS;
             if (closeEnough && farEnough && !presents.contains(place.getLatLng())) {
                 potentialPlaces.add(place);
                 if (potentialPlaces.size() >= mConfig.MAX_CACHE_RANDOM_SAMPLE_SIZE) {
@@ -294,7 +297,9 @@ public class PlacesIntentService extends IntentService {
     @Nullable
     private Place getCachedFirstPlace(LatLng center) {
         // Try to find one in the cache
-        List<Place> places = repository.getAllPlaces();
+        int maxDistance =
+                (int) (mConfig.REACHABLE_RADIUS_METERS * mConfig.FIRST_PLACE_RADIUS_WEIGHT);
+        List<Place> places = repository.getPlacesWithin(center, maxDistance);
         for (Place place : places) {
             if (isValidFirstPlace(center, place.getLatLng())) {
                 SantaLog.d(TAG, "getCachedFirstPlace: cache hit");
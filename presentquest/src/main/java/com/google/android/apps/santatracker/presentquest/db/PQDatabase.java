@@ -21,6 +21,8 @@ import android.content.Context;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.google.android.apps.santatracker.presentquest.vo.Place;
 import com.google.android.apps.santatracker.presentquest.vo.Present;
@@ -30,7 +32,7 @@ import com.google.android.apps.santatracker.util.SantaLog;
 
 @Database(
         entities = {User.class, Present.class, Place.class, Workshop.class},
-        version = 1)
+        version = 2)
 public abstract class PQDatabase extends RoomDatabase {
     private static final String LOG_TAG = PQDatabase.class.getSimpleName();
     public static final String DATABASE_NAME = "present-quest";
@@ -43,6 +45,25 @@ public abstract class PQDatabase extends RoomDatabase {
 
     public abstract WorkshopDao workshopDao();
 
+    /** Adds numeric, indexed copies of the place coordinates for bounding box queries. */
+    static final Migration MIGRATION_1_2 =
+            new Migration(1, 2) {
+                @Override
+                public void migrate(SupportSQLiteDatabase db) {
+                    db.execSQL(
+                            "ALTER TABLE `Place` ADD COLUMN `latitude` REAL NOT NULL DEFAULT 0");
+                    db.execSQL(
+                            "ALTER TABLE `Place` ADD COLUMN `longitude` REAL NOT NULL DEFAULT 0");
+                    // lat and lng are nullable, and a NULL would fail the NOT NULL constraint.
+                    db.execSQL(
+                            "UPDATE `Place` SET `latitude` = IFNULL(CAST(`lat` AS REAL), 0),"
+                                    + " `longitude` = IFNULL(CAST(`lng` AS REAL), 0)");
+                    db.execSQL(
+                            "CREATE INDEX `index_Place_latitude_longitude`"
+                                    + " ON `Place` (`latitude`, `longitude`)");
+                }
+            };
+
     // For Singleton instantiation
     private static final Object LOCK = new Object();
     private static PQDatabase database;
@@ -56,6 +77,7 @@ public abstract class PQDatabase extends RoomDatabase {
                                         context.getApplicationContext(),
                                         PQDatabase.class,
                                         PQDatabase.DATABASE_NAME)
+                                .addMigrations(MIGRATION_1_2)
                                 .allowMainThreadQueries()
                                 .build();
                 // TODO switch off main thread
@@ -29,7 +29,16 @@ import java.util.List;
 @Dao
 public interface PlaceDao {
     @Insert(onConflict = OnConflictStrategy.IGNORE)
-    void insertPlace(Place place);
+    long insertPlace(Place place);
+
+    /**
+     * Inserts all the places in one transaction, skipping those already cached at the same
+     * location.
+     *
+     * @return the new row ids, or -1 for each place that was skipped.
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertPlaces(List<Place> places);
 
     @Update
     int updatePlace(Place place);
@@ -43,6 +52,11 @@ public interface PlaceDao {
     @Query("SELECT COUNT(*) FROM place")
     int count();
 
+    @Query(
+            "SELECT * FROM place WHERE latitude BETWEEN :south AND :north"
+                    + " AND longitude BETWEEN :west AND :east")
+    List<Place> getWithinBounds(double south, double west, double north, double east);
+
     @Query("SELECT * FROM place WHERE lat = :latitude AND lng = :longitude")
     Place getByLatLong(double latitude, double longitude);
 
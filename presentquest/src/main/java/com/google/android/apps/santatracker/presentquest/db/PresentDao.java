@@ -30,7 +30,7 @@ import java.util.List;
 @Dao
 public interface PresentDao {
     @Insert(onConflict = OnConflictStrategy.IGNORE)
-    void insertPresent(Present present);
+    long insertPresent(Present present);
 
     @Query("DELETE FROM present")
     void deleteAll();
@@ -32,7 +32,7 @@ import java.util.List;
 public interface WorkshopDao {
 
     @Insert(onConflict = OnConflictStrategy.IGNORE)
-    void insertWorkshop(Workshop workshop);
+    long insertWorkshop(Workshop workshop);
 
     @Update
     int updateWorkshop(Workshop workshop);
@@ -21,7 +21,10 @@ import android.content.Context;
 import androidx.lifecycle.LiveData;
 
 import com.google.android.apps.santatracker.presentquest.db.PQDatabase;
+import com.google.android.apps.santatracker.presentquest.db.PlaceDao;
 import com.google.android.apps.santatracker.presentquest.util.Config;
+import com.google.android.apps.santatracker.presentquest.util.Distance;
+import com.google.android.apps.santatracker.presentquest.util.GeoIndex;
 import com.google.android.apps.santatracker.presentquest.vo.Place;
 import com.google.android.apps.santatracker.presentquest.vo.Present;
 import com.google.android.apps.santatracker.presentquest.vo.User;
@@ -30,19 +33,25 @@ import com.google.android.apps.santatracker.util.SantaLog;
 import com.google.android.gms.maps.model.LatLng;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
 
 public class PQRepository {
     private static final String LOG_TAG = PQRepository.class.getSimpleName();
     // For Singleton instantiation
     private static final Object LOCK = new Object();
+    // Size of a spatial index cell, around the radius of a typical proximity query.
+    private static final double INDEX_CELL_METERS = 1000;
     private static PQRepository repository;
     // private final Executor diskIO;
     private final PQDatabase database;
 
+    // In-memory spatial indexes over the presents and workshops, which are all shown on the map
+    // anyway. Built on first use and kept in sync with every write made through this repository
+    // afterwards. Places can number in the thousands and are looked up by bounding box instead.
+    private GeoIndex<Present> presentIndex;
+    private GeoIndex<Workshop> workshopIndex;
+
     public PQRepository(Context context) {
         // diskIO = Executors.newSingleThreadExecutor(); //TODO need to inject this
         database = PQDatabase.getInstance(context);
@@ -52,8 +61,11 @@ public class PQRepository {
         SantaLog.d(LOG_TAG, "Getting the database");
         if (repository == null) {
             synchronized (LOCK) {
-                repository = new PQRepository(context);
-                SantaLog.d(LOG_TAG, "Made new database");
+                // The spatial indexes are only in sync if every write goes through one instance.
+                if (repository == null) {
+                    repository = new PQRepository(context);
+                    SantaLog.d(LOG_TAG, "Made new database");
+                }
             }
         }
         return repository;
@@ -84,11 +96,32 @@ public class PQRepository {
 
     public void saveWorkshop(Workshop workshop) {
         int rows = database.workshopDao().updateWorkshop(workshop);
-        if (rows <= 0) database.workshopDao().insertWorkshop(workshop);
+        if (rows <= 0) {
+            long id = database.workshopDao().insertWorkshop(workshop);
+            if (id == -1) return;
+            workshop.id = id;
+        }
+        getWorkshopIndex().put(workshop.id, workshop.getLatLng(), workshop);
     }
 
     public void deleteWorkshop(Workshop workshop) {
         database.workshopDao().delete(workshop);
+        getWorkshopIndex().remove(workshop.id);
+    }
+
+    /** Returns the workshops within the given radius of a point, nearest first. */
+    public List<Workshop> getWorkshopsWithin(LatLng center, int radius) {
+        return getWorkshopIndex().withinRadius(center, radius);
+    }
+
+    private synchronized GeoIndex<Workshop> getWorkshopIndex() {
+        if (workshopIndex == null) {
+            workshopIndex = new GeoIndex<>(INDEX_CELL_METERS);
+            for (Workshop workshop : database.workshopDao().getAll()) {
+                workshopIndex.put(workshop.id, workshop.getLatLng(), workshop);
+            }
+        }
+        return workshopIndex;
     }
 
     // Place methods
@@ -103,7 +136,50 @@ public class PQRepository {
 
     public void savePlace(Place place) {
         int rows = database.placeDao().updatePlace(place);
-        if (rows <= 0) database.placeDao().insertPlace(place);
+        if (rows <= 0) {
+            long id = database.placeDao().insertPlace(place);
+            if (id != -1) place.id = id;
+        }
+    }
+
+    /**
+     * Returns the cached places within the given radius of a point. Only the places in the
+     * bounding box of that circle are read from the database.
+     */
+    public List<Place> getPlacesWithin(LatLng center, int radius) {
+        double latSpan = radius / Distance.METERS_PER_DEGREE;
+        double south = Math.max(-90, center.latitude - latSpan);
+        double north = Math.min(90, center.latitude + latSpan);
+        double cos = Math.cos(Math.toRadians(Math.max(Math.abs(south), Math.abs(north))));
+        double lngSpan = cos > 0 ? latSpan / cos : 180;
+
+        PlaceDao dao = database.placeDao();
+        List<Place> candidates;
+        if (lngSpan >= 180) {
+            candidates = dao.getWithinBounds(south, -180, north, 180);
+        } else {
+            double west = center.longitude - lngSpan;
+            double east = center.longitude + lngSpan;
+            // Split boxes which cross the antimeridian in two.
+            if (west < -180) {
+                candidates = dao.getWithinBounds(south, west + 360, north, 180);
+                candidates.addAll(dao.getWithinBounds(south, -180, north, east));
+            } else if (east > 180) {
+                candidates = dao.getWithinBounds(south, west, north, 180);
+                candidates.addAll(dao.getWithinBounds(south, -180, north, east - 360));
+            } else {
+                candidates = dao.getWithinBounds(south, west, north, east);
+            }
+        }
+
+        List<Place> places = new ArrayList<>(candidates.size());
+        for (Place place : candidates) {
+            if (Distance.between(center.latitude, center.longitude, place.latitude, place.longitude)
+                    <= radius) {
+                places.add(place);
+            }
+        }
+        return places;
     }
 
     public void usePlace(final Place p) {
@@ -117,28 +193,11 @@ public class PQRepository {
         return database.placeDao().count();
     }
 
-    // Build set of locations that Places API returned and are already cached, which
-    // we can check against before caching a new location from Places API.
+    // Cache the locations that Places API returned, along with random ones to back-fill.
     public void cachePlaces(ArrayList<LatLng> places, Config config, LatLng center, int radius) {
         int numFetched = places.size();
         SantaLog.d(LOG_TAG, "fetchPlaces: API returned " + numFetched + " place(s)");
 
-        Set<LatLng> cached = new HashSet<>();
-        if (places.size() > 0) {
-            database.beginTransaction();
-            try {
-                for (LatLng placeToFind : places) {
-                    Place place = repository.getPlaceByLatLong(placeToFind);
-                    // TODO might be null?
-                    if (place != null) cached.add(place.getLatLng());
-                }
-            } finally {
-                database.endTransaction();
-            }
-        }
-
-        SantaLog.d(LOG_TAG, "fetchPlaces: " + cached.size() + " place(s) are already cached");
-
         // Back-fill with random locations to ensure up to MIN_CACHED_PLACES places.
         // We reduce radius to half for these, to decrease the likelihood of
         // adding an inaccessible location.
@@ -151,19 +210,20 @@ public class PQRepository {
             }
         }
 
-        // Save results to cache.
+        // Save results to cache, in one transaction. Places which are already cached are skipped
+        // by the unique index on their location, which is very likely since if the rate limit
+        // elapses and the user hasn't moved, duplicates will be returned.
         SantaLog.d(LOG_TAG, "fetchPlaces: caching " + places.size());
+        List<Place> toInsert = new ArrayList<>(places.size());
         for (LatLng latLng : places) {
-            Place place = new Place(latLng);
-            // Check that the place isn't already in the cache, which is very likely since
-            // if the rate limit elapses and the user hasn't moved, duplicates will be returned.
-            if (!cached.contains(place.getLatLng())) {
-                // place.save();
-                repository.savePlace(place);
-            } else {
-                SantaLog.d(LOG_TAG, "Location already cached, discarding: " + latLng);
-            }
+            toInsert.add(new Place(latLng));
         }
+        long[] ids = database.placeDao().insertPlaces(toInsert);
+        int skipped = 0;
+        for (long id : ids) {
+            if (id == -1) skipped++;
+        }
+        SantaLog.d(LOG_TAG, "fetchPlaces: " + skipped + " place(s) were already cached");
 
         cullPlaceCacheIfTooLarge(config);
     }
@@ -189,7 +249,12 @@ public class PQRepository {
         // TODO not sure why but present doesn't update the updated field
 
         int rows = database.presentDao().updatePresent(present);
-        if (rows <= 0) database.presentDao().insertPresent(present);
+        if (rows <= 0) {
+            long id = database.presentDao().insertPresent(present);
+            if (id == -1) return;
+            present.id = id;
+        }
+        getPresentIndex().put(present.id, present.getLatLng(), present);
     }
 
     public List<Present> getAllPresents() {
@@ -198,6 +263,28 @@ public class PQRepository {
 
     public void deletePresent(Present present) {
         database.presentDao().delete(present);
+        getPresentIndex().remove(present.id);
+    }
+
+    /** Returns the presents within the given radius of a point, nearest first. */
+    public List<Present> getPresentsWithin(LatLng center, int radius) {
+        return getPresentIndex().withinRadius(center, radius);
+    }
+
+    /** Returns all presents, nearest to the given point first. */
+    public List<Present> getPresentsNearestFirst(LatLng center) {
+        GeoIndex<Present> index = getPresentIndex();
+        return index.nearest(center, index.size());
+    }
+
+    private synchronized GeoIndex<Present> getPresentIndex() {
+        if (presentIndex == null) {
+            presentIndex = new GeoIndex<>(INDEX_CELL_METERS);
+            for (Present present : database.presentDao().getAll()) {
+                presentIndex.put(present.id, present.getLatLng(), present);
+            }
+        }
+        return presentIndex;
     }
 
     public void collectPresents(final int numberCollected, final User user) {
@@ -269,6 +356,10 @@ public class PQRepository {
         } finally {
             database.endTransaction();
         }
+        synchronized (this) {
+            presentIndex = null;
+            workshopIndex = null;
+        }
     }
 
     public static LatLng randomLatLng(LatLng center, int radius) {
@@ -85,8 +85,6 @@ import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.firebase.analytics.FirebaseAnalytics;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -1303,9 +1301,10 @@ public class MapsActivity extends OnDemandActivity
     }
 
     private List<Present> getPresentsSorted() {
-        List<Present> presents = repository.getAllPresents();
-        Collections.sort(presents, new PresentComparator());
-        return presents;
+        if (mCurrentLatLng == null) {
+            return repository.getAllPresents();
+        }
+        return repository.getPresentsNearestFirst(mCurrentLatLng);
     }
 
     private List<Present> getPresentsNearby() {
@@ -1321,13 +1320,7 @@ public class MapsActivity extends OnDemandActivity
             return new ArrayList<>();
         }
 
-        List<Present> presents = new ArrayList<>();
-        for (Present present : mPresents) {
-            if (Distance.between(mCurrentLatLng, present.getLatLng()) <= radius) {
-                presents.add(present);
-            }
-        }
-        return presents;
+        return repository.getPresentsWithin(mCurrentLatLng, radius);
     }
 
     private List<Workshop> getWorkshopsReachable() {
@@ -1335,14 +1328,7 @@ public class MapsActivity extends OnDemandActivity
             return new ArrayList<>();
         }
 
-        List<Workshop> workshops = new ArrayList<>();
-        for (Workshop workshop : mWorkshops) {
-            if (Distance.between(mCurrentLatLng, workshop.getLatLng())
-                    <= mConfig.REACHABLE_RADIUS_METERS) {
-                workshops.add(workshop);
-            }
-        }
-        return workshops;
+        return repository.getWorkshopsWithin(mCurrentLatLng, mConfig.REACHABLE_RADIUS_METERS);
     }
 
     @Override
@@ -1431,16 +1417,6 @@ public class MapsActivity extends OnDemandActivity
         finish();
     }
 
-    private class PresentComparator implements Comparator<Present> {
-
-        @Override
-        public int compare(Present a, Present b) {
-            int distA = Distance.between(mCurrentLatLng, a.getLatLng());
-            int distB = Distance.between(mCurrentLatLng, b.getLatLng());
-            return distA - distB;
-        }
-    }
-
     private void deletePresent(Present present) {
         Marker marker = mPresentMarkers.remove(present.id);
         if (marker != null) {
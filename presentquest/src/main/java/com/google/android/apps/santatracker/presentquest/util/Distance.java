@@ -23,9 +23,44 @@ import com.google.android.gms.maps.model.LatLng;
 /** Util for calculating distance between two latlngs. */
 public class Distance {
 
+    /** Meters per degree of latitude, and per degree of longitude at the equator. */
+    public static final double METERS_PER_DEGREE = 111320.0;
+
+    // Location.distanceBetween writes its result into an array; reuse one per thread instead of
+    // allocating one per call.
+    private static final ThreadLocal<float[]> RESULTS =
+            new ThreadLocal<float[]>() {
+                @Override
+                protected float[] initialValue() {
+                    return new float[1];
+                }
+            };
+
     public static int between(LatLng a, LatLng b) {
-        float[] distance = new float[1];
-        Location.distanceBetween(a.longitude, a.latitude, b.longitude, b.latitude, distance);
-        return (int) distance[0];
+        return (int) between(a.latitude, a.longitude, b.latitude, b.longitude);
+    }
+
+    /** Returns the distance between two points in meters, on the WGS84 ellipsoid. */
+    public static float between(double latA, double lngA, double latB, double lngB) {
+        float[] distance = RESULTS.get();
+        Location.distanceBetween(latA, lngA, latB, lngB, distance);
+        return distance[0];
+    }
+
+    /**
+     * Returns an approximation of the distance between two points in meters, treating the earth as
+     * flat around them (an equirectangular projection). Much cheaper than {@link #between}, and
+     * within a fraction of a percent of it over the few kilometers the game cares about.
+     */
+    public static double approximately(double latA, double lngA, double latB, double lngB) {
+        double deltaLng = lngB - lngA;
+        if (deltaLng > 180) {
+            deltaLng -= 360;
+        } else if (deltaLng < -180) {
+            deltaLng += 360;
+        }
+        double x = deltaLng * Math.cos(Math.toRadians((latA + latB) / 2));
+        double y = latB - latA;
+        return Math.sqrt(x * x + y * y) * METERS_PER_DEGREE;
     }
 }
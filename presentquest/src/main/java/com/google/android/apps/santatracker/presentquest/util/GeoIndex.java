@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.presentquest.util;
+
+import com.google.android.gms.maps.model.LatLng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of things on the map, answering "what is within this radius" and "what is
+ * nearest" without looking at everything.
+ *
+ * <p>Items are bucketed into a grid of cells a fixed number of degrees on each side. A query only
+ * visits the cells overlapping the circle it asks about, rejects most of their items with the
+ * cheap {@link Distance#approximately} and only computes {@link Distance#between} for the rest.
+ *
+ * <p>All methods are synchronized, so one index can be shared between the UI thread and the
+ * places service.
+ *
+ * @param <T> the type of item, e.g. {@link
+ *     com.google.android.apps.santatracker.presentquest.vo.Present}.
+ */
+public class GeoIndex<T> {
+
+    // Slack allowed for the approximate distance before an item is rejected without computing
+    // its exact distance.
+    private static final double APPROXIMATION_MARGIN = 1.01;
+    private static final double APPROXIMATION_MARGIN_METERS = 1.0;
+    // Beyond this the flat-earth approximation is too far off to reject anything with.
+    private static final double MAX_APPROXIMATION_METERS = 100000.0;
+
+    // Half the earth's circumference: no two points are further apart than this.
+    private static final double MAX_DISTANCE_METERS = 20040000.0;
+
+    private static final Comparator<Entry<?>> NEAREST_FIRST =
+            new Comparator<Entry<?>>() {
+                @Override
+                public int compare(Entry<?> a, Entry<?> b) {
+                    return Float.compare(a.distance, b.distance);
+                }
+            };
+
+    private final double mCellDegrees;
+    private final int mColumns;
+    private final Map<Long, List<Entry<T>>> mCells = new HashMap<>();
+    private final Map<Long, Entry<T>> mEntries = new HashMap<>();
+    private final ArrayList<Entry<T>> mCandidates = new ArrayList<>();
+
+    /**
+     * @param cellMeters the size of a grid cell, which should be around the radius of a typical
+     *     query.
+     */
+    public GeoIndex(double cellMeters) {
+        mCellDegrees = cellMeters / Distance.METERS_PER_DEGREE;
+        mColumns = (int) Math.ceil(360 / mCellDegrees);
+    }
+
+    /** Adds an item, or moves it if an item with the same id is already indexed. */
+    public synchronized void put(long id, LatLng latLng, T item) {
+        remove(id);
+        Entry<T> entry = new Entry<>(id, latLng.latitude, latLng.longitude, item);
+        long key = cellKey(row(entry.lat), column(entry.lng));
+        List<Entry<T>> cell = mCells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<>(2);
+            mCells.put(key, cell);
+        }
+        cell.add(entry);
+        mEntries.put(id, entry);
+    }
+
+    /** @return true if an item with the given id was indexed. */
+    public synchronized boolean remove(long id) {
+        Entry<T> entry = mEntries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        long key = cellKey(row(entry.lat), column(entry.lng));
+        List<Entry<T>> cell = mCells.get(key);
+        cell.remove(entry);
+        if (cell.isEmpty()) {
+            mCells.remove(key);
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        mCells.clear();
+        mEntries.clear();
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    /** Returns the items within the given radius of a point, nearest first. */
+    public synchronized List<T> withinRadius(LatLng center, double radiusMeters) {
+        collect(center.latitude, center.longitude, radiusMeters);
+        return sortedCandidates(mCandidates.size());
+    }
+
+    /** Returns the (at most) k items nearest to a point, nearest first. */
+    public synchronized List<T> nearest(LatLng center, int k) {
+        if (k >= mEntries.size()) {
+            return withinRadius(center, MAX_DISTANCE_METERS);
+        }
+        // Widen the search until it holds at least k items; the k nearest are among them.
+        double radius = mCellDegrees * Distance.METERS_PER_DEGREE;
+        collect(center.latitude, center.longitude, radius);
+        while (mCandidates.size() < k) {
+            radius *= 2;
+            collect(center.latitude, center.longitude, radius);
+        }
+        return sortedCandidates(k);
+    }
+
+    /** Fills mCandidates with the entries within the radius, and their exact distances. */
+    private void collect(double lat, double lng, double radiusMeters) {
+        mCandidates.clear();
+        double approximateLimit =
+                radiusMeters <= MAX_APPROXIMATION_METERS
+                        ? radiusMeters * APPROXIMATION_MARGIN + APPROXIMATION_MARGIN_METERS
+                        : Double.POSITIVE_INFINITY;
+
+        double latSpan = radiusMeters / Distance.METERS_PER_DEGREE;
+        int firstRow = row(Math.max(-90, lat - latSpan));
+        int lastRow = row(Math.min(90, lat + latSpan));
+
+        // Longitude degrees shrink towards the poles; near them, just visit every column.
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(lat) + latSpan)));
+        double columnSpan = Math.ceil(latSpan / cos / mCellDegrees) + 1;
+        int firstColumn;
+        int columnCount;
+        if (cos <= 0 || 2 * columnSpan + 1 >= mColumns) {
+            firstColumn = 0;
+            columnCount = mColumns;
+        } else {
+            firstColumn = column(lng) - (int) columnSpan;
+            columnCount = 2 * (int) columnSpan + 1;
+        }
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int i = 0; i < columnCount; i++) {
+                int column = wrapColumn(firstColumn + i);
+                List<Entry<T>> cell = mCells.get(cellKey(row, column));
+                if (cell == null) {
+                    continue;
+                }
+                for (int j = 0; j < cell.size(); j++) {
+                    Entry<T> entry = cell.get(j);
+                    if (Distance.approximately(lat, lng, entry.lat, entry.lng)
+                            > approximateLimit) {
+                        continue;
+                    }
+                    entry.distance = Distance.between(lat, lng, entry.lat, entry.lng);
+                    if (entry.distance <= radiusMeters) {
+                        mCandidates.add(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<T> sortedCandidates(int limit) {
+        Collections.sort(mCandidates, NEAREST_FIRST);
+        int count = Math.min(limit, mCandidates.size());
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(mCandidates.get(i).item);
+        }
+        mCandidates.clear();
+        return result;
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor((lat + 90) / mCellDegrees);
+    }
+
+    private int column(double lng) {
+        return wrapColumn((int) Math.floor((lng + 180) / mCellDegrees));
+    }
+
+    private int wrapColumn(int column) {
+        int wrapped = column % mColumns;
+        return wrapped < 0 ? wrapped + mColumns : wrapped;
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static class Entry<T> {
+        final long id;
+        final double lat;
+        final double lng;
+        final T item;
+        float distance;
+
+        Entry(long id, double lat, double lng, T item) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+            this.item = item;
+        }
+    }
+}
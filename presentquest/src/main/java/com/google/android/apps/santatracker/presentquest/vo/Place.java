@@ -27,7 +27,8 @@ import com.google.android.gms.maps.model.LatLng;
         indices = {
             @Index(
                     value = {"lat", "lng"},
-                    unique = true)
+                    unique = true),
+            @Index(value = {"latitude", "longitude"})
         })
 public class Place {
 
@@ -38,6 +39,9 @@ public class Place {
     // TODO make lat/long an embedded object
     public String lat;
     public String lng;
+    // Numeric copies of lat/lng, so places can be looked up by bounding box.
+    public double latitude;
+    public double longitude;
     public long updated;
 
     public Place(LatLng latLng) {
@@ -56,5 +60,7 @@ public class Place {
     public void setLatLng(LatLng latLng) {
         lat = String.valueOf(latLng.latitude);
         lng = String.valueOf(latLng.longitude);
+        latitude = latLng.latitude;
+        longitude = latLng.longitude;
     }
 }
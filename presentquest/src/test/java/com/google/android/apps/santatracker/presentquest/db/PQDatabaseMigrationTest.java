@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.presentquest.db;
+
+import static org.junit.Assert.assertEquals;
+
+import android.app.Instrumentation;
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+
+import com.google.android.apps.santatracker.presentquest.BuildConfig;
+import com.google.android.apps.santatracker.presentquest.vo.Place;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/** Test for the {@link PQDatabase} migrations, against the schemas exported by Room. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class PQDatabaseMigrationTest {
+
+    private static final String TEST_DB = "migration-test";
+
+    @Rule
+    public MigrationTestHelper helper =
+            new MigrationTestHelper(
+                    new RobolectricInstrumentation(),
+                    PQDatabase.class.getCanonicalName(),
+                    new FrameworkSQLiteOpenHelperFactory());
+
+    @Test
+    public void testMigrate1To2CopiesCoordinates() throws Exception {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        insertPlace(db, "51.5007", "-0.1246");
+        insertPlace(db, "-33.8568", "151.2153");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 2, true, PQDatabase.MIGRATION_1_2);
+
+        Cursor cursor =
+                db.query("SELECT `latitude`, `longitude` FROM `Place` ORDER BY `id`");
+        try {
+            assertEquals(2, cursor.getCount());
+            cursor.moveToNext();
+            assertEquals(51.5007, cursor.getDouble(0), 0);
+            assertEquals(-0.1246, cursor.getDouble(1), 0);
+            cursor.moveToNext();
+            assertEquals(-33.8568, cursor.getDouble(0), 0);
+            assertEquals(151.2153, cursor.getDouble(1), 0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testMigrate1To2ToleratesMissingCoordinates() throws Exception {
+        // lat and lng were nullable in version 1.
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        insertPlace(db, null, "10.0");
+        insertPlace(db, "20.0", null);
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 2, true, PQDatabase.MIGRATION_1_2);
+
+        Cursor cursor =
+                db.query("SELECT `latitude`, `longitude` FROM `Place` ORDER BY `id`");
+        try {
+            assertEquals(2, cursor.getCount());
+            cursor.moveToNext();
+            assertEquals(0, cursor.getDouble(0), 0);
+            assertEquals(10, cursor.getDouble(1), 0);
+            cursor.moveToNext();
+            assertEquals(20, cursor.getDouble(0), 0);
+            assertEquals(0, cursor.getDouble(1), 0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testMigratedPlacesAreFoundByBounds() throws Exception {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        insertPlace(db, "51.5007", "-0.1246");
+        insertPlace(db, "48.8584", "2.2945");
+        db.close();
+        helper.runMigrationsAndValidate(TEST_DB, 2, true, PQDatabase.MIGRATION_1_2);
+
+        PQDatabase database =
+                Room.databaseBuilder(RuntimeEnvironment.application, PQDatabase.class, TEST_DB)
+                        .addMigrations(PQDatabase.MIGRATION_1_2)
+                        .allowMainThreadQueries()
+                        .build();
+        helper.closeWhenFinished(database);
+
+        List<Place> places = database.placeDao().getWithinBounds(51, -1, 52, 0);
+        assertEquals(1, places.size());
+        assertEquals("51.5007", places.get(0).lat);
+    }
+
+    private static void insertPlace(SupportSQLiteDatabase db, String lat, String lng) {
+        ContentValues values = new ContentValues();
+        values.put("used", 0);
+        values.put("lat", lat);
+        values.put("lng", lng);
+        values.put("updated", 0);
+        db.insert("Place", SQLiteDatabase.CONFLICT_ABORT, values);
+    }
+
+    /** Instrumentation for MigrationTestHelper, which reads the schemas from its assets. */
+    private static class RobolectricInstrumentation extends Instrumentation {
+        @Override
+        public Context getContext() {
+            return RuntimeEnvironment.application;
+        }
+
+        @Override
+        public Context getTargetContext() {
+            return RuntimeEnvironment.application;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.presentquest.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+
+import androidx.room.Room;
+
+import com.google.android.apps.santatracker.presentquest.BuildConfig;
+import com.google.android.apps.santatracker.presentquest.vo.Place;
+import com.google.android.gms.maps.model.LatLng;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/** Test for the bounding box query of {@link PlaceDao} over a large place cache. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class PlaceDaoTest {
+
+    private static final int PLACES = 50000;
+    // Places are spread over about 50 km around central London.
+    private static final double CENTER_LAT = 51.5;
+    private static final double CENTER_LNG = -0.12;
+    private static final double SPAN_DEGREES = 0.5;
+    private static final int QUERIES = 100;
+
+    private PQDatabase database;
+    private PlaceDao dao;
+
+    @Before
+    public void setUp() {
+        database =
+                Room.inMemoryDatabaseBuilder(RuntimeEnvironment.application, PQDatabase.class)
+                        .allowMainThreadQueries()
+                        .build();
+        dao = database.placeDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void testWithinBoundsMatchesScan() {
+        Random random = new Random(42);
+        List<Place> places = new ArrayList<>(PLACES);
+        for (int i = 0; i < PLACES; i++) {
+            places.add(new Place(randomLatLng(random)));
+        }
+        long[] ids = dao.insertPlaces(places);
+        assertEquals(PLACES, ids.length);
+        assertEquals(PLACES, dao.count());
+
+        long nanos = 0;
+        int found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            LatLng center = randomLatLng(random);
+            // Roughly the box around a 1 km radius.
+            double south = center.latitude - 0.009;
+            double north = center.latitude + 0.009;
+            double west = center.longitude - 0.015;
+            double east = center.longitude + 0.015;
+
+            long start = System.nanoTime();
+            List<Place> inBounds = dao.getWithinBounds(south, west, north, east);
+            nanos += System.nanoTime() - start;
+
+            int expected = 0;
+            for (Place place : places) {
+                if (place.latitude >= south
+                        && place.latitude <= north
+                        && place.longitude >= west
+                        && place.longitude <= east) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, inBounds.size());
+            for (Place place : inBounds) {
+                assertTrue(place.latitude >= south && place.latitude <= north);
+                assertTrue(place.longitude >= west && place.longitude <= east);
+            }
+            found += expected;
+        }
+        System.out.println(
+                String.format(
+                        "PlaceDaoTest getWithinBounds over %d places: %.1f us/query, %d found",
+                        PLACES, nanos / 1000.0 / QUERIES, found));
+    }
+
+    @Test
+    public void testWithinBoundsUsesIndex() {
+        Cursor cursor =
+                database.query(
+                        "EXPLAIN QUERY PLAN SELECT * FROM place"
+                                + " WHERE latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?",
+                        new Object[] {51.4, 51.6, -0.2, 0});
+        try {
+            StringBuilder plan = new StringBuilder();
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(cursor.getColumnCount() - 1)).append('\n');
+            }
+            assertTrue(plan.toString(), plan.toString().contains("index_Place_latitude_longitude"));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testInsertPlacesSkipsDuplicates() {
+        List<Place> places = new ArrayList<>();
+        places.add(new Place(new LatLng(1, 2)));
+        places.add(new Place(new LatLng(1, 2)));
+        places.add(new Place(new LatLng(3, 4)));
+
+        long[] ids = dao.insertPlaces(places);
+
+        assertEquals(-1, ids[1]);
+        assertEquals(2, dao.count());
+    }
+
+    private static LatLng randomLatLng(Random random) {
+        return new LatLng(
+                CENTER_LAT + (random.nextDouble() - 0.5) * SPAN_DEGREES,
+                CENTER_LNG + (random.nextDouble() - 0.5) * SPAN_DEGREES * 1.6);
+    }
+}
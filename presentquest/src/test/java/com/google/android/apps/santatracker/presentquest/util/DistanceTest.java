@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.presentquest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.apps.santatracker.presentquest.BuildConfig;
+import com.google.android.gms.maps.model.LatLng;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/** Test for {@link Distance}. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class DistanceTest {
+
+    @Test
+    public void testBetweenAlongParallel() {
+        // A degree of longitude at 60N is half as long as a degree of latitude. With latitude and
+        // longitude swapped this would measure a degree of latitude at 10N instead.
+        LatLng a = new LatLng(60, 10);
+        LatLng b = new LatLng(60, 11);
+
+        assertEquals(55800, Distance.between(a, b), 200);
+    }
+
+    @Test
+    public void testBetweenAlongMeridian() {
+        // A degree of latitude at the equator is shorter than a degree of longitude there.
+        assertEquals(110574, Distance.between(new LatLng(0, 0), new LatLng(1, 0)), 100);
+        assertEquals(111319, Distance.between(new LatLng(0, 0), new LatLng(0, 1)), 100);
+    }
+
+    @Test
+    public void testBetweenIsSymmetric() {
+        LatLng a = new LatLng(37.422, -122.084);
+        LatLng b = new LatLng(37.386, -122.083);
+
+        assertEquals(Distance.between(a, b), Distance.between(b, a));
+        assertEquals(0, Distance.between(a, a));
+    }
+
+    @Test
+    public void testApproximatelyIsCloseOverShortDistances() {
+        double lat = 51.5;
+        double lng = -0.12;
+        for (int i = 0; i < 16; i++) {
+            double angle = i * Math.PI / 8;
+            double lat2 = lat + 0.02 * Math.sin(angle);
+            double lng2 = lng + 0.03 * Math.cos(angle);
+            float exact = Distance.between(lat, lng, lat2, lng2);
+            double approximate = Distance.approximately(lat, lng, lat2, lng2);
+            assertTrue(Math.abs(approximate - exact) < 0.01 * exact);
+        }
+    }
+
+    @Test
+    public void testApproximatelyWrapsAroundAntimeridian() {
+        assertEquals(
+                0.2 * Distance.METERS_PER_DEGREE,
+                Distance.approximately(0, 179.9, 0, -179.9),
+                1);
+        assertEquals(
+                Distance.approximately(10, 179.95, 10, -179.95),
+                Distance.approximately(10, -179.95, 10, 179.95),
+                0);
+    }
+}
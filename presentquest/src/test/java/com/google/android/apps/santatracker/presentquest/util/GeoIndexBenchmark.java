@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.presentquest.util;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.android.apps.santatracker.presentquest.BuildConfig;
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Measures radius and nearest-first lookups over 10k places with {@link GeoIndex} against the
+ * scan over every row which MapsActivity and PlacesIntentService used to do. The places are spread
+ * over a 20 km square, the size of the area a player covers with the place cache, and queried
+ * with the game's reachable and nearby radii.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class GeoIndexBenchmark {
+
+    private static final int PLACES = 10000;
+    private static final double CENTER_LAT = 51.5;
+    private static final double CENTER_LNG = -0.12;
+    private static final double SPAN_DEGREES = 0.18;
+    private static final int[] RADII = {100, 1000, 5000};
+    private static final int NEAREST = 10;
+
+    private static final int QUERIES = 50;
+    // Sorting every place is slow enough that a few queries are plenty.
+    private static final int SORT_QUERIES = 5;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void benchmarkPlaces() {
+        Random random = new Random(42);
+        List<LatLng> places = new ArrayList<>(PLACES);
+        GeoIndex<LatLng> index = new GeoIndex<>(1000);
+        for (int i = 0; i < PLACES; i++) {
+            LatLng place = randomLatLng(random);
+            places.add(place);
+            index.put(i, place, place);
+        }
+        LatLng[] centers = new LatLng[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            centers[i] = randomLatLng(random);
+        }
+
+        for (int radius : RADII) {
+            long scanNanos = Long.MAX_VALUE;
+            long indexNanos = Long.MAX_VALUE;
+            int found = 0;
+            for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+                long start = System.nanoTime();
+                int scanned = 0;
+                for (LatLng center : centers) {
+                    scanned += scan(places, center, radius).size();
+                }
+                long scan = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                found = 0;
+                for (LatLng center : centers) {
+                    found += index.withinRadius(center, radius).size();
+                }
+                long indexed = System.nanoTime() - start;
+
+                assertEquals(scanned, found);
+                if (round >= WARMUP_ROUNDS) {
+                    scanNanos = Math.min(scanNanos, scan);
+                    indexNanos = Math.min(indexNanos, indexed);
+                }
+            }
+            report("withinRadius " + radius + " m", QUERIES, scanNanos, indexNanos, found);
+        }
+
+        long scanNanos = Long.MAX_VALUE;
+        long indexNanos = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            List<List<LatLng>> scanned = new ArrayList<>(SORT_QUERIES);
+            for (int i = 0; i < SORT_QUERIES; i++) {
+                scanned.add(sortNearestFirst(places, centers[i]).subList(0, NEAREST));
+            }
+            long scan = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<List<LatLng>> indexed = new ArrayList<>(SORT_QUERIES);
+            for (int i = 0; i < SORT_QUERIES; i++) {
+                indexed.add(index.nearest(centers[i], NEAREST));
+            }
+            long indexTime = System.nanoTime() - start;
+
+            assertEquals(scanned, indexed);
+            if (round >= WARMUP_ROUNDS) {
+                scanNanos = Math.min(scanNanos, scan);
+                indexNanos = Math.min(indexNanos, indexTime);
+            }
+        }
+        report("nearest " + NEAREST, SORT_QUERIES, scanNanos, indexNanos, SORT_QUERIES * NEAREST);
+    }
+
+    private static void report(
+            String name, int queries, long scanNanos, long indexNanos, int found) {
+        System.out.println(
+                String.format(
+                        "GeoIndexBenchmark %-20s scan %10.1f us/query, index %8.1f us/query, "
+                                + "%d found",
+                        name,
+                        scanNanos / 1000.0 / queries,
+                        indexNanos / 1000.0 / queries,
+                        found));
+    }
+
+    /** Every place within the radius, as the repository's callers used to find them. */
+    private static List<LatLng> scan(List<LatLng> places, LatLng center, int radius) {
+        List<LatLng> result = new ArrayList<>();
+        for (LatLng place : places) {
+            if (Distance.between(
+                            center.latitude, center.longitude, place.latitude, place.longitude)
+                    <= radius) {
+                result.add(place);
+            }
+        }
+        return result;
+    }
+
+    /** Sorts by distance, computing it on every comparison as PresentComparator did. */
+    private static List<LatLng> sortNearestFirst(List<LatLng> places, final LatLng center) {
+        List<LatLng> sorted = new ArrayList<>(places);
+        Collections.sort(
+                sorted,
+                new Comparator<LatLng>() {
+                    @Override
+                    public int compare(LatLng a, LatLng b) {
+                        return Float.compare(
+                                Distance.between(
+                                        center.latitude, center.longitude, a.latitude, a.longitude),
+                                Distance.between(
+                                        center.latitude,
+                                        center.longitude,
+                                        b.latitude,
+                                        b.longitude));
+                    }
+                });
+        return sorted;
+    }
+
+    private static LatLng randomLatLng(Random random) {
+        return new LatLng(
+                CENTER_LAT + (random.nextDouble() - 0.5) * SPAN_DEGREES,
+                CENTER_LNG + (random.nextDouble() - 0.5) * SPAN_DEGREES * 1.6);
+    }
+}
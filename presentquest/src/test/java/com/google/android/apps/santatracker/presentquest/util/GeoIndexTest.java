@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.apps.santatracker.presentquest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.apps.santatracker.presentquest.BuildConfig;
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/** Test for {@link GeoIndex}. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26, constants = BuildConfig.class)
+public class GeoIndexTest {
+
+    private final GeoIndex<String> index = new GeoIndex<>(1000);
+
+    @Test
+    public void testWithinRadiusIsNearestFirst() {
+        index.put(1, new LatLng(51.5041, -0.1201), "far");
+        index.put(2, new LatLng(51.5001, -0.1201), "near");
+        index.put(3, new LatLng(51.5021, -0.1201), "middle");
+        index.put(4, new LatLng(51.600, -0.120), "outside");
+
+        assertEquals(
+                Arrays.asList("near", "middle", "far"),
+                index.withinRadius(new LatLng(51.5001, -0.1201), 500));
+    }
+
+    @Test
+    public void testWithinRadiusMatchesBruteForce() {
+        Random random = new Random(42);
+        List<LatLng> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LatLng point =
+                    new LatLng(
+                            37.4 + random.nextDouble() * 0.1, -122.1 + random.nextDouble() * 0.1);
+            points.add(point);
+            index.put(i, point, String.valueOf(i));
+        }
+        for (int q = 0; q < 50; q++) {
+            LatLng center =
+                    new LatLng(
+                            37.4 + random.nextDouble() * 0.1, -122.1 + random.nextDouble() * 0.1);
+            int radius = 100 + random.nextInt(3000);
+            assertEquals(bruteForce(points, center, radius), index.withinRadius(center, radius));
+        }
+    }
+
+    @Test
+    public void testWithinRadiusAcrossAntimeridian() {
+        index.put(1, new LatLng(-16.5, 179.995), "east");
+        index.put(2, new LatLng(-16.5, -179.995), "west");
+
+        assertEquals(
+                Arrays.asList("west", "east"),
+                index.withinRadius(new LatLng(-16.5, -179.999), 2000));
+        assertEquals(
+                Arrays.asList("east", "west"),
+                index.withinRadius(new LatLng(-16.5, 179.999), 2000));
+    }
+
+    @Test
+    public void testWithinRadiusNearPole() {
+        // Near the poles a circle spans every column of the grid.
+        index.put(1, new LatLng(89.99, 0), "a");
+        index.put(2, new LatLng(89.99, 180), "b");
+
+        assertEquals(2, index.withinRadius(new LatLng(89.99, 90), 3000).size());
+    }
+
+    @Test
+    public void testPutAgainMovesItem() {
+        index.put(1, new LatLng(10, 10), "item");
+        index.put(1, new LatLng(20, 20), "item");
+
+        assertEquals(1, index.size());
+        assertTrue(index.withinRadius(new LatLng(10, 10), 1000).isEmpty());
+        assertEquals(
+                Collections.singletonList("item"), index.withinRadius(new LatLng(20, 20), 1000));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        index.put(1, new LatLng(10, 10), "a");
+        index.put(2, new LatLng(10, 10.001), "b");
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(
+                Collections.singletonList("b"), index.withinRadius(new LatLng(10, 10), 1000));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.withinRadius(new LatLng(10, 10), 1000).isEmpty());
+    }
+
+    @Test
+    public void testNearestWidensUntilItFindsK() {
+        index.put(1, new LatLng(0, 0), "origin");
+        index.put(2, new LatLng(0, 0.5), "near");
+        index.put(3, new LatLng(0, 2), "middle");
+        index.put(4, new LatLng(0, 40), "far");
+
+        assertEquals(Arrays.asList("origin", "near"), index.nearest(new LatLng(0, 0), 2));
+        assertEquals(
+                Arrays.asList("origin", "near", "middle"), index.nearest(new LatLng(0, 0), 3));
+    }
+
+    @Test
+    public void testNearestReturnsEverythingWhenKIsLarge() {
+        index.put(1, new LatLng(0, 0), "origin");
+        index.put(2, new LatLng(-60, 120), "antipodean");
+        index.put(3, new LatLng(45, 45), "middle");
+
+        assertEquals(
+                Arrays.asList("origin", "middle", "antipodean"),
+                index.nearest(new LatLng(0, 0), 10));
+    }
+
+    private static List<String> bruteForce(
+            List<LatLng> points, final LatLng center, int radius) {
+        List<Integer> found = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            if (distance(center, points.get(i)) <= radius) {
+                found.add(i);
+            }
+        }
+        final List<LatLng> all = points;
+        Collections.sort(
+                found,
+                new Comparator<Integer>() {
+                    @Override
+                    public int compare(Integer a, Integer b) {
+                        return Float.compare(
+                                distance(center, all.get(a)), distance(center, all.get(b)));
+                    }
+                });
+        List<String> result = new ArrayList<>(found.size());
+        for (Integer i : found) {
+            result.add(String.valueOf(i));
+        }
+        return result;
+    }
+
+    private static float distance(LatLng a, LatLng b) {
+        return Distance.between(a.latitude, a.longitude, b.latitude, b.longitude);
+    }
+}
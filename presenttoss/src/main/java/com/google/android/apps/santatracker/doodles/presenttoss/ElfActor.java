@@ -22,7 +22,7 @@ import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
 import com.google.android.apps.santatracker.doodles.shared.animation.ActorTween.Callback;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite.AnimatedSpriteListener;
-import com.google.android.apps.santatracker.doodles.shared.physics.Util;
+import com.google.android.apps.santatracker.doodles.shared.physics.SpatialHashGrid;
 import com.google.android.apps.santatracker.util.SantaLog;
 import java.util.HashMap;
 
@@ -54,8 +54,8 @@ public class ElfActor extends Actor {
         }
         currentSprite.update(deltaMs);
         if (collisionBox != null) {
-            collisionBox.dimens =
-                    Vector2D.get(collisionWidthUnscaled * scale, collisionHeightUnscaled * scale);
+            collisionBox.dimens.set(
+                    collisionWidthUnscaled * scale, collisionHeightUnscaled * scale);
 
             // The collision box should be centered on the sprite.
             float centerX =
@@ -119,9 +119,21 @@ public class ElfActor extends Actor {
         if (hidden || body == WaterPoloActorPart.BodyEntrance || collisionBox == null) {
             return false;
         }
-        Vector2D worldCoords = Vector2D.get(x, y);
-        Vector2D lowerRight = Vector2D.get(collisionBox.position).add(collisionBox.dimens);
-        return Util.pointIsWithinBounds(collisionBox.position, lowerRight, worldCoords);
+        // Checked inline rather than with Util.pointIsWithinBounds so that this doesn't pull two
+        // vectors out of the pool for every ball on every frame.
+        Vector2D min = collisionBox.position;
+        Vector2D dimens = collisionBox.dimens;
+        return x >= min.x && x <= min.x + dimens.x && y >= min.y && y <= min.y + dimens.y;
+    }
+
+    /** Register or move this actor's collision box in the given broad phase. */
+    public void updateCollisionBounds(SpatialHashGrid<ElfActor> grid) {
+        if (collisionBox == null) {
+            return;
+        }
+        Vector2D min = collisionBox.position;
+        Vector2D dimens = collisionBox.dimens;
+        grid.insert(this, min.x, min.y, min.x + dimens.x, min.y + dimens.y);
     }
 
     public void idle() {
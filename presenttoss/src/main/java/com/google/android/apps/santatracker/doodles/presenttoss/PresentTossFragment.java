@@ -53,6 +53,25 @@ public class PresentTossFragment extends GameFragment implements EventBusListene
     private EventBus eventBus;
     private boolean mIsGameOver = false;
 
+    // The score can change several times a frame, so its events are delivered to the UI thread
+    // in one batch per frame rather than posted one by one.
+    private final EventBusListener scoreListener =
+            new EventBusListener() {
+                @Override
+                public void onEventReceived(int type, Object data) {
+                    if (isDestroyed) {
+                        return;
+                    }
+                    scoreView.updateCurrentScore(
+                            AndroidUtils.getText(
+                                    context.getResources(),
+                                    com.google.android.apps.santatracker.common.R.string
+                                            .waterpolo_score,
+                                    (Integer) data),
+                            true);
+                }
+            };
+
     @Override
     protected ScoreView getScoreView() {
         PresentTossScoreView scoreView = new PresentTossScoreView(context, this);
@@ -134,8 +153,9 @@ public class PresentTossFragment extends GameFragment implements EventBusListene
     protected void secondPassLoadOnBackgroundThread() {
         super.secondPassLoadOnBackgroundThread();
         eventBus.register(this);
+        eventBus.registerQueued(scoreListener, EventBus.SCORE_CHANGED);
         PresentTossModel model =
-                new PresentTossModel(context.getResources(), context.getApplicationContext());
+                new PresentTossModel(spriteLoader, context.getApplicationContext());
         modelRef.set(model);
         gameView.setModel(model);
         if (scoreView instanceof PresentTossScoreView) {
@@ -181,29 +201,7 @@ public class PresentTossFragment extends GameFragment implements EventBusListene
         }
         final PresentTossModel model = modelRef.get();
 
-        if (type == EventBus.SCORE_CHANGED) {
-            final Integer score = (Integer) data;
-            getActivity()
-                    .runOnUiThread(
-                            new Runnable() {
-                                @Override
-                                public void run() {
-                                    scoreView.updateCurrentScore(
-                                            AndroidUtils.getText(
-                                                    context.getResources(),
-                                                    com.google
-                                                            .android
-                                                            .apps
-                                                            .santatracker
-                                                            .common
-                                                            .R
-                                                            .string
-                                                            .waterpolo_score,
-                                                    score),
-                                            true);
-                                }
-                            });
-        } else if (type == EventBus.PLAY_SOUND && soundManager != null) {
+        if (type == EventBus.PLAY_SOUND && soundManager != null) {
             int resId = (int) data;
             soundManager.play(resId);
         } else if (type == EventBus.PAUSE_SOUND && soundManager != null) {
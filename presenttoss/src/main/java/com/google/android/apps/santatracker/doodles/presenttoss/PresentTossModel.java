@@ -35,8 +35,10 @@ import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSpr
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite.AnimatedSpriteListener;
 import com.google.android.apps.santatracker.doodles.shared.animation.EmptyTween;
 import com.google.android.apps.santatracker.doodles.shared.animation.Interpolator;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.animation.Tween;
 import com.google.android.apps.santatracker.doodles.shared.animation.TweenManager;
+import com.google.android.apps.santatracker.doodles.shared.physics.SpatialHashGrid;
 import com.google.android.apps.santatracker.doodles.shared.views.GameFragment;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -80,6 +82,9 @@ public class PresentTossModel {
     private static final float GOAL_BOX_Y = 75;
     private static final float GOAL_BOX_WIDTH = 333;
     private static final float GOAL_BOX_HEIGHT = 98;
+    // About the size of an opponent's collision box, so a ball only ever checks the opponents
+    // swimming right around it.
+    private static final float OPPONENT_GRID_CELL_SIZE = 128;
     private final Vibrator vibrator;
     public CameraShake cameraShake;
     public List<Actor> actors;
@@ -90,12 +95,15 @@ public class PresentTossModel {
     RectangularInstructionActor instructions;
     private List<Actor> effects;
     private Resources resources;
+    private SpriteLoader sprites;
     private EventBus eventBus;
     private TweenManager tweenManager;
     private ElfActor player;
     private ElfActor opponentOne;
     private ElfActor opponentTwo;
     private ElfActor opponentThree;
+    private SpatialHashGrid<ElfActor> opponentGrid;
+    private List<ElfActor> nearbyOpponents;
     private ColoredRectangleActor timeLeftFrameBorder;
     private ColoredRectangleActor timeLeftFrame;
     private TextActor timeLeftText;
@@ -113,11 +121,14 @@ public class PresentTossModel {
     private boolean canThrow;
     private boolean didReset;
 
-    public PresentTossModel(Resources resources, Context context) {
-        this.resources = resources;
+    public PresentTossModel(SpriteLoader sprites, Context context) {
+        this.sprites = sprites;
+        this.resources = sprites.getResources();
         actors = Collections.synchronizedList(new ArrayList<Actor>());
         effects = new ArrayList<>();
         balls = new ArrayList<>();
+        opponentGrid = new SpatialHashGrid<>(OPPONENT_GRID_CELL_SIZE);
+        nearbyOpponents = new ArrayList<>();
         cameraShake = new CameraShake();
         actors.add(cameraShake);
         tweenManager = new TweenManager();
@@ -272,7 +283,7 @@ public class PresentTossModel {
         AnimatedSprite diagram = spriteWithIds(PresentTossSprites.present_throw_tutorials);
         diagram.setFPS(7);
 
-        instructions = new RectangularInstructionActor(resources, diagram);
+        instructions = new RectangularInstructionActor(sprites, diagram);
         instructions.hidden = true;
         instructions.scale = 0.6f;
         instructions.position.set(
@@ -413,6 +424,10 @@ public class PresentTossModel {
             }
         }
 
+        // The opponents have moved, so refresh the broad phase before checking balls against it.
+        opponentOne.updateCollisionBounds(opponentGrid);
+        opponentTwo.updateCollisionBounds(opponentGrid);
+        opponentThree.updateCollisionBounds(opponentGrid);
         for (int i = balls.size() - 1; i >= 0; i--) {
             updateBall(balls.get(i));
         }
@@ -697,12 +712,14 @@ public class PresentTossModel {
             return null; // Already blocked once, let it go.
         }
 
-        if (opponentOne.canBlock(ball.position.x, ball.position.y)) {
-            return opponentOne;
-        } else if (opponentTwo.canBlock(ball.position.x, ball.position.y)) {
-            return opponentTwo;
-        } else if (opponentThree.canBlock(ball.position.x, ball.position.y)) {
-            return opponentThree;
+        float x = ball.position.x;
+        float y = ball.position.y;
+        opponentGrid.query(x, y, x, y, nearbyOpponents);
+        for (int i = 0; i < nearbyOpponents.size(); i++) {
+            ElfActor opponent = nearbyOpponents.get(i);
+            if (opponent.canBlock(x, y)) {
+                return opponent;
+            }
         }
         return null;
     }
@@ -923,7 +940,7 @@ public class PresentTossModel {
     }
 
     private AnimatedSprite spriteWithIds(int[] ids) {
-        return AnimatedSprite.fromFrames(resources, ids);
+        return sprites.fromSheet(ids);
     }
 
     private void shake(float screenShakeMagnitude, long vibrationMs) {
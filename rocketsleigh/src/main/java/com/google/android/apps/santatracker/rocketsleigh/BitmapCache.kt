@@ -18,115 +18,417 @@ package com.google.android.apps.santatracker.rocketsleigh
 
 import android.content.Context
 import android.graphics.Bitmap
-import android.os.SystemClock
+import android.graphics.BitmapFactory
+import android.graphics.Canvas
+import android.graphics.Color
+import android.graphics.Matrix
+import android.graphics.Paint
+import android.os.Handler
+import android.os.Looper
 import android.util.SparseArray
+import android.widget.ImageView
 import androidx.annotation.DrawableRes
 import androidx.annotation.UiThread
+import androidx.annotation.VisibleForTesting
 import androidx.appcompat.content.res.AppCompatResources
 import androidx.core.graphics.drawable.toBitmap
-import androidx.core.util.containsKey
 import com.google.android.apps.santatracker.util.SantaLog
+import java.util.PriorityQueue
 import java.util.concurrent.Executor
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
 
+/**
+ * Decodes the game's images, scaled to the screen, on a background [executor].
+ *
+ * Images are requested ahead of time with [preload], along with how many screens away from the
+ * viewport they will be needed. Pending requests are decoded nearest first, and once the cached
+ * images take up [maxBytes], only the images needed right away are decoded until some are
+ * released. Released bitmaps are kept in a small pool and decoded into again, rather than
+ * recycled.
+ *
+ * [fetch] returns a cached image, and never decodes or waits on the calling thread: an image which
+ * isn't ready yet is requested as needed right away, and [fetch] returns null. Callers then skip
+ * it, or have it set once it is decoded with [fetchInto] or [whenReady].
+ */
 class BitmapCache(
     private val context: Context,
     private val executor: Executor,
     private val scaleX: Float,
-    private val scaleY: Float
+    private val scaleY: Float,
+    private val maxBytes: Long = Runtime.getRuntime().maxMemory() / 4
 ) {
 
     companion object {
         private const val TAG = "BitmapCache"
+
+        /** Distance of images which are needed on the current screen. */
+        const val NOW = 0
+        /** Distance of images which will be needed within the next couple of screens. */
+        const val SOON = 2
+        /** Distance of images which won't be needed before the next level. */
+        const val LATER = 6
+
+        private const val MAX_POOLED_BITMAPS = 4
     }
 
+    private inner class Request(
+        @DrawableRes val id: Int,
+        val splitSecondary: Boolean,
+        var distance: Int,
+        var order: Long
+    ) {
+        val task = FutureTask<Bitmap> { decode(this) }
+    }
+
+    private val lock = Any()
+    // All guarded by lock.
     private val cache = SparseArray<Bitmap>()
     private val secondaryCache = SparseArray<Bitmap>()
-    private val queued = mutableListOf<Int>()
+    private val requests = SparseArray<Request>()
+    private val queue =
+            PriorityQueue<Request>(16, compareBy<Request>({ it.distance }, { it.order }))
+    private val pool = ArrayList<Bitmap>()
+    private val waiters = ArrayList<Waiter>()
+    private var cachedBytes = 0L
+    private var requestCount = 0L
+    /** Number of posted drains which found the cache full, to be posted again on release. */
+    private var stalledDrains = 0
+
+    /** Bytes of the cached images. */
+    @get:VisibleForTesting
+    internal val bytes: Long
+        get() = synchronized(lock) { cachedBytes }
+
+    /** Actions to run once their requests are no longer pending. */
+    private class Waiter(val pending: List<Request>, val action: Runnable)
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+    /** The pending [fetchInto] of each view. UI thread only. */
+    private val viewFetches = HashMap<ImageView, Runnable>()
 
+    /** Runs the waiters whose requests have all been decoded or released. */
+    private val notifyWaiters = Runnable {
+        val ready = synchronized(lock) {
+            val ready = waiters.filter { waiter -> waiter.pending.none { requests[it.id] === it } }
+            waiters.removeAll(ready)
+            ready
+        }
+        ready.forEach { it.action.run() }
+    }
+
+    /** Decodes the nearest pending request, unless it has to wait for memory to be released. */
+    private val drain = Runnable {
+        val request = synchronized(lock) {
+            val next = queue.peek() ?: return@Runnable
+            if (next.distance > NOW && cachedBytes >= maxBytes) {
+                stalledDrains++
+                return@Runnable
+            }
+            queue.poll()
+        }
+        request.task.run()
+    }
+
+    /**
+     * Requests an image to be decoded in the background.
+     *
+     * @param splitSecondary split the image into two halves, the second of which is fetched with
+     *     `secondary = true`.
+     * @param distance roughly how many screens away from the viewport the image will be needed.
+     *     Nearer images are decoded first. Requesting a pending image again only ever brings it
+     *     nearer.
+     * @return a future for the (primary) image.
+     */
     @UiThread
-    fun preload(@DrawableRes id: Int, splitSecondary: Boolean = false) {
-        if (id == 0 || cache.containsKey(id) || queued.contains(id)) {
-            return
+    fun preload(
+        @DrawableRes id: Int,
+        splitSecondary: Boolean = false,
+        distance: Int = SOON
+    ): Future<Bitmap>? {
+        if (id == 0) {
+            return null
         }
-        queued.add(id)
-        executor.execute {
-            val original = AppCompatResources.getDrawable(context, id)!!.toBitmap()
-            val bitmap = Bitmap.createScaledBitmap(
-                    original,
-                    (original.width * scaleX).toInt(),
-                    (original.height * scaleY).toInt(),
-                    true
-            )
-
-            if (splitSecondary) {
-                val halfWidth = bitmap.width / 2
-                val height = bitmap.height
-                val primary = Bitmap.createBitmap(bitmap, 0, 0, halfWidth, height)
-                val secondary = Bitmap.createBitmap(bitmap, halfWidth, 0, halfWidth, height)
-                synchronized(cache) {
-                    cache.put(id, primary)
-                }
-                synchronized(secondaryCache) {
-                    secondaryCache.put(id, secondary)
-                }
-                bitmap.recycle()
-            } else {
-                synchronized(cache) {
-                    cache.put(id, bitmap)
-                }
+        synchronized(lock) {
+            if (requests[id] == null && isCached(cache, id)) {
+                return null
             }
-            queued.remove(id)
-            SantaLog.d(TAG, "Cache size: ${cache.size()}, queued: ${queued.size}")
+            return request(id, splitSecondary, distance).task
         }
     }
 
+    /**
+     * Returns a cached image, or null if it isn't decoded yet, in which case it is requested as
+     * needed right away. Never decodes or waits for a decode on the calling thread.
+     */
     @UiThread
-    fun fetch(@DrawableRes id: Int, secondary: Boolean = false): Bitmap {
+    fun fetch(@DrawableRes id: Int, secondary: Boolean = false): Bitmap? {
         if (id == 0) {
             throw IllegalArgumentException()
         }
-        val c = if (secondary) secondaryCache else cache
-        val cached = c[id]
-        if (cached != null) {
-            return cached
+        synchronized(lock) {
+            val c = if (secondary) secondaryCache else cache
+            if (isCached(c, id)) {
+                return c[id]
+            }
+            SantaLog.w(TAG, "Bitmap $id was not preloaded in time.")
+            request(id, secondary, NOW)
+            return null
         }
-        if (!queued.contains(id)) {
-            preload(id, secondary)
+    }
+
+    /**
+     * Sets an image on a view, straight away if it is cached, or else once it has been decoded.
+     * A later [fetchInto] or [clear] of the same view cancels the earlier one.
+     */
+    @UiThread
+    fun fetchInto(view: ImageView, @DrawableRes id: Int, secondary: Boolean = false) {
+        val bitmap = fetch(id, secondary)
+        view.setImageBitmap(bitmap)
+        if (bitmap == null) {
+            val update = object : Runnable {
+                override fun run() {
+                    if (viewFetches[view] !== this) {
+                        return
+                    }
+                    viewFetches.remove(view)
+                    // Nothing to set if it was released before it was decoded.
+                    val c = if (secondary) secondaryCache else cache
+                    synchronized(lock) { if (isCached(c, id)) c[id] else null }
+                            ?.let { view.setImageBitmap(it) }
+                }
+            }
+            viewFetches[view] = update
+            synchronized(lock) {
+                requests[id]?.let { waiters.add(Waiter(listOf(it), update)) }
+            }
+        } else {
+            viewFetches.remove(view)
         }
-        SantaLog.w(TAG, "Synchronously waiting for a Bitmap to be cached.")
-        while (!c.containsKey(id)) {
-            SystemClock.sleep(10)
+    }
+
+    /** Clears a view's image, and cancels any [fetchInto] of the view still waiting to be set. */
+    @UiThread
+    fun clear(view: ImageView) {
+        viewFetches.remove(view)
+        view.setImageDrawable(null)
+    }
+
+    /**
+     * Runs [action] on the UI thread once every image requested so far as needed right away has
+     * been decoded (or released), e.g. to set up a screen without waiting for its images.
+     */
+    @UiThread
+    fun whenReady(action: Runnable) {
+        synchronized(lock) {
+            val pending = ArrayList<Request>()
+            for (i in 0 until requests.size()) {
+                requests.valueAt(i).takeIf { it.distance == NOW }?.let { pending.add(it) }
+            }
+            waiters.add(Waiter(pending, action))
         }
-        synchronized(c) {
-            return c[id]
+        mainHandler.post(notifyWaiters)
+    }
+
+    /**
+     * Must hold lock. Requests an image, or brings a pending request nearer.
+     *
+     * @return the pending request.
+     */
+    private fun request(@DrawableRes id: Int, splitSecondary: Boolean, distance: Int): Request {
+        val pending = requests[id]
+        if (pending != null) {
+            if (distance < pending.distance && queue.remove(pending)) {
+                pending.distance = distance
+                queue.add(pending)
+                // Drains which stalled on memory don't come back for nearer requests by themselves.
+                executor.execute(drain)
+            }
+            return pending
         }
+        val request = Request(id, splitSecondary, distance, requestCount++)
+        requests.put(id, request)
+        queue.add(request)
+        executor.execute(drain)
+        return request
     }
 
-    @UiThread
     fun release(@DrawableRes id: Int, secondary: Boolean = false): Boolean {
         val c = if (secondary) secondaryCache else cache
-        synchronized(c) {
-            c[id]?.recycle()
-            return if (c.containsKey(id)) {
-                c.remove(id)
-                true
-            } else {
-                false
+        synchronized(lock) {
+            val pending = requests[id]
+            if (pending != null && queue.remove(pending)) {
+                requests.remove(id)
+                pending.task.cancel(false)
+                postWaiters()
             }
+            val bitmap = c[id] ?: return false
+            c.remove(id)
+            cachedBytes -= bitmap.allocationByteCount
+            recycleOrPool(bitmap)
+            retryStalledDrains()
+            return true
         }
     }
 
     @UiThread
     fun releaseAll() {
-        listOf(cache, secondaryCache).forEach { c ->
-            for (i in 0 until c.size()) {
-                c.valueAt(i)?.let { bitmap ->
-                    if (!bitmap.isRecycled) {
-                        bitmap.recycle()
+        viewFetches.clear()
+        mainHandler.removeCallbacks(notifyWaiters)
+        synchronized(lock) {
+            queue.clear()
+            requests.clear()
+            waiters.clear()
+            listOf(cache, secondaryCache).forEach { c ->
+                for (i in 0 until c.size()) {
+                    c.valueAt(i)?.let { bitmap ->
+                        if (!bitmap.isRecycled) {
+                            bitmap.recycle()
+                        }
                     }
                 }
+                c.clear()
+            }
+            pool.forEach { it.recycle() }
+            pool.clear()
+            cachedBytes = 0
+            stalledDrains = 0
+        }
+    }
+
+    /** Whether c holds a usable image. Images recycled by their users are forgotten. */
+    private fun isCached(c: SparseArray<Bitmap>, id: Int): Boolean {
+        val bitmap = c[id] ?: return false
+        if (bitmap.isRecycled) {
+            c.remove(id)
+            cachedBytes -= bitmap.allocationByteCount
+            return false
+        }
+        return true
+    }
+
+    private fun decode(request: Request): Bitmap {
+        val original = decodeResource(request.id)
+        val width = (original.width * scaleX).toInt()
+        val height = (original.height * scaleY).toInt()
+
+        val primary: Bitmap
+        var secondary: Bitmap? = null
+        if (request.splitSecondary) {
+            val halfWidth = width / 2
+            primary = scale(original, width, height, 0, halfWidth)
+            secondary = scale(original, width, height, halfWidth, halfWidth)
+        } else {
+            primary = scale(original, width, height, 0, width)
+        }
+        synchronized(lock) {
+            recycleOrPool(original)
+            // Don't cache it if the request was released, or everything was, while decoding.
+            if (requests[request.id] === request) {
+                requests.remove(request.id)
+                cache.put(request.id, primary)
+                cachedBytes += primary.allocationByteCount
+                secondary?.let {
+                    secondaryCache.put(request.id, it)
+                    cachedBytes += it.allocationByteCount
+                }
+            } else {
+                recycleOrPool(primary)
+                secondary?.let { recycleOrPool(it) }
+            }
+            postWaiters()
+            SantaLog.d(TAG, "Cache size: ${cache.size()}, queued: ${queue.size}, " +
+                    "bytes: $cachedBytes")
+        }
+        return primary
+    }
+
+    /** Decodes a drawable at its density-scaled size, into a pooled bitmap where possible. */
+    private fun decodeResource(@DrawableRes id: Int): Bitmap {
+        val reusable = synchronized(lock) {
+            if (pool.isEmpty()) null else pool.removeAt(pool.size - 1)
+        }
+        val options = BitmapFactory.Options().apply {
+            inMutable = true
+            inBitmap = reusable
+        }
+        val bitmap = try {
+            BitmapFactory.decodeResource(context.resources, id, options)
+        } catch (e: IllegalArgumentException) {
+            // The pooled bitmap was too small to decode into.
+            options.inBitmap = null
+            BitmapFactory.decodeResource(context.resources, id, options)
+        }
+        if (bitmap !== reusable && reusable != null) {
+            synchronized(lock) {
+                recycleOrPool(reusable)
+            }
+        }
+        // Not a bitmap resource, e.g. a vector or layer list.
+        return bitmap ?: AppCompatResources.getDrawable(context, id)!!.toBitmap()
+    }
+
+    /**
+     * Draws the columns [left, left + width) of original, scaled to scaledWidth x scaledHeight,
+     * into a pooled bitmap where possible.
+     */
+    private fun scale(
+        original: Bitmap,
+        scaledWidth: Int,
+        scaledHeight: Int,
+        left: Int,
+        width: Int
+    ): Bitmap {
+        val bitmap = obtain(width, scaledHeight)
+        val matrix = Matrix()
+        matrix.setScale(
+                scaledWidth.toFloat() / original.width,
+                scaledHeight.toFloat() / original.height)
+        matrix.postTranslate(-left.toFloat(), 0f)
+        Canvas(bitmap).drawBitmap(original, matrix, Paint(Paint.FILTER_BITMAP_FLAG))
+        return bitmap
+    }
+
+    private fun obtain(width: Int, height: Int): Bitmap {
+        val needed = width.toLong() * height * 4
+        synchronized(lock) {
+            for (i in pool.indices) {
+                val candidate = pool[i]
+                if (candidate.allocationByteCount >= needed) {
+                    pool.removeAt(i)
+                    candidate.reconfigure(width, height, Bitmap.Config.ARGB_8888)
+                    candidate.eraseColor(Color.TRANSPARENT)
+                    return candidate
+                }
             }
-            c.clear()
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888)
+    }
+
+    /** Must hold lock. */
+    private fun recycleOrPool(bitmap: Bitmap) {
+        if (bitmap.isRecycled) {
+            return
+        }
+        if (bitmap.isMutable && pool.size < MAX_POOLED_BITMAPS) {
+            pool.add(bitmap)
+        } else {
+            bitmap.recycle()
+        }
+    }
+
+    /** Must hold lock. */
+    private fun postWaiters() {
+        if (waiters.isNotEmpty()) {
+            mainHandler.post(notifyWaiters)
+        }
+    }
+
+    /** Must hold lock. */
+    private fun retryStalledDrains() {
+        while (stalledDrains > 0) {
+            stalledDrains--
+            executor.execute(drain)
         }
     }
 }
@@ -22,17 +22,17 @@ import android.content.Intent
 import android.content.res.Configuration
 import android.graphics.Bitmap
 import android.graphics.Color
-import android.graphics.Rect
 import android.media.AudioAttributes
 import android.media.MediaPlayer
 import android.media.SoundPool
 import android.os.Build
 import android.os.Bundle
 import android.os.CountDownTimer
-import android.os.Handler
 import android.os.Vibrator
 import android.util.DisplayMetrics
 import android.util.Pair
+import android.util.SparseArray
+import android.view.Choreographer
 import android.view.Gravity
 import android.view.KeyEvent
 import android.view.MotionEvent
@@ -42,7 +42,6 @@ import android.widget.FrameLayout
 import android.widget.ImageButton
 import android.widget.ImageView
 import android.widget.LinearLayout
-import android.widget.RelativeLayout
 import android.widget.TextView
 import android.widget.VideoView
 import androidx.appcompat.content.res.AppCompatResources
@@ -133,6 +132,11 @@ class RocketSleighActivity : OnDemandActivity() {
     private var elfScale: Float = 0.toFloat()
 
     private var countDownTimer: CountDownTimer? = null
+    /** Whether the images of the first screen have been decoded, so the game can start. */
+    private var startImagesReady = false
+    /** Whether the elf is still waiting for the images of its new state, see [updateElf]. */
+    private var elfUpdatePending = false
+    private var elfUpdatePendingHit = false
 
     private lateinit var santaPreferences: SantaPreferences
 
@@ -175,9 +179,16 @@ class RocketSleighActivity : OnDemandActivity() {
 
     private var mLastFrameTime: Long = 0
 
+    /** Collision model of the obstacle strip. The obstacle views are only drawn from it. */
+    private val world = RocketSleighWorld()
+    /** Gift views by their id in [world], until they are collected or scrolled away. */
+    private val giftViews = SparseArray<View>()
+    private val numberFormat = NumberFormat.getNumberInstance()
+    private var displayedScore: Long = -1
+
     private lateinit var vibrator: Vibrator
 
-    private var handler: Handler? = null
+    private lateinit var choreographer: Choreographer
 
     private var bgmPlayer: MediaPlayer? = null
 
@@ -202,7 +213,24 @@ class RocketSleighActivity : OnDemandActivity() {
     private var caveObstacleIndex = AtomicInteger(0)
     private var factoryObstacleIndex = AtomicInteger(0)
 
-    private val gameLoop = Runnable { processFrame() }
+    private val gameLoop = Choreographer.FrameCallback { processFrame() }
+
+    private val collisionListener = object : RocketSleighWorld.Listener {
+        override fun onObstacleHit() {
+            handleCollision()
+        }
+
+        override fun onGiftCollected(id: Int) {
+            giftViews.get(id)?.visibility = View.INVISIBLE
+            giftViews.remove(id)
+            collectPresent()
+        }
+
+        override fun onGiftMissed(id: Int) {
+            giftViews.remove(id)
+            presentCount = 0
+        }
+    }
 
     private var lastObstacle = 0
 
@@ -286,7 +314,7 @@ class RocketSleighActivity : OnDemandActivity() {
         // For hit indication.
         vibrator = getSystemService(Context.VIBRATOR_SERVICE) as Vibrator
 
-        handler = Handler() // Get the main UI handler for posting update events
+        choreographer = Choreographer.getInstance()
 
         val dm = DisplayMetrics()
         windowManager.defaultDisplay.getMetrics(dm)
@@ -311,7 +339,8 @@ class RocketSleighActivity : OnDemandActivity() {
         scaleX = (dm.widthPixels * 2).toFloat() / bmp.intrinsicWidth.toFloat()
 
         bitmapCache = BitmapCache(this, executor, scaleX, scaleY)
-        bitmapCache.preload(R.drawable.bg_jet_pack_1, splitSecondary = true)
+        bitmapCache.preload(
+                R.drawable.bg_jet_pack_1, splitSecondary = true, distance = BitmapCache.NOW)
 
         viewPool = ViewPool(this)
 
@@ -320,8 +349,8 @@ class RocketSleighActivity : OnDemandActivity() {
         addNextImages(0, false)
         addNextImages(0, false)
 
-        // We need the bitmaps, so we do pre-load here synchronously.
-        preloadObstacles(0, levels!![0].obstacles)
+        // The first obstacles are needed straight away.
+        preloadObstacles(0, levels!![0].obstacles, BitmapCache.NOW)
 
         woodsObstacleIndex.set(0)
         caveObstacleIndex.set(0)
@@ -332,12 +361,8 @@ class RocketSleighActivity : OnDemandActivity() {
         thrustImage = findViewById(R.id.thrust_image)
         elfLayout = findViewById(R.id.elf_container)
         loadElfImages()
-        updateElf(false)
-        // Elf should be the same height relative to the height of the screen on any platform.
-        elfScale = dm.heightPixels.toFloat() * 0.123f / elfBitmap!!.height.toFloat()
 
         elfPosX = (dm.widthPixels * 15 / 100).toFloat() // 15% Into the screen
-        elfPosY = (dm.heightPixels - elfBitmap!!.height.toFloat() * elfScale) / 2 // About 1/2 way down.
         elfVelX = dm.widthPixels.toFloat() / 3000.0f // We start at 3 seconds for a full screen to scroll.
         gravityAccelY = (2 * dm.heightPixels).toFloat() / Math.pow(
                 1.2 * 1000.0,
@@ -411,12 +436,12 @@ class RocketSleighActivity : OnDemandActivity() {
 
         // Initialize the gift bitmaps.  These are used repeatedly so we keep them loaded.
         for (drawableId in RocketSleigh.giftBoxes) {
-            bitmapCache.preload(drawableId)
+            bitmapCache.preload(drawableId, distance = BitmapCache.NOW)
         }
 
-        // Add starting obstacles.  First screen has presents.  Next 3 get obstacles.
-        addFirstScreenPresents()
-        addNextObstacles(0, 3)
+        // The elf and the first obstacles are set up once their images have been decoded in the
+        // background, rather than blocking here.
+        bitmapCache.whenReady(Runnable { onStartImagesReady() })
 
         // Setup the sound pool
         soundPool = SoundPool.Builder()
@@ -444,6 +469,26 @@ class RocketSleighActivity : OnDemandActivity() {
         }
     }
 
+    private fun onStartImagesReady() {
+        if (isFinishing) {
+            return
+        }
+        updateElf(false)
+        // Elf should be the same height relative to the height of the screen on any platform.
+        elfScale = screenHeight.toFloat() * 0.123f / elfBitmap!!.height.toFloat()
+        elfPosY = (screenHeight - elfBitmap!!.height.toFloat() * elfScale) / 2 // About 1/2 way down.
+
+        // Add starting obstacles.  First screen has presents.  Next 3 get obstacles.
+        addFirstScreenPresents()
+        addNextObstacles(0, 3)
+
+        startImagesReady = true
+        if (countdownStarted) {
+            // The countdown was waiting for the images.
+            doCountdown()
+        }
+    }
+
     private fun stopBackgroundMusic() {
         bgmPlayer?.run {
             stop()
@@ -657,10 +702,15 @@ class RocketSleighActivity : OnDemandActivity() {
             score += time
         }
 
-        if (isTv) {
-            scoreText.text = scoreLabel.toString() + ": " + NumberFormat.getNumberInstance().format(score / 10)
-        } else {
-            scoreText.text = NumberFormat.getNumberInstance().format(score / 10)
+        // Only touch the score text when the displayed value changes.
+        val displayScore = score / 10
+        if (displayScore != displayedScore) {
+            displayedScore = displayScore
+            if (isTv) {
+                scoreText.text = scoreLabel.toString() + ": " + numberFormat.format(displayScore)
+            } else {
+                scoreText.text = numberFormat.format(displayScore)
+            }
         }
 
         val scroll = elfVelX * time
@@ -692,121 +742,21 @@ class RocketSleighActivity : OnDemandActivity() {
                 }
                 updateElf(false)
                 elfIsHit = false
+                // Don't sweep over the ground covered while the elf couldn't collide.
+                world.resetSweep()
             }
         } else if (elfState == 4) {
             // Don't do any collision detection for parachute elf.  Just let him fall...
         } else {
-            // Find the obstacle(s) we might be colliding with.  It can only be one of the first 3
-            // obstacles.
-            for (i in 0..2) {
-                // Break if no more obstacles
-                val view = obstacleLayout.getChildAt(i) ?: break
-
-                val tmp = IntArray(2)
-                view.getLocationOnScreen(tmp)
-
-                // If the start of this view is past the center of the elf, we are done
-                if (tmp[0] > elfPosX) {
-                    break
-                }
-
-                if (view is RelativeLayout) {
-                    // this is an obstacle layout.
-                    val topView = view.findViewById<View>(R.id.top_view)
-                    val bottomView = view.findViewById<View>(R.id.bottom_view)
-                    if (topView != null && topView.visibility == View.VISIBLE) {
-                        topView.getLocationOnScreen(tmp)
-                        val obsRect = Rect(tmp[0], tmp[1], tmp[0] + topView.width, tmp[1] + topView.height)
-                        if (obsRect.contains(elfPosX.toInt(), elfPosY.toInt() + elfBitmap!!.height / 2)) {
-                            handleCollision()
-                        }
-                    }
-                    if (!elfIsHit) {
-                        if (bottomView != null && bottomView.visibility == View.VISIBLE) {
-                            bottomView.getLocationOnScreen(tmp)
-                            val obsRect = Rect(tmp[0], tmp[1], tmp[0] + bottomView.width, tmp[1] + bottomView.height)
-                            if (obsRect.contains(elfPosX.toInt(), elfPosY.toInt() + elfBitmap!!.height / 2)) {
-                                // Special case for the mammoth obstacle...
-                                if (bottomView.tag != null) {
-                                    if ((elfPosX - tmp[0]) / bottomView.width.toFloat() > 0.25f) {
-                                        // We are over the mammoth not the spike.  lower the top of
-                                        // the rect and test again.
-                                        obsRect.top = (tmp[1] + bottomView.height.toFloat() * 0.18f).toInt()
-                                        if (obsRect.contains(elfPosX.toInt(), elfPosY.toInt() + elfBitmap!!.height / 2)) {
-                                            handleCollision()
-                                        }
-                                    }
-                                } else {
-                                    handleCollision()
-                                }
-                            }
-                        }
-                    }
-                } else if (view is FrameLayout) {
-                    // Present view
-                    if (view.visibility == View.VISIBLE) {
-                        val presentView = view.getChildAt(0) as ImageView
-                        presentView.getLocationOnScreen(tmp)
-                        val presentRect = Rect(
-                                tmp[0],
-                                tmp[1],
-                                tmp[0] + presentView.width,
-                                tmp[1] + presentView.height)
-                        elfLayout.getLocationOnScreen(tmp)
-                        val elfRect = Rect(
-                                tmp[0],
-                                tmp[1],
-                                tmp[0] + elfLayout.width,
-                                tmp[1] + elfLayout.height)
-                        if (elfRect.intersect(presentRect)) {
-                            // We got a present!
-                            presentCount++
-                            if (presentCount < 4) {
-                                if (!santaPreferences.isMuted) {
-                                    soundPool?.play(sounds.scoreSmall, priority = 2,
-                                            volume = AudioConstants.DEFAULT_SOUND_EFFECT_VOLUME / 2f)
-                                }
-                                score += 1000 // 100 points.  Score is 10x displayed score.
-                                plus100Image.visibility = View.VISIBLE
-                                if (elfPosY > screenHeight / 2) {
-                                    plus100Image.y = elfPosY - (elfLayout.height + plus100Image.height)
-                                } else {
-                                    plus100Image.y = elfPosY + elfLayout.height
-                                }
-                                plus100Image.x = elfPosX
-                                if (plus100Anim.hasStarted()) {
-                                    plus100Anim.reset()
-                                }
-                                plus100Image.startAnimation(plus100Anim)
-                            } else {
-                                if (!santaPreferences.isMuted) {
-                                    soundPool?.play(sounds.scoreBig, priority = 2,
-                                            volume = AudioConstants.DEFAULT_SOUND_EFFECT_VOLUME / 2f)
-                                }
-                                score += 5000 // 500 points.  Score is 10x displayed score.
-                                if (!mRainingPresents) {
-                                    presentCount = 0
-                                }
-                                plus500Image.visibility = View.VISIBLE
-                                if (elfPosY > screenHeight / 2) {
-                                    plus500Image.y = elfPosY - (elfLayout.height + plus100Image.height)
-                                } else {
-                                    plus500Image.y = elfPosY + elfLayout.height
-                                }
-                                plus500Image.x = elfPosX
-                                if (plus500Anim.hasStarted()) {
-                                    plus500Anim.reset()
-                                }
-                                plus500Image.startAnimation(plus500Anim)
-                                gameRecord.presentBonus = true
-                            }
-                            view.visibility = View.INVISIBLE
-                        } else if (elfRect.left > presentRect.right) {
-                            presentCount = 0
-                        }
-                    }
-                }
-            }
+            // The nose of the sleigh hits obstacles, the whole elf collects presents.
+            world.step(
+                    elfPosX,
+                    elfPosY + elfBitmap!!.height / 2f,
+                    elfLayout.x,
+                    elfLayout.y,
+                    elfLayout.width.toFloat(),
+                    elfLayout.height.toFloat(),
+                    collisionListener)
         }
 
         if (foregroundLayout.childCount > 0) {
@@ -830,6 +780,11 @@ class RocketSleighActivity : OnDemandActivity() {
                 viewPool.recycle(obstacleLayout, view)
             }
             obstacleScroll.scrollX = newX
+            world.scroll(scroll.toInt())
+            // Forget the gifts which have scrolled away.
+            while (giftViews.size() > 0 && giftViews.keyAt(0) < world.firstId) {
+                giftViews.removeAt(0)
+            }
         }
 
         // Scroll the background and foreground
@@ -840,7 +795,7 @@ class RocketSleighActivity : OnDemandActivity() {
             if (newX > view.width) {
                 newX -= view.width
                 if (view is ImageView) {
-                    view.setImageDrawable(null)
+                    bitmapCache.clear(view)
                 }
                 viewPool.recycle(backgroundLayout, view)
                 if (view.tag != null) {
@@ -877,10 +832,10 @@ class RocketSleighActivity : OnDemandActivity() {
                     // cave to factory
                     if (levelIndex == 1) {
                         // Next level will be caves.  Get bitmaps for the first 20 obstacles.
-                        preloadObstacles(0, levels!![2].obstacles)
+                        preloadObstacles(0, levels!![2].obstacles, BitmapCache.LATER)
                     } else if (levelIndex == 3) {
                         // Next level will be factory.  Get bitmaps for the first 20 obstacles.
-                        preloadObstacles(0, levels!![4].obstacles)
+                        preloadObstacles(0, levels!![4].obstacles, BitmapCache.LATER)
                     }
                     backgroundCount++
                 } else if (backgroundCount == 7) {
@@ -989,6 +944,9 @@ class RocketSleighActivity : OnDemandActivity() {
         }
 
         // Check on the elf
+        if (elfUpdatePending) {
+            updateElf(elfUpdatePendingHit)
+        }
         var hitBottom = false
 
         val deltaY = elfVelY * time
@@ -1019,11 +977,8 @@ class RocketSleighActivity : OnDemandActivity() {
         mLastFrameTime = System.currentTimeMillis() - newTime
         if (!end) {
             if (elfState < 4 || !hitBottom) {
-                if (mLastFrameTime < 16) {
-                    handler?.postDelayed(gameLoop, 16 - mLastFrameTime)
-                } else {
-                    handler?.post(gameLoop)
-                }
+                // Run again on the next vsync, rather than guessing how long to wait for it.
+                choreographer.postFrameCallback(gameLoop)
             } else {
                 endGame()
             }
@@ -1035,6 +990,49 @@ class RocketSleighActivity : OnDemandActivity() {
         }
     }
 
+    private fun collectPresent() {
+        presentCount++
+        if (presentCount < 4) {
+            if (!santaPreferences.isMuted) {
+                soundPool?.play(sounds.scoreSmall, priority = 2,
+                        volume = AudioConstants.DEFAULT_SOUND_EFFECT_VOLUME / 2f)
+            }
+            score += 1000 // 100 points.  Score is 10x displayed score.
+            plus100Image.visibility = View.VISIBLE
+            if (elfPosY > screenHeight / 2) {
+                plus100Image.y = elfPosY - (elfLayout.height + plus100Image.height)
+            } else {
+                plus100Image.y = elfPosY + elfLayout.height
+            }
+            plus100Image.x = elfPosX
+            if (plus100Anim.hasStarted()) {
+                plus100Anim.reset()
+            }
+            plus100Image.startAnimation(plus100Anim)
+        } else {
+            if (!santaPreferences.isMuted) {
+                soundPool?.play(sounds.scoreBig, priority = 2,
+                        volume = AudioConstants.DEFAULT_SOUND_EFFECT_VOLUME / 2f)
+            }
+            score += 5000 // 500 points.  Score is 10x displayed score.
+            if (!mRainingPresents) {
+                presentCount = 0
+            }
+            plus500Image.visibility = View.VISIBLE
+            if (elfPosY > screenHeight / 2) {
+                plus500Image.y = elfPosY - (elfLayout.height + plus100Image.height)
+            } else {
+                plus500Image.y = elfPosY + elfLayout.height
+            }
+            plus500Image.x = elfPosX
+            if (plus500Anim.hasStarted()) {
+                plus500Anim.reset()
+            }
+            plus500Image.startAnimation(plus500Anim)
+            gameRecord.presentBonus = true
+        }
+    }
+
     private fun handleCollision() {
         // Achievements
         gameRecord.hit = true
@@ -1058,6 +1056,10 @@ class RocketSleighActivity : OnDemandActivity() {
     private fun doCountdown() {
         countdownStarted = true
         playPauseButton.isEnabled = false
+        if (!startImagesReady) {
+            // Counted down by onStartImagesReady instead.
+            return
+        }
         // Start the countdown
         if (countdownView == null) {
             countdownView = findViewById(R.id.countdown_text)
@@ -1095,11 +1097,11 @@ class RocketSleighActivity : OnDemandActivity() {
         for (i in 0 until Math.min(4, SLOTS_PER_SCREEN)) {
             val holder = viewPool.obtainSpace()
             val lp = LinearLayout.LayoutParams(slotWidth, screenHeight)
-            obstacleLayout.addView(holder.space, lp)
+            addObstacleChild(holder.space, lp)
         }
 
         // Generate a SIN like pattern;
-        val boxHeight = bitmapCache.fetch(RocketSleigh.giftBoxes[0]).height
+        val boxHeight = bitmapCache.fetch(RocketSleigh.giftBoxes[0])?.height ?: slotWidth / 2
         val center = ((screenHeight - boxHeight) / 2).toFloat()
         val presentHeight = boxHeight.toFloat()
         val heights = floatArrayOf(
@@ -1115,8 +1117,12 @@ class RocketSleighActivity : OnDemandActivity() {
         // Add presents to the end
         val obstacleLp = LinearLayout.LayoutParams(slotWidth, LinearLayout.LayoutParams.MATCH_PARENT)
         for (i in 0 until SLOTS_PER_SCREEN - 4) {
-            // Which one?
+            // Which one? Leave a space if it isn't decoded yet.
             val bmp = bitmapCache.fetch(RocketSleigh.randomGift(random))
+            if (bmp == null) {
+                addObstacleChild(viewPool.obtainSpace().space, obstacleLp)
+                continue
+            }
             val holder = viewPool.obtainGift()
             holder.image.setImageBitmap(bmp)
 
@@ -1126,7 +1132,7 @@ class RocketSleighActivity : OnDemandActivity() {
             holder.image.translationX = left
             holder.image.translationY = top
 
-            obstacleLayout.addView(holder.frame, obstacleLp)
+            addGift(holder, addObstacleChild(holder.frame, obstacleLp), bmp)
         }
 
         // Account for rounding errors in slotWidth
@@ -1134,7 +1140,7 @@ class RocketSleighActivity : OnDemandActivity() {
         if (extra > 0) {
             // Add filler to ensure sync with background/foreground scrolls!
             val lp = LinearLayout.LayoutParams(extra, LinearLayout.LayoutParams.MATCH_PARENT)
-            obstacleLayout.addView(viewPool.obtainSpace().space, lp)
+            addObstacleChild(viewPool.obtainSpace().space, lp)
         }
 
         lastObstacle = 0
@@ -1143,8 +1149,8 @@ class RocketSleighActivity : OnDemandActivity() {
     private fun addFinalPresentRun() {
         // Two spacers at the beginning.
         var lp = LinearLayout.LayoutParams(slotWidth, screenHeight)
-        obstacleLayout.addView(viewPool.obtainSpace().space, lp)
-        obstacleLayout.addView(viewPool.obtainSpace().space, lp)
+        addObstacleChild(viewPool.obtainSpace().space, lp)
+        addObstacleChild(viewPool.obtainSpace().space, lp)
 
         // All of these presents are 500 points (but only if you're awesome)
         if (elfState == 0) {
@@ -1157,35 +1163,39 @@ class RocketSleighActivity : OnDemandActivity() {
 
         val count = 3 * SLOTS_PER_SCREEN - 4
 
-        val box = bitmapCache.fetch(RocketSleigh.giftBoxes[0])
+        val boxWidth = bitmapCache.fetch(RocketSleigh.giftBoxes[0])?.width ?: slotWidth / 2
         for (i in 0 until count) {
-            val x = ((slotWidth - box.width) / 2).toFloat()
+            val x = ((slotWidth - boxWidth) / 2).toFloat()
             val y = center + amplitude * Math.sin(2.0 * Math.PI * i.toDouble() / count.toDouble()).toFloat()
             val bmp = bitmapCache.fetch(RocketSleigh.randomGift(random))
+            if (bmp == null) {
+                addObstacleChild(viewPool.obtainSpace().space, lp)
+                continue
+            }
             val holder = viewPool.obtainGift()
             holder.image.setImageBitmap(bmp)
             holder.image.translationX = x
             holder.image.translationY = y
-            obstacleLayout.addView(holder.frame, lp)
+            addGift(holder, addObstacleChild(holder.frame, lp), bmp)
         }
 
         // Two spacers at the end.
-        obstacleLayout.addView(viewPool.obtainSpace().space, lp)
-        obstacleLayout.addView(viewPool.obtainSpace().space, lp)
+        addObstacleChild(viewPool.obtainSpace().space, lp)
+        addObstacleChild(viewPool.obtainSpace().space, lp)
 
         // Account for rounding errors in slotWidth
         val extra = 3 * screenWidth - 3 * SLOTS_PER_SCREEN * slotWidth
         if (extra > 0) {
             // Add filler to ensure sync with background/foreground scrolls!
             lp = LinearLayout.LayoutParams(extra, LinearLayout.LayoutParams.MATCH_PARENT)
-            obstacleLayout.addView(viewPool.obtainSpace().space, lp)
+            addObstacleChild(viewPool.obtainSpace().space, lp)
         }
     }
 
     private fun addNextObstacleSpacer(screens: Int) {
         if (screens > 0) {
             val lp = LinearLayout.LayoutParams(screenWidth * screens, screenHeight)
-            obstacleLayout.addView(viewPool.obtainSpace().space, lp)
+            addObstacleChild(viewPool.obtainSpace().space, lp)
             lastObstacle = 0
         }
     }
@@ -1204,45 +1214,52 @@ class RocketSleighActivity : OnDemandActivity() {
         while (i < totalSlots) {
             // Any given "slot" has a 1 in 3 chance of having an obstacle
             if (random.nextInt(3) == 0) {
-                val holder = viewPool.obtainObstacle(obstacleLayout)
-
                 // Which obstacle?
                 var width = 0
                 val obstacles = levels!![level].obstacles
                 index.get().let { indexValue ->
                     if (indexValue % 20 == 0) {
-                        preloadObstacles(indexValue + 20, obstacles)
+                        preloadObstacles(indexValue + 20, obstacles, BitmapCache.SOON)
                     }
                 }
                 if (index.incrementAndGet() >= obstacles.size) {
                     index.set(0)
                 }
                 val (top1, bottom1, back1) = obstacles[index.get()]
-                if (back1 != 0) {
-                    val bmp = bitmapCache.fetch(back1)
-                    width = bmp.width
-                    holder.back.setImageBitmap(bmp)
+                val backBmp = if (back1 != 0) bitmapCache.fetch(back1) else null
+                val topBmp = if (top1 != 0) bitmapCache.fetch(top1) else null
+                val bottomBmp = if (bottom1 != 0) bitmapCache.fetch(bottom1) else null
+                if ((back1 != 0 && backBmp == null) || (top1 != 0 && topBmp == null) ||
+                        (bottom1 != 0 && bottomBmp == null)) {
+                    // Not decoded in time. Leave a space rather than wait for it here.
+                    addSpace(slotWidth)
+                    i++
+                    continue
+                }
+
+                val holder = viewPool.obtainObstacle(obstacleLayout)
+                if (backBmp != null) {
+                    width = backBmp.width
+                    holder.back.setImageBitmap(backBmp)
                     holder.back.visibility = View.VISIBLE
                 } else {
                     holder.back.visibility = View.GONE
                 }
 
                 var currentObstacle = 0 // Same values as lastObstacle
-                if (top1 != 0) {
+                if (topBmp != null) {
                     currentObstacle = currentObstacle or 1
-                    val bmp = bitmapCache.fetch(top1)
-                    width = Math.max(width, bmp.width)
-                    holder.top.setImageBitmap(bmp)
+                    width = Math.max(width, topBmp.width)
+                    holder.top.setImageBitmap(topBmp)
                     holder.top.visibility = View.VISIBLE
                 } else {
                     holder.top.visibility = View.GONE
                 }
 
-                if (bottom1 != 0) {
+                if (bottomBmp != null) {
                     currentObstacle = currentObstacle or 2
-                    val bmp = bitmapCache.fetch(bottom1)
-                    width = Math.max(width, bmp.width)
-                    holder.bottom.setImageBitmap(bmp)
+                    width = Math.max(width, bottomBmp.width)
+                    holder.bottom.setImageBitmap(bottomBmp)
                     holder.bottom.visibility = View.VISIBLE
                 } else {
                     holder.bottom.visibility = View.GONE
@@ -1271,7 +1288,19 @@ class RocketSleighActivity : OnDemandActivity() {
                     lastObstacle = currentObstacle
                     val lp = LinearLayout.LayoutParams(
                             slots * slotWidth, LinearLayout.LayoutParams.WRAP_CONTENT)
-                    obstacleLayout.addView(holder.obstacle, lp)
+                    val slotLeft = addObstacleChild(holder.obstacle, lp)
+                    // The top and bottom images are centered, at the top and bottom of the screen.
+                    if (topBmp != null) {
+                        val left = slotLeft + (lp.width - topBmp.width) / 2
+                        world.add(RocketSleighWorld.KIND_OBSTACLE, slotLeft,
+                                left, 0f, left + topBmp.width, topBmp.height.toFloat())
+                    }
+                    if (bottomBmp != null) {
+                        val left = slotLeft + (lp.width - bottomBmp.width) / 2
+                        world.add(RocketSleighWorld.KIND_OBSTACLE, slotLeft,
+                                left, (screenHeight - bottomBmp.height).toFloat(),
+                                left + bottomBmp.width, screenHeight.toFloat())
+                    }
                     i += slots
                 }
             } else {
@@ -1285,7 +1314,7 @@ class RocketSleighActivity : OnDemandActivity() {
         if (extra > 0) {
             // Add filler to ensure sync with background/foreground scrolls!
             val lp = LinearLayout.LayoutParams(extra, LinearLayout.LayoutParams.MATCH_PARENT)
-            obstacleLayout.addView(viewPool.obtainSpace().space, lp)
+            addObstacleChild(viewPool.obtainSpace().space, lp)
         }
     }
 
@@ -1299,8 +1328,8 @@ class RocketSleighActivity : OnDemandActivity() {
         if (random.nextInt(3) == 0) {
             // Present!
 
-            // Which one?
-            val bmp = bitmapCache.fetch(RocketSleigh.randomGift(random))
+            // Which one? Leave a space if it isn't decoded yet.
+            val bmp = bitmapCache.fetch(RocketSleigh.randomGift(random)) ?: return addSpace(width)
             val holder = viewPool.obtainGift()
             holder.image.setImageBitmap(bmp)
 
@@ -1312,13 +1341,37 @@ class RocketSleighActivity : OnDemandActivity() {
             holder.image.translationX = left.toFloat()
             holder.image.translationY = top.toFloat()
 
-            obstacleLayout.addView(holder.frame, lp)
+            addGift(holder, addObstacleChild(holder.frame, lp), bmp)
         } else {
-            // Space
-            obstacleLayout.addView(viewPool.obtainSpace().space, lp)
+            addSpace(width)
         }
     }
 
+    private fun addSpace(width: Int) {
+        lastObstacle = 0
+        val lp = LinearLayout.LayoutParams(width, LinearLayout.LayoutParams.MATCH_PARENT)
+        addObstacleChild(viewPool.obtainSpace().space, lp)
+    }
+
+    /**
+     * Appends a child to the obstacle strip, and reserves the same space in [world].
+     *
+     * @return the scroll position of the child's left edge.
+     */
+    private fun addObstacleChild(view: View, lp: LinearLayout.LayoutParams): Float {
+        obstacleLayout.addView(view, lp)
+        return world.append(lp.width)
+    }
+
+    /** Adds the box of a gift view, already positioned within its frame, to [world]. */
+    private fun addGift(holder: GiftViewHolder, slotLeft: Float, bmp: Bitmap) {
+        val left = slotLeft + holder.image.translationX
+        val top = holder.image.translationY
+        val id = world.add(RocketSleighWorld.KIND_GIFT, slotLeft,
+                left, top, left + bmp.width, top + bmp.height)
+        giftViews.put(id, holder.frame)
+    }
+
     private fun addNextImages(level: Int, recycle: Boolean) {
         if (level >= levels!!.size) {
             return
@@ -1326,18 +1379,18 @@ class RocketSleighActivity : OnDemandActivity() {
         val currentLevel = levels!![level]
 
         // Add the background image
+        // Each half is a screen wide. The views are sized up front, so that the scrolling stays in
+        // step while the images are still being decoded.
         val bg1 = viewPool.obtainBackground()
-        bg1.image.setImageBitmap(bitmapCache.fetch(currentLevel.background, secondary = false))
+        bitmapCache.fetchInto(bg1.image, currentLevel.background, secondary = false)
         if (recycle) {
             bg1.image.tag = Pair(0, level)
         }
-        val lp = LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT)
+        val lp = LinearLayout.LayoutParams(screenWidth, screenHeight)
         backgroundLayout.addView(bg1.image, lp)
 
         val bg2 = viewPool.obtainBackground()
-        bg2.image.setImageBitmap(bitmapCache.fetch(currentLevel.background, secondary = true))
+        bitmapCache.fetchInto(bg2.image, currentLevel.background, secondary = true)
         if (recycle) {
             bg2.image.tag = Pair(0, level)
         }
@@ -1368,11 +1421,9 @@ class RocketSleighActivity : OnDemandActivity() {
                 // Add the exit transition image
                 val holder = viewPool.obtainBackground()
                 holder.image.tag = Pair(1, level - 1)
-                // This is being background loaded.  Should already be loaded, but if not, wait.
-                holder.image.setImageBitmap(bitmapCache.fetch(exitTransition))
-                var lp = LinearLayout.LayoutParams(
-                        LinearLayout.LayoutParams.WRAP_CONTENT,
-                        LinearLayout.LayoutParams.WRAP_CONTENT)
+                // This is being background loaded. If it isn't ready, it is set once it is.
+                bitmapCache.fetchInto(holder.image, exitTransition)
+                var lp = LinearLayout.LayoutParams(screenWidth, screenHeight)
                 backgroundLayout.addView(holder.image, lp)
 
                 // No foreground on transitions.  Transition images are a single screen long
@@ -1388,11 +1439,9 @@ class RocketSleighActivity : OnDemandActivity() {
                 // Add the exit transition image
                 val holder = viewPool.obtainBackground()
                 holder.image.tag = Pair(2, level)
-                // This is being background loaded.  Should already be loaded, but if not, wait.
-                holder.image.setImageBitmap(bitmapCache.fetch(entryTransition))
-                var lp = LinearLayout.LayoutParams(
-                        LinearLayout.LayoutParams.WRAP_CONTENT,
-                        LinearLayout.LayoutParams.WRAP_CONTENT)
+                // This is being background loaded. If it isn't ready, it is set once it is.
+                bitmapCache.fetchInto(holder.image, entryTransition)
+                var lp = LinearLayout.LayoutParams(screenWidth, screenHeight)
                 backgroundLayout.addView(holder.image, lp)
                 // No foreground on transitions.  Transition images are a single screen long
                 val view = View(this)
@@ -1411,19 +1460,18 @@ class RocketSleighActivity : OnDemandActivity() {
         addFinalPresentRun()
 
         // Add final screen.  This is a two screen background.
+        // Sized up front, as the image may only be set once it has been decoded.
+        val width = screenWidth * 2
         val iv = ImageView(this)
         iv.tag = true
-        val bmp = bitmapCache.fetch(R.drawable.bg_finish, false)
-        iv.setImageBitmap(bmp)
-        var lp = LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT)
+        bitmapCache.fetchInto(iv, R.drawable.bg_finish)
+        var lp = LinearLayout.LayoutParams(width, screenHeight)
         backgroundLayout.addView(iv, lp)
         val view = View(this)
-        lp = LinearLayout.LayoutParams(screenWidth * 2, 10)
+        lp = LinearLayout.LayoutParams(width, 10)
         foregroundLayout.addView(view, lp)
         addNextObstacleSpacer(2)
-        return bmp.width
+        return width
     }
 
     // Load the level 1 images right now since we need to display them.
@@ -1431,6 +1479,11 @@ class RocketSleighActivity : OnDemandActivity() {
     // We preload all of these because the transitions can be quick.
     // They are not very big, relatively speaking.
     private fun loadElfImages() {
+        // The healthy elf is shown straight away, so it goes first.
+        for (ids in arrayOf(RocketSleigh.elf, RocketSleigh.elfBurn, RocketSleigh.elfThrust,
+                RocketSleigh.elfSmoke)) {
+            bitmapCache.preload(ids[0], distance = BitmapCache.NOW)
+        }
         for (id in RocketSleigh.elf) {
             bitmapCache.preload(id)
         }
@@ -1449,12 +1502,25 @@ class RocketSleighActivity : OnDemandActivity() {
     }
 
     private fun updateElf(hit: Boolean) {
+        // Keep showing the current elf until all of the new one has been decoded.
+        val ids = when {
+            hit -> intArrayOf(RocketSleigh.elfHit[elfState])
+            elfState < 4 -> intArrayOf(RocketSleigh.elfBurn[elfState],
+                    RocketSleigh.elfThrust[elfState], RocketSleigh.elfSmoke[elfState],
+                    RocketSleigh.elf[elfState])
+            else -> intArrayOf(RocketSleigh.elf[4])
+        }
+        elfUpdatePending = ids.any { bitmapCache.fetch(it) == null }
+        if (elfUpdatePending) {
+            elfUpdatePendingHit = hit
+            return
+        }
         var thrustWidth = 0.0f
         if (hit) {
             // Just update the elf drawable
             elfImage.setImageDrawable(null)
             elfBitmap!!.recycle()
-            elfBitmap = bitmapCache.fetch(RocketSleigh.elfHit[elfState])
+            elfBitmap = bitmapCache.fetch(RocketSleigh.elfHit[elfState])!!
             elfImage.setImageBitmap(elfBitmap)
             updateElfThrust(2)
             thrustWidth = currentTrailBitmap!!.width.toFloat() * elfScale
@@ -1475,10 +1541,10 @@ class RocketSleighActivity : OnDemandActivity() {
                 smokeBitmap!!.recycle()
             }
             if (elfState < 4) {
-                burnBitmap = bitmapCache.fetch(RocketSleigh.elfBurn[elfState])
-                thrustBitmap = bitmapCache.fetch(RocketSleigh.elfThrust[elfState])
-                smokeBitmap = bitmapCache.fetch(RocketSleigh.elfSmoke[elfState])
-                elfBitmap = bitmapCache.fetch(RocketSleigh.elf[elfState])
+                burnBitmap = bitmapCache.fetch(RocketSleigh.elfBurn[elfState])!!
+                thrustBitmap = bitmapCache.fetch(RocketSleigh.elfThrust[elfState])!!
+                smokeBitmap = bitmapCache.fetch(RocketSleigh.elfSmoke[elfState])!!
+                elfBitmap = bitmapCache.fetch(RocketSleigh.elf[elfState])!!
                 if (elfAccelY > 0.0f) {
                     updateElfThrust(1)
                 } else {
@@ -1486,7 +1552,7 @@ class RocketSleighActivity : OnDemandActivity() {
                 }
                 thrustWidth = currentTrailBitmap!!.width.toFloat() * elfScale
             } else {
-                elfBitmap = bitmapCache.fetch(RocketSleigh.elf[4])
+                elfBitmap = bitmapCache.fetch(RocketSleigh.elf[4])!!
                 thrustImage.visibility = View.GONE
             }
             elfImage.setImageBitmap(elfBitmap)
@@ -1524,7 +1590,7 @@ class RocketSleighActivity : OnDemandActivity() {
         }
 
         isPlaying = false
-        handler?.removeCallbacks(gameLoop)
+        choreographer.removeFrameCallback(gameLoop)
         controlView.setOnTouchListener(null)
         playPauseButton.setImageResource(R.drawable.play_button_jp)
 
@@ -1563,7 +1629,7 @@ class RocketSleighActivity : OnDemandActivity() {
             }
             true
         }
-        handler?.post(gameLoop)
+        choreographer.postFrameCallback(gameLoop)
         playPauseButton.setImageResource(R.drawable.pause_button_jp)
         exitView.visibility = View.GONE
 
@@ -1608,12 +1674,12 @@ class RocketSleighActivity : OnDemandActivity() {
         finish()
     }
 
-    private fun preloadObstacles(startIndex: Int, obstacles: List<Obstacle>) {
+    private fun preloadObstacles(startIndex: Int, obstacles: List<Obstacle>, distance: Int) {
         for (i in startIndex until startIndex + 20) {
             val (top, bottom, back) = obstacles[i]
-            bitmapCache.preload(top)
-            bitmapCache.preload(bottom)
-            bitmapCache.preload(back)
+            bitmapCache.preload(top, distance = distance)
+            bitmapCache.preload(bottom, distance = distance)
+            bitmapCache.preload(back, distance = distance)
         }
     }
 
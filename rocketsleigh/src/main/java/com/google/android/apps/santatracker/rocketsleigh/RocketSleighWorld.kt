@@ -0,0 +1,269 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.rocketsleigh
+
+/**
+ * The obstacles and gifts of a Rocket Sleigh run, as axis-aligned boxes in scroll space: x is
+ * measured from the start of the obstacle strip, y from the top of the screen.
+ *
+ * The obstacle views are only a projection of this model. Each child added to the obstacle layout
+ * is mirrored by an [append] of the same width, so that the model's scroll position and the
+ * layout's stay in step, and collisions are found here without measuring any views.
+ *
+ * Boxes live in a ring of primitive arrays in the order they were added, so a frame only looks at
+ * the few boxes around the elf and allocates nothing. Nothing here depends on Android.
+ */
+class RocketSleighWorld(initialCapacity: Int = 64) {
+
+    companion object {
+        const val KIND_OBSTACLE = 0
+        const val KIND_GIFT = 1
+
+        private const val STATE_LIVE = 0
+        private const val STATE_COLLECTED = 1
+        private const val STATE_MISSED = 2
+    }
+
+    /** Receives the results of [step]. */
+    interface Listener {
+        fun onObstacleHit()
+
+        fun onGiftCollected(id: Int)
+
+        /** The elf passed by a gift without collecting it. */
+        fun onGiftMissed(id: Int)
+    }
+
+    private var capacity = initialCapacity
+    private var kinds = IntArray(capacity)
+    private var states = IntArray(capacity)
+    /** Left edge of the layout child holding each box. Non-decreasing from head to tail. */
+    private var slotLefts = FloatArray(capacity)
+    private var lefts = FloatArray(capacity)
+    private var tops = FloatArray(capacity)
+    private var rights = FloatArray(capacity)
+    private var bottoms = FloatArray(capacity)
+
+    private var head = 0
+    private var count = 0
+    private var nextId = 0
+
+    /** Scroll position where the next layout child starts. */
+    var extent = 0f
+        private set
+
+    /** Scroll position of the left edge of the screen. */
+    var scrollX = 0f
+        private set
+
+    /** Id of the oldest box still in the world. Ids are assigned in increasing order. */
+    val firstId: Int
+        get() = nextId - count
+
+    private var lastProbeX = Float.NaN
+    private var lastProbeY = 0f
+    private var lastElfLeft = 0f
+    private var lastElfTop = 0f
+
+    /**
+     * Reserves [width] pixels at the end of the strip for a new layout child.
+     *
+     * @return the scroll position of the child's left edge, for positioning its boxes.
+     */
+    fun append(width: Int): Float {
+        val left = extent
+        extent += width
+        return left
+    }
+
+    /**
+     * Adds a box within the layout child starting at [slotLeft].
+     *
+     * @return the id of the box.
+     */
+    fun add(kind: Int, slotLeft: Float, left: Float, top: Float, right: Float, bottom: Float): Int {
+        if (count == capacity) {
+            grow()
+        }
+        val i = (head + count) % capacity
+        kinds[i] = kind
+        states[i] = STATE_LIVE
+        slotLefts[i] = slotLeft
+        lefts[i] = left
+        tops[i] = top
+        rights[i] = right
+        bottoms[i] = bottom
+        count++
+        return nextId++
+    }
+
+    /**
+     * Scrolls the strip by [dx] pixels, dropping the boxes which are now off the left edge and
+     * behind the start of the next sweep.
+     */
+    fun scroll(dx: Int) {
+        scrollX += dx
+        var behind = scrollX
+        if (!lastProbeX.isNaN()) {
+            behind = Math.min(behind, Math.min(lastProbeX, lastElfLeft))
+        }
+        while (count > 0 && rights[head] < behind) {
+            head = (head + 1) % capacity
+            count--
+        }
+    }
+
+    /**
+     * Forgets where the elf was, so that the next [step] doesn't sweep from there. Call this when
+     * the elf has not been colliding for a while, e.g. after recovering from a hit.
+     */
+    fun resetSweep() {
+        lastProbeX = Float.NaN
+    }
+
+    /**
+     * Tests the elf against the boxes around it, sweeping from where it was on the previous call so
+     * that fast frames can't skip over a thin obstacle.
+     *
+     * Obstacles are hit by the probe point at ([probeX], [probeY]), the nose of the sleigh; gifts
+     * are collected by the whole elf box. Coordinates are relative to the screen. Reports at most
+     * one obstacle hit per call.
+     */
+    fun step(
+        probeX: Float,
+        probeY: Float,
+        elfLeft: Float,
+        elfTop: Float,
+        elfWidth: Float,
+        elfHeight: Float,
+        listener: Listener
+    ) {
+        val x1 = scrollX + probeX
+        val elfLeft1 = scrollX + elfLeft
+        if (lastProbeX.isNaN()) {
+            lastProbeX = x1
+            lastProbeY = probeY
+            lastElfLeft = elfLeft1
+            lastElfTop = elfTop
+        }
+        val x0 = lastProbeX
+        val y0 = lastProbeY
+
+        // The elf box swept over the frame.
+        val sweepLeft = Math.min(lastElfLeft, elfLeft1)
+        val sweepTop = Math.min(lastElfTop, elfTop)
+        val sweepRight = Math.max(lastElfLeft, elfLeft1) + elfWidth
+        val sweepBottom = Math.max(lastElfTop, elfTop) + elfHeight
+        val reach = Math.max(sweepRight, Math.max(x0, x1))
+
+        var hit = false
+        for (n in 0 until count) {
+            val i = (head + n) % capacity
+            if (slotLefts[i] > reach) {
+                // Boxes are ordered by slot, so nothing further along can be reached yet.
+                break
+            }
+            if (states[i] != STATE_LIVE) {
+                continue
+            }
+            if (kinds[i] == KIND_OBSTACLE) {
+                if (!hit && segmentIntersects(i, x0, y0, x1, probeY)) {
+                    hit = true
+                    listener.onObstacleHit()
+                }
+            } else if (lefts[i] <= sweepRight && rights[i] >= sweepLeft &&
+                    tops[i] <= sweepBottom && bottoms[i] >= sweepTop) {
+                states[i] = STATE_COLLECTED
+                listener.onGiftCollected(firstId + n)
+            } else if (rights[i] < elfLeft1) {
+                states[i] = STATE_MISSED
+                listener.onGiftMissed(firstId + n)
+            }
+        }
+
+        lastProbeX = x1
+        lastProbeY = probeY
+        lastElfLeft = elfLeft1
+        lastElfTop = elfTop
+    }
+
+    /** Whether the segment from (x0, y0) to (x1, y1) touches box i, by clipping it to the slabs. */
+    private fun segmentIntersects(i: Int, x0: Float, y0: Float, x1: Float, y1: Float): Boolean {
+        var tMin = 0f
+        var tMax = 1f
+
+        val dx = x1 - x0
+        if (dx == 0f) {
+            if (x0 < lefts[i] || x0 > rights[i]) return false
+        } else {
+            var t0 = (lefts[i] - x0) / dx
+            var t1 = (rights[i] - x0) / dx
+            if (t0 > t1) {
+                val t = t0
+                t0 = t1
+                t1 = t
+            }
+            tMin = Math.max(tMin, t0)
+            tMax = Math.min(tMax, t1)
+            if (tMin > tMax) return false
+        }
+
+        val dy = y1 - y0
+        if (dy == 0f) {
+            if (y0 < tops[i] || y0 > bottoms[i]) return false
+        } else {
+            var t0 = (tops[i] - y0) / dy
+            var t1 = (bottoms[i] - y0) / dy
+            if (t0 > t1) {
+                val t = t0
+                t0 = t1
+                t1 = t
+            }
+            tMin = Math.max(tMin, t0)
+            tMax = Math.min(tMax, t1)
+            if (tMin > tMax) return false
+        }
+        return true
+    }
+
+    private fun grow() {
+        val newCapacity = capacity * 2
+        kinds = unwrap(kinds, IntArray(newCapacity))
+        states = unwrap(states, IntArray(newCapacity))
+        slotLefts = unwrap(slotLefts, FloatArray(newCapacity))
+        lefts = unwrap(lefts, FloatArray(newCapacity))
+        tops = unwrap(tops, FloatArray(newCapacity))
+        rights = unwrap(rights, FloatArray(newCapacity))
+        bottoms = unwrap(bottoms, FloatArray(newCapacity))
+        head = 0
+        capacity = newCapacity
+    }
+
+    private fun unwrap(from: IntArray, to: IntArray): IntArray {
+        for (n in 0 until count) {
+            to[n] = from[(head + n) % capacity]
+        }
+        return to
+    }
+
+    private fun unwrap(from: FloatArray, to: FloatArray): FloatArray {
+        for (n in 0 until count) {
+            to[n] = from[(head + n) % capacity]
+        }
+        return to
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.rocketsleigh
+
+import android.widget.ImageView
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowLooper
+import java.util.ArrayDeque
+import java.util.concurrent.Executor
+
+/**
+ * Test for [BitmapCache], with the background decodes run by hand so that the test decides how far
+ * behind the scrolling they fall.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [26], constants = BuildConfig::class)
+class BitmapCacheStressTest {
+
+    /** Holds the decodes until they are run, and counts the ones run. */
+    private class ManualExecutor : Executor {
+        val tasks = ArrayDeque<Runnable>()
+        var ran = 0
+
+        override fun execute(command: Runnable) {
+            tasks.add(command)
+        }
+
+        fun runNext(): Boolean {
+            val task = tasks.poll() ?: return false
+            task.run()
+            ran++
+            ShadowLooper.idleMainLooper()
+            return true
+        }
+
+        fun runAll() {
+            while (runNext()) {
+            }
+        }
+    }
+
+    private val executor = ManualExecutor()
+    private val ids = (RocketSleigh.woodsObstacles + RocketSleigh.caveObstacles +
+            RocketSleigh.factoryObstacles)
+            .flatMap { listOf(it.top, it.bottom, it.back) }
+            .filter { it != 0 }
+            .distinct()
+
+    private fun cache(maxBytes: Long = Long.MAX_VALUE) =
+            BitmapCache(RuntimeEnvironment.application, executor, 1f, 1f, maxBytes)
+
+    @Test
+    fun testFetchNeverDecodesOnCallingThread() {
+        val cache = cache()
+
+        assertNull(cache.fetch(ids[0]))
+        // Requested for the background instead.
+        assertEquals(0, executor.ran)
+        assertEquals(1, executor.tasks.size)
+        assertNull(cache.fetch(ids[0]))
+
+        executor.runAll()
+        assertNotNull(cache.fetch(ids[0]))
+    }
+
+    @Test
+    fun testFetchIntoSetsImageOnceDecoded() {
+        val cache = cache()
+        val view = ImageView(RuntimeEnvironment.application)
+
+        cache.fetchInto(view, ids[0])
+        assertNull(view.drawable)
+
+        executor.runAll()
+        assertNotNull(view.drawable)
+    }
+
+    @Test
+    fun testClearCancelsFetchInto() {
+        val cache = cache()
+        val view = ImageView(RuntimeEnvironment.application)
+
+        cache.fetchInto(view, ids[0])
+        cache.clear(view)
+        executor.runAll()
+
+        // The view was recycled for another image in the meantime.
+        assertNull(view.drawable)
+    }
+
+    @Test
+    fun testWhenReadyWaitsForImagesNeededNow() {
+        val cache = cache()
+        cache.preload(ids[0], distance = BitmapCache.NOW)
+        cache.preload(ids[1], distance = BitmapCache.NOW)
+        cache.preload(ids[2], distance = BitmapCache.LATER)
+        var ready = 0
+
+        cache.whenReady(Runnable { ready++ })
+        ShadowLooper.idleMainLooper()
+        assertEquals(0, ready)
+
+        executor.runNext()
+        assertEquals(0, ready)
+        executor.runNext()
+        assertEquals(1, ready)
+        // Not waiting for the later one.
+        assertNull(cache.fetch(ids[2]))
+    }
+
+    @Test
+    fun testFastScrollingUnderSmallBudget() {
+        val probe = cache()
+        ids.forEach { probe.preload(it) }
+        executor.runAll()
+        var imageBytes = 0L
+        for (id in ids) {
+            imageBytes = Math.max(imageBytes, probe.fetch(id)!!.allocationByteCount.toLong())
+        }
+        probe.releaseAll()
+
+        // Room for about four images, while a screen shows three and preloads the next six.
+        val maxBytes = 4 * imageBytes
+        val cache = cache(maxBytes)
+        val perScreen = 3
+        val screens = 200
+        fun screen(index: Int) =
+                (0 until perScreen).map { ids[(index * perScreen + it) % ids.size] }
+
+        var misses = 0
+        var maxCached = 0L
+        for (index in 0 until screens) {
+            for (ahead in 1..2) {
+                screen(index + ahead).forEach { cache.preload(it, distance = ahead) }
+            }
+            val ran = executor.ran
+            for (id in screen(index)) {
+                if (cache.fetch(id) == null) {
+                    misses++
+                }
+            }
+            // Fetching never runs a decode, however far behind the decodes are.
+            assertEquals(ran, executor.ran)
+
+            // The decodes only keep up with every other screen.
+            if (index % 2 == 0) {
+                executor.runNext()
+            }
+            maxCached = Math.max(maxCached, cache.bytes)
+            screen(index - 1).forEach { cache.release(it) }
+        }
+
+        assertTrue("Expected the decodes to fall behind", misses > 0)
+        // Past the budget, only the images of the current screen are decoded, besides the one
+        // decode which crossed it.
+        assertTrue("Cached $maxCached bytes, budget $maxBytes",
+                maxCached <= maxBytes + (perScreen + 1) * imageBytes)
+
+        // Once scrolling stops, the last screen is decoded.
+        executor.runAll()
+        screen(screens - 1).forEach { assertNotNull(cache.fetch(it)) }
+        assertSame(cache.fetch(screen(screens - 1)[0]), cache.fetch(screen(screens - 1)[0]))
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.rocketsleigh
+
+import java.lang.management.ManagementFactory
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Headless frame-time benchmark of [RocketSleighWorld]: builds an obstacle strip the way
+ * RocketSleighActivity does, one slot at a time, and flies the elf along it for [FRAMES] frames,
+ * reporting the time and bytes allocated per frame.
+ */
+class RocketSleighWorldBenchmark {
+
+    companion object {
+        private const val FRAMES = 200000
+        private const val WARMUP_FRAMES = 20000
+
+        private const val SCREEN_WIDTH = 1920
+        private const val SCREEN_HEIGHT = 1080
+        private const val SLOT_WIDTH = SCREEN_WIDTH / 8
+        private const val SCROLL_PER_FRAME = 24
+
+        private const val ELF_LEFT = 200f
+        private const val ELF_WIDTH = 180f
+        private const val ELF_HEIGHT = 120f
+    }
+
+    private val random = Random(42)
+
+    @Test
+    fun benchmarkFrames() {
+        val world = RocketSleighWorld()
+        val listener = CountingListener()
+
+        run(world, listener, WARMUP_FRAMES)
+        val bean = ManagementFactory.getThreadMXBean()
+        val bytes = allocatedBytes(bean)
+        val start = System.nanoTime()
+        run(world, listener, FRAMES)
+        val nanos = System.nanoTime() - start
+        val bytesPerFrame = (allocatedBytes(bean) - bytes).toDouble() / FRAMES
+
+        println(String.format(
+                "RocketSleighWorldBenchmark %d frames: %.1f ns/frame, %.2f B/frame, " +
+                        "%d hits, %d gifts collected, %d missed",
+                FRAMES,
+                nanos.toDouble() / FRAMES,
+                bytesPerFrame,
+                listener.hits,
+                listener.collected,
+                listener.missed))
+
+        // Every gift dropped behind the elf was reported, one way or the other.
+        for (id in 0 until world.firstId) {
+            assertEquals(listener.gifts[id], listener.reported[id])
+        }
+        assertTrue(listener.hits > 0)
+        // A frame allocates nothing once the ring has grown to fit the screen.
+        assertTrue(bytesPerFrame < 1)
+    }
+
+    private fun run(world: RocketSleighWorld, listener: CountingListener, frames: Int) {
+        for (frame in 0 until frames) {
+            // Keep a screen of strip ahead of the elf, as addNextObstacles does.
+            while (world.extent < world.scrollX + 2 * SCREEN_WIDTH) {
+                addSlot(world, listener)
+            }
+            val wave = Math.sin(frame * 0.02).toFloat()
+            val elfTop = (SCREEN_HEIGHT - ELF_HEIGHT) * (0.5f + 0.45f * wave)
+            world.step(
+                    ELF_LEFT + ELF_WIDTH,
+                    elfTop + ELF_HEIGHT / 2,
+                    ELF_LEFT,
+                    elfTop,
+                    ELF_WIDTH,
+                    ELF_HEIGHT,
+                    listener)
+            world.scroll(SCROLL_PER_FRAME)
+        }
+    }
+
+    /** Adds a top or bottom obstacle, a gift or a space, like addNextObstacles. */
+    private fun addSlot(world: RocketSleighWorld, listener: CountingListener) {
+        when (random.nextInt(3)) {
+            0 -> {
+                val width = SLOT_WIDTH * (1 + random.nextInt(2))
+                val slotLeft = world.append(width)
+                val height = SCREEN_HEIGHT * (0.3f + 0.2f * random.nextFloat())
+                val left = slotLeft + width / 4
+                if (random.nextBoolean()) {
+                    world.add(RocketSleighWorld.KIND_OBSTACLE, slotLeft,
+                            left, 0f, left + width / 2, height)
+                } else {
+                    world.add(RocketSleighWorld.KIND_OBSTACLE, slotLeft,
+                            left, SCREEN_HEIGHT - height, left + width / 2, SCREEN_HEIGHT.toFloat())
+                }
+            }
+            1 -> {
+                val slotLeft = world.append(SLOT_WIDTH)
+                val left = slotLeft + SLOT_WIDTH / 4 + random.nextInt(SLOT_WIDTH / 2)
+                val top = (SCREEN_HEIGHT / 4 + random.nextInt(SCREEN_HEIGHT / 2)).toFloat()
+                val id = world.add(RocketSleighWorld.KIND_GIFT, slotLeft,
+                        left, top, left + 80, top + 80)
+                listener.gifts[id] = true
+            }
+            else -> world.append(SLOT_WIDTH)
+        }
+    }
+
+    private fun allocatedBytes(bean: java.lang.management.ThreadMXBean): Long {
+        if (bean is com.sun.management.ThreadMXBean && bean.isThreadAllocatedMemorySupported) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().id)
+        }
+        return 0
+    }
+
+    private class CountingListener : RocketSleighWorld.Listener {
+        var hits = 0
+        var collected = 0
+        var missed = 0
+        // By box id. There are fewer boxes than frames.
+        val gifts = BooleanArray(WARMUP_FRAMES + FRAMES)
+        val reported = BooleanArray(WARMUP_FRAMES + FRAMES)
+
+        override fun onObstacleHit() {
+            hits++
+        }
+
+        override fun onGiftCollected(id: Int) {
+            report(id)
+            collected++
+        }
+
+        override fun onGiftMissed(id: Int) {
+            report(id)
+            missed++
+        }
+
+        private fun report(id: Int) {
+            assertTrue(gifts[id] && !reported[id])
+            reported[id] = true
+        }
+    }
+}
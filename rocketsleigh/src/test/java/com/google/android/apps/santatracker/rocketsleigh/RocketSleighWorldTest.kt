@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2017 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.rocketsleigh
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/** Test for the collision sweep of [RocketSleighWorld]. */
+class RocketSleighWorldTest {
+
+    private val world = RocketSleighWorld(initialCapacity = 4)
+    private val listener = RecordingListener()
+
+    @Test
+    fun testProbeInsideObstacleHits() {
+        val slot = world.append(200)
+        world.add(RocketSleighWorld.KIND_OBSTACLE, slot, 50f, 0f, 150f, 300f)
+
+        step(probeX = 100f, probeY = 100f)
+
+        assertEquals(1, listener.hits)
+    }
+
+    @Test
+    fun testProbeOutsideObstacleMisses() {
+        val slot = world.append(200)
+        world.add(RocketSleighWorld.KIND_OBSTACLE, slot, 50f, 0f, 150f, 300f)
+
+        step(probeX = 100f, probeY = 400f)
+        world.scroll(100)
+        step(probeX = 100f, probeY = 400f)
+
+        assertEquals(0, listener.hits)
+    }
+
+    @Test
+    fun testSweepCatchesThinObstacleSkippedInOneFrame() {
+        val slot = world.append(200)
+        world.add(RocketSleighWorld.KIND_OBSTACLE, slot, 100f, 0f, 102f, 300f)
+
+        // The nose is before the obstacle on one frame and past it on the next.
+        step(probeX = 50f, probeY = 100f)
+        world.scroll(100)
+        step(probeX = 50f, probeY = 100f)
+
+        assertEquals(1, listener.hits)
+    }
+
+    @Test
+    fun testSweepFollowsDiagonalPath() {
+        val slot = world.append(400)
+        world.add(RocketSleighWorld.KIND_OBSTACLE, slot, 100f, 0f, 110f, 100f)
+
+        // From below the obstacle to past it, crossing its x range below its bottom.
+        step(probeX = 50f, probeY = 300f)
+        world.scroll(100)
+        step(probeX = 50f, probeY = 200f)
+        assertEquals(0, listener.hits)
+
+        // Climbing through it.
+        world.resetSweep()
+        world.scroll(-100)
+        step(probeX = 50f, probeY = 200f)
+        world.scroll(100)
+        step(probeX = 50f, probeY = 0f)
+        assertEquals(1, listener.hits)
+    }
+
+    @Test
+    fun testAtMostOneHitPerStep() {
+        val slot = world.append(400)
+        world.add(RocketSleighWorld.KIND_OBSTACLE, slot, 100f, 0f, 110f, 300f)
+        world.add(RocketSleighWorld.KIND_OBSTACLE, slot, 200f, 0f, 210f, 300f)
+
+        step(probeX = 50f, probeY = 100f)
+        world.scroll(300)
+        step(probeX = 50f, probeY = 100f)
+
+        assertEquals(1, listener.hits)
+    }
+
+    @Test
+    fun testResetSweepForgetsPreviousPosition() {
+        val slot = world.append(200)
+        world.add(RocketSleighWorld.KIND_OBSTACLE, slot, 100f, 0f, 102f, 300f)
+
+        step(probeX = 50f, probeY = 100f)
+        world.scroll(100)
+        world.resetSweep()
+        step(probeX = 50f, probeY = 100f)
+
+        assertEquals(0, listener.hits)
+    }
+
+    @Test
+    fun testGiftIsCollectedOnce() {
+        val slot = world.append(200)
+        val id = world.add(RocketSleighWorld.KIND_GIFT, slot, 100f, 100f, 150f, 150f)
+
+        step(elfLeft = 80f, elfTop = 80f)
+        step(elfLeft = 80f, elfTop = 80f)
+
+        assertEquals(listOf(id), listener.collected)
+        assertEquals(emptyList<Int>(), listener.missed)
+    }
+
+    @Test
+    fun testGiftPassedInOneFrameIsCollected() {
+        val slot = world.append(600)
+        val id = world.add(RocketSleighWorld.KIND_GIFT, slot, 300f, 100f, 320f, 120f)
+
+        step(elfLeft = 0f, elfTop = 100f)
+        world.scroll(500)
+        step(elfLeft = 0f, elfTop = 100f)
+
+        assertEquals(listOf(id), listener.collected)
+    }
+
+    @Test
+    fun testGiftPassedByIsMissedOnce() {
+        val slot = world.append(600)
+        val id = world.add(RocketSleighWorld.KIND_GIFT, slot, 100f, 500f, 150f, 550f)
+
+        step(elfLeft = 0f, elfTop = 0f)
+        world.scroll(200)
+        step(elfLeft = 0f, elfTop = 0f)
+        world.scroll(10)
+        step(elfLeft = 0f, elfTop = 0f)
+
+        assertEquals(emptyList<Int>(), listener.collected)
+        assertEquals(listOf(id), listener.missed)
+    }
+
+    @Test
+    fun testScrollDropsBoxesBehindTheSweep() {
+        for (n in 0 until 3) {
+            val slot = world.append(100)
+            world.add(RocketSleighWorld.KIND_OBSTACLE, slot, slot, 0f, slot + 10f, 10f)
+        }
+        assertEquals(0, world.firstId)
+
+        world.scroll(150)
+        assertEquals(2, world.firstId)
+
+        // Boxes which the next sweep starts behind are kept until the elf has moved past them.
+        step(probeX = 0f, probeY = 500f)
+        world.scroll(200)
+        assertEquals(2, world.firstId)
+        step(probeX = 0f, probeY = 500f)
+        world.scroll(0)
+        assertEquals(3, world.firstId)
+    }
+
+    @Test
+    fun testRingGrowsAcrossWrapAround() {
+        // Fill and drain the ring so it wraps, then grow it while wrapped.
+        for (n in 0 until 3) {
+            val slot = world.append(100)
+            world.add(RocketSleighWorld.KIND_OBSTACLE, slot, slot, 0f, slot + 10f, 10f)
+        }
+        world.scroll(250)
+        var gift = -1
+        for (n in 0 until 6) {
+            val slot = world.append(100)
+            gift = world.add(RocketSleighWorld.KIND_GIFT, slot, slot, 0f, slot + 10f, 10f)
+        }
+        assertEquals(3, world.firstId)
+
+        // Everything up to the last gift is collected, in order, by one wide sweep.
+        step(elfLeft = 0f, elfTop = 0f, elfWidth = 700f)
+
+        assertEquals((3..gift).toList(), listener.collected)
+    }
+
+    private fun step(
+        probeX: Float = 0f,
+        probeY: Float = 1000f,
+        elfLeft: Float = 0f,
+        elfTop: Float = 1000f,
+        elfWidth: Float = 50f,
+        elfHeight: Float = 50f
+    ) {
+        world.step(probeX, probeY, elfLeft, elfTop, elfWidth, elfHeight, listener)
+    }
+
+    private class RecordingListener : RocketSleighWorld.Listener {
+        var hits = 0
+        val collected = ArrayList<Int>()
+        val missed = ArrayList<Int>()
+
+        override fun onObstacleHit() {
+            hits++
+        }
+
+        override fun onGiftCollected(id: Int) {
+            collected.add(id)
+        }
+
+        override fun onGiftMissed(id: Int) {
+            missed.add(id)
+        }
+    }
+}
@@ -15,11 +15,12 @@
  */
 package com.google.android.apps.santatracker.doodles.snowballrun;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
 import com.google.android.apps.santatracker.doodles.shared.actor.Camera;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 
 /** A background actor that follows the camera. */
 public class BackgroundActor extends Actor {
@@ -31,71 +32,101 @@ public class BackgroundActor extends Actor {
 
     private Camera camera;
 
-    public BackgroundActor(Resources resources, Camera camera) {
+    public BackgroundActor(SpriteLoader sprites, Camera camera) {
         this.camera = camera;
 
-        backgroundSprite =
-                AnimatedSprite.fromFrames(resources, SnowballRunSprites.snowballrunner_background);
-        treeSpriteOne =
-                AnimatedSprite.fromFrames(resources, SnowballRunSprites.snowball_runner_trees1);
-        treeSpriteTwo =
-                AnimatedSprite.fromFrames(resources, SnowballRunSprites.snowball_runner_trees2);
+        backgroundSprite = sprites.fromSheet(SnowballRunSprites.snowballrunner_background);
+        treeSpriteOne = sprites.fromSheet(SnowballRunSprites.snowball_runner_trees1);
+        treeSpriteTwo = sprites.fromSheet(SnowballRunSprites.snowball_runner_trees2);
 
         backgroundSprite.setAnchor(backgroundSprite.frameWidth / 2, 0);
     }
 
     @Override
     public void draw(Canvas canvas) {
-        backgroundSprite.setScale(scale, scale);
-        float h = backgroundSprite.frameHeight * scale * (960f / 980f);
-
-        // Always draws the background at 0, 0, where the camera is.
         // Draws the background sprite three times so the background is not cut off on larger
         // devices where the device dimension exceeds the background sprite's size.
-        backgroundSprite.setPosition(position.x, camera.position.y + -camera.position.y % h);
-        backgroundSprite.draw(canvas);
-
-        backgroundSprite.setPosition(position.x, camera.position.y + h + (-camera.position.y % h));
-        backgroundSprite.draw(canvas);
+        for (int tile = 0; tile < 3; tile++) {
+            placeBackground(tile);
+            backgroundSprite.draw(canvas);
+        }
+    }
 
-        backgroundSprite.setPosition(position.x, camera.position.y - h + (-camera.position.y % h));
-        backgroundSprite.draw(canvas);
+    @Override
+    public void capture(RenderSnapshot.Frame frame) {
+        for (int tile = 0; tile < 3; tile++) {
+            placeBackground(tile);
+            backgroundSprite.capture(frame);
+        }
     }
 
     public void drawTop(Canvas canvas) {
+        for (int tree = 0; tree < 4; tree++) {
+            placeTree(tree).draw(canvas);
+        }
+    }
+
+    /** Record what {@link #drawTop} would draw right now into the frame. */
+    public void captureTop(RenderSnapshot.Frame frame) {
+        for (int tree = 0; tree < 4; tree++) {
+            placeTree(tree).capture(frame);
+        }
+    }
+
+    private void placeBackground(int tile) {
+        backgroundSprite.setScale(scale, scale);
+        float h = backgroundSprite.frameHeight * scale * (960f / 980f);
+
+        // Always draws the background at 0, 0, where the camera is, and one tile either side.
+        float y = camera.position.y + -camera.position.y % h;
+        if (tile == 1) {
+            y += h;
+        } else if (tile == 2) {
+            y -= h;
+        }
+        backgroundSprite.setPosition(position.x, y);
+    }
+
+    private AnimatedSprite placeTree(int tree) {
         float h = backgroundSprite.frameHeight * scale;
 
         // Makes repeating trees and umbrellas with integer division.
-        float rightTreeOneY = h * 0.5f + ((h * 2) * ((int) ((camera.position.y + h) / (h * 2))));
-        float rightTreeTwoY = h * 1.5f + ((h * 2) * ((int) ((camera.position.y) / (h * 2))));
-
-        float leftTreeOneY = (h * 2) * ((int) ((camera.position.y + (h * 1.5f)) / (h * 2)));
-        float leftTreeTwoY = h + ((h * 2) * ((int) ((camera.position.y + (h * 0.5f)) / (h * 2))));
-
-        treeSpriteOne.setScale(scale, scale);
-        treeSpriteOne.setPosition(
-                PursuitModel.HALF_WIDTH - (scale * treeSpriteOne.frameWidth) * 0.35f,
-                rightTreeOneY
-                        + (h * 0.08f)
-                        - ((camera.position.y - rightTreeOneY) / h) * h * 0.12f);
-        treeSpriteOne.draw(canvas);
-
-        treeSpriteOne.setScale(-scale, scale);
-        treeSpriteOne.setPosition(
-                -(scale * treeSpriteOne.frameWidth) * 0.3f,
-                leftTreeOneY + (h * 0.08f) - ((camera.position.y - leftTreeOneY) / h) * h * 0.12f);
-        treeSpriteOne.draw(canvas);
-
-        treeSpriteTwo.setScale(scale, scale);
-        treeSpriteTwo.setPosition(
-                PursuitModel.HALF_WIDTH - (scale * treeSpriteTwo.frameWidth) * 0.3f,
-                rightTreeTwoY - ((camera.position.y - rightTreeTwoY) / h) * h * 0.07f);
-        treeSpriteTwo.draw(canvas);
-
-        treeSpriteTwo.setScale(-scale, scale);
-        treeSpriteTwo.setPosition(
-                -(scale * treeSpriteTwo.frameWidth) * 0.5f,
-                leftTreeTwoY - ((camera.position.y - leftTreeTwoY) / h) * h * 0.07f);
-        treeSpriteTwo.draw(canvas);
+        switch (tree) {
+            case 0:
+                float rightTreeOneY =
+                        h * 0.5f + ((h * 2) * ((int) ((camera.position.y + h) / (h * 2))));
+                treeSpriteOne.setScale(scale, scale);
+                treeSpriteOne.setPosition(
+                        PursuitModel.HALF_WIDTH - (scale * treeSpriteOne.frameWidth) * 0.35f,
+                        rightTreeOneY
+                                + (h * 0.08f)
+                                - ((camera.position.y - rightTreeOneY) / h) * h * 0.12f);
+                return treeSpriteOne;
+            case 1:
+                float leftTreeOneY = (h * 2) * ((int) ((camera.position.y + (h * 1.5f)) / (h * 2)));
+                treeSpriteOne.setScale(-scale, scale);
+                treeSpriteOne.setPosition(
+                        -(scale * treeSpriteOne.frameWidth) * 0.3f,
+                        leftTreeOneY
+                                + (h * 0.08f)
+                                - ((camera.position.y - leftTreeOneY) / h) * h * 0.12f);
+                return treeSpriteOne;
+            case 2:
+                float rightTreeTwoY =
+                        h * 1.5f + ((h * 2) * ((int) ((camera.position.y) / (h * 2))));
+                treeSpriteTwo.setScale(scale, scale);
+                treeSpriteTwo.setPosition(
+                        PursuitModel.HALF_WIDTH - (scale * treeSpriteTwo.frameWidth) * 0.3f,
+                        rightTreeTwoY - ((camera.position.y - rightTreeTwoY) / h) * h * 0.07f);
+                return treeSpriteTwo;
+            default:
+                float leftTreeTwoY =
+                        h + ((h * 2) * ((int) ((camera.position.y + (h * 0.5f)) / (h * 2))));
+                treeSpriteTwo.setScale(-scale, scale);
+                treeSpriteTwo.setPosition(
+                        -(scale * treeSpriteTwo.frameWidth) * 0.5f,
+                        leftTreeTwoY - ((camera.position.y - leftTreeTwoY) / h) * h * 0.07f);
+                return treeSpriteTwo;
+        }
     }
 }
@@ -15,8 +15,8 @@
  */
 package com.google.android.apps.santatracker.doodles.snowballrun;
 
-import android.content.res.Resources;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 
 /**
  * The player actor that has two more animation states than runner actor: celebrating running and
@@ -28,15 +28,13 @@ public class PlayerActor extends RunnerActor {
     boolean isSweating;
     boolean isCelebrating;
 
-    public PlayerActor(Resources resources, int lane) {
-        super(resources, RunnerType.PLAYER, lane);
+    public PlayerActor(SpriteLoader sprites, int lane) {
+        super(sprites, RunnerType.PLAYER, lane);
         isSweating = false;
         isCelebrating = false;
 
-        sweatSprite =
-                AnimatedSprite.fromFrames(resources, SnowballRunSprites.snowballrun_running_losing);
-        celebrateSprite =
-                AnimatedSprite.fromFrames(resources, SnowballRunSprites.snowballrun_running_normal);
+        sweatSprite = sprites.fromSheet(SnowballRunSprites.snowballrun_running_losing);
+        celebrateSprite = sprites.fromSheet(SnowballRunSprites.snowballrun_running_normal);
 
         setSpriteAnchorUpright(sweatSprite);
         setSpriteAnchorUpright(celebrateSprite);
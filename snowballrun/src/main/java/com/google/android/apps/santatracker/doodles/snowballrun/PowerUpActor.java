@@ -15,11 +15,12 @@
  */
 package com.google.android.apps.santatracker.doodles.snowballrun;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite.AnimatedSpriteListener;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 
 /** A power up that speeds up the player. */
 public class PowerUpActor extends Actor {
@@ -29,13 +30,13 @@ public class PowerUpActor extends Actor {
 
     private AnimatedSprite sprite;
 
-    public PowerUpActor(float x, float y, Resources resources) {
+    public PowerUpActor(float x, float y, SpriteLoader sprites) {
         zIndex = Z_INDEX;
         position.x = x;
         position.y = y;
         isPickedUp = false;
 
-        sprite = AnimatedSprite.fromFrames(resources, SnowballRunSprites.running_powerup);
+        sprite = sprites.fromSheet(SnowballRunSprites.running_powerup);
         sprite.setFPS(18);
         sprite.setAnchor(sprite.frameWidth / 2, sprite.frameHeight / 2);
         sprite.setLoop(false);
@@ -71,10 +72,23 @@ public class PowerUpActor extends Actor {
         if (hidden) {
             return;
         }
+        placeSprite();
+        sprite.draw(canvas);
+    }
+
+    @Override
+    public void capture(RenderSnapshot.Frame frame) {
+        if (hidden) {
+            return;
+        }
+        placeSprite();
+        sprite.capture(frame);
+    }
+
+    private void placeSprite() {
         float framesPercent = ((float) sprite.getFrameIndex()) / sprite.getNumFrames();
         sprite.setPosition(
                 position.x, position.y + (3f * framesPercent * scale * sprite.frameHeight));
         sprite.setScale(scale, scale);
-        sprite.draw(canvas);
     }
 }
@@ -73,6 +73,19 @@ public class PursuitFragment extends GameFragment implements EventBusListener {
         }
     }
 
+    @Override
+    protected boolean usesFixedTimestep() {
+        return true;
+    }
+
+    @Override
+    public void onStepsFinished(float alpha) {
+        final PursuitModel model = modelRef.get();
+        if (model != null) {
+            model.renderSnapshot.publish(alpha);
+        }
+    }
+
     @Override
     public View onCreateView(
             LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -152,7 +165,7 @@ public class PursuitFragment extends GameFragment implements EventBusListener {
         EventBus.getInstance().register(this);
 
         final PursuitModel model =
-                new PursuitModel(context.getResources(), getActivity().getApplicationContext());
+                new PursuitModel(spriteLoader, getActivity().getApplicationContext());
         modelRef.set(model);
         gameView.setModel(model);
         model.setStateListener(
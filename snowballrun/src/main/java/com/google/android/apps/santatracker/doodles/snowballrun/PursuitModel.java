@@ -37,11 +37,13 @@ import com.google.android.apps.santatracker.doodles.shared.actor.Camera;
 import com.google.android.apps.santatracker.doodles.shared.actor.CameraShake;
 import com.google.android.apps.santatracker.doodles.shared.actor.FakeButtonActor;
 import com.google.android.apps.santatracker.doodles.shared.actor.RectangularInstructionActor;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 import com.google.android.apps.santatracker.doodles.shared.animation.ActorTween;
 import com.google.android.apps.santatracker.doodles.shared.animation.ActorTween.Callback;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
 import com.google.android.apps.santatracker.doodles.shared.animation.EmptyTween;
 import com.google.android.apps.santatracker.doodles.shared.animation.Interpolator;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 import com.google.android.apps.santatracker.doodles.shared.animation.Tween;
 import com.google.android.apps.santatracker.doodles.shared.animation.TweenManager;
 import com.google.android.apps.santatracker.doodles.shared.views.GameFragment;
@@ -133,8 +135,11 @@ public class PursuitModel {
     public final List<Actor> ui = Collections.synchronizedList(new ArrayList<Actor>());
     public final CameraShake cameraShake; // Public so view can read the amount of shake.
     public final Camera camera;
+    // Written after every step, and read by the view instead of locking the model to draw.
+    public final RenderSnapshot renderSnapshot = new RenderSnapshot();
     // High level Android variables that lays the foundation for the game.
     private final Resources resources;
+    private final SpriteLoader sprites;
     private final TweenManager tweenManager = new TweenManager();
     private final Vibrator vibrator;
     private final EventBus eventBus;
@@ -175,8 +180,9 @@ public class PursuitModel {
     private RectangularInstructionActor instructions;
     private TextView countdownView;
 
-    public PursuitModel(Resources resources, Context context) {
-        this.resources = resources;
+    public PursuitModel(SpriteLoader sprites, Context context) {
+        this.sprites = sprites;
+        this.resources = sprites.getResources();
 
         eventBus = EventBus.getInstance();
 
@@ -195,13 +201,13 @@ public class PursuitModel {
 
     private void initActors() {
         // Initialize background
-        backgroundActor = new BackgroundActor(resources, camera);
+        backgroundActor = new BackgroundActor(sprites, camera);
         backgroundActor.scale = 1.15f;
 
-        player = new PlayerActor(resources, INITIAL_LANE);
+        player = new PlayerActor(sprites, INITIAL_LANE);
         player.setRadius(STRAWBERRY_RADIUS);
-        ribbon = new RibbonActor(0, RIBBON_INITIALIZATION_POSITION_Y, resources);
-        snowball = new RunSnowballActor(resources);
+        ribbon = new RibbonActor(0, RIBBON_INITIALIZATION_POSITION_Y, sprites);
+        snowball = new RunSnowballActor(sprites);
 
         // Scale actors to fit screen
         baseScale = (1f * EXPECTED_PLAYER_WIDTH) / player.currentSprite.frameWidth;
@@ -223,11 +229,11 @@ public class PursuitModel {
         snowman = addOpponent(RunnerType.SNOWMAN, 2, OPPONENT_INITIAL_POSITION_Y, APRICOT_RADIUS);
 
         AnimatedSprite runningTutorialSprite =
-                AnimatedSprite.fromFrames(resources, SnowballRunSprites.tutorial_running);
+                sprites.fromSheet(SnowballRunSprites.tutorial_running);
         runningTutorialSprite.setFPS(7);
 
         // Initialize and add the UI actors
-        instructions = new RectangularInstructionActor(resources, runningTutorialSprite);
+        instructions = new RectangularInstructionActor(sprites, runningTutorialSprite);
         instructions.hidden = true;
 
         instructions.scale = 0.54f;
@@ -235,9 +241,7 @@ public class PursuitModel {
                 HALF_WIDTH - instructions.getScaledWidth() / 2,
                 HEIGHT * 0.65f - instructions.getScaledHeight() / 2);
 
-        leftButton =
-                new FakeButtonActor(
-                        AnimatedSprite.fromFrames(resources, SnowballRunSprites.running_button));
+        leftButton = new FakeButtonActor(sprites.fromSheet(SnowballRunSprites.running_button));
         leftButton.rotation = -(float) Math.PI / 2;
         leftButton.sprite.setFPS(12);
         leftButton.scale = BUTTON_SCALE;
@@ -245,9 +249,7 @@ public class PursuitModel {
         leftButton.position.y = HEIGHT - 20;
         leftButton.alpha = 0;
 
-        rightButton =
-                new FakeButtonActor(
-                        AnimatedSprite.fromFrames(resources, SnowballRunSprites.running_button));
+        rightButton = new FakeButtonActor(sprites.fromSheet(SnowballRunSprites.running_button));
         rightButton.rotation = (float) Math.PI / 2;
         rightButton.sprite.setFPS(12);
         rightButton.scale = BUTTON_SCALE;
@@ -420,6 +422,15 @@ public class PursuitModel {
             checkOpponentsPlayerCollision();
             checkOpponentsFinished();
             checkOpponentsWatermelonCollision();
+
+            RenderSnapshot.Frame frame = renderSnapshot.beginCapture(camera);
+            frame.setCameraShake(cameraShake.position.x, cameraShake.position.y);
+            frame.add(backgroundActor);
+            frame.addAll(actors);
+            backgroundActor.captureTop(frame);
+            frame.beginUi();
+            frame.addAll(ui);
+            renderSnapshot.endCapture();
         }
     }
 
@@ -907,7 +918,7 @@ public class PursuitModel {
     }
 
     private PowerUpActor addPowerUp(float x, float y) {
-        PowerUpActor powerUp = new PowerUpActor(x, y, resources);
+        PowerUpActor powerUp = new PowerUpActor(x, y, sprites);
         powerUp.scale = baseScale;
         synchronized (actors) {
             actors.add(powerUp);
@@ -928,7 +939,7 @@ public class PursuitModel {
 
     // Creates a OpponentActor.
     private OpponentActor makeOpponent(RunnerType type, int lane, float y, float radius) {
-        OpponentActor opponent = new OpponentActor(resources, type, lane);
+        OpponentActor opponent = new OpponentActor(sprites, type, lane);
         opponent.position.x = getLanePositionX(lane);
         opponent.position.y = y;
         opponent.scale = baseScale;
@@ -1275,8 +1286,8 @@ public class PursuitModel {
         // Used for decelerating the opponent.
         public boolean isFinished;
 
-        OpponentActor(Resources resources, RunnerType type, int lane) {
-            super(resources, type, lane);
+        OpponentActor(SpriteLoader sprites, RunnerType type, int lane) {
+            super(sprites, type, lane);
             isFinished = false;
         }
     }
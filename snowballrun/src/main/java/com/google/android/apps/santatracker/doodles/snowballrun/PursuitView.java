@@ -19,7 +19,7 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.util.AttributeSet;
 import android.view.View;
-import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 
 /** Handles rendering for the second version of the running game. */
 public class PursuitView extends View {
@@ -51,55 +51,44 @@ public class PursuitView extends View {
         if (model == null) {
             return;
         }
-        synchronized (model) {
-            super.onDraw(canvas);
-            canvas.save();
-
-            // Fit-to-screen & center.
-            currentScale =
-                    Math.min(
-                            canvas.getWidth() / (float) PursuitModel.WIDTH,
-                            canvas.getHeight() / (float) PursuitModel.HEIGHT);
-
-            currentOffsetX = (canvas.getWidth() / currentScale - PursuitModel.WIDTH) / 2;
-            currentOffsetY = (canvas.getHeight() / currentScale - PursuitModel.HEIGHT) / 2;
-
-            canvas.scale(currentScale * model.camera.scale, currentScale * model.camera.scale);
-            canvas.translate(
-                    currentOffsetX - model.cameraShake.position.x - model.camera.position.x,
-                    currentOffsetY - model.cameraShake.position.y - model.camera.position.y);
-
-            // Draws the beach and the sidewalk.
-            model.backgroundActor.draw(canvas);
-
-            // Draws the actors
-            synchronized (model.actors) {
-                for (int i = 0; i < model.actors.size(); i++) {
-                    Actor actor = model.actors.get(i);
-                    if (!actor.hidden) {
-                        actor.draw(canvas);
-                    }
-                }
-            }
-
-            // Draws tree, umbrellas and their shadows.
-            model.backgroundActor.drawTop(canvas);
-
-            canvas.restore();
-            canvas.save();
-
-            canvas.scale(currentScale * model.camera.scale, currentScale * model.camera.scale);
-            canvas.translate(currentOffsetX, currentOffsetY);
-
-            // Draws the UI
-            for (int i = 0; i < model.ui.size(); i++) {
-                Actor actor = model.ui.get(i);
-                if (!actor.hidden) {
-                    actor.draw(canvas);
-                }
-            }
-
-            canvas.restore();
+        // The logic thread publishes a snapshot after each batch of steps, so drawing never has to
+        // wait for an update to finish.
+        RenderSnapshot.Frame frame = model.renderSnapshot.latest();
+        if (frame == null) {
+            // Nothing has been simulated yet.
+            return;
         }
+        super.onDraw(canvas);
+        canvas.save();
+
+        // Fit-to-screen & center.
+        currentScale =
+                Math.min(
+                        canvas.getWidth() / (float) PursuitModel.WIDTH,
+                        canvas.getHeight() / (float) PursuitModel.HEIGHT);
+
+        currentOffsetX = (canvas.getWidth() / currentScale - PursuitModel.WIDTH) / 2;
+        currentOffsetY = (canvas.getHeight() / currentScale - PursuitModel.HEIGHT) / 2;
+
+        float cameraScale = frame.getCameraScale();
+        canvas.scale(currentScale * cameraScale, currentScale * cameraScale);
+        canvas.translate(
+                currentOffsetX - frame.getCameraShakeX() - frame.getCameraX(),
+                currentOffsetY - frame.getCameraShakeY() - frame.getCameraY());
+
+        // Draws the beach and the sidewalk, the actors, then the trees, umbrellas and their
+        // shadows.
+        frame.drawWorld(canvas);
+
+        canvas.restore();
+        canvas.save();
+
+        canvas.scale(currentScale * cameraScale, currentScale * cameraScale);
+        canvas.translate(currentOffsetX, currentOffsetY);
+
+        // Draws the UI
+        frame.drawUi(canvas);
+
+        canvas.restore();
     }
 }
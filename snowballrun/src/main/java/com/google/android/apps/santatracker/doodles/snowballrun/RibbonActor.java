@@ -15,10 +15,11 @@
  */
 package com.google.android.apps.santatracker.doodles.snowballrun;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 
 /** The breakable ribbon that acts as the finish line for the running game. */
 public class RibbonActor extends Actor {
@@ -28,13 +29,13 @@ public class RibbonActor extends Actor {
     // Assets.
     private AnimatedSprite sprite;
 
-    public RibbonActor(float x, float y, Resources resources) {
+    public RibbonActor(float x, float y, SpriteLoader sprites) {
         zIndex = Z_INDEX;
 
         position.x = x;
         position.y = y;
 
-        sprite = AnimatedSprite.fromFrames(resources, SnowballRunSprites.running_finish_line);
+        sprite = sprites.fromSheet(SnowballRunSprites.running_finish_line);
 
         sprite.setAnchor(sprite.frameWidth / 2, sprite.frameHeight / 2);
 
@@ -44,8 +45,18 @@ public class RibbonActor extends Actor {
     @Override
     public void draw(Canvas canvas) {
         super.draw(canvas);
+        placeSprite();
+        sprite.draw(canvas);
+    }
+
+    @Override
+    public void capture(RenderSnapshot.Frame frame) {
+        placeSprite();
+        sprite.capture(frame);
+    }
+
+    private void placeSprite() {
         sprite.setPosition(position.x, position.y);
         sprite.setScale(scale, scale);
-        sprite.draw(canvas);
     }
 }
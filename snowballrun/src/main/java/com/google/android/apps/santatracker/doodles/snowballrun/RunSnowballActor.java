@@ -15,7 +15,7 @@
  */
 package com.google.android.apps.santatracker.doodles.snowballrun;
 
-import android.content.res.Resources;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 
 /**
  * The snowball that's always behind the player and the other running fruits. If the player or the
@@ -28,8 +28,8 @@ public class RunSnowballActor extends SnowballBaseActor {
 
     private static final int Z_INDEX = 5;
 
-    public RunSnowballActor(Resources resources) {
-        super(resources);
+    public RunSnowballActor(SpriteLoader sprites) {
+        super(sprites);
         zIndex = Z_INDEX;
     }
 
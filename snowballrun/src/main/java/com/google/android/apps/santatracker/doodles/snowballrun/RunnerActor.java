@@ -15,11 +15,12 @@
  */
 package com.google.android.apps.santatracker.doodles.snowballrun;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite.AnimatedSpriteListener;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 
 /** A fruit that runs down the screen. */
 public class RunnerActor extends Actor {
@@ -39,18 +40,18 @@ public class RunnerActor extends Actor {
     protected AnimatedSprite deadSprite;
     protected AnimatedSprite dyingSprite;
 
-    RunnerActor(Resources resources, RunnerType type, int lane) {
+    RunnerActor(SpriteLoader sprites, RunnerType type, int lane) {
         this.lane = lane;
         this.type = type;
 
-        runningSprite = AnimatedSprite.fromFrames(resources, type.runRes);
-        crouchSprite = AnimatedSprite.fromFrames(resources, type.crouchRes);
-        enteringSprite = AnimatedSprite.fromFrames(resources, type.enteringRes);
-        runningLeftSprite = AnimatedSprite.fromFrames(resources, type.runLeftRes);
-        runningRightSprite = AnimatedSprite.fromFrames(resources, type.runLeftRes);
-        standingSprite = AnimatedSprite.fromFrames(resources, type.standRes);
-        deadSprite = AnimatedSprite.fromFrames(resources, type.deadRes);
-        dyingSprite = AnimatedSprite.fromFrames(resources, type.dyingRes);
+        runningSprite = sprites.fromSheet(type.runRes);
+        crouchSprite = sprites.fromSheet(type.crouchRes);
+        enteringSprite = sprites.fromSheet(type.enteringRes);
+        runningLeftSprite = sprites.fromSheet(type.runLeftRes);
+        runningRightSprite = sprites.fromSheet(type.runLeftRes);
+        standingSprite = sprites.fromSheet(type.standRes);
+        deadSprite = sprites.fromSheet(type.deadRes);
+        dyingSprite = sprites.fromSheet(type.dyingRes);
 
         enteringSprite.setLoop(false);
         enteringSprite.setFPS(
@@ -112,7 +113,20 @@ public class RunnerActor extends Actor {
         if (currentSprite == null) {
             return;
         }
+        placeCurrentSprite();
+        currentSprite.draw(canvas);
+    }
+
+    @Override
+    public void capture(RenderSnapshot.Frame frame) {
+        if (currentSprite == null) {
+            return;
+        }
+        placeCurrentSprite();
+        currentSprite.capture(frame);
+    }
 
+    private void placeCurrentSprite() {
         float runnerScale = scale * 1.50f;
         currentSprite.setScale(runnerScale, runnerScale);
         currentSprite.setPosition(position.x, position.y);
@@ -120,8 +134,6 @@ public class RunnerActor extends Actor {
         if (currentSprite == runningRightSprite) {
             currentSprite.setScale(-runnerScale, runnerScale);
         }
-
-        currentSprite.draw(canvas);
     }
 
     public int getLane() {
@@ -16,10 +16,11 @@
 
 package com.google.android.apps.santatracker.doodles.snowballrun;
 
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import com.google.android.apps.santatracker.doodles.shared.actor.Actor;
+import com.google.android.apps.santatracker.doodles.shared.actor.RenderSnapshot;
 import com.google.android.apps.santatracker.doodles.shared.animation.AnimatedSprite;
+import com.google.android.apps.santatracker.doodles.shared.animation.SpriteLoader;
 
 /** The base snowball actor used by both the golf and running game. */
 public class SnowballBaseActor extends Actor {
@@ -27,9 +28,9 @@ public class SnowballBaseActor extends Actor {
     public AnimatedSprite bodySprite;
     public AnimatedSprite shadowSprite;
 
-    public SnowballBaseActor(Resources resources) {
-        bodySprite = AnimatedSprite.fromFrames(resources, SnowballRunSprites.snowball);
-        shadowSprite = AnimatedSprite.fromFrames(resources, SnowballRunSprites.melon_shadow);
+    public SnowballBaseActor(SpriteLoader sprites) {
+        bodySprite = sprites.fromSheet(SnowballRunSprites.snowball);
+        shadowSprite = sprites.fromSheet(SnowballRunSprites.melon_shadow);
 
         bodySprite.setAnchor(bodySprite.frameWidth / 2, bodySprite.frameHeight / 2);
         shadowSprite.setAnchor(shadowSprite.frameWidth * 0.5f, shadowSprite.frameHeight * 0.35f);
@@ -49,10 +50,22 @@ public class SnowballBaseActor extends Actor {
         drawSprite(bodySprite, canvas);
     }
 
+    @Override
+    public void capture(RenderSnapshot.Frame frame) {
+        placeSprite(shadowSprite);
+        shadowSprite.capture(frame);
+        placeSprite(bodySprite);
+        bodySprite.capture(frame);
+    }
+
     private void drawSprite(AnimatedSprite sprite, Canvas canvas) {
+        placeSprite(sprite);
+        sprite.draw(canvas);
+    }
+
+    private void placeSprite(AnimatedSprite sprite) {
         sprite.setPosition(position.x, position.y);
         sprite.setScale(scale, scale);
-        sprite.draw(canvas);
     }
 
     private void drawSpriteYInverted(AnimatedSprite sprite, Canvas canvas) {
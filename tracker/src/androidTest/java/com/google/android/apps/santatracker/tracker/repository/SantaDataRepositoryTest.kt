@@ -114,4 +114,57 @@ class SantaDataRepositoryTest {
         verify(mockSantaApi, never()).getMetadataList(LANGUAGE)
         assertThat(destinations, `is`(listOf(destination)))
     }
+
+    @Test
+    fun testReloadSkippedWhenFingerprintUnchanged() {
+        val fingerprint = Metadata(key = Metadata.KEY_FINGERPRINT, content = "fingerprint")
+        database.metadata().insertAll(listOf(metadata, fingerprint))
+        database.destination().insertAll(listOf(destination))
+        `when`(mockSantaApi.getDestinations(LANGUAGE)).thenReturn(emptyList())
+        `when`(mockSantaApi.getMetadataList(LANGUAGE)).thenReturn(listOf(metadata, fingerprint))
+
+        repository.reloadAll(LANGUAGE)
+
+        // Same fingerprint, so the stored route must not have been touched
+        assertThat(repository.loadDestinations(), `is`(listOf(destination)))
+    }
+
+    @Test
+    fun testReloadAppliesDiff() {
+        val removed = destination.copy(id = "removed", arrival = 10, departure = 11)
+        val changed = destination.copy(city = "changed")
+        val added = destination.copy(id = "added", arrival = 20, departure = 21)
+        val addedEntry = streamEntry.copy(timestamp = 1)
+        database.metadata().insertAll(listOf(metadata,
+                Metadata(key = Metadata.KEY_FINGERPRINT, content = "old")))
+        database.destination().insertAll(listOf(destination, removed))
+        database.stream().insertAll(listOf(streamEntry))
+        `when`(mockSantaApi.getDestinations(LANGUAGE)).thenReturn(listOf(changed, added))
+        `when`(mockSantaApi.getStream(LANGUAGE)).thenReturn(listOf(streamEntry, addedEntry))
+        `when`(mockSantaApi.getMetadataList(LANGUAGE)).thenReturn(listOf(metadata,
+                Metadata(key = Metadata.KEY_FINGERPRINT, content = "new")))
+
+        repository.reloadAll(LANGUAGE)
+
+        assertThat(repository.loadDestinations(), `is`(listOf(changed, added)))
+        assertThat(repository.loadStreamEntries(), `is`(listOf(streamEntry, addedEntry)))
+        assertThat(database.metadata().get(Metadata.KEY_FINGERPRINT), `is`("new"))
+    }
+
+    @Test
+    fun testReloadKeepsLastStreamEntryOfSharedTimestamp() {
+        val first = streamEntry.copy(content = "first")
+        val last = streamEntry.copy(content = "last")
+        database.metadata().insertAll(listOf(metadata,
+                Metadata(key = Metadata.KEY_FINGERPRINT, content = "old")))
+        database.stream().insertAll(listOf(first, last))
+        `when`(mockSantaApi.getStream(LANGUAGE)).thenReturn(listOf(first, last))
+        `when`(mockSantaApi.getMetadataList(LANGUAGE)).thenReturn(listOf(metadata,
+                Metadata(key = Metadata.KEY_FINGERPRINT, content = "new")))
+
+        repository.reloadAll(LANGUAGE)
+
+        // Only the last entry for a timestamp is stored, so it must not be replaced by the first
+        assertThat(repository.loadStreamEntries(), `is`(listOf(last)))
+    }
 }
@@ -25,11 +25,15 @@ import com.google.android.gms.tasks.Task
 import com.google.android.gms.tasks.TaskCompletionSource
 import com.google.android.gms.tasks.Tasks
 import com.google.firebase.storage.FirebaseStorage
+import java.io.BufferedInputStream
 import java.io.File
 import java.io.FileInputStream
 import java.io.FileOutputStream
 import java.io.IOException
-import java.io.InputStreamReader
+import java.io.InputStream
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
 import java.util.Date
 import java.util.concurrent.Executor
 import java.util.concurrent.LinkedBlockingQueue
@@ -80,25 +84,70 @@ class FirebaseStorageFetcher {
      * @return a Task that will resolve to the String contents of the file.
      */
     operator fun get(path: String, maxAge: Long, unit: TimeUnit): Task<String> {
-        val source = TaskCompletionSource<String>()
+        return fetch(path, maxAge, unit) { file -> String(file.readBytes(), Charsets.UTF_8) }
+    }
+
+    /**
+     * Get the contents of a file from Firebase Storage, or the cache, as a stream over the cached
+     * file. The caller is responsible for closing the stream.
+     *
+     * @param path the path to the file in Firebase Storage.
+     * @param maxAge the max age for an acceptable cached result.
+     * @param unit time unit for max age.
+     * @return a Task that will resolve to an InputStream of the file contents.
+     */
+    fun getStream(path: String, maxAge: Long, unit: TimeUnit): Task<InputStream> {
+        return fetch(path, maxAge, unit) { file -> BufferedInputStream(FileInputStream(file)) }
+    }
+
+    /**
+     * Get the contents of a file from Firebase Storage, or the cache, as a read-only memory
+     * mapping of the cached file. The contents are not copied onto the heap.
+     *
+     * @param path the path to the file in Firebase Storage.
+     * @param maxAge the max age for an acceptable cached result.
+     * @param unit time unit for max age.
+     * @return a Task that will resolve to a ByteBuffer of the file contents.
+     */
+    fun getMapped(path: String, maxAge: Long, unit: TimeUnit): Task<ByteBuffer> {
+        return fetch(path, maxAge, unit) { file ->
+            RandomAccessFile(file, "r").use {
+                it.channel.map(FileChannel.MapMode.READ_ONLY, 0, it.length())
+            }
+        }
+    }
+
+    private fun <T> fetch(
+        path: String,
+        maxAge: Long,
+        unit: TimeUnit,
+        read: (File) -> T
+    ): Task<T> {
+        val source = TaskCompletionSource<T>()
 
         executor.execute {
-            val fileContents = getFileContents(path, maxAge, unit)
-            if (fileContents == null) {
+            val file = getFile(path, maxAge, unit)
+            val result = try {
+                file?.let(read)
+            } catch (e: IOException) {
+                SantaLog.w(TAG, "fetch:read:" + path, e)
+                null
+            }
+            if (result == null) {
                 source.setException(Exception("Could not get file contents. Path: $path"))
             } else {
-                source.setResult(fileContents)
+                source.setResult(result)
             }
         }
         return source.task
     }
 
     /**
-     * Get the contents of a file, reading from cache or Firebase Storage as appropriate.
+     * Get the cached file, refreshing it from Firebase Storage as appropriate.
      */
     @WorkerThread
-    private fun getFileContents(path: String, maxAge: Long, unit: TimeUnit): String? {
-        SantaLog.d(TAG, "getFileContents:" + path)
+    private fun getFile(path: String, maxAge: Long, unit: TimeUnit): File? {
+        SantaLog.d(TAG, "getFile:" + path)
 
         if (cachedCopyExists(path)) {
             SantaLog.d(TAG, "Cached copy exists")
@@ -114,7 +163,7 @@ class FirebaseStorageFetcher {
             // Cache is not expired, return the cached copy
             if (!cacheExpired) {
                 SantaLog.d(TAG, "Cached not expired, age " + cacheAgeMs)
-                return getCachedCopy(path)
+                return getCacheLocation(path)
             }
 
             // Check with the server to see if w newer copy exists
@@ -133,7 +182,7 @@ class FirebaseStorageFetcher {
             if (lastCacheTime.time >= lastUpdateTime.time) {
                 SantaLog.d(TAG, "Got last update time, cached copy still good")
                 setLastCacheTime(path, now)
-                return getCachedCopy(path)
+                return getCacheLocation(path)
             }
 
             // Need to download the file
@@ -196,24 +245,22 @@ class FirebaseStorageFetcher {
      * Download a file from Firebase Storage and put the results in the cache.
      */
     @WorkerThread
-    private fun downloadAndCache(path: String): String? {
+    private fun downloadAndCache(path: String): File? {
         val serverCopy = getServerCopy(path) ?: return null
 
-        setCachedCopy(path, serverCopy)
-        return getCachedCopy(path)
+        return if (setCachedCopy(path, serverCopy)) getCacheLocation(path) else null
     }
 
     /**
      * Get the contents of a file from Firebase Storage.
      */
     @WorkerThread
-    private fun getServerCopy(path: String): String? {
+    private fun getServerCopy(path: String): ByteArray? {
         val reference = storage.getReference(path)
         val getBytesTask = reference.getBytes(MAX_DOWNLOAD_BYTES)
 
         return try {
-            val bytes = Tasks.await(getBytesTask, 60, TimeUnit.SECONDS)
-            String(bytes)
+            Tasks.await(getBytesTask, 60, TimeUnit.SECONDS)
         } catch (e: Exception) {
             SantaLog.w(TAG, "downloadAndCache:getBytes:" + path, e)
             null
@@ -229,48 +276,42 @@ class FirebaseStorageFetcher {
         if (!cachedCopyExists(path)) {
             return null
         }
-        val cache = getCacheLocation(path)
-        val buffer = CharArray(1024)
-        val builder = StringBuilder()
-        try {
-            val isr = InputStreamReader(FileInputStream(cache), "UTF-8")
-
-            while (true) {
-                val read = isr.read(buffer, 0, buffer.size)
-                if (read < 0) {
-                    break
-                }
-                builder.append(buffer, 0, read)
-            }
-            isr.close()
+        return try {
+            String(getCacheLocation(path).readBytes(), Charsets.UTF_8)
         } catch (e: IOException) {
             SantaLog.w(TAG, "getCachedCopy:" + path, e)
-            return null
+            null
         }
-        return builder.toString()
     }
 
     /**
-     * Set the contents of a file in the cache, and update the cache timestamp.
+     * Set the contents of a file in the cache, and update the cache timestamp. The contents are
+     * written to a temporary file which then replaces the cached copy, so readers never see a
+     * partially written file.
+     *
+     * @return true if the cached copy was replaced.
      */
     @WorkerThread
-    private fun setCachedCopy(path: String, contents: String) {
+    private fun setCachedCopy(path: String, contents: ByteArray): Boolean {
         val cache = getCacheLocation(path)
+        val temp = File(cache.parentFile, cache.name + TEMP_SUFFIX)
 
         try {
-            // Make sure the file exists
-            if (!cache.exists()) {
-                cache.createNewFile()
+            FileOutputStream(temp).use {
+                it.write(contents)
+                it.fd.sync()
+            }
+            if (!temp.renameTo(cache)) {
+                throw IOException("Could not rename " + temp + " to " + cache)
             }
-
-            // Write the file contents
-            val fos = FileOutputStream(cache)
-            fos.write(contents.toByteArray())
 
             // Set the last cached time
             setLastCacheTime(path, Date())
+            return true
         } catch (e: IOException) {
             SantaLog.w(TAG, "setCachedCopy:setCachedCopy:" + path, e)
+            temp.delete()
+            return false
         }
     }
 
@@ -297,5 +338,7 @@ class FirebaseStorageFetcher {
         private const val MAX_DOWNLOAD_BYTES = (5 * 1000 * 1000).toLong()
 
         private const val KEY_PREFIX_LAST_CACHE = "last_cached:"
+
+        private const val TEMP_SUFFIX = ".tmp"
     }
 }
@@ -23,6 +23,7 @@ import com.google.android.apps.santatracker.tracker.vo.Metadata
 import com.google.android.apps.santatracker.tracker.vo.StreamEntry
 import com.google.android.apps.santatracker.util.SantaLog
 import com.google.android.gms.tasks.Tasks
+import java.nio.ByteBuffer
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.locks.ReentrantLock
 import javax.inject.Inject
@@ -57,16 +58,16 @@ class RemoteSantaApi @Inject constructor (private val context: Context) : SantaA
     private val streamEntriesField: MutableList<StreamEntry> = mutableListOf()
     private val metadataListField: MutableList<Metadata> = mutableListOf()
     private val lock = ReentrantLock()
-    private var loadedJson: String? = null
+    private var loadedJson: ByteBuffer? = null
 
     private fun loadJson(locale: String) {
         lock.withLock {
             // TODO(samstern): Configure timeout
             val fetcher = FirebaseStorageFetcher(context)
-            val getDataTask = fetcher[ROUTE_JSON_PATH.format(locale), 5, TimeUnit.MINUTES]
+            val getDataTask = fetcher.getMapped(ROUTE_JSON_PATH.format(locale), 5, TimeUnit.MINUTES)
 
-            // Get the JSON data from Firebase Storage
-            val data: String?
+            // Get the JSON data from Firebase Storage, mapped from the cache file
+            val data: ByteBuffer?
             try {
                 data = Tasks.await(getDataTask, 60, TimeUnit.SECONDS)
             } catch (e: Exception) {
@@ -74,6 +75,7 @@ class RemoteSantaApi @Inject constructor (private val context: Context) : SantaA
                 return
             }
             // Check that data was retrieved or changed from the one already downloaded.
+            // ByteBuffer equality compares the mapped contents without copying them.
             if (data == null || data == loadedJson) {
                 return
             }
@@ -82,20 +84,20 @@ class RemoteSantaApi @Inject constructor (private val context: Context) : SantaA
             streamEntriesField.clear()
             metadataListField.clear()
 
-            val parser = SantaParser()
-            val apiData = parser.parse(data.byteInputStream())
+            // Stream the rows straight into the fields rather than building the whole response
+            SantaParser().parse(data, object : SantaParser.Sink {
+                override fun onDestination(destination: Destination) {
+                    destinationsField.add(destination)
+                }
 
-            apiData.destinations.forEach {
-                destinationsField.add(it)
-            }
-
-            apiData.streamEntries.forEach {
-                streamEntriesField.add(it)
-            }
+                override fun onStreamEntry(streamEntry: StreamEntry) {
+                    streamEntriesField.add(streamEntry)
+                }
 
-            apiData.metadata.forEach {
-                metadataListField.add(it)
-            }
+                override fun onMetadata(metadata: List<Metadata>) {
+                    metadataListField.addAll(metadata)
+                }
+            })
 
             loadedJson = data
         }
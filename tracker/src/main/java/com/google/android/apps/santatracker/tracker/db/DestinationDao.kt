@@ -46,4 +46,7 @@ interface DestinationDao {
 
     @Query("DELETE FROM destinations")
     fun deleteAll()
+
+    @Query("DELETE FROM destinations WHERE id IN (:ids)")
+    fun deleteByIds(ids: List<String>)
 }
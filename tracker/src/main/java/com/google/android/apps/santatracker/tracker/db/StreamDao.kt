@@ -39,4 +39,7 @@ interface StreamDao {
 
     @Query("DELETE FROM stream_entries")
     fun deleteAll()
+
+    @Query("DELETE FROM stream_entries WHERE timestamp IN (:timestamps)")
+    fun deleteByTimestamps(timestamps: List<Long>)
 }
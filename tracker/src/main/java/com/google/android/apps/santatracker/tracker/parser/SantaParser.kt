@@ -17,11 +17,18 @@
 package com.google.android.apps.santatracker.tracker.parser
 
 import com.google.android.apps.santatracker.tracker.vo.Destination
+import com.google.android.apps.santatracker.tracker.vo.DestinationLocation
+import com.google.android.apps.santatracker.tracker.vo.DestinationPhoto
+import com.google.android.apps.santatracker.tracker.vo.DestinationStreetView
+import com.google.android.apps.santatracker.tracker.vo.DestinationWeather
 import com.google.android.apps.santatracker.tracker.vo.Metadata
 import com.google.android.apps.santatracker.tracker.vo.StreamEntry
 import com.google.gson.GsonBuilder
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
 import java.io.InputStream
 import java.io.InputStreamReader
+import java.nio.ByteBuffer
 
 /**
  * Parses JSON files from Santa.
@@ -34,6 +41,22 @@ class SantaParser {
         val streamEntries: List<StreamEntry>
     )
 
+    /**
+     * Receives the rows of a Santa JSON one at a time, as they are read by [parse].
+     */
+    interface Sink {
+
+        fun onDestination(destination: Destination)
+
+        fun onStreamEntry(streamEntry: StreamEntry)
+
+        /**
+         * Called once the whole document has been read, since the metadata fields may appear
+         * anywhere in the top level object.
+         */
+        fun onMetadata(metadata: List<Metadata>)
+    }
+
     private fun apiResponseToApiData(response: ApiResponse): ApiData {
         val metadata = listOf(
                 Metadata(Metadata.KEY_STATUS, response.status),
@@ -75,4 +98,259 @@ class SantaParser {
         val response = gson.fromJson<ApiResponse>(reader, ApiResponse::class.java)
         return apiResponseToApiData(response)
     }
+
+    /**
+     * Parses a JSON from Santa without building the whole response in memory. Each destination
+     * and stream entry is handed to [sink] as soon as it has been read.
+     *
+     * @param input The input.
+     * @param sink Receives the parsed rows.
+     */
+    fun parse(input: InputStream, sink: Sink) {
+        JsonReader(InputStreamReader(input, "UTF-8")).use { reader ->
+            var status = ""
+            var language = ""
+            var fingerprint = ""
+
+            reader.beginObject()
+            while (reader.hasNext()) {
+                when (reader.nextName()) {
+                    "status" -> status = reader.nextStringOrNull() ?: ""
+                    "language" -> language = reader.nextStringOrNull() ?: ""
+                    "fingerprint" -> fingerprint = reader.nextStringOrNull() ?: ""
+                    "destinations" -> reader.readArray {
+                        sink.onDestination(readDestination(reader))
+                    }
+                    "stream" -> reader.readArray {
+                        sink.onStreamEntry(readStreamEntry(reader, false))
+                    }
+                    "notificationStream" -> reader.readArray {
+                        sink.onStreamEntry(readStreamEntry(reader, true))
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            reader.endObject()
+
+            sink.onMetadata(listOf(
+                    Metadata(Metadata.KEY_STATUS, status),
+                    Metadata(Metadata.KEY_LANGUAGE, language),
+                    Metadata(Metadata.KEY_FINGERPRINT, fingerprint)))
+        }
+    }
+
+    /**
+     * Parses a JSON from Santa held in a [ByteBuffer], such as a memory mapped cache file,
+     * without copying it onto the heap first.
+     *
+     * @param buffer The input, read from its current position.
+     * @param sink Receives the parsed rows.
+     */
+    fun parse(buffer: ByteBuffer, sink: Sink) {
+        parse(ByteBufferInputStream(buffer), sink)
+    }
+
+    private fun readDestination(reader: JsonReader): Destination {
+        var id = ""
+        var arrival = 0L
+        var departure = 0L
+        var population = 0L
+        var presentsDelivered = 0L
+        var city = ""
+        var region = ""
+        var location = DestinationLocation(0.0, 0.0)
+        var timezone: Long? = null
+        var altitude = 0.0
+        var weather: DestinationWeather? = null
+        var streetView: DestinationStreetView? = null
+        var gmmStreetView: DestinationStreetView? = null
+        var photo: DestinationPhoto? = null
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "id" -> id = reader.nextStringOrNull() ?: ""
+                "arrival" -> arrival = reader.nextLongOrNull() ?: 0L
+                "departure" -> departure = reader.nextLongOrNull() ?: 0L
+                "population" -> population = reader.nextLongOrNull() ?: 0L
+                "presentsDelivered" -> presentsDelivered = reader.nextLongOrNull() ?: 0L
+                "city" -> city = reader.nextStringOrNull() ?: ""
+                "region" -> region = reader.nextStringOrNull() ?: ""
+                "location" -> location = readLocation(reader)
+                "details" -> reader.readObject { name ->
+                    when (name) {
+                        "timezone" -> timezone = reader.nextLongOrNull()
+                        "altitude" -> altitude = reader.nextDoubleOrNull() ?: 0.0
+                        "weather" -> weather = readWeather(reader)
+                        "streetView" -> streetView = readStreetView(reader)
+                        "gmmStreetView" -> gmmStreetView = readStreetView(reader)
+                        "photos" -> photo = readFirstPhoto(reader)
+                        else -> reader.skipValue()
+                    }
+                }
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return Destination(id, arrival, departure, population, presentsDelivered, city, region,
+                location, timezone, altitude, weather, streetView, gmmStreetView, photo)
+    }
+
+    private fun readLocation(reader: JsonReader): DestinationLocation {
+        var lat = 0.0
+        var lng = 0.0
+        reader.readObject { name ->
+            when (name) {
+                "lat" -> lat = reader.nextDoubleOrNull() ?: 0.0
+                "lng" -> lng = reader.nextDoubleOrNull() ?: 0.0
+                else -> reader.skipValue()
+            }
+        }
+        return DestinationLocation(lat, lng)
+    }
+
+    private fun readWeather(reader: JsonReader): DestinationWeather? {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull()
+            return null
+        }
+        var url = ""
+        var tempC = 0.0
+        var tempF = 0.0
+        reader.readObject { name ->
+            when (name) {
+                "url" -> url = reader.nextStringOrNull() ?: ""
+                "tempC" -> tempC = reader.nextDoubleOrNull() ?: 0.0
+                "tempF" -> tempF = reader.nextDoubleOrNull() ?: 0.0
+                else -> reader.skipValue()
+            }
+        }
+        return DestinationWeather(url, tempC, tempF)
+    }
+
+    private fun readStreetView(reader: JsonReader): DestinationStreetView? {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull()
+            return null
+        }
+        var id = ""
+        var latitude = 0.0
+        var longitude = 0.0
+        var heading = 0.0
+        reader.readObject { name ->
+            when (name) {
+                "id" -> id = reader.nextStringOrNull() ?: ""
+                "latitude" -> latitude = reader.nextDoubleOrNull() ?: 0.0
+                "longitude" -> longitude = reader.nextDoubleOrNull() ?: 0.0
+                "heading" -> heading = reader.nextDoubleOrNull() ?: 0.0
+                else -> reader.skipValue()
+            }
+        }
+        return DestinationStreetView(id, latitude, longitude, heading)
+    }
+
+    /**
+     * Only the first photo of a destination is kept, see [ApiDestinationDetails.firstPhoto].
+     */
+    private fun readFirstPhoto(reader: JsonReader): DestinationPhoto? {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull()
+            return null
+        }
+        var photo: DestinationPhoto? = null
+        reader.readArray {
+            if (photo != null) {
+                reader.skipValue()
+                return@readArray
+            }
+            var url = ""
+            var attribution: String? = null
+            reader.readObject { name ->
+                when (name) {
+                    // Some JSON files may not capitalize this attribute
+                    "attributionHtml", "attributionhtml" -> {
+                        val value = reader.nextStringOrNull()
+                        if (attribution == null) {
+                            attribution = value
+                        }
+                    }
+                    "url" -> url = reader.nextStringOrNull() ?: ""
+                    else -> reader.skipValue()
+                }
+            }
+            photo = DestinationPhoto(url, attribution ?: "")
+        }
+        return photo
+    }
+
+    private fun readStreamEntry(reader: JsonReader, notification: Boolean): StreamEntry {
+        var timestamp = 0L
+        var status: String? = null
+        var didYouKnow: String? = null
+        var imageUrl: String? = null
+        var youtubeId: String? = null
+        reader.readObject { name ->
+            when (name) {
+                "timestamp" -> timestamp = reader.nextLongOrNull() ?: 0L
+                "status" -> status = reader.nextStringOrNull()
+                "didyouknow" -> didYouKnow = reader.nextStringOrNull()
+                "imageUrl" -> imageUrl = reader.nextStringOrNull()
+                "youtubeId" -> youtubeId = reader.nextStringOrNull()
+                else -> reader.skipValue()
+            }
+        }
+        // Same precedence as ApiStreamEntry.getType()
+        return when {
+            status != null ->
+                StreamEntry(timestamp, StreamEntry.TYPE_STATUS, notification, status!!)
+            didYouKnow != null ->
+                StreamEntry(timestamp, StreamEntry.TYPE_DID_YOU_KNOW, notification, didYouKnow!!)
+            imageUrl != null ->
+                StreamEntry(timestamp, StreamEntry.TYPE_IMAGE_URL, notification, imageUrl!!)
+            youtubeId != null ->
+                StreamEntry(timestamp, StreamEntry.TYPE_YOUTUBE_ID, notification, youtubeId!!)
+            else -> StreamEntry(timestamp, 0, notification, "")
+        }
+    }
+
+    private inline fun JsonReader.readArray(block: () -> Unit) {
+        beginArray()
+        while (hasNext()) {
+            block()
+        }
+        endArray()
+    }
+
+    private inline fun JsonReader.readObject(block: (String) -> Unit) {
+        beginObject()
+        while (hasNext()) {
+            block(nextName())
+        }
+        endObject()
+    }
+
+    private fun JsonReader.nextStringOrNull(): String? {
+        if (peek() == JsonToken.NULL) {
+            nextNull()
+            return null
+        }
+        return nextString()
+    }
+
+    private fun JsonReader.nextLongOrNull(): Long? {
+        if (peek() == JsonToken.NULL) {
+            nextNull()
+            return null
+        }
+        return nextLong()
+    }
+
+    private fun JsonReader.nextDoubleOrNull(): Double? {
+        if (peek() == JsonToken.NULL) {
+            nextNull()
+            return null
+        }
+        return nextDouble()
+    }
 }
@@ -61,20 +61,58 @@ open class SantaDataRepository @Inject constructor(
         return santaDatabase.destination().last()
     }
 
+    /**
+     * Reloads the route for [language]. Nothing is written when the fingerprint of the fetched
+     * route matches the stored one, otherwise only the destinations and stream entries that were
+     * added, changed or removed are written.
+     */
     fun reloadAll(language: String) {
+        // Fetch before opening the transaction so that the network does not hold the DB lock
+        val destinations = santaApi.getDestinations(language)
+        val streamEntries = santaApi.getStream(language)
+        val metadataList = santaApi.getMetadataList(language)
+
+        val fingerprint = metadataList.firstOrNull { it.key == Metadata.KEY_FINGERPRINT }?.content
+        val metadataDao = santaDatabase.metadata()
+        if (!fingerprint.isNullOrEmpty() &&
+                fingerprint == metadataDao.get(Metadata.KEY_FINGERPRINT) &&
+                language == metadataDao.get(Metadata.KEY_LANGUAGE)) {
+            return
+        }
+
         santaDatabase.runInTransaction {
             santaDatabase.destination().run {
-                deleteAll()
-                insertAll(santaApi.getDestinations(language))
+                val current = all().associateBy { it.id }
+                val incoming = HashSet<String>(destinations.size)
+                val changed = destinations.filter {
+                    incoming.add(it.id)
+                    current[it.id] != it
+                }
+                current.keys.filterNot { it in incoming }.chunked(MAX_BIND_ARGS).forEach {
+                    deleteByIds(it)
+                }
+                insertAll(changed)
             }
             santaDatabase.stream().run {
-                deleteAll()
-                insertAll(santaApi.getStream(language))
+                val current = all().associateBy { it.timestamp }
+                // The timestamp is the primary key, so of entries sharing one (e.g. a stream entry
+                // and a notification) only the last is stored. Diff against that one only.
+                val incoming = streamEntries.associateBy { it.timestamp }
+                val changed = incoming.values.filter { current[it.timestamp] != it }
+                current.keys.filterNot { it in incoming }.chunked(MAX_BIND_ARGS).forEach {
+                    deleteByTimestamps(it)
+                }
+                insertAll(changed)
             }
-            santaDatabase.metadata().run {
+            metadataDao.run {
                 deleteAll()
-                insertAll(santaApi.getMetadataList(language))
+                insertAll(metadataList)
             }
         }
     }
+
+    companion object {
+        /** Stays below SQLite's default limit of 999 bound variables per statement. */
+        private const val MAX_BIND_ARGS = 500
+    }
 }
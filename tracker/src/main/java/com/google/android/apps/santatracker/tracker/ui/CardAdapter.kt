@@ -19,13 +19,13 @@ package com.google.android.apps.santatracker.tracker.ui
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
+import androidx.recyclerview.widget.ListUpdateCallback
 import androidx.recyclerview.widget.RecyclerView
 import com.google.android.apps.santatracker.tracker.R
 import com.google.android.apps.santatracker.tracker.time.Clock
 import com.google.android.apps.santatracker.tracker.vo.Destination
 import com.google.android.apps.santatracker.tracker.vo.DestinationStreetView
 import com.google.android.apps.santatracker.tracker.vo.StreamEntry
-import com.google.android.apps.santatracker.tracker.vo.TrackerCard
 
 class CardAdapter(
     val clock: Clock,
@@ -49,7 +49,22 @@ class CardAdapter(
         const val TYPE_UPDATE = 6
     }
 
-    private var cards = emptyList<TrackerCard>()
+    private var cards = CardStream.EMPTY
+
+    /** Applies changes to the cards, which start at position 1 (below the dashboard). */
+    private val cardUpdateCallback = object : ListUpdateCallback {
+        override fun onInserted(position: Int, count: Int) =
+                notifyItemRangeInserted(position + 1, count)
+
+        override fun onRemoved(position: Int, count: Int) =
+                notifyItemRangeRemoved(position + 1, count)
+
+        override fun onMoved(fromPosition: Int, toPosition: Int) =
+                notifyItemMoved(fromPosition + 1, toPosition + 1)
+
+        override fun onChanged(position: Int, count: Int, payload: Any?) =
+                notifyItemRangeChanged(position + 1, count, payload)
+    }
 
     val dashboard: DashboardViewHolder =
             DashboardViewHolder(LayoutInflater.from(recyclerView.context), recyclerView)
@@ -111,9 +126,16 @@ class CardAdapter(
         holder.bind(cardAt(position))
     }
 
-    fun setCards(cards: List<TrackerCard>) {
+    /**
+     * Shows the given cards. New cards at the head of the stream are inserted without rebinding
+     * the cards already shown.
+     */
+    fun setCards(cards: CardStream) {
+        val previous = this.cards
         this.cards = cards
-        notifyDataSetChanged()
+        if (!cards.dispatchUpdatesFrom(previous, cardUpdateCallback)) {
+            notifyDataSetChanged()
+        }
     }
 
     private fun cardAt(position: Int) = cards[position - 1]
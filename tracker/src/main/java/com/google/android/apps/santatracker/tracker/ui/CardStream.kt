@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.ui
+
+import androidx.recyclerview.widget.ListUpdateCallback
+import com.google.android.apps.santatracker.tracker.vo.TrackerCard
+
+/**
+ * A snapshot of the tracker's card stream, newest card first.
+ *
+ * Cards only ever get added at the head of the stream, so the cards are stored oldest first in
+ * fixed-size chunks which are never moved or overwritten, and a snapshot is just a view of the
+ * first [size] cards read backwards. Adding a card doesn't copy the stream, and snapshots already
+ * handed to the UI stay valid while [Builder] keeps adding cards on a background thread.
+ *
+ * Comparing two snapshots of the same stream is O(1): see [dispatchUpdatesFrom].
+ */
+class CardStream private constructor(
+    private val chunks: Array<Array<TrackerCard?>?>,
+    override val size: Int,
+    /** Incremented every time the stream is rebuilt from scratch. */
+    val generation: Int
+) : AbstractList<TrackerCard>() {
+
+    companion object {
+        private const val CHUNK_SIZE = 256
+
+        val EMPTY = CardStream(arrayOfNulls(0), 0, 0)
+    }
+
+    override fun get(index: Int): TrackerCard {
+        if (index < 0 || index >= size) {
+            throw IndexOutOfBoundsException("Index: $index, size: $size")
+        }
+        val position = size - 1 - index
+        return chunks[position / CHUNK_SIZE]!![position % CHUNK_SIZE]!!
+    }
+
+    /**
+     * Reports the cards added since [previous] to [callback], as a single insertion at the head.
+     *
+     * @return `false` if this snapshot isn't [previous] with cards added at the head (the stream
+     *         was rebuilt since), in which case nothing is reported and the whole list should be
+     *         treated as changed.
+     */
+    fun dispatchUpdatesFrom(previous: CardStream, callback: ListUpdateCallback): Boolean {
+        val added = when {
+            generation == previous.generation && size >= previous.size -> size - previous.size
+            previous.isEmpty() -> size
+            else -> return false
+        }
+        if (added > 0) {
+            callback.onInserted(0, added)
+        }
+        return true
+    }
+
+    /**
+     * Builds the card stream and takes snapshots of it. Not thread-safe; it is meant to be used by
+     * one background thread at a time.
+     */
+    class Builder {
+
+        private var chunks = arrayOfNulls<Array<TrackerCard?>>(4)
+        private var size = 0
+        private var generation = 0
+
+        /** Whether [reset] has been called yet. */
+        val isInitialized: Boolean
+            get() = generation > 0
+
+        /** Replaces the stream with the given cards, in any order. */
+        fun reset(vararg cardLists: List<TrackerCard>) {
+            val cards = mutableListOf<TrackerCard>()
+            cardLists.forEach { cards.addAll(it) }
+            cards.sortBy { it.value }
+            // Snapshots may still be reading the old chunks, so start over with new ones.
+            chunks = arrayOfNulls(Math.max(4, cards.size / CHUNK_SIZE + 1))
+            size = 0
+            generation++
+            cards.forEach { add(it) }
+        }
+
+        /** Adds a card at the head of the stream. */
+        fun add(card: TrackerCard) {
+            val chunkIndex = size / CHUNK_SIZE
+            if (chunkIndex == chunks.size) {
+                chunks = chunks.copyOf(chunks.size * 2)
+            }
+            val chunk = chunks[chunkIndex]
+                    ?: arrayOfNulls<TrackerCard>(CHUNK_SIZE).also { chunks[chunkIndex] = it }
+            chunk[size % CHUNK_SIZE] = card
+            size++
+        }
+
+        fun snapshot() = CardStream(chunks, size, generation)
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.ui
+
+import com.google.android.gms.maps.model.LatLng
+
+/**
+ * The great circle between two points, precomputed as unit vectors so that positions along it
+ * can be interpolated every frame without allocating. Produces the same positions as
+ * [com.google.maps.android.SphericalUtil.interpolate].
+ */
+internal class GreatCirclePath {
+
+    // x, y, z of the origin followed by x, y, z of the destination
+    private val vectors = DoubleArray(6)
+    private var angle = 0.0
+    private var sinAngle = 0.0
+
+    /**
+     * Sets the end points of this path.
+     */
+    fun set(origin: LatLng, destination: LatLng) {
+        toVector(origin, 0)
+        toVector(destination, 3)
+        val dot = vectors[0] * vectors[3] + vectors[1] * vectors[4] + vectors[2] * vectors[5]
+        angle = Math.acos(Math.max(-1.0, Math.min(1.0, dot)))
+        sinAngle = Math.sin(angle)
+    }
+
+    /**
+     * Writes the position at [progress] (0 at the origin, 1 at the destination) into [out] as
+     * latitude and longitude in degrees.
+     */
+    fun interpolate(progress: Double, out: DoubleArray) {
+        val a: Double
+        val b: Double
+        if (sinAngle < EPSILON) {
+            a = 1 - progress
+            b = progress
+        } else {
+            a = Math.sin((1 - progress) * angle) / sinAngle
+            b = Math.sin(progress * angle) / sinAngle
+        }
+        val x = a * vectors[0] + b * vectors[3]
+        val y = a * vectors[1] + b * vectors[4]
+        val z = a * vectors[2] + b * vectors[5]
+        out[0] = Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y)))
+        out[1] = Math.toDegrees(Math.atan2(y, x))
+    }
+
+    private fun toVector(point: LatLng, offset: Int) {
+        val lat = Math.toRadians(point.latitude)
+        val lng = Math.toRadians(point.longitude)
+        val cosLat = Math.cos(lat)
+        vectors[offset] = cosLat * Math.cos(lng)
+        vectors[offset + 1] = cosLat * Math.sin(lng)
+        vectors[offset + 2] = Math.sin(lat)
+    }
+
+    companion object {
+        private const val EPSILON = 1E-6
+    }
+}
@@ -16,24 +16,12 @@
 
 package com.google.android.apps.santatracker.tracker.ui
 
-class PresentCounter(
-    private val initialPresents: Long,
-    totalPresents: Long,
-    private val startTime: Long,
-    endTime: Long
-) {
+import com.google.android.apps.santatracker.tracker.util.RouteTimeline
 
-    private val presentsDelivery: Long = totalPresents - initialPresents
-    private val duration: Double = (endTime - startTime).toDouble()
+/**
+ * Counts the presents Santa delivered along the route.
+ */
+class PresentCounter(private val timeline: RouteTimeline) {
 
-    fun getDeliveredPresents(time: Long): Long {
-        val progress = (time - startTime).toDouble() / duration
-        return when {
-            progress < 0.0 ->
-                // do not return negative presents if progress is incorrect
-                initialPresents
-            progress > 1.0 -> initialPresents + presentsDelivery
-            else -> Math.round(initialPresents + presentsDelivery * progress)
-        }
-    }
+    fun getDeliveredPresents(time: Long): Long = timeline.presentsDeliveredAt(time)
 }
@@ -17,7 +17,6 @@
 package com.google.android.apps.santatracker.tracker.ui
 
 import android.graphics.Point
-import android.os.Handler
 import com.google.android.apps.santatracker.tracker.util.Utils
 import com.google.android.apps.santatracker.util.SantaLog
 import com.google.android.gms.maps.GoogleMap
@@ -39,7 +38,6 @@ import com.google.android.gms.maps.model.MarkerOptions
 internal class PresentMarker(
     private val googleMap: GoogleMap,
     private val santaMarker: SantaMarker,
-    private val handler: Handler,
     animIcons: IntArray,
     private val sizeX: Int,
     private val sizeY: Int
@@ -55,10 +53,15 @@ internal class PresentMarker(
     private var directionLng: Double = 0.toDouble()
     private var totalAnimationLength: Int = 0
 
-    private var location: LatLng? = null
+    // Current location of the present, kept as primitives so that moving it does not allocate
+    private var hasLocation = false
+    private var latitude: Double = 0.toDouble()
+    private var longitude: Double = 0.toDouble()
+    private var locationChanged = false
+    private var showMovementMarker = false
+
     private var animationDuration: Int = 0
     private var projection: Projection? = null
-    private var waitingForProjection = false
     private var santaPosition: LatLng? = null
 
     init {
@@ -87,26 +90,41 @@ internal class PresentMarker(
     private fun setProjection(p: Projection, santaPosition: LatLng?) {
         this.projection = p
         this.santaPosition = santaPosition
-        this.waitingForProjection = false
     }
 
-    fun draw() {
+    /**
+     * Advances the animation by [ticks] frames and then updates the markers once. Must be called
+     * on the UI thread.
+     */
+    fun draw(ticks: Int) {
+        for (i in 0 until ticks) {
+            step()
+        }
+        if (locationChanged) {
+            locationChanged = false
+            movementMarker.position = LatLng(latitude, longitude)
+        }
+        if (showMovementMarker) {
+            showMovementMarker = false
+            movementMarker.isVisible = true
+        }
+    }
+
+    private fun step() {
 
         var destinationLocal = destination
         val projectionLocal = projection
         val santaPositionLocal = santaPosition
-        val locationLocal = location
         // 5 States: waiting for valid camera for new present location, waiting
         // for start,
         // New present, moving, animating/disappearing
         if (!VALID_CAMERA && destinationLocal == null && projectionLocal == null) {
-        } else if (animationDuration < 0 || waitingForProjection) {
-            // wait to start and until projection has been set
+        } else if (animationDuration < 0) {
+            // wait to start
 
             // need to initialise the projection
         } else if (VALID_CAMERA && destination == null && projection == null) {
-            waitingForProjection = true
-            handler.post(getProjectionRunnable)
+            setProjection(googleMap.projection, santaMarker.position)
         } else if (destinationLocal == null && projectionLocal != null &&
                 santaPositionLocal != null) {
             // pick a new destination from screen coordinates
@@ -127,25 +145,28 @@ internal class PresentMarker(
                         animationDuration
                 directionLng = (destinationLocal.longitude - santaPositionLocal.longitude) /
                         animationDuration
-                location = santaPosition
-                handler.post(setVisibleLocationRunnable)
+                hasLocation = true
+                latitude = santaPositionLocal.latitude
+                longitude = santaPositionLocal.longitude
+                locationChanged = true
+                showMovementMarker = true
 
                 frame = 0
                 projection = null
             }
-        } else if (frame < animationDuration && locationLocal != null) {
+        } else if (frame < animationDuration && hasLocation) {
             // Moving animation
 
-            location = LatLng(locationLocal.latitude + directionLat,
-                    locationLocal.longitude + directionLng)
-            handler.post(setLocationRunnable)
+            latitude += directionLat
+            longitude += directionLng
+            locationChanged = true
 
             // animate out if frames left for all animation markers
         } else if (frame in animationDuration..totalAnimationLength) {
 
             if ((frame - animationDuration) % ANIMATION_FRAMES_FADEOUT == 0) {
                 // switch to the next marker
-                handler.post(swapIconRunnable)
+                showAnimationMarker((frame - animationDuration) / ANIMATION_FRAMES_FADEOUT)
             }
         } else if (frame > totalAnimationLength) {
             // animation finished, reset and start again after wait
@@ -153,10 +174,7 @@ internal class PresentMarker(
             frame = Utils.getRandom(-ANIMATION_FRAMES_MOVING_MAX, 0)
         }
 
-        // Wait
-        if (!waitingForProjection) {
-            frame++
-        }
+        frame++
     }
 
     /**
@@ -165,8 +183,8 @@ internal class PresentMarker(
      * not a marker, nothing will be done.
      */
     private fun showAnimationMarker(i: Int) {
-        if (i >= 0 && i < animationMarkers.size) {
-            animationMarkers[i]?.position = location
+        if (i >= 0 && i < animationMarkers.size && hasLocation) {
+            animationMarkers[i]?.position = LatLng(latitude, longitude)
             animationMarkers[i]?.isVisible = true
         }
 
@@ -183,23 +201,6 @@ internal class PresentMarker(
         index = 0
     }
 
-    private val getProjectionRunnable = Runnable { setProjection(googleMap.projection, santaMarker.position) }
-
-    private val swapIconRunnable = Runnable { showAnimationMarker((frame - animationDuration) / ANIMATION_FRAMES_FADEOUT) }
-
-    private val setVisibleLocationRunnable = Runnable {
-        location?.let {
-            movementMarker.position = it
-        }
-        movementMarker.isVisible = true
-    }
-
-    private val setLocationRunnable = Runnable {
-        location?.let {
-            movementMarker.position = it
-        }
-    }
-
     companion object {
 
         private val ANIMATION_FRAMES_FADEOUT = 4 // per marker
@@ -17,8 +17,7 @@
 package com.google.android.apps.santatracker.tracker.ui
 
 import android.graphics.Color
-import android.os.Handler
-import android.os.SystemClock
+import android.view.Choreographer
 import com.google.android.apps.santatracker.tracker.R
 import com.google.android.apps.santatracker.tracker.time.Clock
 import com.google.android.apps.santatracker.tracker.util.watchLayoutOnce
@@ -45,11 +44,11 @@ class SantaMarker internal constructor(
     // The santa marker
     private val movementMarkers: Array<Marker?>
 
-    // The movement thread
-    private var movementThread: SantaMarkerMovementThread? = null
+    // The movement animation
+    private var movementAnimation: SantaMarkerMovementAnimation? = null
 
-    // The animation thread (marker icon)
-    private var animationThread: SantaMarkerAnimationThread? = null
+    // The visiting animation (marker icon)
+    private var visitingAnimation: SantaMarkerVisitingAnimation? = null
     private val animationMarkers: Array<Marker?>
 
     // Santa's path
@@ -99,7 +98,7 @@ class SantaMarker internal constructor(
         // Present marker
         mapFragment.view?.watchLayoutOnce { v ->
             presentMarkers = PRESENTS.map { resId ->
-                PresentMarker(googleMap, this@SantaMarker, Handler(), resId, v.width, v.height)
+                PresentMarker(googleMap, this@SantaMarker, resId, v.width, v.height)
             }.toTypedArray()
         }
 
@@ -138,7 +137,7 @@ class SantaMarker internal constructor(
     fun setCameraOrientation(bearing: Float) {
         cameraOrientation = ((bearing + 360.0f) % 360.0f).toDouble()
 
-        movementThread?.let {
+        movementAnimation?.let {
             if (it.isMoving) {
                 setMovingIcon()
             }
@@ -195,8 +194,10 @@ class SantaMarker internal constructor(
         isVisiting = true
         setCachedPosition(pos)
         removePath()
-        animationThread = SantaMarkerAnimationThread(this, animationMarkers)
-        animationThread?.startAnimation(pos)
+        visitingAnimation?.stopAnimation()
+        visitingAnimation = SantaMarkerVisitingAnimation(this, animationMarkers).apply {
+            startAnimation(pos)
+        }
         hideMovingMarker()
 
         // reset heading
@@ -217,7 +218,7 @@ class SantaMarker internal constructor(
      * Returns the destination position if the marker is moving, null otherwise.
      */
     val destination: LatLng?
-        get() = movementThread?.destination
+        get() = movementAnimation?.destination
 
     /**
      * Animate this marker to the given position for the timestamps.
@@ -231,15 +232,16 @@ class SantaMarker internal constructor(
         isVisiting = false
 
         setMovingIcon()
-        // create new animation runnable and post to handler
-        val thread = SantaMarkerMovementThread(this, departure, arrival,
+        // replace any previous movement, it is driven by frame callbacks on this thread
+        movementAnimation?.stopAnimation()
+        val animation = SantaMarkerMovementAnimation(this, departure, arrival,
                 destinationLocation, originLocation, true, clock)
-        movementThread = thread
-        thread.startAnimation()
+        movementAnimation = animation
+        animation.startAnimation()
 
-        val animationThreadLocal = animationThread
-        if (animationThreadLocal != null && animationThreadLocal.isAlive) {
-            animationThreadLocal.stopAnimation()
+        val visitingAnimationLocal = visitingAnimation
+        if (visitingAnimationLocal != null && visitingAnimationLocal.isRunning) {
+            visitingAnimationLocal.stopAnimation()
         }
     }
 
@@ -258,8 +260,8 @@ class SantaMarker internal constructor(
      * lifecycle methods.
      */
     internal fun stopAnimations() {
-        movementThread?.stopAnimation()
-        animationThread?.stopAnimation()
+        movementAnimation?.stopAnimation()
+        visitingAnimation?.stopAnimation()
     }
 
     /**
@@ -268,9 +270,9 @@ class SantaMarker internal constructor(
      * position
      */
     fun getFuturePosition(timestamp: Long): LatLng? {
-        val thread = movementThread
-        return if (thread != null && thread.isMoving) {
-            thread.calculatePosition(timestamp)
+        val animation = movementAnimation
+        return if (animation != null && animation.isMoving) {
+            animation.calculatePosition(timestamp)
         } else {
             position
         }
@@ -281,59 +283,115 @@ class SantaMarker internal constructor(
     }
 
     /**
-     * Thread that toggles visibility of the markers, making one marker at a
-     * time visible.
-     *
+     * Whether the map is currently visible, frames are skipped while it is not.
+     */
+    private fun isOnScreen(): Boolean {
+        return mapFragment.isResumed && mapFragment.view?.isShown == true
+    }
+
+    /**
+     * Advances the present markers by the given number of ticks.
+     */
+    private fun drawPresents(ticks: Int) {
+        presentMarkers?.let {
+            for (p in it) {
+                p?.draw(ticks)
+            }
+        }
+    }
+
+    /**
+     * Converts vsync frame times into a whole number of [REFRESH_RATE] ticks, so that frame based
+     * animations keep the same speed regardless of the display refresh rate.
      */
-    private class SantaMarkerAnimationThread internal constructor(santaMarker: SantaMarker, private val toggleMarkers: Array<Marker?>) : Thread() {
+    private class FrameTicker {
+
+        private var lastFrameNanos = 0L
+        private var remainderNanos = 0L
+
+        fun reset() {
+            lastFrameNanos = 0L
+            remainderNanos = 0L
+        }
+
+        fun ticks(frameTimeNanos: Long): Int {
+            if (lastFrameNanos == 0L) {
+                lastFrameNanos = frameTimeNanos
+                return 1
+            }
+            remainderNanos += frameTimeNanos - lastFrameNanos
+            lastFrameNanos = frameTimeNanos
+            val ticks = remainderNanos / TICK_NANOS
+            remainderNanos -= ticks * TICK_NANOS
+            // Don't try to catch up after the map was hidden for a while
+            return Math.min(ticks, MAX_TICKS_PER_FRAME.toLong()).toInt()
+        }
+
+        companion object {
+            private val TICK_NANOS = REFRESH_RATE * 1000000L
+            private const val MAX_TICKS_PER_FRAME = 4
+        }
+    }
+
+    /**
+     * Animation that toggles visibility of the markers, making one marker at a time visible,
+     * while Santa is visiting a destination. Driven by [Choreographer] frame callbacks on the UI
+     * thread.
+     */
+    private class SantaMarkerVisitingAnimation internal constructor(
+        santaMarker: SantaMarker,
+        private val toggleMarkers: Array<Marker?>
+    ) : Choreographer.FrameCallback {
         private var current = 0
         private var frame = 0
-        private var stopThread = false
-        private val swapRunnable: SwapMarkersRunnable
+        private val ticker = FrameTicker()
         private val TEMP_POSITION = LatLng(0.0, 0.0)
-        private val santaMarkerRef: WeakReference<SantaMarker>
+        private val santaMarkerRef: WeakReference<SantaMarker> = WeakReference(santaMarker)
 
-        init {
-            swapRunnable = SwapMarkersRunnable()
-            santaMarkerRef = WeakReference(santaMarker)
-        }
+        var isRunning = false
+            private set
 
-        override fun run() {
-            while (!this.stopThread) {
-                val marker = santaMarkerRef.get()
-                if (marker == null) {
-                    stopThread = true
-                    break
-                }
-                if (frame == 0) {
-
-                    val currentMarker = current
-                    val nextMarker = ++current % toggleMarkers.size
-                    current = nextMarker
+        override fun doFrame(frameTimeNanos: Long) {
+            if (!isRunning) {
+                return
+            }
+            val marker = santaMarkerRef.get()
+            if (marker == null) {
+                isRunning = false
+                return
+            }
+            Choreographer.getInstance().postFrameCallback(this)
 
-                    swapRunnable.currentMarker = currentMarker
-                    swapRunnable.nextMarker = nextMarker
-                    val view = marker.mapFragment.view
-                    view?.handler?.postAtTime(swapRunnable, TOKEN,
-                            SystemClock.uptimeMillis())
+            val ticks = ticker.ticks(frameTimeNanos)
+            if (ticks == 0 || !marker.isOnScreen()) {
+                return
+            }
+            for (i in 0 until ticks) {
+                if (frame == 0) {
+                    swapMarkers(marker)
                 }
                 frame = (frame + 1) % ANIMATION_DELAY
+            }
+            marker.drawPresents(ticks)
+        }
 
-                marker.presentMarkers?.let { markers ->
-                    markers.map { it?.draw() }
-                }
+        private fun swapMarkers(marker: SantaMarker) {
+            val currentMarker = current
+            val nextMarker = (current + 1) % toggleMarkers.size
+            current = nextMarker
 
-                try {
-                    Thread.sleep(REFRESH_RATE.toLong())
-                } catch (e: InterruptedException) {
-                    // if interrupted, cancel
-                    this.stopThread = true
-                }
+            toggleMarkers[currentMarker]?.isVisible = false
+            toggleMarkers[nextMarker]?.isVisible = true
+
+            val zoom = marker.googleMap.cameraPosition?.zoom
+            zoom?.let {
+                PresentMarker.setViewParameters(zoom.toDouble(),
+                        marker.mapFragment.isFollowingSanta)
             }
         }
 
         /**
-         * Hide and move markers, need to restart thread to make visible again.
+         * Hide and move markers, need to restart the animation to make visible again.
          */
         internal fun hideAll() {
             for (m in toggleMarkers) {
@@ -343,11 +401,10 @@ class SantaMarker internal constructor(
         }
 
         /**
-         * Start this thread. All animated markers (and the normal santa marker)
+         * Start this animation. All animated markers (and the normal santa marker)
          * are hidden.
          */
         internal fun startAnimation(position: LatLng) {
-            stopThread = false
             hideAll()
 
             val marker = santaMarkerRef.get() ?: return
@@ -360,56 +417,34 @@ class SantaMarker internal constructor(
             }
             marker.moveAnimationMarkers(position)
 
-            start()
+            isRunning = true
+            ticker.reset()
+            Choreographer.getInstance().postFrameCallback(this)
         }
 
         /**
-         * Stop this thread. All animated markers are hidden and the original
-         * santa marker is made visible.
+         * Stop this animation. All animated markers are hidden.
          */
         internal fun stopAnimation() {
-            // stop execution by removing all callbacks
-            stopThread = true
-            val marker = santaMarkerRef.get()
-            if (marker != null) {
-                val view = marker.mapFragment.view
-                view?.handler?.removeCallbacksAndMessages(TOKEN)
-            }
+            isRunning = false
+            Choreographer.getInstance().removeFrameCallback(this)
             hideAll()
         }
 
-        internal inner class SwapMarkersRunnable : Runnable {
-
-            var currentMarker: Int = 0
-            var nextMarker: Int = 0
-
-            override fun run() {
-                val marker = santaMarkerRef.get() ?: return
-                val mapFragment = marker.mapFragment
-                toggleMarkers[currentMarker]?.isVisible = false
-                toggleMarkers[nextMarker]?.isVisible = true
-
-                val zoom = marker.googleMap.cameraPosition?.zoom
-                zoom?.let {
-                    PresentMarker.setViewParameters(zoom.toDouble(),
-                            mapFragment.isFollowingSanta)
-                }
-            }
-        }
-
         companion object {
 
-            internal val REFRESH_RATE = SantaMarkerMovementThread.REFRESH_RATE
             internal val ANIMATION_DELAY = 6 // should be equivalent to a post delay of 150ms
         }
     }
 
     /**
-     * Animation Thread for a Santa Marker. Animates the marker between two
-     * locations.
+     * Animation for a Santa Marker. Animates the marker and its path between two locations.
      *
+     * Driven by [Choreographer] frame callbacks on the UI thread, so the marker is moved once per
+     * vsync. The great circle between both locations is precomputed and interpolated without
+     * allocating, the only per frame allocation left is the [LatLng] handed to the map.
      */
-    class SantaMarkerMovementThread
+    class SantaMarkerMovementAnimation
     internal constructor(
         marker: SantaMarker,
         private val mStart: Long,
@@ -418,16 +453,17 @@ class SantaMarker internal constructor(
         private val startLocation: LatLng,
         drawPath: Boolean,
         private val clock: Clock
-    ) : Thread() {
+    ) : Choreographer.FrameCallback {
 
-        private var stopThread = false
+        private var running = false
         private val duration: Double = (mArrival - mStart).toDouble()
         var isMoving = false
         var pathPoints: ArrayList<LatLng>? = null
         val santaMarkerRef: WeakReference<SantaMarker> = WeakReference(marker)
 
-        // Threads
-        private val movementRunnable: MovementRunnable
+        private val greatCircle = GreatCirclePath().apply { set(startLocation, destination) }
+        private val interpolated = DoubleArray(2)
+        private val ticker = FrameTicker()
 
         init {
 
@@ -441,95 +477,84 @@ class SantaMarker internal constructor(
                 }
                 pathPoints = ArrayList<LatLng>(2).apply {
                     add(startLocation) // origin
-                    add(startLocation) // destination - updated in loop
+                    add(startLocation) // destination - updated every frame
                 }
             } else {
                 marker.path = null // already removed
             }
-
-            movementRunnable = MovementRunnable()
         }
 
         internal fun stopAnimation() {
-            this.stopThread = true
-            val marker = santaMarkerRef.get()
-            if (marker != null) {
-                val view = marker.mapFragment.view
-                view?.handler?.removeCallbacksAndMessages(TOKEN)
-            }
+            running = false
+            Choreographer.getInstance().removeFrameCallback(this)
         }
 
         internal fun startAnimation() {
-            this.stopThread = false
-            start()
+            running = true
+            ticker.reset()
+            Choreographer.getInstance().postFrameCallback(this)
         }
 
-        private val setIconRunnable = Runnable {
-            val santaMarker = santaMarkerRef.get()
-            santaMarker?.setMovingIcon()
-        }
-        private val reachedDestinationRunnable = Runnable {
-            val santaMarker = santaMarkerRef.get() ?: return@Runnable
-            santaMarker.removePath()
-            // notify callback
-            santaMarker.mapFragment.onSantaReachedDestination(destination)
-        }
+        override fun doFrame(frameTimeNanos: Long) {
+            if (!running) {
+                return
+            }
+            val marker = santaMarkerRef.get()
+            if (marker == null) {
+                running = false
+                return
+            }
+            // need to initialise, marker not set as animated yet
+            if (!isMoving) {
+                isMoving = true
+
+                // calculate heading and update icon
+                marker.heading = SphericalUtil.computeHeading(startLocation, destination)
+                marker.heading = (marker.heading + 360f) % 360f
+                marker.setMovingIcon()
+            }
 
-        override fun run() {
-            while (!stopThread) {
-                val marker = santaMarkerRef.get()
-                if (marker == null) {
-                    stopThread = true
-                    break
-                }
-                // need to initialise, marker not set as animated yet
-                val view = marker.mapFragment.view
-                if (!isMoving) {
+            val ticks = ticker.ticks(frameTimeNanos)
+            val now = clock.nowMillis()
+            // Don't go backwards, but it could be negative if this is started too early
+            val t = Math.max(calculateProgress(now), 0.0)
+            if (t >= 1.0) {
+                // reached final destination, stop moving
+                isMoving = false
+                running = false
+                marker.setCachedPosition(destination)
+                marker.removePath()
+                // notify callback
+                marker.mapFragment.onSantaReachedDestination(destination)
+                return
+            }
+            Choreographer.getInstance().postFrameCallback(this)
 
-                    isMoving = true
+            // Nothing to draw while the map is hidden
+            if (!marker.isOnScreen()) {
+                return
+            }
 
-                    // calculate heading and update icon
-                    marker.heading = SphericalUtil.computeHeading(startLocation,
-                            destination)
-                    marker.heading = (marker.heading + 360f) % 360f
+            greatCircle.interpolate(t, interpolated)
+            val position = LatLng(interpolated[0], interpolated[1])
+            // move marker and update path
+            marker.setMovingPosition(position)
+            val pathPointsLocal = pathPoints
+            val pathLocal = marker.path
+            if (pathLocal != null && pathPointsLocal != null) {
+                pathPointsLocal[1] = position
+                pathLocal.points = pathPointsLocal
+            }
 
-                    view?.handler?.postAtTime(setIconRunnable, TOKEN, SystemClock.uptimeMillis())
-                }
+            val zoom = marker.googleMap.cameraPosition?.zoom
+            if (zoom != null) {
+                PresentMarker.setViewParameters(zoom.toDouble(),
+                        marker.mapFragment.isFollowingSanta)
+            }
+            marker.mapFragment.onSantaIsMovingProgress(position, mArrival - now, now - mStart)
 
-                var t = calculateProgress(clock.nowMillis())
-
-                // Don't go backwards, but it could be negative if this thread is started too early
-                t = Math.max(t, 0.0)
-                // loop until finished or thread was notified to be stopped
-                if (t < 1.0 && !stopThread) {
-
-                    movementRunnable.position = calculatePositionProgress(t)
-                    // move marker and update path
-                    view?.handler?.postAtTime(movementRunnable, TOKEN,
-                            SystemClock.uptimeMillis())
-
-                    if (!marker.presentsDrawingPaused) {
-                        marker.presentMarkers?.let {
-                            for (p in it) {
-                                p?.draw()
-                            }
-                        }
-                    }
-
-                    try {
-                        Thread.sleep(REFRESH_RATE.toLong())
-                    } catch (e: InterruptedException) {
-                        this.stopThread = true
-                    }
-                } else {
-                    // reached final destination,stop moving
-                    isMoving = false
-                    stopThread = true
-                    marker.setCachedPosition(destination)
-
-                    view?.handler?.postAtTime(reachedDestinationRunnable, TOKEN,
-                            SystemClock.uptimeMillis())
-                }
+            if (!marker.presentsDrawingPaused) {
+                marker.drawPresents(ticks)
             }
         }
 
@@ -539,8 +564,9 @@ class SantaMarker internal constructor(
          * returned.
          */
         internal fun calculatePosition(timestamp: Long): LatLng {
-            val progress = calculateProgress(timestamp)
-            return calculatePositionProgress(progress)
+            val position = DoubleArray(2)
+            greatCircle.interpolate(calculateProgress(timestamp), position)
+            return LatLng(position[0], position[1])
         }
 
         /**
@@ -549,51 +575,6 @@ class SantaMarker internal constructor(
         private fun calculateProgress(currentTimestamp: Long): Double {
             return (currentTimestamp - mStart) / duration // linear progress
         }
-
-        /**
-         * Calculate the position for the given progress (start at 0, finished
-         * at 1).
-         */
-        private fun calculatePositionProgress(progress: Double): LatLng {
-
-            return SphericalUtil.interpolate(startLocation, destination, progress)
-        }
-
-        internal inner class MovementRunnable : Runnable {
-
-            var position: LatLng? = null
-
-            override fun run() {
-                val marker = santaMarkerRef.get() ?: return
-                marker.setMovingPosition(position)
-
-                val positionLocal = position
-                // update path if it is enabled
-                val pathPointsLocal = pathPoints
-                val pathLocal = marker.path
-                if (pathLocal != null && positionLocal != null && pathPointsLocal != null) {
-                    pathPointsLocal[1] = positionLocal
-                    pathLocal.points = pathPoints
-                }
-
-                val zoom = marker.googleMap.cameraPosition?.zoom
-                if (zoom != null) {
-                    PresentMarker.setViewParameters(zoom.toDouble(),
-                            marker.mapFragment.isFollowingSanta)
-                }
-
-                val time = clock.nowMillis()
-                marker.mapFragment.onSantaIsMovingProgress(position, mArrival - time, time - mStart)
-            }
-        }
-
-        companion object {
-
-            /**
-             * Refresh rate of this thread (it is called again every X ms.)
-             */
-            internal val REFRESH_RATE = 17
-        }
     }
 
     /**
@@ -615,7 +596,10 @@ class SantaMarker internal constructor(
          */
         internal val TITLE = "santa-marker"
 
-        private val TOKEN = Any()
+        /**
+         * Duration of one animation tick in ms, frame based animations advance once per tick.
+         */
+        internal const val REFRESH_RATE = 17
 
         // line colour
         private val lineColour = Color.parseColor("#AA109f65")
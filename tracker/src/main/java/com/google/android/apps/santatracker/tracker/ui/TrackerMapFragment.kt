@@ -58,6 +58,8 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
         val MARKER_PAST = "MARKER_PAST"
         val MARKER_NEXT = "MARKER_NEXT"
         val MARKER_ACTIVE = "MARKER_ACTIVE"
+        // zoom levels to zoom in by when a cluster of visited destinations is clicked
+        const val CLUSTER_ZOOM_STEP = 2f
     }
 
     @Inject
@@ -86,6 +88,9 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
     private var infoWindowAdapter: DestinationInfoWindowAdapter? = null
 
     private var markerIconVisited: BitmapDescriptor? = null
+
+    /** Markers for the destinations Santa has already visited, only set while the map is set up */
+    private var visitedLayer: VisitedDestinationLayer? = null
     private var trackerMapCallback: TrackerMapCallback? = null
     private var soundPlayer: TrackerSoundPlayer? = null
 
@@ -165,6 +170,9 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
         } else if (marker.title == MARKER_ACTIVE) {
             hideInfoWindow()
             true
+        } else if (marker.title == VisitedDestinationLayer.MARKER_CLUSTER) {
+            zoomIntoCluster(marker)
+            true
         } else {
             false
         }
@@ -196,8 +204,8 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
         }
 
         val visitedCountSoFar = visitedDestinations?.size ?: 0
-        for (i in visitedCountSoFar until visited.size) {
-            addVisitedLocation(visited[i])
+        if (visitedCountSoFar < visited.size) {
+            visitedLayer?.addAll(visited.subList(visitedCountSoFar, visited.size))
         }
         visitedDestinations = state.visitedDestinations
     }
@@ -232,6 +240,8 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
         super.onPause()
         getMapAsync {
             it.clear()
+            // its markers went with the rest of the map's
+            visitedLayer = null
         }
         santaMarker?.stopAnimations()
     }
@@ -281,6 +291,7 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
             }
         }
         map.setOnMarkerClickListener(markerClickListener)
+        map.setOnCameraIdleListener { visitedLayer?.update() }
         val activity = activity ?: return
         infoWindowAdapter = DestinationInfoWindowAdapter(activity.layoutInflater)
         map.setInfoWindowAdapter(infoWindowAdapter)
@@ -313,6 +324,9 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
         this.nextMarker = nextMarker
 
         markerIconVisited = createMarker(R.drawable.marker_pin)
+        val visitedLayer = VisitedDestinationLayer(activity, map, markerIconVisited, MARKER_PAST)
+        visitedLayer.addAll(visitedDestinations ?: emptyList())
+        this.visitedLayer = visitedLayer
     }
 
     private fun GoogleMap.whirl() {
@@ -353,6 +367,7 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
                 active.position = BOGUS_LOCATION
                 currentInfo.isVisible = true
                 currentInfoMarker = null
+                visitedLayer?.pinnedMarker = null
             }
         }
     }
@@ -410,6 +425,7 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
             }
             currentInfoMarker = pending
             pending.isVisible = false
+            visitedLayer?.pinnedMarker = pending
 
             updateActiveDestination(destination, currentInfoMarker)
             infoWindowAdapter?.setData(destination)
@@ -558,14 +574,15 @@ class TrackerMapFragment : SupportMapFragment(), SantaMarker.SantaMarkerInterfac
         return BitmapDescriptorFactory.fromBitmap(bitmap)
     }
 
-    private fun addVisitedLocation(destination: Destination) {
-        getMapAsync {
-            it.addMarker(MarkerOptions()
-                    .position(destination.latLng)
-                    .icon(markerIconVisited)
-                    .anchor(0.5f, 1f)
-                    .title(MARKER_PAST)
-                    .snippet(destination.id))
+    /**
+     * Zooms in on a cluster of visited destinations until they are drawn apart.
+     */
+    private fun zoomIntoCluster(marker: Marker) {
+        unfollowSanta()
+        hideInfoWindow()
+        getMapAsync { map ->
+            map.animateCamera(CameraUpdateFactory.newLatLngZoom(marker.position,
+                    map.cameraPosition.zoom + CLUSTER_ZOOM_STEP))
         }
     }
 
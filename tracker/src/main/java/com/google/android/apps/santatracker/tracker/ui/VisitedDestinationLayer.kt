@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.ui
+
+import android.content.Context
+import android.util.SparseArray
+import com.google.android.apps.santatracker.tracker.util.VisitedDestinationIndex
+import com.google.android.apps.santatracker.tracker.vo.Destination
+import com.google.android.gms.maps.GoogleMap
+import com.google.android.gms.maps.model.BitmapDescriptor
+import com.google.android.gms.maps.model.BitmapDescriptorFactory
+import com.google.android.gms.maps.model.LatLng
+import com.google.android.gms.maps.model.Marker
+import com.google.android.gms.maps.model.MarkerOptions
+import com.google.maps.android.ui.IconGenerator
+
+/**
+ * Draws the destinations Santa has already visited.
+ *
+ * By the end of the night there are over a thousand of them, so instead of keeping a marker per
+ * destination on the map, only the markers within the camera bounds are added, and at lower zoom
+ * levels destinations that are close together are drawn as a single cluster marker showing how
+ * many destinations it stands for. Call [update] whenever the camera settles.
+ */
+internal class VisitedDestinationLayer(
+    context: Context,
+    private val map: GoogleMap,
+    private val destinationIcon: BitmapDescriptor?,
+    private val destinationTitle: String
+) {
+
+    companion object {
+        const val MARKER_CLUSTER = "MARKER_CLUSTER"
+
+        /**
+         * Fraction of the visible region added to each side of it when picking the markers to
+         * show, so that short pans don't reveal missing markers before the camera settles.
+         */
+        private const val BOUNDS_MARGIN = 0.25
+
+        /** Cluster sizes are rounded down to one of these, so only a few icons are ever made. */
+        private val CLUSTER_LABEL_SIZES = intArrayOf(1000, 500, 250, 100, 50, 25, 10)
+    }
+
+    private val index = VisitedDestinationIndex()
+    private val markers = HashMap<String, Marker>()
+    private val markerSizes = HashMap<String, Int>()
+    private val clusters = ArrayList<VisitedDestinationIndex.Cluster>()
+    private val staleKeys = HashSet<String>()
+
+    private val iconGenerator = IconGenerator(context).apply { setStyle(IconGenerator.STYLE_RED) }
+    private val clusterIcons = SparseArray<BitmapDescriptor>()
+
+    /**
+     * A marker which is kept on the map even if it goes out of view, e.g. because its info window
+     * is showing.
+     */
+    var pinnedMarker: Marker? = null
+
+    val size: Int
+        get() = index.size
+
+    /** Adds a visited destination, showing it right away if it is in view. */
+    fun add(destination: Destination) {
+        index.add(destination)
+        update()
+    }
+
+    /** Adds several visited destinations, e.g. when the map is set up again. */
+    fun addAll(destinations: List<Destination>) {
+        for (destination in destinations) {
+            index.add(destination)
+        }
+        update()
+    }
+
+    /** Removes all the markers from the map and forgets all the destinations. */
+    fun clear() {
+        for (marker in markers.values) {
+            marker.remove()
+        }
+        markers.clear()
+        markerSizes.clear()
+        index.clear()
+        pinnedMarker = null
+    }
+
+    /** Brings the markers on the map in line with the camera's current bounds and zoom. */
+    fun update() {
+        val bounds = map.projection.visibleRegion.latLngBounds
+        val latitudeMargin = (bounds.northeast.latitude - bounds.southwest.latitude) * BOUNDS_MARGIN
+        var west = bounds.southwest.longitude
+        var east = bounds.northeast.longitude
+        val longitudeSpan = if (east >= west) east - west else east + 360 - west
+        val longitudeMargin = longitudeSpan * BOUNDS_MARGIN
+        if (longitudeSpan + 2 * longitudeMargin >= 360) {
+            west = -180.0
+            east = 180.0
+        } else {
+            west = wrapLongitude(west - longitudeMargin)
+            east = wrapLongitude(east + longitudeMargin)
+        }
+        index.query(map.cameraPosition.zoom,
+                bounds.southwest.latitude - latitudeMargin, west,
+                bounds.northeast.latitude + latitudeMargin, east,
+                clusters)
+
+        staleKeys.clear()
+        staleKeys.addAll(markers.keys)
+        for (cluster in clusters) {
+            val key = cluster.key
+            staleKeys.remove(key)
+            val marker = markers[key]
+            if (marker == null) {
+                markers[key] = addMarker(cluster)
+                markerSizes[key] = cluster.size
+            } else if (markerSizes[key] != cluster.size && marker != pinnedMarker) {
+                // a cluster that grew since it was drawn
+                marker.position = LatLng(cluster.latitude, cluster.longitude)
+                marker.setIcon(clusterIcon(cluster.size))
+                markerSizes[key] = cluster.size
+            }
+        }
+        for (key in staleKeys) {
+            val marker = markers[key]
+            if (marker != null && marker != pinnedMarker) {
+                marker.remove()
+                markers.remove(key)
+                markerSizes.remove(key)
+            }
+        }
+    }
+
+    private fun addMarker(cluster: VisitedDestinationIndex.Cluster): Marker {
+        return if (cluster.size == 1) {
+            map.addMarker(MarkerOptions()
+                    .position(cluster.destination.latLng)
+                    .icon(destinationIcon)
+                    .anchor(0.5f, 1f)
+                    .title(destinationTitle)
+                    .snippet(cluster.destination.id))
+        } else {
+            map.addMarker(MarkerOptions()
+                    .position(LatLng(cluster.latitude, cluster.longitude))
+                    .icon(clusterIcon(cluster.size))
+                    .anchor(iconGenerator.anchorU, iconGenerator.anchorV)
+                    .title(MARKER_CLUSTER))
+        }
+    }
+
+    private fun clusterIcon(size: Int): BitmapDescriptor {
+        val labelSize = CLUSTER_LABEL_SIZES.firstOrNull { size >= it } ?: size
+        return clusterIcons.get(labelSize) ?: BitmapDescriptorFactory.fromBitmap(
+                iconGenerator.makeIcon(if (labelSize == size) "$size" else "$labelSize+"))
+                .also { clusterIcons.put(labelSize, it) }
+    }
+
+    private fun wrapLongitude(longitude: Double): Double = when {
+        longitude < -180 -> longitude + 360
+        longitude > 180 -> longitude - 360
+        else -> longitude
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.util
+
+import com.google.android.apps.santatracker.tracker.vo.Destination
+import com.google.android.apps.santatracker.tracker.vo.StreamEntry
+
+/**
+ * Immutable index over Santa's route, built once after the route is loaded.
+ *
+ * Arrival, departure and present counts are copied into parallel primitive arrays so that
+ * "where is Santa", "what has he visited" and "how many presents has he delivered" at a given
+ * time are answered with a binary search and no allocation.
+ *
+ * @param destinations the destinations, ordered by arrival.
+ * @param streamEntries the stream entries, ordered by timestamp.
+ */
+class RouteTimeline(
+    val destinations: List<Destination>,
+    val streamEntries: List<StreamEntry> = emptyList()
+) {
+
+    companion object {
+        /**
+         * Percentage of presents to hand out when travelling between destinations
+         * (the rest is handed out when the destination is reached)
+         */
+        const val FACTOR_PRESENTS_TRAVELING: Double = 0.3
+
+        val EMPTY = RouteTimeline(emptyList())
+
+        /**
+         * @return the index of the first element of [values] greater than [target], or
+         *         `values.size` if there is none. [values] must be sorted in ascending order.
+         */
+        fun upperBound(values: LongArray, target: Long): Int {
+            var low = 0
+            var high = values.size
+            while (low < high) {
+                val mid = (low + high) ushr 1
+                if (values[mid] <= target) {
+                    low = mid + 1
+                } else {
+                    high = mid
+                }
+            }
+            return low
+        }
+
+        private fun interpolate(from: Long, to: Long, start: Long, end: Long, time: Long): Long {
+            return when {
+                time <= start -> from
+                time >= end -> to
+                else -> Math.round(from + (to - from) * ((time - start).toDouble() / (end - start)))
+            }
+        }
+    }
+
+    private val arrivals = LongArray(destinations.size)
+    private val departures = LongArray(destinations.size)
+
+    /** Presents delivered once Santa departs each destination. */
+    private val presents = LongArray(destinations.size)
+
+    /** Presents delivered once Santa arrives at each destination. */
+    private val presentsOnArrival = LongArray(destinations.size)
+
+    private val streamTimestamps = LongArray(streamEntries.size)
+
+    init {
+        for (i in destinations.indices) {
+            val destination = destinations[i]
+            arrivals[i] = destination.arrival
+            departures[i] = destination.departure
+            presents[i] = destination.presentsDelivered
+            presentsOnArrival[i] = if (i == 0) {
+                presents[0]
+            } else {
+                presents[i - 1] +
+                        Math.round((presents[i] - presents[i - 1]) * FACTOR_PRESENTS_TRAVELING)
+            }
+        }
+        for (i in streamEntries.indices) {
+            streamTimestamps[i] = streamEntries[i].timestamp
+        }
+    }
+
+    val size: Int
+        get() = arrivals.size
+
+    /**
+     * @return the number of destinations Santa has departed from at [time], which is also the
+     *         index of the destination he is at or travelling to.
+     */
+    fun destinationIndexAt(time: Long): Int = upperBound(departures, time)
+
+    /**
+     * @return the number of stream entries published at or before [time].
+     */
+    fun streamEntryIndexAt(time: Long): Int = upperBound(streamTimestamps, time)
+
+    /**
+     * @return the destinations Santa has departed from at [time], as a view over [destinations].
+     */
+    fun visitedAt(time: Long): List<Destination> = destinations.subList(0, destinationIndexAt(time))
+
+    /**
+     * @return whether Santa is travelling between two destinations at [time].
+     */
+    fun isTravelingAt(time: Long): Boolean {
+        val index = destinationIndexAt(time)
+        return index in 1 until size && time < arrivals[index]
+    }
+
+    /**
+     * @return the number of presents delivered at [time]. Most presents are handed out while
+     *         Santa is at a destination, the rest while travelling towards it.
+     */
+    fun presentsDeliveredAt(time: Long): Long {
+        if (size == 0) {
+            return 0
+        }
+        val index = destinationIndexAt(time)
+        return when {
+            index >= size -> presents[size - 1]
+            index > 0 && time < arrivals[index] -> interpolate(presents[index - 1],
+                    presentsOnArrival[index], departures[index - 1], arrivals[index], time)
+            else -> interpolate(presentsOnArrival[index], presents[index],
+                    arrivals[index], departures[index], time)
+        }
+    }
+
+    /**
+     * @return whether this timeline was built from these exact lists.
+     */
+    fun isFor(destinations: List<Destination>, streamEntries: List<StreamEntry>): Boolean {
+        return this.destinations === destinations && this.streamEntries === streamEntries
+    }
+}
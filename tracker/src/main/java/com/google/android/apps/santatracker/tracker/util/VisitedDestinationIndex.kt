@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.util
+
+import com.google.android.apps.santatracker.tracker.vo.Destination
+
+/**
+ * Spatial index over the destinations Santa has visited, used to draw only the markers that are
+ * on screen and to collapse dense regions into clusters when the map is zoomed out.
+ *
+ * Destinations are bucketed into a square grid over the Web Mercator projection for every zoom
+ * level up to [MAX_CLUSTER_ZOOM]. A grid cell at zoom z is [CLUSTER_SIZE_DP] wide on screen, so
+ * all the destinations in one cell are close enough to be drawn as a single cluster. Adding a
+ * destination only updates one cell per zoom level, and a query only looks at the cells within
+ * the requested bounds.
+ */
+class VisitedDestinationIndex {
+
+    companion object {
+        /** Size of a cluster on screen, in dp. */
+        const val CLUSTER_SIZE_DP = 64
+
+        /** Beyond this zoom level, every destination gets its own marker. */
+        const val MAX_CLUSTER_ZOOM = 10
+
+        /** Google Maps draws the whole world 256dp wide at zoom level 0. */
+        private const val WORLD_SIZE_DP = 256
+        private const val CELLS_AT_ZOOM_0 = WORLD_SIZE_DP / CLUSTER_SIZE_DP
+
+        /** The Mercator projection is cut off at this latitude. */
+        private const val MAX_LATITUDE = 85.05112878
+
+        /** @return the Web Mercator x coordinate of a longitude, between 0 and 1. */
+        fun projectX(longitude: Double): Double = (longitude + 180.0) / 360.0
+
+        /** @return the Web Mercator y coordinate of a latitude, between 0 (north) and 1 (south). */
+        fun projectY(latitude: Double): Double {
+            val sin = Math.sin(Math.toRadians(latitude.coerceIn(-MAX_LATITUDE, MAX_LATITUDE)))
+            return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)
+        }
+
+        private fun cellKey(column: Int, row: Int): Long =
+                (column.toLong() shl 32) or (row.toLong() and 0xffffffffL)
+    }
+
+    /**
+     * One marker's worth of destinations: either a group of destinations that are close together
+     * at some zoom level, or a single destination.
+     */
+    class Cluster internal constructor(
+        private val zoom: Int,
+        internal val column: Int,
+        internal val row: Int,
+        /** The first destination added to this cluster. */
+        val destination: Destination
+    ) {
+        /** Number of destinations in this cluster. */
+        var size = 0
+            private set
+
+        private var latitudeSum = 0.0
+        private var longitudeSum = 0.0
+
+        /**
+         * Destinations in this cluster, each as a cluster of its own. Only kept for the clusters
+         * at [MAX_CLUSTER_ZOOM], to answer queries beyond that zoom.
+         */
+        internal var members: MutableList<Cluster>? = null
+
+        /**
+         * Identifies the marker drawn for this cluster. A cluster of one destination has the same
+         * key as that destination at any zoom level, so its marker can stay put while zooming.
+         */
+        val key: String
+            get() = if (size == 1) destination.id else "$zoom/$column/$row"
+
+        /** Centroid of the destinations in this cluster. */
+        val latitude: Double
+            get() = latitudeSum / size
+
+        val longitude: Double
+            get() = longitudeSum / size
+
+        internal fun add(destination: Destination) {
+            size++
+            latitudeSum += destination.location.lat
+            longitudeSum += destination.location.lng
+        }
+    }
+
+    private val levels = Array(MAX_CLUSTER_ZOOM + 1) { HashMap<Long, Cluster>() }
+
+    /** Number of destinations in the index. */
+    var size = 0
+        private set
+
+    fun add(destination: Destination) {
+        val x = projectX(destination.location.lng)
+        val y = projectY(destination.location.lat)
+        for (zoom in 0..MAX_CLUSTER_ZOOM) {
+            val cellsPerSide = CELLS_AT_ZOOM_0 shl zoom
+            val column = (x * cellsPerSide).toInt().coerceIn(0, cellsPerSide - 1)
+            val row = (y * cellsPerSide).toInt().coerceIn(0, cellsPerSide - 1)
+            val cluster = levels[zoom].getOrPut(cellKey(column, row)) {
+                Cluster(zoom, column, row, destination)
+            }
+            cluster.add(destination)
+            if (zoom == MAX_CLUSTER_ZOOM) {
+                val leaf = Cluster(zoom + 1, column, row, destination)
+                leaf.add(destination)
+                val members = cluster.members ?: ArrayList<Cluster>(1).also { cluster.members = it }
+                members.add(leaf)
+            }
+        }
+        size++
+    }
+
+    fun clear() {
+        levels.forEach { it.clear() }
+        size = 0
+    }
+
+    /**
+     * Finds the clusters to draw at the given zoom level within the given bounds. The bounds
+     * cross the antimeridian when [west] is greater than [east].
+     *
+     * @param out the list to fill. It is cleared first, so callers can reuse the same list.
+     * @return [out], for convenience.
+     */
+    fun query(
+        zoom: Float,
+        south: Double,
+        west: Double,
+        north: Double,
+        east: Double,
+        out: MutableList<Cluster>
+    ): MutableList<Cluster> {
+        out.clear()
+        val level = zoom.toInt().coerceIn(0, MAX_CLUSTER_ZOOM)
+        val individual = zoom >= MAX_CLUSTER_ZOOM + 1
+        val cells = levels[level]
+        if (cells.isEmpty()) {
+            return out
+        }
+
+        val cellsPerSide = CELLS_AT_ZOOM_0 shl level
+        val firstColumn = (projectX(west) * cellsPerSide).toInt().coerceIn(0, cellsPerSide - 1)
+        val lastColumn = (projectX(east) * cellsPerSide).toInt().coerceIn(0, cellsPerSide - 1)
+        val firstRow = (projectY(north) * cellsPerSide).toInt().coerceIn(0, cellsPerSide - 1)
+        val lastRow = (projectY(south) * cellsPerSide).toInt().coerceIn(0, cellsPerSide - 1)
+        val wraps = firstColumn > lastColumn
+        val columns = if (wraps) {
+            cellsPerSide - firstColumn + lastColumn + 1
+        } else {
+            lastColumn - firstColumn + 1
+        }
+        val rows = lastRow - firstRow + 1
+
+        if (columns.toLong() * rows > cells.size) {
+            // Fewer clusters than cells in the bounds (e.g. zoomed out): check every cluster.
+            for (cluster in cells.values) {
+                val inColumns = if (wraps) {
+                    cluster.column >= firstColumn || cluster.column <= lastColumn
+                } else {
+                    cluster.column in firstColumn..lastColumn
+                }
+                if (inColumns && cluster.row in firstRow..lastRow) {
+                    addCluster(cluster, individual, out)
+                }
+            }
+        } else {
+            for (i in 0 until columns) {
+                val column = (firstColumn + i) % cellsPerSide
+                for (row in firstRow..lastRow) {
+                    cells[cellKey(column, row)]?.let { addCluster(it, individual, out) }
+                }
+            }
+        }
+        return out
+    }
+
+    private fun addCluster(cluster: Cluster, individual: Boolean, out: MutableList<Cluster>) {
+        val members = cluster.members
+        if (individual && members != null) {
+            out.addAll(members)
+        } else {
+            out.add(cluster)
+        }
+    }
+}
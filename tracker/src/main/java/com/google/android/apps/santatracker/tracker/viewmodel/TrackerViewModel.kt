@@ -27,7 +27,9 @@ import com.google.android.apps.santatracker.data.featureState
 import com.google.android.apps.santatracker.tracker.R
 import com.google.android.apps.santatracker.tracker.repository.SantaDataRepository
 import com.google.android.apps.santatracker.tracker.time.Clock
+import com.google.android.apps.santatracker.tracker.ui.CardStream
 import com.google.android.apps.santatracker.tracker.ui.PresentCounter
+import com.google.android.apps.santatracker.tracker.util.RouteTimeline
 import com.google.android.apps.santatracker.tracker.vo.Destination
 import com.google.android.apps.santatracker.tracker.vo.StreamEntry
 import com.google.android.apps.santatracker.tracker.vo.TrackerCard
@@ -51,11 +53,6 @@ class TrackerViewModel @Inject constructor(
 
     companion object {
         private const val TAG = "TrackerViewModel"
-        /**
-         * Percentage of presents to hand out when travelling between destinations
-         * (the rest is handed out when the destination is reached)
-         */
-        private const val FACTOR_PRESENTS_TRAVELING: Double = 0.3
 
         private val PRESENTS_FORMAT = NumberFormat.getNumberInstance(Locale.US)
 
@@ -75,7 +72,12 @@ class TrackerViewModel @Inject constructor(
     private val locationLabelCurrent: String
     private val locationLabelNext: String
 
-    private var presentCounter: PresentCounter = PresentCounter(0, 0, 0, 0)
+    /**
+     * Index over the route, rebuilt only when the destinations or stream entries change.
+     */
+    private var timeline = RouteTimeline.EMPTY
+
+    private var presentCounter: PresentCounter = PresentCounter(timeline)
 
     /**
      * List of all the destinations Santa visited or will visit.
@@ -90,9 +92,15 @@ class TrackerViewModel @Inject constructor(
     /**
      * The card stream.
      */
-    val stream: LiveData<List<TrackerCard>>
+    val stream: LiveData<CardStream>
         get() = _stream
-    private val _stream = MutableLiveData<List<TrackerCard>>()
+    private val _stream = MutableLiveData<CardStream>()
+
+    /**
+     * Builds the card stream. Posting snapshots of it rather than re-reading [_stream] means cards
+     * added in quick succession aren't lost while an earlier post is still pending.
+     */
+    private val streamBuilder = CardStream.Builder()
 
     /**
      * Santa's route related state including the santa's next destination and past visited
@@ -199,37 +207,18 @@ class TrackerViewModel @Inject constructor(
             return
         }
         val isTraveling = isSantaTraveling(destinationList)
-        val previousDestination = destinationList[destinationIndex - 1]
         val currentDestination = destinationList[destinationIndex]
-        val presentsAtDestination = previousDestination.presentsDelivered + Math.round(
-                (currentDestination.presentsDelivered - previousDestination.presentsDelivered) *
-                        FACTOR_PRESENTS_TRAVELING)
-        presentCounter = if (isTraveling) {
-            PresentCounter(previousDestination.presentsDelivered,
-                    presentsAtDestination,
-                    previousDestination.departure,
-                    currentDestination.arrival)
-        } else {
-            val delivered = previousDestination.presentsDelivered +
-                    (currentDestination.presentsDelivered - previousDestination.presentsDelivered) *
-                            ((clock.nowMillis() - currentDestination.arrival) /
-                                    (currentDestination.departure - currentDestination.arrival))
-            PresentCounter(delivered,
-                    currentDestination.presentsDelivered,
-                    currentDestination.arrival,
-                    currentDestination.departure)
-        }
         _locationLabel.postValue(if (isTraveling) {
             locationLabelNext
         } else {
             locationLabelCurrent
         })
         _location.postValue(currentDestination.city)
-        val visitedDestinations = destinationList.take(destinationIndex)
+        val visitedDestinations = destinationList.subList(0, destinationIndex)
         _santaState.postValue(
                 SantaState(isTraveling, currentDestination, visitedDestinations))
         _finishedTraveling.postValue(false)
-        val pastStreamEntries = streamEntryList.take(streamEntryIndex)
+        val pastStreamEntries = streamEntryList.subList(0, streamEntryIndex)
         initializeStream(
                 visitedDestinations,
                 pastStreamEntries,
@@ -267,11 +256,6 @@ class TrackerViewModel @Inject constructor(
             SantaLog.d(TAG, "Santa has finished traveling")
             return
         }
-        presentCounter = PresentCounter(
-                presentCounter.getDeliveredPresents(clock.nowMillis()),
-                destination.presentsDelivered,
-                destination.arrival,
-                destination.departure)
         SantaLog.d(TAG, "Santa visited " + destination.city)
         _locationLabel.postValue(locationLabelCurrent)
         _location.postValue(destination.city)
@@ -291,19 +275,12 @@ class TrackerViewModel @Inject constructor(
             SantaLog.d(TAG, "Santa departed the last destination")
             return
         }
-        val presentsAtDestination = (current.presentsDelivered +
-                Math.round((next.presentsDelivered - current.presentsDelivered) *
-                        FACTOR_PRESENTS_TRAVELING))
-        presentCounter = PresentCounter(current.presentsDelivered,
-                presentsAtDestination,
-                current.departure,
-                next.arrival)
         destinationIndex++
 
         _locationLabel.postValue(locationLabelNext)
         _location.postValue(next.city)
         _santaState.postValue(SantaState(true, next,
-                destinationList.take(destinationIndex)))
+                destinationList.subList(0, destinationIndex)))
         SantaLog.d(TAG, "Santa departed " + current.city + ". Next destination: " + next.city)
     }
 
@@ -344,11 +321,8 @@ class TrackerViewModel @Inject constructor(
 
     @SuppressLint("VisibleForTests")
     fun initializeStream(vararg cardLists: List<TrackerCard>) {
-        val list = mutableListOf<TrackerCard>()
-        cardLists.forEach { list.addAll(it) }
-        list.sortBy { it.value }
-        list.reverse()
-        _stream.postValue(list)
+        streamBuilder.reset(*cardLists)
+        _stream.postValue(streamBuilder.snapshot())
     }
 
     @SuppressLint("VisibleForTests")
@@ -365,10 +339,9 @@ class TrackerViewModel @Inject constructor(
     }
 
     private fun addToStream(card: TrackerCard) {
-        _stream.value?.let { trackerCards ->
-            _stream.postValue(trackerCards.toMutableList().apply {
-                add(0, card)
-            })
+        if (streamBuilder.isInitialized) {
+            streamBuilder.add(card)
+            _stream.postValue(streamBuilder.snapshot())
         }
     }
 
@@ -381,44 +354,12 @@ class TrackerViewModel @Inject constructor(
         if (destinationList.isEmpty()) {
             return
         }
-        destinationIndex = findIndex(timestamp, destinationList) + 1
-        streamEntryIndex = findIndex(timestamp, streamEntryList) + 1
-    }
-
-    /**
-     * Finds the corresponding index from the list of [TrackerCard].
-     * This function assumes the list is ordered in ascending order by the value of [TrackerCard].
-     *
-     * @return one of the following values:
-     *         <-1> if the target is less than all [TrackerCard] in the list or the list is empty
-     *         <n> where target <= list[n].value and target < list[n + 1].value
-     *         <list.size - 1> if the target is greater than all [TrackerCard] in the list
-     */
-    private fun findIndex(target: Long, list: List<TrackerCard>): Int {
-        if (list.isEmpty()) {
-            return -1
-        }
-        var low = 0
-        var high = list.size - 1
-        while (low < high) {
-            val mid = low + (high - low) / 2
-            if (mid <= 0 || target < list[0].value) {
-                return -1
-            } else if (mid >= list.size - 1 || target >= list[list.size - 1].value) {
-                return list.size - 1
-            } else if (list[mid - 1].value <= target && target < list[mid].value) {
-                return mid - 1
-            } else if (list[mid].value <= target && target < list[mid + 1].value) {
-                return mid
-            }
-
-            if (target < list[mid].value) {
-                high = mid - 1
-            } else {
-                low = mid + 1
-            }
+        if (!timeline.isFor(destinationList, streamEntryList)) {
+            timeline = RouteTimeline(destinationList, streamEntryList)
+            presentCounter = PresentCounter(timeline)
         }
-        return -1
+        destinationIndex = timeline.destinationIndexAt(timestamp)
+        streamEntryIndex = timeline.streamEntryIndexAt(timestamp)
     }
 
     /**
@@ -18,6 +18,8 @@ package com.google.android.apps.santatracker.tracker.api;
 
 import static junit.framework.Assert.fail;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
@@ -35,7 +37,14 @@ import com.google.firebase.FirebaseOptions;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageMetadata;
 import com.google.firebase.storage.StorageReference;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -58,7 +67,9 @@ public class FirebaseStorageFetcherTest {
     private static final String FILE_NAME = "routes/test-file.json";
     private static final String FILE_CONTENTS = "HELLO WORLD";
     private static long TASK_TIMEOUT_MS = 30 * 1000;
+    private static final int LARGE_FILE_BYTES = 4 * 1000 * 1000;
 
+    private Context mContext;
     private FirebaseStorage mStorage;
     private SharedPreferences mPreferences;
     private FirebaseStorageFetcher mFetcher;
@@ -67,6 +78,7 @@ public class FirebaseStorageFetcherTest {
     public void setUp() {
         // Context and logging
         Context context = RuntimeEnvironment.application;
+        mContext = context;
         ShadowLog.stream = System.out;
 
         // Initialize dummy firebase app
@@ -114,6 +126,118 @@ public class FirebaseStorageFetcherTest {
         assertEquals(loadTask.getResult(), FILE_CONTENTS);
     }
 
+    @Test
+    public void testFreshDownloadStream() throws Exception {
+        StorageReference reference = getMockStorageReference(FILE_NAME);
+        stubFirebaseStorageUpdatedTime(reference, System.currentTimeMillis());
+        stubFirebaseStorageContents(reference, FILE_CONTENTS);
+
+        Task<InputStream> loadTask =
+                waitForTask(mFetcher.getStream(FILE_NAME, 0, TimeUnit.SECONDS));
+
+        InputStream stream = loadTask.getResult();
+        byte[] buffer = new byte[FILE_CONTENTS.length() * 2];
+        int read = stream.read(buffer);
+        stream.close();
+        assertEquals(FILE_CONTENTS, new String(buffer, 0, read, "UTF-8"));
+    }
+
+    @Test
+    public void testFreshDownloadMapped() throws Exception {
+        StorageReference reference = getMockStorageReference(FILE_NAME);
+        stubFirebaseStorageUpdatedTime(reference, System.currentTimeMillis());
+        stubFirebaseStorageContents(reference, FILE_CONTENTS);
+
+        Task<ByteBuffer> loadTask =
+                waitForTask(mFetcher.getMapped(FILE_NAME, 0, TimeUnit.SECONDS));
+
+        ByteBuffer buffer = loadTask.getResult();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertEquals(FILE_CONTENTS, new String(bytes, "UTF-8"));
+    }
+
+    @Test
+    public void testCacheWriteLeavesNoTempFile() throws Exception {
+        StorageReference reference = getMockStorageReference(FILE_NAME);
+        stubFirebaseStorageUpdatedTime(reference, System.currentTimeMillis());
+        stubFirebaseStorageContents(reference, FILE_CONTENTS);
+
+        waitForTask(mFetcher.get(FILE_NAME, 0, TimeUnit.SECONDS));
+
+        String fileName = FILE_NAME.replace("/", "_");
+        assertTrue(new File(mContext.getCacheDir(), fileName).exists());
+        assertFalse(new File(mContext.getCacheDir(), fileName + ".tmp").exists());
+        assertEquals(FILE_CONTENTS, mFetcher.getCachedCopy(FILE_NAME));
+    }
+
+    @Test
+    public void testMappedFetchAllocatesLessThanStringFetch() throws Exception {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        final com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) bean;
+
+        // Run each fetch inline on a single worker thread so that its allocations can be
+        // counted, Tasks.await() cannot be called from the main thread.
+        final FirebaseStorageFetcher fetcher =
+                new FirebaseStorageFetcher(
+                        mContext,
+                        mPreferences,
+                        mStorage,
+                        new Executor() {
+                            @Override
+                            public void execute(Runnable command) {
+                                command.run();
+                            }
+                        });
+
+        char[] contents = new char[LARGE_FILE_BYTES];
+        Arrays.fill(contents, 'x');
+        StorageReference reference = getMockStorageReference(FILE_NAME);
+        stubFirebaseStorageUpdatedTime(reference, System.currentTimeMillis());
+        stubFirebaseStorageContents(reference, new String(contents));
+
+        final long[] allocated = new long[2];
+        final int[] sizes = new int[2];
+        Thread thread =
+                new Thread(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                long threadId = Thread.currentThread().getId();
+
+                                long before = allocations.getThreadAllocatedBytes(threadId);
+                                sizes[0] =
+                                        fetcher.get(FILE_NAME, 0, TimeUnit.SECONDS)
+                                                .getResult()
+                                                .length();
+                                allocated[0] =
+                                        allocations.getThreadAllocatedBytes(threadId) - before;
+
+                                before = allocations.getThreadAllocatedBytes(threadId);
+                                sizes[1] =
+                                        fetcher.getMapped(FILE_NAME, 0, TimeUnit.SECONDS)
+                                                .getResult()
+                                                .remaining();
+                                allocated[1] =
+                                        allocations.getThreadAllocatedBytes(threadId) - before;
+                            }
+                        });
+        thread.start();
+        thread.join();
+
+        assertEquals(LARGE_FILE_BYTES, sizes[0]);
+        assertEquals(LARGE_FILE_BYTES, sizes[1]);
+
+        // The String path holds at least one full copy of the payload, the mapped path none
+        assertTrue(allocated[0] >= LARGE_FILE_BYTES);
+        assertTrue(allocated[1] < LARGE_FILE_BYTES / 4);
+    }
+
     /** Wait for a task to be complete, avoids Tasks.await() main thread complaints. */
     private <T> Task<T> waitForTask(final Task<T> task) throws Exception {
         final long startTime = System.currentTimeMillis();
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.parser
+
+import com.google.android.apps.santatracker.tracker.vo.Destination
+import com.google.android.apps.santatracker.tracker.vo.Metadata
+import com.google.android.apps.santatracker.tracker.vo.StreamEntry
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.lang.management.ManagementFactory
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Compares parse time, allocation volume and peak heap of the Gson and streaming paths of
+ * [SantaParser] on a synthetic 10k destination route.
+ */
+class SantaParserBenchmark {
+
+    companion object {
+        private const val DESTINATIONS = 10000
+        private const val WARMUP_ITERATIONS = 3
+        private const val ITERATIONS = 5
+    }
+
+    private val json = SyntheticRoute.json(DESTINATIONS).toByteArray()
+
+    @Test
+    fun benchmarkParse() {
+        val parser = SantaParser()
+
+        val gson = measure("gson") {
+            val data = parser.parse(json.inputStream())
+            data.destinations.size
+        }
+        val streaming = measure("streaming") {
+            var count = 0
+            parser.parse(json.inputStream(), object : SantaParser.Sink {
+                override fun onDestination(destination: Destination) {
+                    count++
+                }
+
+                override fun onStreamEntry(streamEntry: StreamEntry) {}
+
+                override fun onMetadata(metadata: List<Metadata>) {}
+            })
+            count
+        }
+
+        println("SantaParserBenchmark: ${json.size} bytes, $DESTINATIONS destinations")
+        println(gson)
+        println(streaming)
+
+        // The streaming path never holds the intermediate ApiResponse graph.
+        if (gson.allocatedBytes > 0) {
+            assertTrue(streaming.allocatedBytes < gson.allocatedBytes)
+        }
+    }
+
+    private data class Result(
+        val name: String,
+        val averageMs: Double,
+        val allocatedBytes: Long,
+        val peakHeapBytes: Long
+    ) {
+        override fun toString(): String =
+                "  %-10s avg %8.2f ms  allocated %,14d B  peak heap delta %,14d B".format(
+                        name, averageMs, allocatedBytes, peakHeapBytes)
+    }
+
+    private fun measure(name: String, block: () -> Int): Result {
+        repeat(WARMUP_ITERATIONS) {
+            check(block() == DESTINATIONS)
+        }
+
+        var totalNanos = 0L
+        repeat(ITERATIONS) {
+            val start = System.nanoTime()
+            check(block() == DESTINATIONS)
+            totalNanos += System.nanoTime() - start
+        }
+
+        val runtime = Runtime.getRuntime()
+        System.gc()
+        val baseline = runtime.totalMemory() - runtime.freeMemory()
+        val peak = AtomicLong(baseline)
+        val sampling = AtomicBoolean(true)
+        val sampler = Thread {
+            while (sampling.get()) {
+                val used = runtime.totalMemory() - runtime.freeMemory()
+                if (used > peak.get()) {
+                    peak.set(used)
+                }
+                Thread.yield()
+            }
+        }
+        sampler.start()
+        val allocatedBefore = allocatedBytes()
+        check(block() == DESTINATIONS)
+        val allocated = allocatedBytes() - allocatedBefore
+        sampling.set(false)
+        sampler.join()
+
+        return Result(name, totalNanos / ITERATIONS / 1e6, allocated, peak.get() - baseline)
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 when the JVM cannot report it.
+     */
+    private fun allocatedBytes(): Long {
+        val bean = ManagementFactory.getThreadMXBean()
+        return if (bean is com.sun.management.ThreadMXBean &&
+                bean.isThreadAllocatedMemorySupported) {
+            bean.getThreadAllocatedBytes(Thread.currentThread().id)
+        } else {
+            0
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.parser
+
+import com.google.android.apps.santatracker.tracker.vo.Destination
+import com.google.android.apps.santatracker.tracker.vo.Metadata
+import com.google.android.apps.santatracker.tracker.vo.StreamEntry
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.CoreMatchers.nullValue
+import org.junit.Assert.assertThat
+import org.junit.Test
+
+/**
+ * Unit tests for [SantaParser]
+ */
+class SantaParserTest {
+
+    private val parser = SantaParser()
+
+    @Test
+    fun testStreamingParse_matchesGsonParse() {
+        val json = SyntheticRoute.json(500)
+
+        val expected = parser.parse(json.byteInputStream())
+        val actual = CollectingSink()
+        parser.parse(json.byteInputStream(), actual)
+
+        assertThat(actual.destinations, `is`(expected.destinations))
+        assertThat(actual.streamEntries.sortedBy { it.timestamp },
+                `is`(expected.streamEntries.sortedBy { it.timestamp }))
+        assertThat(actual.metadata, `is`(expected.metadata))
+    }
+
+    @Test
+    fun testStreamingParse_emitsRowsInOrder() {
+        val sink = CollectingSink()
+        parser.parse(SyntheticRoute.json(10, 8).byteInputStream(), sink)
+
+        assertThat(sink.destinations.map { it.id }, `is`((0 until 10).map { "d$it" }))
+        assertThat(sink.streamEntries.size, `is`(8))
+        assertThat(sink.destinations[0].photo?.attribution, `is`("Photo 0"))
+        assertThat(sink.destinations[0].streetView, nullValue())
+        assertThat(sink.destinations[0].timezone, nullValue())
+    }
+
+    @Test
+    fun testStreamingParse_metadata() {
+        val sink = CollectingSink()
+        parser.parse(SyntheticRoute.json(2).byteInputStream(), sink)
+
+        assertThat(sink.metadata, `is`(listOf(
+                Metadata(Metadata.KEY_STATUS, "OK"),
+                Metadata(Metadata.KEY_LANGUAGE, "en"),
+                Metadata(Metadata.KEY_FINGERPRINT, "fingerprint-2"))))
+    }
+
+    class CollectingSink : SantaParser.Sink {
+
+        val destinations = mutableListOf<Destination>()
+        val streamEntries = mutableListOf<StreamEntry>()
+        var metadata: List<Metadata> = emptyList()
+
+        override fun onDestination(destination: Destination) {
+            destinations.add(destination)
+        }
+
+        override fun onStreamEntry(streamEntry: StreamEntry) {
+            streamEntries.add(streamEntry)
+        }
+
+        override fun onMetadata(metadata: List<Metadata>) {
+            this.metadata = metadata
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.parser
+
+/**
+ * Builds a synthetic Santa JSON with the same shape as the production route, for tests and
+ * benchmarks that need more destinations than the bundled sample.
+ */
+object SyntheticRoute {
+
+    fun json(destinations: Int, streamEntries: Int = destinations / 4): String {
+        val builder = StringBuilder(destinations * 700)
+        builder.append("{\"status\":\"OK\",\"language\":\"en\",\"timeOffset\":0,")
+        builder.append("\"fingerprint\":\"fingerprint-").append(destinations).append("\",")
+        builder.append("\"clientSpecific\":{\"DisableCastButton\":true},")
+        builder.append("\"destinations\":[")
+        for (i in 0 until destinations) {
+            if (i > 0) builder.append(',')
+            val arrival = 1514109600000L + i * 60000L
+            builder.append("{\"id\":\"d").append(i).append("\",")
+                    .append("\"arrival\":").append(arrival).append(',')
+                    .append("\"departure\":").append(arrival + 30000L).append(',')
+                    .append("\"population\":").append(1000 + i).append(',')
+                    .append("\"presentsDelivered\":").append(i * 1000L).append(',')
+                    .append("\"city\":\"City ").append(i).append("\",")
+                    .append("\"region\":\"Region ").append(i % 50).append("\",")
+                    .append("\"location\":{\"lat\":").append((i % 170) - 85.0)
+                    .append(",\"lng\":").append((i % 360) - 180.0).append("},")
+                    .append("\"details\":{")
+                    .append("\"timezone\":").append(if (i % 7 == 0) "null" else "3600").append(',')
+                    .append("\"altitude\":").append(i % 300).append(',')
+                    .append("\"panoramio\":[{\"id\":\"1\",\"authorId\":\"2\"}],")
+                    .append("\"weather\":{\"url\":\"http://example.com/w").append(i)
+                    .append("\",\"tempC\":-3.5,\"tempF\":25.7},")
+                    .append("\"streetView\":")
+            if (i % 3 == 0) {
+                builder.append("null")
+            } else {
+                builder.append("{\"id\":\"sv").append(i)
+                        .append("\",\"latitude\":1.5,\"longitude\":2.5,\"heading\":90}")
+            }
+            builder.append(",\"photos\":[")
+                    .append("{\"url\":\"http://example.com/p").append(i)
+                    .append("\",\"attributionHtml\":\"Photo ").append(i).append("\"},")
+                    .append("{\"url\":\"http://example.com/q").append(i)
+                    .append("\",\"attributionhtml\":\"Other\"}]")
+                    .append("}}")
+        }
+        builder.append("],\"stream\":[")
+        for (i in 0 until streamEntries) {
+            if (i > 0) builder.append(',')
+            builder.append("{\"timestamp\":").append(1514109600000L + i * 120000L).append(',')
+            when (i % 4) {
+                0 -> builder.append("\"status\":\"Status ").append(i).append('"')
+                1 -> builder.append("\"didyouknow\":\"Fact ").append(i).append('"')
+                2 -> builder.append("\"imageUrl\":\"http://example.com/i").append(i).append('"')
+                else -> builder.append("\"youtubeId\":\"yt").append(i).append('"')
+            }
+            builder.append('}')
+        }
+        builder.append("],\"notificationStream\":[")
+        for (i in 0 until streamEntries / 10) {
+            if (i > 0) builder.append(',')
+            builder.append("{\"timestamp\":").append(1514109660000L + i * 120000L)
+                    .append(",\"status\":\"Notification ").append(i).append("\"}")
+        }
+        builder.append("]}")
+        return builder.toString()
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.ui
+
+import androidx.recyclerview.widget.RecyclerView
+import com.google.android.apps.santatracker.tracker.BuildConfig
+import com.google.android.apps.santatracker.tracker.parser.SantaParser
+import com.google.android.apps.santatracker.tracker.parser.SyntheticRoute
+import com.google.android.apps.santatracker.tracker.time.Clock
+import com.google.android.apps.santatracker.tracker.vo.DestinationStreetView
+import com.google.android.apps.santatracker.tracker.vo.StreamEntry
+import org.hamcrest.CoreMatchers.`is`
+import org.junit.Assert.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+/**
+ * Unit tests for [CardStream], and for how [CardAdapter] applies it
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [26], constants = BuildConfig::class)
+class CardStreamTest {
+
+    @Test
+    fun testFullRoute_bindsEachCardOnce() {
+        val route = SantaParser().parse(SyntheticRoute.json(1000).byteInputStream())
+        val cards = (route.destinations + route.streamEntries).sortedBy { it.value }
+        val initialCount = 20
+
+        val builder = CardStream.Builder()
+        val adapter = createAdapter()
+        val observer = BindCountingObserver(adapter)
+        builder.reset(cards.subList(0, initialCount))
+        adapter.setCards(builder.snapshot())
+        for (i in initialCount until cards.size) {
+            builder.add(cards[i])
+            // LiveData.postValue only delivers the latest of the values posted in quick
+            // succession, so the adapter sees some snapshots but not others.
+            if (i % 3 == 0 || i == cards.size - 1) {
+                adapter.setCards(builder.snapshot())
+            }
+        }
+
+        assertThat(observer.binds, `is`(cards.size))
+        assertThat(observer.fullRebinds, `is`(0))
+        // The dashboard, then the cards, newest first.
+        assertThat(adapter.itemCount, `is`(1 + cards.size))
+        assertThat((1 until adapter.itemCount).map { adapter.getItemId(it) },
+                `is`(cards.reversed().map { it.value }))
+    }
+
+    @Test
+    fun testNewestFirst() {
+        val builder = CardStream.Builder()
+        builder.reset(listOf(entry(3), entry(1)), listOf(entry(2)))
+        builder.add(entry(4))
+
+        assertThat(builder.snapshot().map { it.value }, `is`(listOf(4L, 3L, 2L, 1L)))
+    }
+
+    @Test
+    fun testSnapshotUnchangedByLaterCards() {
+        val builder = CardStream.Builder()
+        builder.reset(emptyList())
+        builder.add(entry(0))
+        val snapshot = builder.snapshot()
+        for (i in 1..1000) {
+            builder.add(entry(i.toLong()))
+        }
+
+        assertThat(snapshot.size, `is`(1))
+        assertThat(snapshot[0].value, `is`(0L))
+        assertThat(builder.snapshot().size, `is`(1001))
+        assertThat(builder.snapshot()[1000].value, `is`(0L))
+    }
+
+    @Test
+    fun testReset_rebindsEverything() {
+        val builder = CardStream.Builder()
+        val adapter = createAdapter()
+        val observer = BindCountingObserver(adapter)
+        builder.reset(listOf(entry(1), entry(2)))
+        adapter.setCards(builder.snapshot())
+        builder.reset(listOf(entry(1), entry(2), entry(3)))
+        adapter.setCards(builder.snapshot())
+
+        assertThat(observer.fullRebinds, `is`(1))
+        assertThat(observer.binds, `is`(5))
+    }
+
+    @Test
+    fun testNotInitialized() {
+        val builder = CardStream.Builder()
+        assertThat(builder.isInitialized, `is`(false))
+        builder.reset(emptyList())
+        assertThat(builder.isInitialized, `is`(true))
+    }
+
+    private fun entry(timestamp: Long) =
+            StreamEntry(timestamp, StreamEntry.TYPE_STATUS, false, "$timestamp")
+
+    private fun createAdapter(): CardAdapter {
+        val clock = object : Clock {
+            override fun nowMillis() = 0L
+            override fun formatTime(timestamp: Long): String? = null
+            override fun adjustedTime(time: Long) = time
+        }
+        val callback = object : CardAdapter.Callback {
+            override fun onPlayMovie(youtubeId: String) {}
+            override fun onStreetView(streetView: DestinationStreetView) {}
+        }
+        val recyclerView = RecyclerView(RuntimeEnvironment.application)
+        return CardAdapter(clock, callback, recyclerView, false, false)
+    }
+
+    /**
+     * Watches the notifications of a [CardAdapter], counting a bind for every card the
+     * RecyclerView would have to (re)bind: the inserted ones, or all of them when the whole data
+     * set changes.
+     */
+    private class BindCountingObserver(
+        private val adapter: CardAdapter
+    ) : RecyclerView.AdapterDataObserver() {
+
+        var binds = 0
+        var fullRebinds = 0
+
+        init {
+            adapter.registerAdapterDataObserver(this)
+        }
+
+        override fun onChanged() {
+            fullRebinds++
+            // Everything but the dashboard.
+            binds += adapter.itemCount - 1
+        }
+
+        override fun onItemRangeInserted(positionStart: Int, itemCount: Int) {
+            // New cards go straight below the dashboard.
+            assertThat(positionStart, `is`(1))
+            binds += itemCount
+        }
+
+        override fun onItemRangeRemoved(positionStart: Int, itemCount: Int) {
+            throw AssertionError("Cards are never removed")
+        }
+
+        override fun onItemRangeMoved(fromPosition: Int, toPosition: Int, itemCount: Int) {
+            throw AssertionError("Cards are never moved")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int) {
+            throw AssertionError("Cards never change")
+        }
+
+        override fun onItemRangeChanged(positionStart: Int, itemCount: Int, payload: Any?) {
+            throw AssertionError("Cards never change")
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.util
+
+import com.google.android.apps.santatracker.tracker.parser.SantaParser
+import com.google.android.apps.santatracker.tracker.parser.SyntheticRoute
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.lang.management.ManagementFactory
+
+/**
+ * Measures [RouteTimeline] lookups swept across a full synthetic route, reporting the average
+ * time and the bytes allocated per lookup.
+ */
+class RouteTimelineBenchmark {
+
+    companion object {
+        private const val DESTINATIONS = 10000
+        private const val WARMUP_ROUNDS = 5
+        private const val ROUNDS = 20
+        private const val STEPS = 100000
+    }
+
+    private val data = SantaParser().parse(SyntheticRoute.json(DESTINATIONS).byteInputStream())
+    private val timeline = RouteTimeline(data.destinations, data.streamEntries)
+    private val start = data.destinations.first().arrival
+    private val end = data.destinations.last().departure + 1
+    private val step = Math.max(1L, (end - start) / STEPS)
+
+    private var sink = 0L
+
+    @Test
+    fun benchmarkLookups() {
+        report("destinationIndexAt") { timeline.destinationIndexAt(it).toLong() }
+        report("streamEntryIndexAt") { timeline.streamEntryIndexAt(it).toLong() }
+        report("isTravelingAt") { if (timeline.isTravelingAt(it)) 1L else 0L }
+        report("presentsDeliveredAt") { timeline.presentsDeliveredAt(it) }
+        val allocated = report("visitedAt") { timeline.visitedAt(it).size.toLong() }
+
+        // visitedAt returns a view, so even it should stay far below one list copy per lookup
+        assertTrue(allocated < DESTINATIONS)
+        println("  (checksum $sink)")
+    }
+
+    /**
+     * @return the bytes allocated per lookup, or 0 when the JVM cannot report it.
+     */
+    private inline fun report(name: String, lookup: (Long) -> Long): Double {
+        repeat(WARMUP_ROUNDS) { sweep(lookup) }
+
+        val allocatedBefore = allocatedBytes()
+        val startNanos = System.nanoTime()
+        repeat(ROUNDS) { sweep(lookup) }
+        val elapsed = System.nanoTime() - startNanos
+        val allocated = allocatedBytes() - allocatedBefore
+
+        val lookups = ROUNDS.toLong() * ((end - start) / step)
+        val allocatedPerLookup = allocated.toDouble() / lookups
+        println("RouteTimelineBenchmark %-20s %8.1f ns/op %8.2f B/op".format(
+                name, elapsed.toDouble() / lookups, allocatedPerLookup))
+        return allocatedPerLookup
+    }
+
+    private inline fun sweep(lookup: (Long) -> Long) {
+        var time = start
+        var total = 0L
+        while (time < end) {
+            total += lookup(time)
+            time += step
+        }
+        sink += total
+    }
+
+    private fun allocatedBytes(): Long {
+        val bean = ManagementFactory.getThreadMXBean()
+        return if (bean is com.sun.management.ThreadMXBean &&
+                bean.isThreadAllocatedMemorySupported) {
+            bean.getThreadAllocatedBytes(Thread.currentThread().id)
+        } else {
+            0
+        }
+    }
+}
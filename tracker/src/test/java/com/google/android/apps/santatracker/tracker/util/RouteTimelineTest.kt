@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.util
+
+import com.google.android.apps.santatracker.tracker.vo.Destination
+import com.google.android.apps.santatracker.tracker.vo.DestinationLocation
+import com.google.android.apps.santatracker.tracker.vo.StreamEntry
+import org.hamcrest.CoreMatchers.`is`
+import org.junit.Assert.assertThat
+import org.junit.Test
+
+/**
+ * Unit tests for [RouteTimeline]
+ */
+class RouteTimelineTest {
+
+    private val destinations = listOf(
+            destination("takeoff", 0, 1000, 0),
+            destination("a", 2000, 3000, 100),
+            destination("b", 4000, 5000, 300))
+    private val streamEntries = listOf(
+            StreamEntry(1500, StreamEntry.TYPE_STATUS, false, "one"),
+            StreamEntry(4500, StreamEntry.TYPE_STATUS, false, "two"))
+    private val timeline = RouteTimeline(destinations, streamEntries)
+
+    @Test
+    fun testDestinationIndex() {
+        assertThat(timeline.destinationIndexAt(999), `is`(0))
+        assertThat(timeline.destinationIndexAt(1000), `is`(1))
+        assertThat(timeline.destinationIndexAt(2500), `is`(1))
+        assertThat(timeline.destinationIndexAt(3000), `is`(2))
+        assertThat(timeline.destinationIndexAt(6000), `is`(3))
+    }
+
+    @Test
+    fun testStreamEntryIndex() {
+        assertThat(timeline.streamEntryIndexAt(0), `is`(0))
+        assertThat(timeline.streamEntryIndexAt(1500), `is`(1))
+        assertThat(timeline.streamEntryIndexAt(9000), `is`(2))
+    }
+
+    @Test
+    fun testVisited() {
+        assertThat(timeline.visitedAt(500), `is`(emptyList()))
+        assertThat(timeline.visitedAt(3500), `is`(destinations.subList(0, 2)))
+    }
+
+    @Test
+    fun testIsTraveling() {
+        assertThat(timeline.isTravelingAt(500), `is`(false))
+        assertThat(timeline.isTravelingAt(1500), `is`(true))
+        assertThat(timeline.isTravelingAt(2500), `is`(false))
+        assertThat(timeline.isTravelingAt(3500), `is`(true))
+        assertThat(timeline.isTravelingAt(9000), `is`(false))
+    }
+
+    @Test
+    fun testPresentsDelivered() {
+        assertThat(timeline.presentsDeliveredAt(500), `is`(0L))
+        // 30% of the presents are handed out while travelling
+        assertThat(timeline.presentsDeliveredAt(1500), `is`(15L))
+        assertThat(timeline.presentsDeliveredAt(2000), `is`(30L))
+        assertThat(timeline.presentsDeliveredAt(2500), `is`(65L))
+        assertThat(timeline.presentsDeliveredAt(3000), `is`(100L))
+        assertThat(timeline.presentsDeliveredAt(4000), `is`(160L))
+        assertThat(timeline.presentsDeliveredAt(9000), `is`(300L))
+    }
+
+    @Test
+    fun testEmpty() {
+        assertThat(RouteTimeline.EMPTY.destinationIndexAt(1000), `is`(0))
+        assertThat(RouteTimeline.EMPTY.presentsDeliveredAt(1000), `is`(0L))
+        assertThat(RouteTimeline.EMPTY.isTravelingAt(1000), `is`(false))
+    }
+
+    private fun destination(id: String, arrival: Long, departure: Long, presents: Long) =
+            Destination(id, arrival, departure, 0, presents, id, "", DestinationLocation(0.0, 0.0),
+                    null, 0.0, null, null, null, null)
+}
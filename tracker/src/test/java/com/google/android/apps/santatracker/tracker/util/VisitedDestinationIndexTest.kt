@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019. Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.apps.santatracker.tracker.util
+
+import com.google.android.apps.santatracker.tracker.vo.Destination
+import com.google.android.apps.santatracker.tracker.vo.DestinationLocation
+import org.hamcrest.CoreMatchers.`is`
+import org.junit.Assert.assertThat
+import org.junit.Test
+
+/**
+ * Unit tests for [VisitedDestinationIndex]
+ */
+class VisitedDestinationIndexTest {
+
+    private val index = VisitedDestinationIndex()
+    private val out = ArrayList<VisitedDestinationIndex.Cluster>()
+
+    @Test
+    fun testClustersWhenZoomedOut() {
+        index.add(destination("paris", 48.86, 2.35))
+        index.add(destination("versailles", 48.80, 2.13))
+        index.add(destination("sydney", -33.87, 151.21))
+
+        index.query(2f, -85.0, -180.0, 85.0, 180.0, out)
+
+        assertThat(out.size, `is`(2))
+        val paris = out.first { it.size == 2 }
+        assertThat(paris.destination.id, `is`("paris"))
+        assertThat(paris.latitude, `is`((48.86 + 48.80) / 2))
+        assertThat(out.first { it.size == 1 }.key, `is`("sydney"))
+    }
+
+    @Test
+    fun testIndividualWhenZoomedIn() {
+        index.add(destination("paris", 48.86, 2.35))
+        index.add(destination("versailles", 48.80, 2.13))
+
+        index.query(VisitedDestinationIndex.MAX_CLUSTER_ZOOM + 1f, 48.0, 1.0, 49.0, 3.0, out)
+
+        assertThat(out.map { it.key }.sorted(), `is`(listOf("paris", "versailles")))
+        assertThat(out.all { it.size == 1 }, `is`(true))
+    }
+
+    @Test
+    fun testOnlyInBounds() {
+        index.add(destination("paris", 48.86, 2.35))
+        index.add(destination("sydney", -33.87, 151.21))
+
+        index.query(6f, 40.0, -10.0, 55.0, 20.0, out)
+
+        assertThat(out.map { it.key }, `is`(listOf("paris")))
+    }
+
+    @Test
+    fun testBoundsAcrossAntimeridian() {
+        index.add(destination("fiji", -18.14, 178.44))
+        index.add(destination("samoa", -13.83, -171.76))
+        index.add(destination("sydney", -33.87, 151.21))
+
+        index.query(5f, -25.0, 170.0, -10.0, -165.0, out)
+
+        assertThat(out.map { it.key }.sorted(), `is`(listOf("fiji", "samoa")))
+    }
+
+    @Test
+    fun testIncrementalAdd() {
+        index.query(3f, -85.0, -180.0, 85.0, 180.0, out)
+        assertThat(out.isEmpty(), `is`(true))
+
+        index.add(destination("paris", 48.86, 2.35))
+        index.query(3f, -85.0, -180.0, 85.0, 180.0, out)
+        assertThat(out.map { it.key }, `is`(listOf("paris")))
+
+        index.add(destination("versailles", 48.80, 2.13))
+        index.query(3f, -85.0, -180.0, 85.0, 180.0, out)
+        assertThat(out.size, `is`(1))
+        assertThat(out[0].size, `is`(2))
+        assertThat(index.size, `is`(2))
+    }
+
+    private fun destination(id: String, lat: Double, lng: Double) =
+            Destination(id, 0, 0, 0, 0, id, "", DestinationLocation(lat, lng),
+                    null, 0.0, null, null, null, null)
+}